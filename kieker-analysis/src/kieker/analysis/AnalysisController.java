@@ -54,6 +54,13 @@ import kieker.common.record.misc.KiekerMetadataRecord;
  * and load an analysis instance. It is responsible for the life cycle of the
  * readers, filters and repositories.
  *
+ * <p>
+ * By default, all filters are executed on the threads of the readers. Filters can run on their own thread behind a bounded queue instead,
+ * either by the annotation {@link kieker.analysis.plugin.annotation.Plugin#asynchronous()} or by listing their names in the property
+ * {@value IProjectContext#CONFIG_PROPERTY_NAME_ASYNCHRONOUS_PLUGINS}. On termination, each asynchronous filter processes its pending
+ * data after its incoming plugins have been terminated and before it is terminated itself (unless the analysis fails).
+ * </p>
+ *
  * @author Andre van Hoorn, Matthias Rohr, Nils Christian Ehmke, Jan Waller
  *
  * @since 0.95a
@@ -63,7 +70,9 @@ import kieker.common.record.misc.KiekerMetadataRecord;
 @Deprecated
 @kieker.analysis.annotation.AnalysisController(configuration = {
 	@Property(name = IProjectContext.CONFIG_PROPERTY_NAME_RECORDS_TIME_UNIT, defaultValue = "NANOSECONDS"),
-	@Property(name = IProjectContext.CONFIG_PROPERTY_NAME_PROJECT_NAME, defaultValue = "AnalysisProject") })
+	@Property(name = IProjectContext.CONFIG_PROPERTY_NAME_PROJECT_NAME, defaultValue = "AnalysisProject"),
+	@Property(name = IProjectContext.CONFIG_PROPERTY_NAME_ASYNCHRONOUS_PLUGINS, defaultValue = ""),
+	@Property(name = IProjectContext.CONFIG_PROPERTY_NAME_ASYNCHRONOUS_QUEUE_CAPACITY, defaultValue = "10000") })
 public final class AnalysisController implements IAnalysisController { // NOPMD (really long class)
 
 	static final Logger LOG = LoggerFactory.getLogger(AnalysisController.class); // NOPMD package for inner class
@@ -114,6 +123,11 @@ public final class AnalysisController implements IAnalysisController { // NOPMD
 	 */
 	private volatile STATE state = STATE.READY;
 
+	/**
+	 * This field is set if an asynchronous plugin fails while the analysis is already terminating.
+	 */
+	private volatile boolean failedWhileTerminating;
+
 	/**
 	 * This field contains the global configuration for the analysis.
 	 */
@@ -576,6 +590,9 @@ public final class AnalysisController implements IAnalysisController { // NOPMD
 		try {
 			synchronized (this) {
 				if (this.state != STATE.RUNNING) {
+					if (error && (this.state == STATE.TERMINATING)) {
+						this.failedWhileTerminating = true;
+					}
 					return;
 				}
 				this.state = STATE.TERMINATING;
@@ -591,7 +608,7 @@ public final class AnalysisController implements IAnalysisController { // NOPMD
 			for (final AbstractFilterPlugin filter : this.filters) {
 				filter.shutdown(error);
 			}
-			if (error) {
+			if (error || this.failedWhileTerminating) {
 				this.state = STATE.FAILED;
 			} else {
 				this.state = STATE.TERMINATED;
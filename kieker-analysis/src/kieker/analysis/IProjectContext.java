@@ -38,6 +38,14 @@ public interface IProjectContext {
 	 * This is the name of the property containing the project name.
 	 */
 	public static final String CONFIG_PROPERTY_NAME_PROJECT_NAME = "projectName";
+	/**
+	 * This is the name of the property containing the names of the plugins which run on their own thread (separated by '|').
+	 */
+	public static final String CONFIG_PROPERTY_NAME_ASYNCHRONOUS_PLUGINS = "asynchronousPlugins";
+	/**
+	 * This is the name of the property containing the capacity of the queue of each plugin running on its own thread.
+	 */
+	public static final String CONFIG_PROPERTY_NAME_ASYNCHRONOUS_QUEUE_CAPACITY = "asynchronousQueueCapacity";
 
 	/**
 	 * Delivers the value for the given (global) property within the analysis.
@@ -74,9 +74,12 @@ public class DeploymentModelAssembler {
 	}
 
 	private void addRecord(final String hostname, final String componentSignature, final String operationSignature) {
-		final DeploymentContext deploymentContext = this.addDeploymentContext(hostname);
-		final DeployedComponent component = this.addDeployedComponent(deploymentContext, componentSignature);
-		this.addDeployedOperation(component, operationSignature);
+		// the model may be read concurrently, e.g., by the workers of a ParallelTraceReconstructorStage
+		synchronized (this.deploymentModel) {
+			final DeploymentContext deploymentContext = this.addDeploymentContext(hostname);
+			final DeployedComponent component = this.addDeployedComponent(deploymentContext, componentSignature);
+			this.addDeployedOperation(component, operationSignature);
+		}
 	}
 
 	private DeploymentContext addDeploymentContext(final String hostname) {
@@ -16,7 +16,6 @@
 
 package kieker.analysis.plugin;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
@@ -62,12 +61,17 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractPlugin.class.getCanonicalName());
 
+	private static final int DEFAULT_ASYNCHRONOUS_QUEUE_CAPACITY = 10000;
+
 	private final ConcurrentHashMap<String, List<PluginInputPortReference>> registeredMethods;
 	private final ConcurrentHashMap<String, AbstractRepository> registeredRepositories;
-	private final Map<OutputPort, Class<?>[]> outputPortTypes; // NOCS
 	private final Map<String, RepositoryPort> repositoryPorts;
 	private final Map<String, OutputPort> outputPorts;
 	private final Map<String, InputPort> inputPorts;
+	private final OutputPortDispatcher[] outputPortDispatchers;
+	private final Map<String, OutputPortDispatcher> outputPortDispatchersByName;
+	/** The thread of this plugin or null if the plugin runs synchronously on the threads of its senders. */
+	private final AsynchronousPluginWorker asynchronousWorker;
 
 	// Shutdown mechanism
 	private final List<AbstractPlugin> incomingPlugins;
@@ -89,16 +93,19 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 		// Get all repository and output ports.
 		this.repositoryPorts = new ConcurrentHashMap<>();
 		this.outputPorts = new ConcurrentHashMap<>();
-		this.outputPortTypes = new ConcurrentHashMap<>(); // NOCS
 		final Plugin annotation = this.getClass().getAnnotation(Plugin.class);
 		for (final RepositoryPort repoPort : annotation.repositoryPorts()) {
 			if (this.repositoryPorts.put(repoPort.name(), repoPort) != null) {
 				this.logger.error("Two RepositoryPorts use the same name: {}", repoPort.name());
 			}
 		}
+		this.outputPortDispatchersByName = new ConcurrentHashMap<>();
 		// ignore possible outputPorts for IWebVisualizationFilters
 		if (!(this instanceof IWebVisualizationFilterPlugin)) {
-			for (final OutputPort outputPort : annotation.outputPorts()) {
+			final OutputPort[] annotatedOutputPorts = annotation.outputPorts();
+			this.outputPortDispatchers = new OutputPortDispatcher[annotatedOutputPorts.length];
+			for (int i = 0; i < annotatedOutputPorts.length; i++) {
+				final OutputPort outputPort = annotatedOutputPorts[i];
 				if (this.outputPorts.put(outputPort.name(), outputPort) != null) {
 					this.logger.error("Two OutputPorts use the same name: {}", outputPort.name());
 				}
@@ -106,9 +113,11 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 				if (outTypes.length == 0) {
 					outTypes = new Class<?>[] { Object.class };
 				}
-				this.outputPortTypes.put(outputPort, outTypes);
+				this.outputPortDispatchers[i] = new OutputPortDispatcher(i, outputPort, outTypes);
+				this.outputPortDispatchersByName.put(outputPort.name(), this.outputPortDispatchers[i]);
 			}
 		} else {
+			this.outputPortDispatchers = new OutputPortDispatcher[0];
 			// But inform the user about these invalid ports
 			for (final OutputPort outputPort : annotation.outputPorts()) {
 				this.logger.warn("Invalid port for visualization filter detected. Port is ignored: {}", outputPort.name());
@@ -161,6 +170,42 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 		// and a List for every incoming and outgoing plugin
 		this.incomingPlugins = new ArrayList<>(1); // usually only one incoming
 		this.outgoingPlugins = new ArrayList<>(1); // usually only one outgoing
+
+		if (!(this instanceof IReaderPlugin) && this.isConfiguredAsynchronous(annotation)) {
+			this.asynchronousWorker = new AsynchronousPluginWorker(this.getName(), projectContext, this.getAsynchronousQueueCapacity());
+		} else {
+			this.asynchronousWorker = null; // NOPMD (null)
+		}
+	}
+
+	private boolean isConfiguredAsynchronous(final Plugin annotation) {
+		if (annotation.asynchronous()) {
+			return true;
+		}
+		final String asynchronousPlugins = this.projectContext.getProperty(IProjectContext.CONFIG_PROPERTY_NAME_ASYNCHRONOUS_PLUGINS);
+		if ((asynchronousPlugins == null) || asynchronousPlugins.isEmpty()) {
+			return false;
+		}
+		for (final String pluginName : asynchronousPlugins.split("\\|")) {
+			if (pluginName.trim().equals(this.getName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int getAsynchronousQueueCapacity() {
+		final String capacity = this.projectContext.getProperty(IProjectContext.CONFIG_PROPERTY_NAME_ASYNCHRONOUS_QUEUE_CAPACITY);
+		try {
+			final int value = Integer.parseInt(capacity.trim());
+			if (value > 0) {
+				return value;
+			}
+		} catch (final NumberFormatException ex) { // NOPMD (empty catch)
+			// logged below
+		}
+		this.logger.warn("Invalid queue capacity {} for asynchronous plugins. Using {} instead.", capacity, DEFAULT_ASYNCHRONOUS_QUEUE_CAPACITY);
+		return DEFAULT_ASYNCHRONOUS_QUEUE_CAPACITY;
 	}
 
 	/**
@@ -173,70 +218,67 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 	 * @return true if and only if the given output port does exist and if the data is not null and if it suits the port's event types.
 	 */
 	protected final boolean deliver(final String outputPortName, final Object data) {
-		if (((this.state != STATE.RUNNING) && (this.state != STATE.TERMINATING)) || (data == null)) {
-			return false;
-		}
-		// discard this kind of record when encountered ...
-		if (data instanceof KiekerMetadataRecord) {
-			((AnalysisController) this.projectContext).handleKiekerMetadataRecord((KiekerMetadataRecord) data);
-			return true;
+		final OutputPortDispatcher dispatcher = this.outputPortDispatchersByName.get(outputPortName);
+		if (dispatcher == null) {
+			return this.isDeliveryPossible(data) && (data instanceof KiekerMetadataRecord) && this.deliverMetadataRecord(data);
 		}
+		return this.deliver(dispatcher, data);
+	}
 
-		// First step: Get the output port.
-		final OutputPort outputPort = this.outputPorts.get(outputPortName);
-		if (outputPort == null) {
-			return false;
+	/**
+	 * Delivers the given data to all registered input ports of the given output port. This variant avoids the lookup of the port by
+	 * its name and should be used by filters with a high event rate.
+	 *
+	 * @param outputPortIndex
+	 *            The index of the output port to be used to send the given data (see {@link #getOutputPortIndex(String)}).
+	 * @param data
+	 *            The data to be send; must not be null.
+	 * @return true if and only if the given output port does exist and if the data is not null and if it suits the port's event types.
+	 *
+	 * @since 1.15
+	 */
+	protected final boolean deliver(final int outputPortIndex, final Object data) {
+		if ((outputPortIndex < 0) || (outputPortIndex >= this.outputPortDispatchers.length)) {
+			return this.isDeliveryPossible(data) && (data instanceof KiekerMetadataRecord) && this.deliverMetadataRecord(data);
 		}
+		return this.deliver(this.outputPortDispatchers[outputPortIndex], data);
+	}
 
-		// Second step: Check whether the data fits the event types.
-		final Class<?>[] outTypes = this.outputPortTypes.get(outputPort);
-		boolean outTypeMatch = false;
-		for (final Class<?> eventType : outTypes) {
-			if (eventType.isInstance(data)) {
-				outTypeMatch = true;
-				break; // for
-			}
-		}
-		if (!outTypeMatch) {
+	private boolean deliver(final OutputPortDispatcher dispatcher, final Object data) {
+		if (!this.isDeliveryPossible(data)) {
 			return false;
 		}
+		// discard this kind of record when encountered ...
+		if (data instanceof KiekerMetadataRecord) {
+			return this.deliverMetadataRecord(data);
+		}
+		return dispatcher.dispatch(this, this.logger, data);
+	}
 
-		// Third step: Send everything to the registered ports.
-		final List<PluginInputPortReference> registeredPortMethods = this.registeredMethods.get(outputPortName);
+	private boolean isDeliveryPossible(final Object data) {
+		return ((this.state == STATE.RUNNING) || (this.state == STATE.TERMINATING)) && (data != null);
+	}
 
-		for (final PluginInputPortReference pluginInputPortReference : registeredPortMethods) {
-			// Check whether the data fits the event types.
-			Class<?>[] eventTypes = pluginInputPortReference.getEventTypes();
-			if (eventTypes.length == 0) {
-				eventTypes = new Class<?>[] { Object.class };
-			}
-			for (final Class<?> eventType : eventTypes) {
-				if (eventType.isAssignableFrom(data.getClass())) { // data instanceof eventType
-					try {
-						pluginInputPortReference.getInputPortMethod().invoke(pluginInputPortReference.getPlugin(), data);
-					} catch (final InvocationTargetException e) {
-						// This is an exception wrapped by invoke
-						final Throwable cause = e.getCause();
-						if (cause instanceof Error) {
-							// This is a severe case and there is little chance to terminate appropriately
-							throw (Error) cause;
-						} else {
-							this.logger.warn("Caught exception when sending data from {}: OutputPort {} to {}'s InputPort {}", this.getClass().getName(),
-									outputPort.name(), pluginInputPortReference.getPlugin().getClass().getName(),
-									pluginInputPortReference.getInputPortMethod().getName(), cause);
-						}
-					} catch (final Exception e) { // NOPMD NOCS (catch multiple)
-						// This is an exception wrapped by invoke
-						this.logger.error("Caught exception when invoking {}'s InputPort {}", pluginInputPortReference.getPlugin().getClass().getName(),
-								pluginInputPortReference.getInputPortMethod().getName(), e);
-					}
-					break; // for
-				}
-			}
-		}
+	private boolean deliverMetadataRecord(final Object data) {
+		((AnalysisController) this.projectContext).handleKiekerMetadataRecord((KiekerMetadataRecord) data);
 		return true;
 	}
 
+	/**
+	 * Delivers the index of the given output port which can be passed to {@link #deliver(int, Object)}. The index does not change during
+	 * the lifetime of the plugin. Hence, filters can determine it once in their constructor.
+	 *
+	 * @param outputPortName
+	 *            The name of the output port.
+	 * @return The index of the output port or -1 if the port does not exist.
+	 *
+	 * @since 1.15
+	 */
+	protected final int getOutputPortIndex(final String outputPortName) {
+		final OutputPortDispatcher dispatcher = this.outputPortDispatchersByName.get(outputPortName);
+		return (dispatcher == null) ? -1 : dispatcher.getIndex(); // NOCS (inline conditional)
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -291,7 +333,6 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 		for (final Method m : dst.getClass().getMethods()) {
 			final InputPort ip = m.getAnnotation(InputPort.class);
 			if ((ip != null) && (m.getParameterTypes().length == 1) && ip.name().equals(inputPortName)) {
-				src.outputPorts.get(outputPortName).eventTypes();
 				java.security.AccessController.doPrivileged(new PrivilegedAction<Object>() {
 					@Override
 					public Object run() {
@@ -299,7 +340,14 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 						return null;
 					}
 				});
-				src.registeredMethods.get(outputPortName).add(new PluginInputPortReference(dst, inputPortName, m, dst.inputPorts.get(inputPortName).eventTypes()));
+				final PluginInputPortReference reference = new PluginInputPortReference(dst, inputPortName, m, dst.inputPorts.get(inputPortName).eventTypes());
+				try {
+					src.outputPortDispatchersByName.get(outputPortName).addConnection(reference);
+				} catch (final IllegalAccessException ex) {
+					throw new AnalysisConfigurationException("Failed to connect plugin '" + src.getName() + "' (" + src.getPluginName() + ") to plugin '"
+							+ dst.getName() + "' (" + dst.getPluginName() + ").", ex);
+				}
+				src.registeredMethods.get(outputPortName).add(reference);
 				src.outgoingPlugins.add(dst);
 				dst.incomingPlugins.add(src);
 
@@ -554,7 +602,28 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 			return false;
 		}
 		this.state = STATE.RUNNING;
-		return this.init();
+		if (!this.init()) {
+			return false;
+		}
+		if (this.asynchronousWorker != null) {
+			this.asynchronousWorker.start();
+		}
+		return true;
+	}
+
+	/**
+	 * Delivers whether this plugin runs on its own thread behind a bounded queue (see {@link Plugin#asynchronous()}).
+	 *
+	 * @return true if and only if this plugin is asynchronous.
+	 *
+	 * @since 1.15
+	 */
+	public final boolean isAsynchronous() {
+		return this.asynchronousWorker != null;
+	}
+
+	final AsynchronousPluginWorker getAsynchronousWorker() {
+		return this.asynchronousWorker;
 	}
 
 	/**
@@ -576,6 +645,10 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 			plugin.shutdown(error);
 		}
 		// when we arrive here, all incoming plugins are terminated!
+		if (this.asynchronousWorker != null) {
+			// process the pending data (or discard it on errors)
+			this.asynchronousWorker.terminate(error);
+		}
 		this.terminate(error);
 		if (error) {
 			this.state = STATE.FAILED;
@@ -0,0 +1,153 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.plugin;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.analysis.AnalysisController;
+import kieker.analysis.IProjectContext;
+
+/**
+ * The thread of a plugin running asynchronously. The deliveries to the input ports of the plugin are put into a bounded queue and
+ * executed by this thread in the order of their arrival. A sender blocks as long as the queue is full.
+ *
+ * <p>
+ * The worker is stopped by {@link #terminate(boolean)} while the plugin is shut down, i.e., after all incoming plugins have been terminated.
+ * Without an error, the worker first executes all pending deliveries. If a delivery fails with an error, the worker discards the remaining
+ * deliveries and terminates the analysis with an error, just like a reader thread would do in the synchronous case.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+final class AsynchronousPluginWorker extends Thread {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AsynchronousPluginWorker.class);
+
+	/** Time after which a blocked sender checks whether the worker is still alive. */
+	private static final long OFFER_TIMEOUT_IN_MS = 100;
+
+	private static final Runnable END_OF_INPUT = new Runnable() {
+		@Override
+		public void run() {
+			// marker only
+		}
+	};
+
+	private final String pluginName;
+	private final IProjectContext projectContext;
+	private final BlockingQueue<Runnable> queue;
+
+	private volatile boolean aborted;
+	private volatile boolean finished;
+
+	/**
+	 * Creates a new worker. The worker has to be started separately.
+	 *
+	 * @param pluginName
+	 *            The name of the plugin (used for the thread name and for logging).
+	 * @param projectContext
+	 *            The project context of the plugin, which is terminated if a delivery fails with an error.
+	 * @param capacity
+	 *            The capacity of the queue.
+	 */
+	public AsynchronousPluginWorker(final String pluginName, final IProjectContext projectContext, final int capacity) {
+		super("Plugin worker of " + pluginName);
+		this.setDaemon(true);
+		this.pluginName = pluginName;
+		this.projectContext = projectContext;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+	}
+
+	/**
+	 * Enqueues the given delivery to an input port of the plugin. The calling thread blocks as long as the queue is full.
+	 *
+	 * @param delivery
+	 *            The delivery to be executed by this worker.
+	 */
+	public void enqueue(final Runnable delivery) {
+		try {
+			while (!this.queue.offer(delivery, OFFER_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS)) {
+				if (this.finished) {
+					LOGGER.debug("Discarded delivery to the terminated plugin {}", this.pluginName);
+					return;
+				}
+			}
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			LOGGER.warn("Interrupted while waiting for the queue of plugin {}. Delivery discarded.", this.pluginName);
+		}
+	}
+
+	@Override
+	public void run() {
+		try {
+			while (!this.aborted) {
+				final Runnable delivery = this.queue.take();
+				if (delivery == END_OF_INPUT) { // NOPMD (compare references)
+					break;
+				}
+				delivery.run();
+			}
+		} catch (final InterruptedException ex) {
+			LOGGER.warn("Worker of plugin {} has been interrupted. Pending deliveries are discarded.", this.pluginName, ex);
+		} catch (final Throwable t) { // NOPMD NOCS (we also want errors)
+			LOGGER.error("Exception in the worker of plugin {}.", this.pluginName, t);
+			// release blocked senders before the analysis waits for them
+			this.finished = true;
+			this.queue.clear();
+			((AnalysisController) this.projectContext).terminate(true);
+		} finally {
+			this.finished = true;
+			this.queue.clear();
+		}
+	}
+
+	/**
+	 * Stops this worker and waits for it. Without an error, the pending deliveries are executed first.
+	 *
+	 * @param error
+	 *            Whether the plugin is shut down due to an error; the pending deliveries are discarded in this case.
+	 */
+	public void terminate(final boolean error) {
+		if (this.getState() == State.NEW) {
+			return; // never started, e.g., because the initialization of the plugin failed
+		}
+		if (Thread.currentThread() == this) { // NOPMD (compare references)
+			// the analysis is terminated by our own delivery; we cannot wait for ourselves
+			this.aborted = true;
+			return;
+		}
+		if (error) {
+			this.aborted = true;
+			this.queue.clear();
+		}
+		this.enqueue(END_OF_INPUT);
+		try {
+			this.join();
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			LOGGER.warn("Interrupted while waiting for the worker of plugin {}.", this.pluginName);
+		}
+	}
+}
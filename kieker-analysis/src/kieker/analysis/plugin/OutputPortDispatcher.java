@@ -0,0 +1,265 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.plugin;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+
+import kieker.analysis.plugin.IPlugin.PluginInputPortReference;
+import kieker.analysis.plugin.annotation.OutputPort;
+
+/**
+ * The pre-resolved dispatch of a single output port of an {@link AbstractPlugin}. Each connection is compiled into a
+ * {@link MethodHandle} bound to the receiving plugin when it is established, instead of calling {@link Method#invoke(Object, Object...)}
+ * for each event. The result of the type checks of the output port and of the connected input ports only depends on the
+ * concrete class of an event. Hence, it is computed once per class and cached. Deliveries to asynchronous plugins are passed to their
+ * {@link AsynchronousPluginWorker}.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+final class OutputPortDispatcher {
+
+	private static final MethodType INPUT_PORT_TYPE = MethodType.methodType(void.class, Object.class);
+	private static final Target[] NO_TARGETS = new Target[0];
+	private static final DispatchPlan NO_MATCH = new DispatchPlan(void.class, null); // no event has this class
+
+	private final int index;
+	private final OutputPort outputPort;
+	private final Class<?>[] outTypes;
+	private final ConcurrentHashMap<Class<?>, DispatchPlan> plans = new ConcurrentHashMap<>();
+
+	private volatile Target[] targets = NO_TARGETS;
+	/** The most recently used plan; most ports transport events of a single class only. */
+	private volatile DispatchPlan lastPlan = NO_MATCH;
+
+	/**
+	 * Creates a new dispatcher without connections.
+	 *
+	 * @param index
+	 *            The index of the output port within the plugin.
+	 * @param outputPort
+	 *            The annotation of the output port.
+	 * @param outTypes
+	 *            The event types of the output port; must not be empty.
+	 */
+	public OutputPortDispatcher(final int index, final OutputPort outputPort, final Class<?>[] outTypes) {
+		this.index = index;
+		this.outputPort = outputPort;
+		this.outTypes = outTypes;
+	}
+
+	public int getIndex() {
+		return this.index;
+	}
+
+	/**
+	 * Compiles a new connection of this output port. This is only called while the plugins are not yet running.
+	 *
+	 * @param reference
+	 *            The connected input port; its method must already be accessible.
+	 *
+	 * @throws IllegalAccessException
+	 *             If the input port method cannot be accessed.
+	 */
+	public synchronized void addConnection(final PluginInputPortReference reference) throws IllegalAccessException {
+		final Method method = reference.getInputPortMethod();
+		final MethodHandle handle = MethodHandles.lookup().unreflect(method).bindTo(reference.getPlugin()).asType(INPUT_PORT_TYPE);
+		Class<?>[] eventTypes = reference.getEventTypes();
+		if (eventTypes.length == 0) {
+			eventTypes = new Class<?>[] { Object.class };
+		}
+		final Class<?> parameterType = MethodType.methodType(method.getParameterTypes()[0]).wrap().returnType();
+
+		final Target[] newTargets = Arrays.copyOf(this.targets, this.targets.length + 1);
+		newTargets[newTargets.length - 1] = new Target(reference, handle, eventTypes, parameterType);
+		this.targets = newTargets;
+		// the cached plans do not know the new connection
+		this.plans.clear();
+		this.lastPlan = NO_MATCH;
+	}
+
+	/**
+	 * Sends the given event to all connected input ports accepting it.
+	 *
+	 * @param sender
+	 *            The sending plugin (used for logging).
+	 * @param logger
+	 *            The logger of the sending plugin.
+	 * @param data
+	 *            The event; must not be null.
+	 * @return true if and only if the event suits the event types of the output port.
+	 */
+	public boolean dispatch(final AbstractPlugin sender, final Logger logger, final Object data) {
+		final Class<?> eventClass = data.getClass();
+		DispatchPlan plan = this.lastPlan;
+		if (plan.eventClass != eventClass) { // NOPMD (compare references)
+			plan = this.plans.get(eventClass);
+			if (plan == null) {
+				plan = this.createPlan(eventClass);
+				this.plans.putIfAbsent(eventClass, plan);
+			}
+			this.lastPlan = plan;
+		}
+
+		final Target[] planTargets = plan.targets;
+		if (planTargets == null) {
+			return false;
+		}
+		for (final Target target : planTargets) {
+			target.invoke(sender, logger, this.outputPort, data);
+		}
+		return true;
+	}
+
+	private DispatchPlan createPlan(final Class<?> eventClass) {
+		boolean outTypeMatch = false;
+		for (final Class<?> eventType : this.outTypes) {
+			if (eventType.isAssignableFrom(eventClass)) {
+				outTypeMatch = true;
+				break; // for
+			}
+		}
+		if (!outTypeMatch) {
+			return new DispatchPlan(eventClass, null);
+		}
+
+		final List<Target> matchingTargets = new ArrayList<>(this.targets.length);
+		for (final Target target : this.targets) {
+			for (final Class<?> eventType : target.eventTypes) {
+				if (eventType.isAssignableFrom(eventClass)) { // data instanceof eventType
+					matchingTargets.add(target.parameterType.isAssignableFrom(eventClass) ? target : target.incompatible()); // NOCS (inline conditional)
+					break; // for
+				}
+			}
+		}
+		return new DispatchPlan(eventClass, matchingTargets.toArray(new Target[matchingTargets.size()]));
+	}
+
+	/**
+	 * The cached result of the type checks for a single event class.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 1.15
+	 */
+	private static final class DispatchPlan {
+
+		final Class<?> eventClass; // NOCS (package visible field)
+		/** The input ports receiving the events or null if the output port does not accept the events. */
+		final Target[] targets; // NOCS (package visible field)
+
+		public DispatchPlan(final Class<?> eventClass, final Target[] targets) {
+			this.eventClass = eventClass;
+			this.targets = targets;
+		}
+	}
+
+	/**
+	 * A compiled connection to an input port.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 1.15
+	 */
+	private static final class Target {
+
+		final Class<?>[] eventTypes; // NOCS (package visible field)
+		final Class<?> parameterType; // NOCS (package visible field)
+		private final PluginInputPortReference reference;
+		private final AbstractPlugin receiver;
+		/** The handle of the input port or null if the parameter of the input port does not accept the event class. */
+		private final MethodHandle handle;
+
+		public Target(final PluginInputPortReference reference, final MethodHandle handle, final Class<?>[] eventTypes, final Class<?> parameterType) {
+			this.reference = reference;
+			this.receiver = (AbstractPlugin) reference.getPlugin();
+			this.handle = handle;
+			this.eventTypes = eventTypes;
+			this.parameterType = parameterType;
+		}
+
+		public Target incompatible() {
+			return new Target(this.reference, null, this.eventTypes, this.parameterType);
+		}
+
+		public void invoke(final AbstractPlugin sender, final Logger logger, final OutputPort outputPort, final Object data) {
+			final AsynchronousPluginWorker worker = this.receiver.getAsynchronousWorker();
+			if ((worker != null) && (worker != Thread.currentThread())) { // NOPMD (compare references)
+				worker.enqueue(new PendingDelivery(this, sender, logger, outputPort, data));
+			} else {
+				this.invokeDirectly(sender, logger, outputPort, data);
+			}
+		}
+
+		void invokeDirectly(final AbstractPlugin sender, final Logger logger, final OutputPort outputPort, final Object data) {
+			if (this.handle == null) {
+				// Method.invoke would throw this exception before calling the input port
+				logger.error("Caught exception when invoking {}'s InputPort {}", this.receiver.getClass().getName(),
+						this.reference.getInputPortMethod().getName(), new IllegalArgumentException("argument type mismatch"));
+				return;
+			}
+			try {
+				this.handle.invokeExact(data);
+			} catch (final Error e) { // NOPMD NOCS (catch error)
+				// This is a severe case and there is little chance to terminate appropriately
+				throw e;
+			} catch (final Throwable e) { // NOPMD NOCS (catch throwable)
+				logger.warn("Caught exception when sending data from {}: OutputPort {} to {}'s InputPort {}", sender.getClass().getName(),
+						outputPort.name(), this.receiver.getClass().getName(), this.reference.getInputPortMethod().getName(), e);
+			}
+		}
+	}
+
+	/**
+	 * A delivery to an input port of an asynchronous plugin, which is executed by the {@link AsynchronousPluginWorker} of the plugin.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 1.15
+	 */
+	private static final class PendingDelivery implements Runnable {
+
+		private final Target target;
+		private final AbstractPlugin sender;
+		private final Logger logger;
+		private final OutputPort outputPort;
+		private final Object data;
+
+		public PendingDelivery(final Target target, final AbstractPlugin sender, final Logger logger, final OutputPort outputPort, final Object data) {
+			this.target = target;
+			this.sender = sender;
+			this.logger = logger;
+			this.outputPort = outputPort;
+			this.data = data;
+		}
+
+		@Override
+		public void run() {
+			this.target.invokeDirectly(this.sender, this.logger, this.outputPort, this.data);
+		}
+	}
+}
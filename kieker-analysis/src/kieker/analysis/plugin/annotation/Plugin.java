@@ -45,6 +45,17 @@ public @interface Plugin {
 	 */
 	boolean programmaticOnly() default false;
 
+	/**
+	 * This flag determines whether the annotated plugin runs on its own thread behind a bounded queue. Deliveries to the input ports of
+	 * an asynchronous plugin return as soon as the data has been queued. Plugins can also be made asynchronous by the project property
+	 * {@link kieker.analysis.IProjectContext#CONFIG_PROPERTY_NAME_ASYNCHRONOUS_PLUGINS}. Readers are never asynchronous.
+	 *
+	 * @return Whether the plugin is asynchronous.
+	 *
+	 * @since 1.15
+	 */
+	boolean asynchronous() default false;
+
 	/**
 	 * The human-readable description of this plugin.
 	 * 
@@ -17,18 +17,12 @@
 package kieker.analysis.plugin.filter.flow;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -40,6 +34,7 @@ import kieker.analysis.plugin.annotation.OutputPort;
 import kieker.analysis.plugin.annotation.Plugin;
 import kieker.analysis.plugin.annotation.Property;
 import kieker.analysis.plugin.filter.AbstractFilterPlugin;
+import kieker.analysis.util.TraceTimeoutIndex;
 import kieker.common.configuration.Configuration;
 import kieker.common.record.flow.IFlowRecord;
 import kieker.common.record.flow.trace.AbstractTraceEvent;
@@ -58,6 +53,7 @@ import kieker.common.record.flow.trace.operation.constructor.object.BeforeConstr
 import kieker.common.record.flow.trace.operation.object.AfterOperationFailedObjectEvent;
 import kieker.common.record.flow.trace.operation.object.AfterOperationObjectEvent;
 import kieker.common.record.flow.trace.operation.object.BeforeOperationObjectEvent;
+import kieker.common.util.collection.LongObjectHashMap;
 
 /**
  * @author Jan Waller
@@ -135,7 +131,10 @@ public final class EventRecordTraceReconstructionFilter extends AbstractFilterPl
 	private final boolean repairEventBasedTracesEnabled;
 	private long maxEncounteredLoggingTimestamp = -1;
 
-	private final Map<Long, TraceBuffer> traceId2trace;
+	/** The open traces by their trace id; only accessed while synchronized on this filter. */
+	private final LongObjectHashMap<TraceBuffer> traceId2trace;
+	/** The open traces ordered by their expiry; only used if a timeout is set. */
+	private final TraceTimeoutIndex<TraceBuffer> timeoutIndex;
 
 	/**
 	 * Creates a new instance of this class using the given parameters.
@@ -168,7 +167,8 @@ public final class EventRecordTraceReconstructionFilter extends AbstractFilterPl
 		this.maxTraceTimeout = this.timeunit
 				.convert(configuration.getLongProperty(CONFIG_PROPERTY_NAME_MAX_TRACE_TIMEOUT), configTimeunit);
 		this.hasTimeout = (this.maxTraceTimeout != Long.MAX_VALUE) || (this.maxTraceDuration != Long.MAX_VALUE);
-		this.traceId2trace = new ConcurrentHashMap<>();
+		this.traceId2trace = new LongObjectHashMap<>();
+		this.timeoutIndex = new TraceTimeoutIndex<>(this.maxTraceDuration, this.maxTraceTimeout);
 	}
 
 	/**
@@ -214,50 +214,40 @@ public final class EventRecordTraceReconstructionFilter extends AbstractFilterPl
 	@InputPort(name = INPUT_PORT_NAME_TRACE_RECORDS, description = "Reconstruct traces from incoming flow records",
 			eventTypes = { TraceMetadata.class, AbstractTraceEvent.class })
 	public void newEvent(final IFlowRecord record) {
-		final Long traceId;
-		TraceBuffer traceBuffer;
+		final long traceId;
+		final TraceBuffer traceBuffer;
 		final long loggingTimestamp;
+		final boolean startMovedBackwards;
 		if (record instanceof TraceMetadata) {
 			traceId = ((TraceMetadata) record).getTraceId();
-			traceBuffer = this.traceId2trace.get(traceId);
-			if (traceBuffer == null) { // first record for this id!
-				synchronized (this) {
-					traceBuffer = this.traceId2trace.get(traceId);
-					if (traceBuffer == null) { // NOCS (DCL)
-						traceBuffer = new TraceBuffer();
-						traceBuffer.setRepairEventBasedTracesEnabled(this.repairEventBasedTracesEnabled);
-						this.traceId2trace.put(traceId, traceBuffer);
-					}
-				}
-			}
+			traceBuffer = this.getTraceBuffer(traceId);
 			traceBuffer.setTrace((TraceMetadata) record);
 			loggingTimestamp = -1;
+			startMovedBackwards = false;
 		} else if (record instanceof AbstractTraceEvent) {
 			traceId = ((AbstractTraceEvent) record).getTraceId();
-			traceBuffer = this.traceId2trace.get(traceId);
-			if (traceBuffer == null) { // first record for this id!
-				synchronized (this) {
-					traceBuffer = this.traceId2trace.get(traceId);
-					if (traceBuffer == null) { // NOCS (DCL)
-						traceBuffer = new TraceBuffer();
-						traceBuffer.setRepairEventBasedTracesEnabled(this.repairEventBasedTracesEnabled);
-						this.traceId2trace.put(traceId, traceBuffer);
-					}
-				}
-			}
+			traceBuffer = this.getTraceBuffer(traceId);
+			final long minLoggingTimestamp = traceBuffer.getMinLoggingTimestamp();
 			traceBuffer.insertEvent((AbstractTraceEvent) record);
 			loggingTimestamp = ((AbstractTraceEvent) record).getTimestamp();
+			startMovedBackwards = traceBuffer.getMinLoggingTimestamp() < minLoggingTimestamp;
 		} else {
 			return; // invalid type which should not happen due to the specified eventTypes
 		}
 		if (traceBuffer.isFinished()) {
 			synchronized (this) { // has to be synchronized because of timeout cleanup
 				this.traceId2trace.remove(traceId);
+				if (this.hasTimeout) {
+					this.timeoutIndex.remove(traceId);
+				}
 			}
 			super.deliver(OUTPUT_PORT_NAME_TRACE_VALID, traceBuffer.toTraceEvents());
 		}
 		if (this.hasTimeout) {
 			synchronized (this) {
+				if (startMovedBackwards) {
+					this.timeoutIndex.update(traceId, traceBuffer);
+				}
 				// can we assume a rough order of logging timestamps? (yes, except with DB
 				// reader)
 				if (loggingTimestamp > this.maxEncounteredLoggingTimestamp) {
@@ -268,15 +258,28 @@ public final class EventRecordTraceReconstructionFilter extends AbstractFilterPl
 		}
 	}
 
+	private TraceBuffer getTraceBuffer(final long traceId) {
+		synchronized (this) { // the map is not thread-safe
+			TraceBuffer traceBuffer = this.traceId2trace.get(traceId);
+			if (traceBuffer == null) { // first record for this id!
+				traceBuffer = new TraceBuffer();
+				traceBuffer.setRepairEventBasedTracesEnabled(this.repairEventBasedTracesEnabled);
+				this.traceId2trace.put(traceId, traceBuffer);
+				if (this.hasTimeout) {
+					this.timeoutIndex.add(traceId, traceBuffer);
+				}
+			}
+			return traceBuffer;
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public void terminate(final boolean error) {
 		synchronized (this) {
-			final Collection<Long> sortedTraceIds = this.getSortedTraceIds(this.traceId2trace.keySet());
-
-			for (final Long traceId : sortedTraceIds) {
+			for (final long traceId : this.getSortedTraceIds()) {
 				final TraceBuffer traceBuffer = this.traceId2trace.get(traceId);
 				if (this.repairEventBasedTracesEnabled && !traceBuffer.getEventStack().isEmpty()) {
 					traceBuffer.repairAllBeforeEventsLeftInStackAtTermination();
@@ -290,28 +293,19 @@ public final class EventRecordTraceReconstructionFilter extends AbstractFilterPl
 			}
 
 			this.traceId2trace.clear();
+			this.timeoutIndex.clear();
 		}
 	}
 
 	// only called within synchronized! We assume timestamps >= 0
 	private void processTimeoutQueue(final long timestamp) {
-		final long duration = timestamp - this.maxTraceDuration;
-		final long traceTimeout = timestamp - this.maxTraceTimeout;
-
-		final Collection<Long> sortedTraceIds = this.getSortedTraceIds(this.traceId2trace.keySet());
-
-		for (final Long traceId : sortedTraceIds) {
-			final TraceBuffer traceBuffer = this.traceId2trace.get(traceId);
-			if ((traceBuffer.getMaxLoggingTimestamp() <= traceTimeout) // long time no see
-					|| (traceBuffer.getMinLoggingTimestamp() <= duration)) { // max duration is gone
-
-				if (traceBuffer.isInvalid()) {
-					super.deliver(OUTPUT_PORT_NAME_TRACE_INVALID, traceBuffer.toTraceEvents());
-				} else {
-					super.deliver(OUTPUT_PORT_NAME_TRACE_VALID, traceBuffer.toTraceEvents());
-				}
-
-				this.traceId2trace.remove(traceId);
+		// the index only returns the traces whose duration is gone or which have been silent for too long
+		for (final Long traceId : this.timeoutIndex.pollExpired(timestamp)) {
+			final TraceBuffer traceBuffer = this.traceId2trace.remove(traceId);
+			if (traceBuffer.isInvalid()) {
+				super.deliver(OUTPUT_PORT_NAME_TRACE_INVALID, traceBuffer.toTraceEvents());
+			} else {
+				super.deliver(OUTPUT_PORT_NAME_TRACE_VALID, traceBuffer.toTraceEvents());
 			}
 		}
 	}
@@ -323,12 +317,11 @@ public final class EventRecordTraceReconstructionFilter extends AbstractFilterPl
 	 * In future, we should better sort according to the start timestamp of each
 	 * trace.
 	 */
-	private Collection<Long> getSortedTraceIds(final Set<Long> keys) {
-		final List<Long> copiedKeys = new ArrayList<>(keys);
-		Collections.sort(copiedKeys);
+	private long[] getSortedTraceIds() {
+		final long[] keys = this.traceId2trace.keys();
+		Arrays.sort(keys);
 
-		return copiedKeys;
-		// return keys;
+		return keys;
 	}
 
 	/**
@@ -350,7 +343,7 @@ public final class EventRecordTraceReconstructionFilter extends AbstractFilterPl
 	 *
 	 * @author Jan Waller
 	 */
-	private static final class TraceBuffer {
+	private static final class TraceBuffer implements TraceTimeoutIndex.ITrace {
 		private static final Logger LOGGER = LoggerFactory.getLogger(TraceBuffer.class);
 		private static final Comparator<AbstractTraceEvent> COMPARATOR = new TraceEventComperator();
 
@@ -582,12 +575,14 @@ public final class EventRecordTraceReconstructionFilter extends AbstractFilterPl
 			}
 		}
 
+		@Override
 		public long getMaxLoggingTimestamp() {
 			synchronized (this) {
 				return this.maxLoggingTimestamp;
 			}
 		}
 
+		@Override
 		public long getMinLoggingTimestamp() {
 			synchronized (this) {
 				return this.minLoggingTimestamp;
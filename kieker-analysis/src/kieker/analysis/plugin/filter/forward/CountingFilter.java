@@ -62,6 +62,8 @@ public final class CountingFilter extends AbstractFilterPlugin {
 	public static final String OUTPUT_PORT_NAME_COUNT = "currentEventCount";
 
 	private final AtomicLong counter = new AtomicLong();
+	private final int relayedEventsPortIndex;
+	private final int countPortIndex;
 
 	private volatile long timeStampOfInitialization;
 
@@ -78,6 +80,8 @@ public final class CountingFilter extends AbstractFilterPlugin {
 	 */
 	public CountingFilter(final Configuration configuration, final IProjectContext projectContext) {
 		super(configuration, projectContext);
+		this.relayedEventsPortIndex = this.getOutputPortIndex(OUTPUT_PORT_NAME_RELAYED_EVENTS);
+		this.countPortIndex = this.getOutputPortIndex(OUTPUT_PORT_NAME_COUNT);
 	}
 
 	/**
@@ -110,8 +114,8 @@ public final class CountingFilter extends AbstractFilterPlugin {
 
 		this.updateDisplays();
 
-		super.deliver(OUTPUT_PORT_NAME_RELAYED_EVENTS, event);
-		super.deliver(OUTPUT_PORT_NAME_COUNT, count);
+		super.deliver(this.relayedEventsPortIndex, event);
+		super.deliver(this.countPortIndex, count);
 	}
 
 	private void updateDisplays() {
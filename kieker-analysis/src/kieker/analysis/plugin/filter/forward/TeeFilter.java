@@ -105,6 +105,7 @@ public final class TeeFilter extends AbstractFilterPlugin {
 	private final boolean active;
 	private final boolean append;
 	private final String encoding;
+	private final int relayedEventsPortIndex;
 
 	/**
 	 * Creates a new instance of this class using the given parameters.
@@ -116,6 +117,7 @@ public final class TeeFilter extends AbstractFilterPlugin {
 	 */
 	public TeeFilter(final Configuration configuration, final IProjectContext projectContext) {
 		super(configuration, projectContext);
+		this.relayedEventsPortIndex = this.getOutputPortIndex(OUTPUT_PORT_NAME_RELAYED_EVENTS);
 
 		// Get the name of the stream.
 		final String printStreamNameConfig = this.configuration.getStringProperty(CONFIG_PROPERTY_NAME_STREAM);
@@ -216,6 +218,6 @@ public final class TeeFilter extends AbstractFilterPlugin {
 				this.logger.info(record);
 			}
 		}
-		super.deliver(OUTPUT_PORT_NAME_RELAYED_EVENTS, object);
+		super.deliver(this.relayedEventsPortIndex, object);
 	}
 }
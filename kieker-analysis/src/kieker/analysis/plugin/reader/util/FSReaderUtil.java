@@ -24,7 +24,9 @@ import kieker.analysis.plugin.reader.depcompression.ZipDecompressionFilter;
 import kieker.analysis.source.file.AbstractEventDeserializer;
 import kieker.analysis.source.file.AbstractMapDeserializer;
 import kieker.analysis.source.file.BinaryEventDeserializer;
+import kieker.analysis.source.file.ColumnarEventDeserializer;
 import kieker.analysis.source.file.DatEventDeserializer;
+import kieker.analysis.source.file.MappedBinaryEventDeserializer;
 import kieker.analysis.source.file.TextMapDeserializer;
 import kieker.common.util.filesystem.FSUtil;
 
@@ -68,7 +70,8 @@ public final class FSReaderUtil {
 
 	public static boolean hasValidFileExtension(final String name) {
 		final String extension = FSReaderUtil.getExtension(name);
-		if (FSUtil.BINARY_FILE_EXTENSION.equals(extension) || FSUtil.DAT_FILE_EXTENSION.equals(extension)) {
+		if (FSUtil.BINARY_FILE_EXTENSION.equals(extension) || FSUtil.DAT_FILE_EXTENSION.equals(extension)
+				|| FSUtil.COLUMNAR_FILE_EXTENSION.equals(extension)) {
 			return true;
 		} else {
 			return !FSReaderUtil.findDecompressionFilterByExtension(name).equals(NoneDecompressionFilter.class);
@@ -82,6 +85,10 @@ public final class FSReaderUtil {
 			return DatEventDeserializer.class;
 		} else if (FSUtil.BINARY_FILE_EXTENSION.equals(extension)) {
 			return BinaryEventDeserializer.class;
+		} else if (FSUtil.COLUMNAR_FILE_EXTENSION.equals(extension)) {
+			return ColumnarEventDeserializer.class;
+		} else if (FSUtil.MAPPED_BINARY_FILE_EXTENSION.equals(extension)) {
+			return MappedBinaryEventDeserializer.class;
 		} else {
 			return null;
 		}
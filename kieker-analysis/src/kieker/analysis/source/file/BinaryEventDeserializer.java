@@ -70,7 +70,9 @@ public class BinaryEventDeserializer extends AbstractEventDeserializer {
 		while (!endOfStreamReached) {
 			byte[] bytes = this.buffer.array();
 			int bytesRead = chainInputStream.read(bytes, this.buffer.position(), this.buffer.remaining());
-			this.buffer.position(this.buffer.position() + bytesRead);
+			if (bytesRead > 0) {
+				this.buffer.position(this.buffer.position() + bytesRead);
+			}
 			while (bytesRead > 0) {
 				bytes = this.buffer.array();
 				bytesRead = chainInputStream.read(bytes, this.buffer.position(), this.buffer.remaining());
@@ -0,0 +1,76 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.source.file;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.io.columnar.ColumnarSegmentReader;
+import kieker.common.registry.reader.ReaderRegistry;
+
+import teetime.framework.OutputPort;
+
+/**
+ * Deserializes the records of a columnar log file (<code>.col</code>). The type names are stored in the log file itself;
+ * hence, the registry is not used. With the projection property, only the given columns are read from the file and all
+ * other fields of the records have default values.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ColumnarEventDeserializer extends AbstractEventDeserializer {
+
+	public static final String PREFIX = ColumnarEventDeserializer.class.getCanonicalName() + ".";
+
+	/**
+	 * The value names of the columns to read, separated by '|', e.g., <code>traceId|timestamp|operationSignature</code>.
+	 * All columns are read if the property is empty.
+	 */
+	public static final String PROJECTION = PREFIX + "projection";
+
+	private final ColumnarSegmentReader segmentReader;
+
+	public ColumnarEventDeserializer(final Configuration configuration, final ReaderRegistry<String> registry) {
+		super(configuration, registry);
+		final String[] projection = configuration.getStringArrayProperty(PROJECTION);
+		this.segmentReader = new ColumnarSegmentReader((projection.length > 0) ? Arrays.asList(projection) : null); // NOCS (inline conditional)
+	}
+
+	@Override
+	public void processDataStream(final InputStream chainInputStream, final OutputPort<IMonitoringRecord> outputPort) throws IOException {
+		final InputStream inputStream = new BufferedInputStream(chainInputStream);
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		try {
+			this.segmentReader.readFileHeader(inputStream);
+			while (this.segmentReader.readSegment(inputStream, records)) {
+				for (final IMonitoringRecord record : records) {
+					outputPort.send(record);
+				}
+				records.clear();
+			}
+		} finally {
+			inputStream.close();
+		}
+	}
+}
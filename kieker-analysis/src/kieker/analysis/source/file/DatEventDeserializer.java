@@ -17,24 +17,25 @@ package kieker.analysis.source.file;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.CharBuffer;
+import java.nio.charset.Charset;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import kieker.analysis.tt.reader.filesystem.util.MappingException;
 import kieker.common.configuration.Configuration;
-import kieker.common.exception.MonitoringRecordException;
-import kieker.common.exception.UnknownRecordTypeException;
 import kieker.common.record.IMonitoringRecord;
 import kieker.common.record.factory.CachedRecordFactoryCatalog;
 import kieker.common.record.factory.IRecordFactory;
-import kieker.common.record.io.TextValueDeserializer;
+import kieker.common.record.io.TextByteArrayValueDeserializer;
 import kieker.common.registry.reader.ReaderRegistry;
+import kieker.common.util.collection.LongObjectHashMap;
 
 import teetime.framework.OutputPort;
 
 /**
+ * Deserializes the records of a text log file (<code>.dat</code>). The lines are parsed directly in the read buffer with
+ * a {@link TextByteArrayValueDeserializer}, i.e., without decoding the whole line into characters first.
+ *
  * @author Reiner Jung
  *
  * @since 1.15
@@ -43,8 +44,12 @@ public class DatEventDeserializer extends AbstractEventDeserializer {
 
 	public static final String PREFIX = DatEventDeserializer.class.getCanonicalName() + ".";
 
+	/** Initial size of the read buffer in bytes; the buffer grows if a line does not fit into it. */
 	public static final String BUFFER_SIZE = PREFIX + "bufferSize";
 
+	/** Number of entries of the cache for repeated string values; 0 disables the cache. */
+	public static final String STRING_CACHE_SIZE = PREFIX + "stringCacheSize";
+
 	public static final int DEFAULT_BUFFER_SIZE = 102400;
 
 	private static final String CHARSET = PREFIX + "charset";
@@ -55,114 +60,116 @@ public class DatEventDeserializer extends AbstractEventDeserializer {
 
 	private final CachedRecordFactoryCatalog recordFactories = CachedRecordFactoryCatalog.getInstance();
 
-	private final CharBuffer charBuffer;
+	/** record factories by record type id, which saves the lookups of the class name and the factory for each line. */
+	private final LongObjectHashMap<IRecordFactory<? extends IMonitoringRecord>> recordFactoriesById = new LongObjectHashMap<>();
+
+	private final TextByteArrayValueDeserializer deserializer;
 
-	private final String charset; // NOPMD will be used for a future feature
+	private byte[] buffer;
 
 	private long lineNumber;
 
 	public DatEventDeserializer(final Configuration configuration, final ReaderRegistry<String> registry) {
 		super(configuration, registry);
-		final int bufferSize = configuration.getIntProperty(BUFFER_SIZE, DEFAULT_BUFFER_SIZE);
-		this.charBuffer = CharBuffer.allocate(bufferSize);
-		this.charset = configuration.getStringProperty(CHARSET, DEFAULT_CHARSET);
+		this.buffer = new byte[configuration.getIntProperty(BUFFER_SIZE, DEFAULT_BUFFER_SIZE)];
+		final Charset charset = Charset.forName(configuration.getStringProperty(CHARSET, DEFAULT_CHARSET));
+		this.deserializer = TextByteArrayValueDeserializer.create(charset,
+				configuration.getIntProperty(STRING_CACHE_SIZE, TextByteArrayValueDeserializer.DEFAULT_STRING_CACHE_SIZE));
 	}
 
 	@Override
 	public void processDataStream(final InputStream inputStream, final OutputPort<IMonitoringRecord> outputPort) throws IOException {
-		final byte[] buffer = new byte[this.charBuffer.length() * 2]; // NOPMD
-
-		boolean endOfFile = false;
-		int offset = 0;
 		this.lineNumber = 0;
-		while (!endOfFile) {
-			final int numOfReadBytes = inputStream.read(buffer, offset, buffer.length - offset);
-			if (numOfReadBytes == -1) { /** end of line. */
-				endOfFile = true;
+		int numOfBufferedBytes = 0;
+		int scanPosition = 0;
+		while (true) {
+			if (numOfBufferedBytes == this.buffer.length) { /** the current line does not fit into the buffer. */
+				final byte[] largerBuffer = new byte[this.buffer.length * 2]; // NOPMD (new object in loop)
+				System.arraycopy(this.buffer, 0, largerBuffer, 0, numOfBufferedBytes);
+				this.buffer = largerBuffer;
+			}
+			final int numOfReadBytes = inputStream.read(this.buffer, numOfBufferedBytes, this.buffer.length - numOfBufferedBytes);
+			if (numOfReadBytes == -1) { /** end of file. */
+				break;
+			}
+			numOfBufferedBytes += numOfReadBytes;
+
+			/** only complete lines are deserialized, i.e., the lines up to the last line separator. */
+			int end = numOfBufferedBytes - 1;
+			while ((end >= scanPosition) && (this.buffer[end] != '\n') && (this.buffer[end] != '\r')) {
+				end--;
+			}
+			if (end < scanPosition) {
+				scanPosition = numOfBufferedBytes;
 			} else {
-				final int numOfBufferedBytes = numOfReadBytes + offset;
-				final int mark = this.processBuffer(buffer, offset, numOfBufferedBytes, outputPort);
-				/** move remaining left. */
-				for (int j = mark + 1; j < numOfBufferedBytes; j++) {
-					buffer[j - mark - 1] = buffer[j];
-				}
-				offset = numOfBufferedBytes - mark;
+				this.processLines(end, outputPort);
+				/** move the incomplete last line to the start of the buffer. */
+				numOfBufferedBytes -= end + 1;
+				System.arraycopy(this.buffer, end + 1, this.buffer, 0, numOfBufferedBytes);
+				scanPosition = 0;
 			}
 		}
-		if (this.charBuffer.position() > 0) {
-			this.createRecord(outputPort);
-		}
+		this.processLines(numOfBufferedBytes, outputPort);
 	}
 
 	/**
-	 * Process input buffer and create records.
+	 * Creates the records of the lines in the buffer.
 	 *
-	 * @param buffer
-	 *            byte array containing the last read blob
-	 * @param offset
-	 *            byte buffer offset
-	 * @param numOfBufferedBytes
-	 *            number of read bytes from the last read operation
+	 * @param end
+	 *            index of the line separator of the last line or the end of the buffered bytes
 	 * @param outputPort
 	 *            output port to be used for deserialized records
-	 *
-	 * @return mark in the buffer
-	 *
-	 * @throws MappingException
-	 *             teetime exception
-	 * @throws MonitoringRecordException
-	 *             record creation failed
-	 * @throws UnknownRecordTypeException
-	 *             record type is unknown
-	 *
-	 *             TODO for UTF-8 strings this will not work properly, as these might use 2 bytes
 	 */
-	private int processBuffer(final byte[] buffer, final int offset,
-			final int numOfBufferedBytes, final OutputPort<IMonitoringRecord> outputPort) {
-		int i = offset;
-		int mark = 0;
-		while (i < numOfBufferedBytes) {
-			final char ch = (char) buffer[i];
-			if (ch == '\n') {
-				this.lineNumber++;
-				this.createRecord(outputPort);
-				mark = i;
-			} else if (ch == '\r') {
-				if (buffer[i + 1] == '\n') {
-					i++;
-				}
-				this.lineNumber++;
+	private void processLines(final int end, final OutputPort<IMonitoringRecord> outputPort) {
+		int position = 0;
+		while (position < end) {
+			final byte lead = this.buffer[position];
+			if ((lead == '\n') || (lead == '\r')) { /** empty line or second character of a \r\n line separator. */
+				position++;
+				continue;
+			}
+			this.lineNumber++;
+			if (lead == '$') {
+				this.deserializer.wrap(this.buffer, position + 1, end);
 				this.createRecord(outputPort);
-				mark = i;
+				position = this.deserializer.getPosition();
 			} else {
-				this.charBuffer.append(ch);
+				LOGGER.error("Malformed entry in file at line {}.", this.lineNumber);
+			}
+			/** skip values the record factory did not read. */
+			while ((position < end) && (this.buffer[position] != '\n') && (this.buffer[position] != '\r')) {
+				position++;
 			}
-			i++;
 		}
-
-		return mark;
 	}
 
 	private void createRecord(final OutputPort<IMonitoringRecord> outputPort) {
-		this.charBuffer.flip();
-		final char lead = this.charBuffer.get();
-		if (lead == '$') {
-			final TextValueDeserializer deserializer = TextValueDeserializer.create(this.charBuffer);
-			final int id = deserializer.getInt();
+		final int id = this.deserializer.getInt();
+		final IRecordFactory<? extends IMonitoringRecord> recordFactory = this.getRecordFactory(id);
+		if (recordFactory != null) {
+			final long loggingTimestamp = this.deserializer.getLong();
+			final IMonitoringRecord event = recordFactory.create(this.deserializer);
+			event.setLoggingTimestamp(loggingTimestamp);
+			outputPort.send(event);
+		}
+	}
+
+	private IRecordFactory<? extends IMonitoringRecord> getRecordFactory(final int id) {
+		IRecordFactory<? extends IMonitoringRecord> recordFactory = this.recordFactoriesById.get(id);
+		if (recordFactory == null) {
 			final String classname = this.registry.get(id);
 			if (classname == null) {
 				LOGGER.error("Missing classname mapping for record type id '{}'", id);
-			} else {
-				final long loggingTimestamp = deserializer.getLong();
-				final IRecordFactory<? extends IMonitoringRecord> recordFactory = this.recordFactories.get(classname);
-				final IMonitoringRecord event = recordFactory.create(deserializer);
-				event.setLoggingTimestamp(loggingTimestamp);
-				outputPort.send(event);
-				this.charBuffer.clear();
+				return null;
+			}
+			recordFactory = this.recordFactories.get(classname);
+			if (recordFactory == null) {
+				LOGGER.error("Cannot find a record factory for the record type '{}'", classname);
+				return null;
 			}
-		} else {
-			LOGGER.error("Malformed entry in file at line {}.", this.lineNumber);
+			this.recordFactoriesById.put(id, recordFactory);
 		}
+		return recordFactory;
 	}
 
 }
@@ -15,6 +15,7 @@
  ***************************************************************************/
 package kieker.analysis.source.file;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -22,7 +23,16 @@ import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import kieker.analysis.plugin.reader.depcompression.AbstractDecompressionFilter;
 import kieker.analysis.plugin.reader.depcompression.NoneDecompressionFilter;
@@ -30,21 +40,48 @@ import kieker.analysis.plugin.reader.util.FSReaderUtil;
 import kieker.common.configuration.Configuration;
 import kieker.common.record.IMonitoringRecord;
 import kieker.common.registry.reader.ReaderRegistry;
+import kieker.common.util.filesystem.FSUtil;
 
+import teetime.framework.OutputPort;
 import teetime.stage.basic.AbstractTransformation;
 
 /**
  * Read a kieker log directory. The filter receives a directory as input and
  * outputs all events collected in the directory.
  *
+ * <p>
+ * Uncompressed binary log files, including the <code>.mbin</code> files of the <code>MappedBinaryLogStreamHandler</code>,
+ * are memory-mapped and deserialized by the {@link MappedBinaryLogReader} unless {@link #MEMORY_MAPPED} is set to
+ * <code>false</code>. In follow mode ({@link #FOLLOW}), the stage keeps polling the directory and reads the records
+ * appended to uncompressed binary log files by a running writer, as well as new entries of the map files. Other log
+ * files are read once when they appear. As the stage processes its input directories one after another, a followed
+ * directory blocks the following ones until {@link #FOLLOW_IDLE_TIMEOUT} has passed without new data.
+ * </p>
+ *
  * @author Reiner Jung
  *
  * @since 1.15
  */
 public class DirectoryReaderStage extends AbstractTransformation<File, IMonitoringRecord> {
 
+	/** Read uncompressed binary log files via memory mapping, default is <code>true</code>. */
+	public static final String MEMORY_MAPPED = DirectoryReaderStage.class.getCanonicalName() + ".memoryMapped";
+	/** Keep reading data appended to the log files, default is <code>false</code>. */
+	public static final String FOLLOW = DirectoryReaderStage.class.getCanonicalName() + ".follow";
+	/** Time in milliseconds between two polls of the directory in follow mode. */
+	public static final String FOLLOW_POLL_INTERVAL = DirectoryReaderStage.class.getCanonicalName() + ".followPollInterval";
+	/** Time in milliseconds without new data after which follow mode ends; a negative value follows forever. */
+	public static final String FOLLOW_IDLE_TIMEOUT = DirectoryReaderStage.class.getCanonicalName() + ".followIdleTimeout";
+
+	public static final long DEFAULT_FOLLOW_POLL_INTERVAL = 1000;
+	public static final long DEFAULT_FOLLOW_IDLE_TIMEOUT = -1;
+
 	private final FilenameFilter mapFilter = new MapFileFilter();
 	private final Configuration configuration;
+	private final boolean memoryMapped;
+	private final boolean follow;
+	private final long followPollInterval;
+	private final long followIdleTimeout;
 
 	/**
 	 * Create a new directory reader stage.
@@ -54,40 +91,237 @@ public class DirectoryReaderStage extends AbstractTransformation<File, IMonitori
 	 */
 	public DirectoryReaderStage(final Configuration configuration) {
 		this.configuration = configuration;
+		this.memoryMapped = configuration.getBooleanProperty(MEMORY_MAPPED, true);
+		this.follow = configuration.getBooleanProperty(FOLLOW, false);
+		this.followPollInterval = configuration.getLongProperty(FOLLOW_POLL_INTERVAL, DEFAULT_FOLLOW_POLL_INTERVAL);
+		this.followIdleTimeout = configuration.getLongProperty(FOLLOW_IDLE_TIMEOUT, DEFAULT_FOLLOW_IDLE_TIMEOUT);
 	}
 
 	@Override
 	protected void execute(final File directory) {
 		final ReaderRegistry<String> registry = new ReaderRegistry<>();
-		/** read all map files. */
-		final File[] mapFiles = directory.listFiles(this.mapFilter);
-		if (mapFiles == null) {
-			this.logger.error("{} is not a proper directory.", directory.getAbsolutePath());
-		} else {
-			for (final File mapFile : mapFiles) {
-				final String mapFileName = mapFile.getName();
-				try {
-					this.readMapFile(new FileInputStream(mapFile), mapFileName, registry);
-				} catch (final FileNotFoundException e) {
-					this.logger.error("Cannot find map file {}.", mapFileName);
-				}
+		if (this.follow) {
+			if (directory.isDirectory()) {
+				this.followDirectory(directory.toPath(), registry);
+			} else {
+				this.logger.error("{} is not a proper directory.", directory.getAbsolutePath());
 			}
+			return;
+		}
 
+		/** read all map files. */
+		if (this.readMapFiles(directory, registry)) {
 			/** read log files. */
 			try {
 				Files.list(directory.toPath()).sorted().forEach(logFilePath -> {
-					final File logFile = logFilePath.toFile();
-					final String logFileName = logFile.getName();
-					try {
-						this.readLogFile(new FileInputStream(logFile), logFileName, registry);
-					} catch (final FileNotFoundException e) {
-						this.logger.error("Cannot find log file {}.", logFileName);
+					if (this.isMappedLogFile(logFilePath)) {
+						this.readMappedLogFile(logFilePath, 0, registry);
+					} else {
+						this.readLogFile(logFilePath, registry);
 					}
 				});
 			} catch (final IOException e1) {
 				this.logger.error("Cannot process directory {}", directory.getAbsolutePath());
 			}
+		}
+	}
 
+	/**
+	 * Read all map files of a log directory.
+	 *
+	 * @param directory
+	 *            the log directory
+	 * @param registry
+	 *            string registry to initialize
+	 * @return <code>false</code> if the directory cannot be listed
+	 */
+	protected boolean readMapFiles(final File directory, final ReaderRegistry<String> registry) {
+		final File[] mapFiles = directory.listFiles(this.mapFilter);
+		if (mapFiles == null) {
+			this.logger.error("{} is not a proper directory.", directory.getAbsolutePath());
+			return false;
+		}
+		for (final File mapFile : mapFiles) {
+			final String mapFileName = mapFile.getName();
+			try {
+				this.readMapFile(new FileInputStream(mapFile), mapFileName, registry);
+			} catch (final FileNotFoundException e) {
+				this.logger.error("Cannot find map file {}.", mapFileName);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Poll the directory and read new log data until the idle timeout has passed. The size of each binary log file is
+	 * determined before the map files are read. As the writer flushes a map entry before it writes the first record
+	 * referring to it, all records up to this size can be resolved.
+	 *
+	 * @param directory
+	 *            the log directory
+	 * @param registry
+	 *            string registry
+	 */
+	private void followDirectory(final Path directory, final ReaderRegistry<String> registry) {
+		/** positions of the first unread byte of the binary log and map files; other files are read once. */
+		final Map<Path, Long> positions = new HashMap<>();
+		long lastProgress = System.currentTimeMillis();
+
+		while (true) { // NOPMD (termination via idle timeout or interrupt)
+			final List<Path> files;
+			try (Stream<Path> stream = Files.list(directory)) {
+				files = stream.sorted().collect(Collectors.toList());
+			} catch (final IOException e) {
+				this.logger.error("Cannot process directory {}", directory);
+				return;
+			}
+
+			final Map<Path, Long> logFileSizes = new HashMap<>();
+			for (final Path file : files) {
+				if (this.isMappedLogFile(file)) {
+					logFileSizes.put(file, file.toFile().length());
+				}
+			}
+
+			boolean progress = false;
+			for (final Path file : files) {
+				if (this.mapFilter.accept(directory.toFile(), file.getFileName().toString())) {
+					progress |= this.followMapFile(file, positions, registry);
+				}
+			}
+			for (final Path file : files) {
+				final Long position = positions.get(file);
+				final Long size = logFileSizes.get(file);
+				if (size != null) {
+					final long start = (position == null) ? 0 : position; // NOPMD (unboxing)
+					if (size > start) {
+						final long end = this.readMappedLogFile(file, start, size, registry, position == null, this.outputPort);
+						positions.put(file, end);
+						progress |= end > start;
+					}
+				} else if ((position == null) && !this.mapFilter.accept(directory.toFile(), file.getFileName().toString())) {
+					this.readLogFile(file, registry);
+					positions.put(file, Long.MAX_VALUE);
+					progress = true;
+				}
+			}
+
+			final long now = System.currentTimeMillis();
+			if (progress) {
+				lastProgress = now;
+			} else if ((this.followIdleTimeout >= 0) && ((now - lastProgress) >= this.followIdleTimeout)) {
+				this.logger.debug("No new data in {} for {} ms, stop following.", directory, this.followIdleTimeout);
+				return;
+			} else {
+				try {
+					Thread.sleep(this.followPollInterval);
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Read the lines appended to an uncompressed map file since the last call. A trailing incomplete line is left for
+	 * the next call.
+	 *
+	 * @return <code>true</code> if new entries have been read
+	 */
+	private boolean followMapFile(final Path mapFile, final Map<Path, Long> positions, final ReaderRegistry<String> registry) {
+		final Long knownPosition = positions.get(mapFile);
+		final long position = (knownPosition == null) ? 0 : knownPosition; // NOPMD (unboxing)
+		try (FileChannel channel = FileChannel.open(mapFile, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			if (size <= position) {
+				return false;
+			}
+			final ByteBuffer buffer = ByteBuffer.allocate((int) (size - position));
+			while (buffer.hasRemaining() && (channel.read(buffer, position + buffer.position()) > 0)) { // NOPMD (empty while)
+				// read until the end of the file
+			}
+			final byte[] bytes = buffer.array();
+			int length = buffer.position();
+			while ((length > 0) && (bytes[length - 1] != '\n')) {
+				length--;
+			}
+			if (length == 0) {
+				return false;
+			}
+			this.readMapFile(new ByteArrayInputStream(bytes, 0, length), mapFile.getFileName().toString(), registry);
+			positions.put(mapFile, position + length);
+			return true;
+		} catch (final IOException e) {
+			this.logger.error("Reading map file {} failed.", mapFile);
+			return false;
+		}
+	}
+
+	/**
+	 * @param file
+	 *            a file of the log directory
+	 * @return <code>true</code> if memory mapping is enabled and the file is an uncompressed binary log file, including
+	 *         those written by the <code>MappedBinaryLogStreamHandler</code>
+	 */
+	protected boolean isMappedLogFile(final Path file) {
+		return this.memoryMapped && DirectoryReaderStage.isBinaryLogFile(file.getFileName().toString());
+	}
+
+	/**
+	 * @param fileName
+	 *            name of a file of the log directory
+	 * @return <code>true</code> if the file is an uncompressed binary log file, including those written by the
+	 *         <code>MappedBinaryLogStreamHandler</code>
+	 */
+	protected static boolean isBinaryLogFile(final String fileName) {
+		return fileName.endsWith(FSUtil.BINARY_FILE_EXTENSION) || fileName.endsWith(FSUtil.MAPPED_BINARY_FILE_EXTENSION);
+	}
+
+	private void readMappedLogFile(final Path logFile, final long position, final ReaderRegistry<String> registry) {
+		this.readMappedLogFile(logFile, position, logFile.toFile().length(), registry, true, this.outputPort);
+	}
+
+	/**
+	 * Read a binary log file via memory mapping and produce Kieker events.
+	 *
+	 * @param logFile
+	 *            the log file
+	 * @param position
+	 *            position of the first record to read
+	 * @param limit
+	 *            end of the data to read
+	 * @param registry
+	 *            string registry
+	 * @param reportUnknownType
+	 *            log an error if the file contains an unknown record type
+	 * @param port
+	 *            port to send the records to
+	 * @return the position behind the last record read
+	 */
+	protected long readMappedLogFile(final Path logFile, final long position, final long limit, final ReaderRegistry<String> registry,
+			final boolean reportUnknownType, final OutputPort<IMonitoringRecord> port) {
+		this.logger.debug("Reading log file {} from position {}", logFile, position);
+		try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+			final MappedBinaryLogReader reader = new MappedBinaryLogReader(registry);
+			final long end = reader.read(channel, position, Math.min(limit, channel.size()), port);
+			if (reader.isUnknownTypeFound() && reportUnknownType) {
+				this.logger.error("Missing classname mapping for record type id '{}' in log file {}", reader.getUnknownTypeId(), logFile);
+			}
+			return end;
+		} catch (final IOException e) {
+			this.logger.error("Reading log file {} failed.", logFile);
+			return position;
+		}
+	}
+
+	private void readLogFile(final Path logFilePath, final ReaderRegistry<String> registry) {
+		final File logFile = logFilePath.toFile();
+		final String logFileName = logFile.getName();
+		try {
+			this.readLogFile(new FileInputStream(logFile), logFileName, registry, this.outputPort);
+		} catch (final FileNotFoundException e) {
+			this.logger.error("Cannot find log file {}.", logFileName);
 		}
 	}
 
@@ -101,7 +335,7 @@ public class DirectoryReaderStage extends AbstractTransformation<File, IMonitori
 	 * @param registry
 	 *            string registry
 	 */
-	private void readMapFile(final InputStream inputStream, final String mapFileName, final ReaderRegistry<String> registry) {
+	protected void readMapFile(final InputStream inputStream, final String mapFileName, final ReaderRegistry<String> registry) {
 		final Class<? extends AbstractDecompressionFilter> decompressionClass = FSReaderUtil.findDecompressionFilterByExtension(mapFileName);
 		this.logger.debug("Reading map file {}", mapFileName);
 
@@ -135,8 +369,11 @@ public class DirectoryReaderStage extends AbstractTransformation<File, IMonitori
 	 *            the name of the log file used for user feedback
 	 * @param registry
 	 *            string registry
+	 * @param port
+	 *            port to send the records to
 	 */
-	private void readLogFile(final InputStream inputStream, final String logFileName, final ReaderRegistry<String> registry) {
+	protected void readLogFile(final InputStream inputStream, final String logFileName, final ReaderRegistry<String> registry,
+			final OutputPort<IMonitoringRecord> port) {
 		final Class<? extends AbstractDecompressionFilter> decompressionClass = FSReaderUtil.findDecompressionFilterByExtension(logFileName);
 		this.logger.debug("Reading log file {}", logFileName);
 		/** detecting correct log file deserializer. */
@@ -153,7 +390,7 @@ public class DirectoryReaderStage extends AbstractTransformation<File, IMonitori
 				final AbstractDecompressionFilter decompressionFilter = decompressionClass.getConstructor(Configuration.class).newInstance(this.configuration);
 				final AbstractEventDeserializer deserializer = deserializerClass.getConstructor(Configuration.class, ReaderRegistry.class)
 						.newInstance(this.configuration, registry);
-				deserializer.processDataStream(decompressionFilter.chainInputStream(inputStream), this.outputPort);
+				deserializer.processDataStream(decompressionFilter.chainInputStream(inputStream), port);
 			} catch (final IOException e) {
 				this.logger.error("Reading log file {} failed.", logFileName);
 			} catch (InstantiationException | IllegalAccessException | IllegalArgumentException
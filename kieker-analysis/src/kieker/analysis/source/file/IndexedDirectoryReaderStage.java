@@ -0,0 +1,204 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.source.file;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.registry.reader.ReaderRegistry;
+import kieker.common.util.filesystem.FSUtil;
+import kieker.common.util.filesystem.LogFileIndex;
+
+import teetime.framework.OutputPort;
+
+/**
+ * Reads the records of a Kieker log directory which lie within a range of logging timestamps and, optionally,
+ * belong to one of the selected traces. For each uncompressed binary log file with a {@link LogFileIndex} (written by
+ * the <code>FileWriter</code> if <code>index</code> is enabled), only the blocks which may contain such records are
+ * read. Other log files, as well as the part of a log file which is not yet covered by its index, are read
+ * completely. In all cases, only the selected records are sent.
+ *
+ * <p>
+ * The selection is based on the logging timestamps of the records. In contrast, the <code>TimestampFilter</code>
+ * uses the event timestamps, e.g., <code>tin</code> and <code>tout</code> of an <code>OperationExecutionRecord</code>.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class IndexedDirectoryReaderStage extends DirectoryReaderStage {
+
+	private final long ignoreBeforeTimestamp;
+	private final long ignoreAfterTimestamp;
+	/** sorted trace ids, or <code>null</code> to accept all traces. */
+	private final long[] selectedTraceIds;
+
+	private final SelectingOutputPort selectingPort = new SelectingOutputPort();
+
+	private long bytesRead;
+	private long bytesTotal;
+
+	/**
+	 * Create a new indexed directory reader stage.
+	 *
+	 * @param configuration
+	 *            configuration for the stage and its plugins
+	 * @param ignoreBeforeTimestamp
+	 *            the lower limit for the logging timestamps of the records
+	 * @param ignoreAfterTimestamp
+	 *            the upper limit for the logging timestamps of the records
+	 * @param acceptAllTraces
+	 *            determining whether to accept all records, regardless of the given trace ids
+	 * @param selectedTraceIds
+	 *            determining which trace ids should be accepted by this stage
+	 */
+	public IndexedDirectoryReaderStage(final Configuration configuration, final long ignoreBeforeTimestamp, final long ignoreAfterTimestamp,
+			final boolean acceptAllTraces, final Long[] selectedTraceIds) {
+		super(configuration);
+		this.ignoreBeforeTimestamp = ignoreBeforeTimestamp;
+		this.ignoreAfterTimestamp = ignoreAfterTimestamp;
+		if (acceptAllTraces) {
+			this.selectedTraceIds = null; // NOPMD (null means all traces)
+		} else {
+			this.selectedTraceIds = new long[selectedTraceIds.length];
+			for (int i = 0; i < selectedTraceIds.length; i++) {
+				this.selectedTraceIds[i] = selectedTraceIds[i];
+			}
+			Arrays.sort(this.selectedTraceIds);
+		}
+	}
+
+	@Override
+	protected void execute(final File directory) {
+		this.bytesRead = 0;
+		this.bytesTotal = 0;
+		final ReaderRegistry<String> registry = new ReaderRegistry<>();
+		if (this.readMapFiles(directory, registry)) {
+			final List<Path> files;
+			try (Stream<Path> stream = Files.list(directory.toPath())) {
+				files = stream.sorted().collect(Collectors.toList());
+			} catch (final IOException e) {
+				this.logger.error("Cannot process directory {}", directory.getAbsolutePath());
+				return;
+			}
+
+			for (final Path file : files) {
+				final String fileName = file.getFileName().toString();
+				final Path indexFile = file.resolveSibling(fileName + FSUtil.INDEX_FILE_EXTENSION);
+				if (DirectoryReaderStage.isBinaryLogFile(fileName) && Files.exists(indexFile)) {
+					this.readIndexedLogFile(file, indexFile, registry);
+				} else if (this.isMappedLogFile(file)) {
+					this.bytesRead += this.readMappedLogFile(file, 0, Long.MAX_VALUE, registry, true, this.selectingPort);
+					this.bytesTotal += file.toFile().length();
+				} else if (!fileName.endsWith(FSUtil.MAP_FILE_EXTENSION) && !fileName.endsWith(FSUtil.INDEX_FILE_EXTENSION)) {
+					try (InputStream inputStream = new FileInputStream(file.toFile())) {
+						this.readLogFile(inputStream, fileName, registry, this.selectingPort);
+					} catch (final IOException e) {
+						this.logger.error("Reading log file {} failed.", fileName);
+					}
+				}
+			}
+			this.logger.debug("Read {} of {} bytes of the binary log files in {}", this.bytesRead, this.bytesTotal, directory);
+		}
+	}
+
+	private void readIndexedLogFile(final Path logFile, final Path indexFile, final ReaderRegistry<String> registry) {
+		final LogFileIndex index;
+		try {
+			index = LogFileIndex.read(indexFile);
+		} catch (final IOException e) {
+			this.logger.warn("Cannot read index {}, reading the complete log file.", indexFile);
+			this.bytesRead += this.readMappedLogFile(logFile, 0, Long.MAX_VALUE, registry, true, this.selectingPort);
+			this.bytesTotal += logFile.toFile().length();
+			return;
+		}
+
+		long indexedEnd = 0;
+		for (final LogFileIndex.Block block : index.getBlocks()) {
+			indexedEnd = Math.max(indexedEnd, block.getOffset() + block.getLength());
+		}
+
+		try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+			final MappedBinaryLogReader reader = new MappedBinaryLogReader(registry);
+			for (final LogFileIndex.Block block : index.findBlocks(this.ignoreBeforeTimestamp, this.ignoreAfterTimestamp, this.selectedTraceIds)) {
+				reader.read(channel, block.getOffset(), block.getOffset() + block.getLength(), this.selectingPort);
+				this.bytesRead += block.getLength();
+			}
+			// records written after the last complete block
+			final long size = channel.size();
+			if (size > indexedEnd) {
+				this.bytesRead += reader.read(channel, indexedEnd, size, this.selectingPort) - indexedEnd;
+			}
+			this.bytesTotal += size;
+		} catch (final IOException e) {
+			this.logger.error("Reading log file {} failed.", logFile);
+		}
+	}
+
+	/**
+	 * @return the number of bytes of binary log files read by the last execution
+	 */
+	public long getBytesRead() {
+		return this.bytesRead;
+	}
+
+	/**
+	 * @return the size of the binary log files of the last execution
+	 */
+	public long getBytesTotal() {
+		return this.bytesTotal;
+	}
+
+	/**
+	 * Sends only the selected records to the output port of the stage.
+	 */
+	private class SelectingOutputPort extends OutputPort<IMonitoringRecord> {
+
+		public SelectingOutputPort() {
+			super();
+		}
+
+		@Override
+		public void send(final IMonitoringRecord record) {
+			final IndexedDirectoryReaderStage stage = IndexedDirectoryReaderStage.this;
+			final long timestamp = record.getLoggingTimestamp();
+			if ((timestamp >= stage.ignoreBeforeTimestamp) && (timestamp <= stage.ignoreAfterTimestamp)
+					&& ((stage.selectedTraceIds == null) || (Arrays.binarySearch(stage.selectedTraceIds, LogFileIndex.getTraceId(record)) >= 0))) {
+				stage.outputPort.send(record);
+			}
+		}
+
+		@Override
+		public boolean sendNonBlocking(final IMonitoringRecord record) {
+			this.send(record);
+			return true;
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.source.file;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.registry.reader.ReaderRegistry;
+import kieker.common.util.filesystem.FSUtil;
+
+import teetime.framework.OutputPort;
+
+/**
+ * Deserializes a binary log file written by the <code>MappedBinaryLogStreamHandler</code>
+ * (<code>.mbin</code>) from a stream, e.g., when the file is compressed, part of a zip file, or memory mapping is
+ * disabled. The deserializer skips the header and stops at the committed end stored in it, as the rest of the file may
+ * be an unwritten, pre-allocated region. A file without header, which the handler writes when it cannot map the file,
+ * is read like a plain binary log file.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class MappedBinaryEventDeserializer extends BinaryEventDeserializer {
+
+	public MappedBinaryEventDeserializer(final Configuration configuration, final ReaderRegistry<String> registry) {
+		super(configuration, registry);
+	}
+
+	@Override
+	public void processDataStream(final InputStream chainInputStream, final OutputPort<IMonitoringRecord> outputPort) throws IOException {
+		final PushbackInputStream inputStream = new PushbackInputStream(chainInputStream, FSUtil.MAPPED_BINARY_FILE_HEADER_SIZE);
+		final byte[] header = new byte[FSUtil.MAPPED_BINARY_FILE_HEADER_SIZE];
+		int length = 0;
+		int bytesRead;
+		while ((length < header.length) && ((bytesRead = inputStream.read(header, length, header.length - length)) >= 0)) { // NOPMD (assign)
+			length += bytesRead;
+		}
+
+		final ByteBuffer buffer = ByteBuffer.wrap(header);
+		if ((length == header.length) && (buffer.getInt(0) == FSUtil.MAPPED_BINARY_FILE_MAGIC)) {
+			final long committedEnd = buffer.getLong(FSUtil.MAPPED_BINARY_FILE_COMMITTED_END_POSITION);
+			super.processDataStream(new LimitedInputStream(inputStream, committedEnd - FSUtil.MAPPED_BINARY_FILE_HEADER_SIZE), outputPort);
+		} else {
+			inputStream.unread(header, 0, length);
+			super.processDataStream(inputStream, outputPort);
+		}
+	}
+
+	/**
+	 * Input stream which ends after the given number of bytes.
+	 */
+	private static class LimitedInputStream extends FilterInputStream {
+
+		private long remaining;
+
+		public LimitedInputStream(final InputStream inputStream, final long limit) {
+			super(inputStream);
+			this.remaining = limit;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (this.remaining <= 0) {
+				return -1;
+			}
+			final int value = super.read();
+			if (value >= 0) {
+				this.remaining--;
+			}
+			return value;
+		}
+
+		@Override
+		public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+			if (this.remaining <= 0) {
+				return -1;
+			}
+			final int bytesRead = super.read(bytes, offset, (int) Math.min(length, this.remaining));
+			if (bytesRead > 0) {
+				this.remaining -= bytesRead;
+			}
+			return bytesRead;
+		}
+
+		@Override
+		public long skip(final long count) throws IOException {
+			final long skipped = super.skip(Math.min(count, Math.max(this.remaining, 0)));
+			this.remaining -= skipped;
+			return skipped;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return (int) Math.min(super.available(), Math.max(this.remaining, 0));
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,214 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.source.file;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.common.exception.RecordInstantiationException;
+import kieker.common.record.AbstractMonitoringRecord;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+import kieker.common.record.factory.IRecordFactory;
+import kieker.common.record.io.BinaryValueDeserializer;
+import kieker.common.registry.reader.ReaderRegistry;
+import kieker.common.util.filesystem.FSUtil;
+
+import teetime.framework.OutputPort;
+
+/**
+ * Reads uncompressed binary Kieker log files by mapping them into memory. In contrast to the
+ * {@link BinaryEventDeserializer}, the records are deserialized straight from the mapped file without copying
+ * the data into an intermediate buffer.
+ *
+ * <p>
+ * The reader processes a file in windows of {@link #DEFAULT_WINDOW_SIZE} bytes. It stops at the first incomplete
+ * record or at a record type it cannot resolve. Each call returns the position behind the last complete record, hence
+ * a caller can continue reading a file which is still being written.
+ * </p>
+ *
+ * <p>
+ * Files written by the <code>MappedBinaryLogStreamHandler</code> start with a header (see
+ * {@link FSUtil#MAPPED_BINARY_FILE_MAGIC}). For such files, the reader skips the header and reads only up to the
+ * committed end stored in it, as the rest of the file may be an unwritten, pre-allocated region.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class MappedBinaryLogReader {
+
+	/** Default size of a mapped window in bytes. */
+	public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MappedBinaryLogReader.class);
+
+	/** type id and logging timestamp. */
+	private static final int HEADER_SIZE = AbstractMonitoringRecord.TYPE_SIZE_INT + AbstractMonitoringRecord.TYPE_SIZE_LONG;
+
+	private final CachedRecordFactoryCatalog recordFactories = CachedRecordFactoryCatalog.getInstance();
+
+	private final ReaderRegistry<String> registry;
+	private final int windowSize;
+
+	private int unknownTypeId;
+	private boolean unknownTypeFound;
+	private boolean stopped;
+
+	/**
+	 * Create a new reader with the default window size.
+	 *
+	 * @param registry
+	 *            string registry initialized from the map files of the log
+	 */
+	public MappedBinaryLogReader(final ReaderRegistry<String> registry) {
+		this(registry, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Create a new reader.
+	 *
+	 * @param registry
+	 *            string registry initialized from the map files of the log
+	 * @param windowSize
+	 *            maximal number of bytes mapped at once; must be larger than the largest record
+	 */
+	public MappedBinaryLogReader(final ReaderRegistry<String> registry, final int windowSize) {
+		if (windowSize < HEADER_SIZE) {
+			throw new IllegalArgumentException("The window size must be at least " + HEADER_SIZE + " bytes, but was " + windowSize);
+		}
+		this.registry = registry;
+		this.windowSize = windowSize;
+	}
+
+	/**
+	 * Read all complete records in the given range of the file and send them to the output port.
+	 *
+	 * @param channel
+	 *            channel of the log file
+	 * @param position
+	 *            position of the first record to read
+	 * @param limit
+	 *            the end of the range, usually the size of the file
+	 * @param outputPort
+	 *            port to send the records to
+	 * @return the position behind the last complete record
+	 * @throws IOException
+	 *             when the file cannot be mapped
+	 */
+	public long read(final FileChannel channel, final long position, final long limit, final OutputPort<IMonitoringRecord> outputPort)
+			throws IOException {
+		this.unknownTypeFound = false;
+		this.stopped = false;
+
+		long windowStart = position;
+		long end = limit;
+		final long committedEnd = MappedBinaryLogReader.readCommittedEnd(channel);
+		if (committedEnd >= 0) {
+			windowStart = Math.max(position, FSUtil.MAPPED_BINARY_FILE_HEADER_SIZE);
+			end = Math.min(limit, committedEnd);
+		}
+		while ((end - windowStart) >= HEADER_SIZE) {
+			final long size = Math.min(this.windowSize, end - windowStart);
+			final MappedByteBuffer window = channel.map(MapMode.READ_ONLY, windowStart, size);
+			final int consumed = this.readWindow(window, outputPort);
+			windowStart += consumed;
+			// stop at the end of the range or if the next record does not even fit into a complete window
+			if (this.stopped || (size < this.windowSize) || (consumed == 0)) {
+				break;
+			}
+		}
+		return windowStart;
+	}
+
+	private int readWindow(final MappedByteBuffer window, final OutputPort<IMonitoringRecord> outputPort) {
+		final BinaryValueDeserializer deserializer = BinaryValueDeserializer.create(window, this.registry);
+
+		while (window.remaining() >= HEADER_SIZE) {
+			final int start = window.position();
+			final int typeId = window.getInt();
+			final long loggingTimestamp = window.getLong();
+
+			final String typeName = this.registry.get(typeId);
+			final IRecordFactory<? extends IMonitoringRecord> factory = (typeName == null) ? null : this.recordFactories.get(typeName); // NOPMD
+			if (factory == null) {
+				this.unknownTypeId = typeId;
+				this.unknownTypeFound = true;
+				this.stopped = true;
+				return start;
+			}
+
+			if (window.remaining() < factory.getRecordSizeInBytes()) {
+				return start; // incomplete record
+			}
+			try {
+				final IMonitoringRecord record = factory.create(deserializer);
+				record.setLoggingTimestamp(loggingTimestamp);
+				outputPort.send(record);
+			} catch (final RecordInstantiationException | BufferUnderflowException e) {
+				// incomplete record with variable size, e.g., arrays
+				LOGGER.trace("Incomplete record of type {} at the end of the window", typeName);
+				return start;
+			}
+		}
+		return window.position();
+	}
+
+	/**
+	 * Read the committed end from the header of a log file written by the <code>MappedBinaryLogStreamHandler</code>.
+	 *
+	 * @param channel
+	 *            channel of the log file
+	 * @return the file offset behind the last committed record, or -1 if the file has no such header
+	 * @throws IOException
+	 *             when the file cannot be read
+	 */
+	public static long readCommittedEnd(final FileChannel channel) throws IOException {
+		final ByteBuffer header = ByteBuffer.allocate(FSUtil.MAPPED_BINARY_FILE_HEADER_SIZE);
+		while (header.hasRemaining() && (channel.read(header, header.position()) > 0)) { // NOPMD (empty while)
+			// read the complete header
+		}
+		if (header.hasRemaining() || (header.getInt(0) != FSUtil.MAPPED_BINARY_FILE_MAGIC)) {
+			return -1;
+		}
+		return header.getLong(FSUtil.MAPPED_BINARY_FILE_COMMITTED_END_POSITION);
+	}
+
+	/**
+	 * @return <code>true</code> if the last call of {@link #read(FileChannel, long, long, OutputPort)} stopped at a
+	 *         record type without a (known) registry entry
+	 */
+	public boolean isUnknownTypeFound() {
+		return this.unknownTypeFound;
+	}
+
+	/**
+	 * @return the unresolvable type id of the last read, if {@link #isUnknownTypeFound()} is <code>true</code>
+	 */
+	public int getUnknownTypeId() {
+		return this.unknownTypeId;
+	}
+
+}
@@ -0,0 +1,476 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.source.file;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.registry.reader.ReaderRegistry;
+import kieker.common.util.filesystem.FSUtil;
+
+import teetime.framework.OutputPort;
+
+/**
+ * Reads a Kieker log directory or a zipped log directory (like the <code>FSZipReader</code>) and decodes its log
+ * files in parallel worker threads. All compressed log file variants supported by the {@link DirectoryReaderStage}
+ * are supported as well.
+ *
+ * <p>
+ * In the default ordered mode, the stage merges the records of the log files by their logging timestamp. The merge
+ * considers up to {@link #MERGE_WIDTH} files at once, in the order of their names; the next file joins when the first
+ * one is exhausted. As the file names of a Kieker log start with their creation time, the output is ordered as long as
+ * the records of each file are ordered and no record is older than the records of the file {@link #MERGE_WIDTH}
+ * positions before it. The merge width does not depend on the number of threads, so a log yields the same output on
+ * every machine. Each file buffers up to {@link #QUEUE_CAPACITY} decoded records, so that the files after the current
+ * one are decoded while the current one is merged. Each merged file has its own worker thread, but at most
+ * {@link #THREADS} of them decode at the same time; a worker waiting for space in the buffer of its file does not
+ * count. In unordered mode ({@link #ORDERED} is
+ * <code>false</code>), the records are sent as soon as they are decoded; only the records of one file keep their
+ * order.
+ * </p>
+ *
+ * <p>
+ * Follow mode ({@link DirectoryReaderStage#FOLLOW}) is not parallelized, as the merge needs to know all log files in
+ * advance. If it is enabled, the stage reads like the {@link DirectoryReaderStage}, i.e., sequentially, and the
+ * properties of this stage are ignored.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ParallelDirectoryReaderStage extends DirectoryReaderStage {
+
+	/** Number of worker threads, default is the number of available processors. */
+	public static final String THREADS = ParallelDirectoryReaderStage.class.getCanonicalName() + ".threads";
+	/** Merge the records by their logging timestamp, default is <code>true</code>. */
+	public static final String ORDERED = ParallelDirectoryReaderStage.class.getCanonicalName() + ".ordered";
+	/** Number of log files merged at once in ordered mode, default is {@link #DEFAULT_MERGE_WIDTH}. */
+	public static final String MERGE_WIDTH = ParallelDirectoryReaderStage.class.getCanonicalName() + ".mergeWidth";
+	/** Number of decoded records buffered per log file. */
+	public static final String QUEUE_CAPACITY = ParallelDirectoryReaderStage.class.getCanonicalName() + ".queueCapacity";
+
+	public static final int DEFAULT_QUEUE_CAPACITY = 65536;
+	public static final int DEFAULT_MERGE_WIDTH = 16;
+
+	/** Number of records passed from a worker to the stage at once. */
+	private static final int BATCH_SIZE = 1024;
+
+	/** Marks the end of a log file. */
+	private static final List<IMonitoringRecord> END_OF_FILE = Collections.emptyList();
+
+	private final boolean follow;
+	private final int threads;
+	private final boolean ordered;
+	private final int mergeWidth;
+	private final int queueCapacityInBatches;
+
+	/**
+	 * Create a new parallel directory reader stage.
+	 *
+	 * @param configuration
+	 *            configuration for the stage and its plugins
+	 */
+	public ParallelDirectoryReaderStage(final Configuration configuration) {
+		super(configuration);
+		this.follow = configuration.getBooleanProperty(FOLLOW, false);
+		if (this.follow) {
+			this.logger.info("Follow mode reads the log files sequentially.");
+		}
+		this.threads = Math.max(1, configuration.getIntProperty(THREADS, Runtime.getRuntime().availableProcessors()));
+		this.ordered = configuration.getBooleanProperty(ORDERED, true);
+		this.mergeWidth = Math.max(1, configuration.getIntProperty(MERGE_WIDTH, DEFAULT_MERGE_WIDTH));
+		this.queueCapacityInBatches = Math.max(1, configuration.getIntProperty(QUEUE_CAPACITY, DEFAULT_QUEUE_CAPACITY) / BATCH_SIZE);
+	}
+
+	@Override
+	protected void execute(final File logLocation) {
+		if (this.follow) {
+			super.execute(logLocation);
+			return;
+		}
+		final ReaderRegistry<String> registry = new ReaderRegistry<>();
+		if (logLocation.isFile() && logLocation.getName().endsWith(FSUtil.ZIP_FILE_EXTENSION)) {
+			try (ZipFile zipFile = new ZipFile(logLocation)) {
+				this.readLogFiles(this.readZipFile(zipFile, registry), registry);
+			} catch (final IOException e) {
+				this.logger.error("Cannot read zip file {}", logLocation.getAbsolutePath());
+			}
+		} else if (this.readMapFiles(logLocation, registry)) {
+			try (Stream<Path> files = Files.list(logLocation.toPath())) {
+				final List<LogFile> logFiles = files.sorted().map(path -> new LogFile(path.getFileName().toString(), path, null, null))
+						.filter(logFile -> !logFile.name.endsWith(FSUtil.MAP_FILE_EXTENSION))
+						.collect(Collectors.toList());
+				this.readLogFiles(logFiles, registry);
+			} catch (final IOException e) {
+				this.logger.error("Cannot process directory {}", logLocation.getAbsolutePath());
+			}
+		}
+	}
+
+	/**
+	 * Read the map file entries of a zip file and return its other entries.
+	 */
+	private List<LogFile> readZipFile(final ZipFile zipFile, final ReaderRegistry<String> registry) throws IOException {
+		final List<LogFile> logFiles = new ArrayList<>();
+		final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+		while (entries.hasMoreElements()) {
+			final ZipEntry entry = entries.nextElement();
+			if (!entry.isDirectory()) {
+				final String name = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+				if (name.endsWith(FSUtil.MAP_FILE_EXTENSION)) {
+					this.readMapFile(zipFile.getInputStream(entry), name, registry);
+				} else {
+					logFiles.add(new LogFile(name, null, zipFile, entry));
+				}
+			}
+		}
+		logFiles.sort((left, right) -> left.name.compareTo(right.name));
+		return logFiles;
+	}
+
+	private void readLogFiles(final List<LogFile> logFiles, final ReaderRegistry<String> registry) {
+		// in ordered mode, each merged file needs a thread, since the merge waits for the next record of every file
+		final int poolSize = this.ordered ? Math.max(this.threads, this.mergeWidth) : this.threads; // NOCS (inline conditional)
+		final ExecutorService executor = Executors.newFixedThreadPool(poolSize, new WorkerThreadFactory(this.getId()));
+		final Semaphore decodingPermits = new Semaphore(this.threads);
+		try {
+			if (this.ordered) {
+				this.mergeLogFiles(logFiles, registry, executor, decodingPermits);
+			} else {
+				this.forwardLogFiles(logFiles, registry, executor, decodingPermits);
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			this.logger.error("Interrupted while reading log files.");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Send the records of all files in the order of their arrival.
+	 */
+	private void forwardLogFiles(final List<LogFile> logFiles, final ReaderRegistry<String> registry, final ExecutorService executor,
+			final Semaphore decodingPermits) throws InterruptedException {
+		final BlockingQueue<List<IMonitoringRecord>> queue = new ArrayBlockingQueue<>(this.queueCapacityInBatches * this.threads);
+		for (final LogFile logFile : logFiles) {
+			executor.execute(new Worker(logFile, registry, queue, decodingPermits));
+		}
+		int pendingFiles = logFiles.size();
+		while (pendingFiles > 0) {
+			final List<IMonitoringRecord> batch = queue.take();
+			if (batch == END_OF_FILE) { // NOPMD (compare references)
+				pendingFiles--;
+			} else {
+				for (final IMonitoringRecord record : batch) {
+					this.outputPort.send(record);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Merge the records of the files by their logging timestamp.
+	 */
+	private void mergeLogFiles(final List<LogFile> logFiles, final ReaderRegistry<String> registry, final ExecutorService executor,
+			final Semaphore decodingPermits) throws InterruptedException {
+		final Deque<LogFile> pendingFiles = new ArrayDeque<>(logFiles);
+		final PriorityQueue<MergeCursor> heads = new PriorityQueue<>();
+		final List<MergeCursor> cursors = new ArrayList<>();
+		for (int i = 0; (i < this.mergeWidth) && !pendingFiles.isEmpty(); i++) {
+			cursors.add(this.startWorker(pendingFiles.poll(), cursors.size(), registry, executor, decodingPermits));
+		}
+		int nextFileIndex = cursors.size();
+		for (final MergeCursor cursor : cursors) {
+			if (cursor.advance()) {
+				heads.add(cursor);
+			} else {
+				nextFileIndex = this.startNextMergeCursor(pendingFiles, nextFileIndex, registry, executor, decodingPermits, heads);
+			}
+		}
+
+		while (!heads.isEmpty()) {
+			final MergeCursor cursor = heads.poll();
+			this.outputPort.send(cursor.head);
+			if (cursor.advance()) {
+				heads.add(cursor);
+			} else {
+				nextFileIndex = this.startNextMergeCursor(pendingFiles, nextFileIndex, registry, executor, decodingPermits, heads);
+			}
+		}
+	}
+
+	/**
+	 * Start the next pending file which contains at least one record.
+	 *
+	 * @return the index of the next file
+	 */
+	private int startNextMergeCursor(final Deque<LogFile> pendingFiles, final int fileIndex, final ReaderRegistry<String> registry,
+			final ExecutorService executor, final Semaphore decodingPermits, final PriorityQueue<MergeCursor> heads) throws InterruptedException {
+		int nextFileIndex = fileIndex;
+		while (!pendingFiles.isEmpty()) {
+			final MergeCursor cursor = this.startWorker(pendingFiles.poll(), nextFileIndex++, registry, executor, decodingPermits);
+			if (cursor.advance()) {
+				heads.add(cursor);
+				break;
+			}
+		}
+		return nextFileIndex;
+	}
+
+	private MergeCursor startWorker(final LogFile logFile, final int fileIndex, final ReaderRegistry<String> registry, final ExecutorService executor,
+			final Semaphore decodingPermits) {
+		final BlockingQueue<List<IMonitoringRecord>> queue = new ArrayBlockingQueue<>(this.queueCapacityInBatches);
+		executor.execute(new Worker(logFile, registry, queue, decodingPermits));
+		return new MergeCursor(fileIndex, queue);
+	}
+
+	/**
+	 * Decodes a single log file and passes the records in batches to a queue. The worker holds a decoding permit while it
+	 * decodes, but not while it waits for space in the queue.
+	 */
+	private class Worker implements Runnable {
+
+		private final LogFile logFile;
+		private final ReaderRegistry<String> registry;
+		private final BatchingOutputPort port;
+
+		public Worker(final LogFile logFile, final ReaderRegistry<String> registry, final BlockingQueue<List<IMonitoringRecord>> queue,
+				final Semaphore decodingPermits) {
+			this.logFile = logFile;
+			this.registry = registry;
+			this.port = new BatchingOutputPort(queue, decodingPermits);
+		}
+
+		@Override
+		public void run() {
+			final ParallelDirectoryReaderStage stage = ParallelDirectoryReaderStage.this;
+			try {
+				this.port.acquirePermit();
+				if (this.logFile.path == null) {
+					try (InputStream inputStream = this.logFile.zipFile.getInputStream(this.logFile.zipEntry)) {
+						stage.readLogFile(inputStream, this.logFile.name, this.registry, this.port);
+					}
+				} else if (stage.isMappedLogFile(this.logFile.path)) {
+					stage.readMappedLogFile(this.logFile.path, 0, Long.MAX_VALUE, this.registry, true, this.port);
+				} else {
+					try (InputStream inputStream = new FileInputStream(this.logFile.path.toFile())) {
+						stage.readLogFile(inputStream, this.logFile.name, this.registry, this.port);
+					}
+				}
+			} catch (final IOException e) {
+				stage.logger.error("Reading log file {} failed.", this.logFile.name);
+			} catch (final CancellationException e) {
+				stage.logger.debug("Reading log file {} cancelled.", this.logFile.name);
+			} finally {
+				this.port.close();
+			}
+		}
+	}
+
+	/**
+	 * Collects the records of a worker into batches.
+	 */
+	private static class BatchingOutputPort extends OutputPort<IMonitoringRecord> {
+
+		private final BlockingQueue<List<IMonitoringRecord>> queue;
+		private final Semaphore decodingPermits;
+		private List<IMonitoringRecord> batch = new ArrayList<>(BATCH_SIZE);
+		private boolean cancelled;
+		private boolean holdsPermit;
+
+		public BatchingOutputPort(final BlockingQueue<List<IMonitoringRecord>> queue, final Semaphore decodingPermits) {
+			super();
+			this.queue = queue;
+			this.decodingPermits = decodingPermits;
+		}
+
+		/**
+		 * @throws CancellationException
+		 *             when the stage has stopped reading
+		 */
+		public void acquirePermit() {
+			try {
+				this.decodingPermits.acquire();
+				this.holdsPermit = true;
+			} catch (final InterruptedException e) {
+				this.cancelled = true;
+				throw new CancellationException("Interrupted while waiting for a decoding permit.");
+			}
+		}
+
+		private void releasePermit() {
+			if (this.holdsPermit) {
+				this.holdsPermit = false;
+				this.decodingPermits.release();
+			}
+		}
+
+		@Override
+		public void send(final IMonitoringRecord record) {
+			this.batch.add(record);
+			if (this.batch.size() == BATCH_SIZE) {
+				this.put(this.batch);
+				this.batch = new ArrayList<>(BATCH_SIZE);
+			}
+		}
+
+		@Override
+		public boolean sendNonBlocking(final IMonitoringRecord record) {
+			this.send(record);
+			return true;
+		}
+
+		public void close() {
+			if (!this.cancelled) {
+				try {
+					if (!this.batch.isEmpty()) {
+						this.put(this.batch);
+					}
+					this.put(END_OF_FILE);
+				} catch (final CancellationException e) { // NOPMD (empty catch)
+					// the stage has stopped reading
+				}
+			}
+			this.releasePermit();
+		}
+
+		/**
+		 * @throws CancellationException
+		 *             when the stage has stopped reading, to abort the deserializer
+		 */
+		private void put(final List<IMonitoringRecord> records) {
+			if (this.queue.offer(records)) {
+				return;
+			}
+			// let another worker decode while this one waits for the stage
+			this.releasePermit();
+			try {
+				this.queue.put(records);
+			} catch (final InterruptedException e) {
+				this.cancelled = true;
+				throw new CancellationException("Interrupted while passing records to the stage.");
+			}
+			this.acquirePermit();
+		}
+	}
+
+	/**
+	 * The current position in the decoded records of a log file during the merge.
+	 */
+	private static class MergeCursor implements Comparable<MergeCursor> {
+
+		private final int fileIndex;
+		private final BlockingQueue<List<IMonitoringRecord>> queue;
+		private List<IMonitoringRecord> batch = END_OF_FILE;
+		private int index;
+		private IMonitoringRecord head;
+
+		public MergeCursor(final int fileIndex, final BlockingQueue<List<IMonitoringRecord>> queue) {
+			this.fileIndex = fileIndex;
+			this.queue = queue;
+		}
+
+		/**
+		 * Move to the next record, waiting for the worker if necessary.
+		 *
+		 * @return <code>false</code> if the file is exhausted
+		 */
+		public boolean advance() throws InterruptedException {
+			if (this.index == this.batch.size()) {
+				this.batch = this.queue.take();
+				this.index = 0;
+				if (this.batch == END_OF_FILE) { // NOPMD (compare references)
+					this.head = null;
+					return false;
+				}
+			}
+			this.head = this.batch.get(this.index++);
+			return true;
+		}
+
+		@Override
+		public int compareTo(final MergeCursor other) {
+			final int result = Long.compare(this.head.getLoggingTimestamp(), other.head.getLoggingTimestamp());
+			return (result == 0) ? Integer.compare(this.fileIndex, other.fileIndex) : result; // NOCS (nested ternary)
+		}
+	}
+
+	/**
+	 * A log file in a directory or a zip file.
+	 */
+	private static class LogFile {
+
+		private final String name;
+		private final Path path;
+		private final ZipFile zipFile;
+		private final ZipEntry zipEntry;
+
+		public LogFile(final String name, final Path path, final ZipFile zipFile, final ZipEntry zipEntry) {
+			this.name = name;
+			this.path = path;
+			this.zipFile = zipFile;
+			this.zipEntry = zipEntry;
+		}
+	}
+
+	/**
+	 * Creates daemon worker threads named after the stage.
+	 */
+	private static class WorkerThreadFactory implements ThreadFactory {
+
+		private final String prefix;
+		private final AtomicInteger nextThread = new AtomicInteger();
+
+		public WorkerThreadFactory(final String stageId) {
+			this.prefix = stageId + "-worker-";
+		}
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			final Thread thread = new Thread(runnable, this.prefix + this.nextThread.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.source.tcp;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import org.slf4j.Logger;
+
+/**
+ * Accepts the connections of the {@link MultipleConnectionTcpSourceStage} and assigns each one to the reader thread with
+ * the fewest connections. The thread terminates when the server socket is closed.
+ *
+ * @author Kieker Project
+ * @since 1.15
+ */
+final class AcceptorThread extends Thread {
+
+	private final Logger logger;
+	private final ServerSocketChannel serverSocket;
+	private final ReaderThread[] readers;
+	private final int bufferSize;
+
+	/**
+	 * Create an acceptor thread.
+	 *
+	 * @param logger
+	 *            logger for the multi tcp reader
+	 * @param serverSocket
+	 *            bound blocking server socket
+	 * @param readers
+	 *            reader threads serving the connections
+	 * @param bufferSize
+	 *            capacity of the receiving buffer of each connection
+	 */
+	public AcceptorThread(final Logger logger, final ServerSocketChannel serverSocket, final ReaderThread[] readers, final int bufferSize) {
+		this.logger = logger;
+		this.serverSocket = serverSocket;
+		this.readers = readers;
+		this.bufferSize = bufferSize;
+	}
+
+	@Override
+	public void run() {
+		try {
+			while (this.serverSocket.isOpen()) {
+				final SocketChannel socketChannel = this.serverSocket.accept();
+				this.logger.debug("Connection from {}.", socketChannel.getRemoteAddress());
+				socketChannel.configureBlocking(false);
+				this.leastLoadedReader().register(new Connection(socketChannel, this.bufferSize));
+			}
+		} catch (final ClosedChannelException e) {
+			this.logger.debug("Listening port has been closed.");
+		} catch (final IOException e) {
+			this.logger.error("Cannot accept connections.", e);
+		}
+	}
+
+	private ReaderThread leastLoadedReader() {
+		ReaderThread leastLoaded = this.readers[0];
+		for (int i = 1; i < this.readers.length; i++) {
+			if (this.readers[i].getNumberOfConnections() < leastLoaded.getNumberOfConnections()) {
+				leastLoaded = this.readers[i];
+			}
+		}
+		return leastLoaded;
+	}
+}
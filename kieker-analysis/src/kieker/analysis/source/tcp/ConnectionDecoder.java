@@ -0,0 +1,209 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.source.tcp;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.slf4j.Logger;
+
+import kieker.analysis.source.rewriter.ITraceMetadataRewriter;
+import kieker.common.exception.RecordInstantiationException;
+import kieker.common.record.AbstractMonitoringRecord;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+import kieker.common.record.factory.IRecordFactory;
+
+import teetime.framework.OutputPort;
+
+/**
+ * Decodes the chunks received by the {@link ReaderThread}s into records and passes them to the record rewriter.
+ * It is used by the thread of the {@link MultipleConnectionTcpSourceStage} only. Hence, the connection buffers,
+ * the record rewriter, and the output port are never accessed concurrently.
+ *
+ * @author Reiner Jung
+ * @since 1.15
+ */
+final class ConnectionDecoder {
+
+	private static final int INT_BYTES = AbstractMonitoringRecord.TYPE_SIZE_INT;
+	private static final int LONG_BYTES = AbstractMonitoringRecord.TYPE_SIZE_LONG;
+	private static final Charset ENCODING = StandardCharsets.UTF_8;
+
+	private final CachedRecordFactoryCatalog recordFactories = CachedRecordFactoryCatalog.getInstance();
+
+	private final Logger logger;
+	private final ITraceMetadataRewriter recordRewriter;
+	private final OutputPort<IMonitoringRecord> outputPort;
+
+	/**
+	 * Create a decoder.
+	 *
+	 * @param logger
+	 *            logger for the multi tcp reader
+	 * @param recordRewriter
+	 *            record rewriter
+	 * @param outputPort
+	 *            output port
+	 */
+	public ConnectionDecoder(final Logger logger, final ITraceMetadataRewriter recordRewriter, final OutputPort<IMonitoringRecord> outputPort) {
+		this.logger = logger;
+		this.recordRewriter = recordRewriter;
+		this.outputPort = outputPort;
+	}
+
+	/**
+	 * Decode all complete records of the chunk. Incomplete records remain in the buffer of the connection until
+	 * the next chunk arrives. The connection is closed at the end of the stream or on an unrecoverable error.
+	 *
+	 * @param chunk
+	 *            received chunk
+	 */
+	public void decode(final ReceivedChunk chunk) {
+		final Connection connection = chunk.getConnection();
+		if (!chunk.isEndOfStream() && !connection.isError()) {
+			try {
+				this.append(connection, chunk.getBuffer());
+			} catch (final IOException e) {
+				this.logger.error("IO error while processing records.", e);
+				connection.setError(true);
+			}
+		}
+
+		if (chunk.isEndOfStream() || connection.isError()) {
+			this.close(chunk);
+		}
+	}
+
+	private void close(final ReceivedChunk chunk) {
+		final SocketChannel channel = chunk.getConnection().getChannel();
+		if (channel.isOpen()) {
+			try {
+				this.logger.debug("Socket closed: {}", channel.getRemoteAddress());
+				channel.close();
+			} catch (final IOException e) {
+				this.logger.warn("Cannot close connection.", e);
+			}
+			chunk.getReader().connectionClosed();
+		}
+	}
+
+	private void append(final Connection connection, final ByteBuffer chunk) throws IOException {
+		final ByteBuffer buffer = connection.getBuffer();
+		final int chunkLimit = chunk.limit();
+
+		while (chunk.hasRemaining() && !connection.isError()) {
+			if (!buffer.hasRemaining()) {
+				this.logger.error("Record does not fit into the receiving buffer of {} bytes.", buffer.capacity());
+				connection.setError(true);
+				return;
+			}
+			chunk.limit(Math.min(chunkLimit, chunk.position() + buffer.remaining()));
+			buffer.put(chunk);
+			chunk.limit(chunkLimit);
+
+			buffer.flip();
+			this.deserializeRecords(connection);
+			buffer.compact();
+		}
+	}
+
+	private void deserializeRecords(final Connection connection) throws IOException {
+		final ByteBuffer buffer = connection.getBuffer();
+		while (buffer.remaining() >= INT_BYTES) {
+			buffer.mark();
+			if (!this.deserializeNext(connection)) {
+				// incomplete record, move back
+				buffer.reset();
+				return;
+			}
+		}
+	}
+
+	private boolean deserializeNext(final Connection connection) throws IOException {
+		final int clazzId = connection.getBuffer().getInt();
+
+		if (clazzId == -1) {
+			return this.registerRegistryEntry(connection);
+		} else {
+			return this.deserializeRecord(connection, clazzId);
+		}
+	}
+
+	private boolean registerRegistryEntry(final Connection connection) {
+		final ByteBuffer buffer = connection.getBuffer();
+		// identify string identifier and string length
+		if (buffer.remaining() < (INT_BYTES + INT_BYTES)) {
+			return false;
+		}
+		final int id = buffer.getInt();
+		final int stringLength = buffer.getInt();
+
+		if (stringLength < 0) {
+			this.logger.error("Invalid string length {} of registry entry {}.", stringLength, id);
+			connection.setError(true);
+			return false;
+		} else if (buffer.remaining() < stringLength) {
+			return false;
+		} else {
+			final byte[] strBytes = new byte[stringLength];
+			buffer.get(strBytes);
+			connection.getRegistry().register(id, new String(strBytes, ENCODING));
+			return true;
+		}
+	}
+
+	private boolean deserializeRecord(final Connection connection, final int clazzId) throws IOException {
+		final ByteBuffer buffer = connection.getBuffer();
+
+		// identify logging timestamp
+		if (buffer.remaining() < LONG_BYTES) {
+			return false;
+		}
+		final long loggingTimestamp = buffer.getLong();
+
+		// identify record data
+		final String recordClassName = connection.getRegistry().get(clazzId);
+		final IRecordFactory<? extends IMonitoringRecord> recordFactory = (recordClassName == null) ? null
+				: this.recordFactories.get(recordClassName);
+		if (recordFactory == null) {
+			this.logger.error("Unknown class {} with id {}: No factory present. Closing connection.", recordClassName, clazzId);
+			connection.setError(true);
+			return false;
+		}
+		if (buffer.remaining() < recordFactory.getRecordSizeInBytes()) {
+			return false;
+		}
+
+		final IMonitoringRecord record;
+		try {
+			record = recordFactory.create(connection.getValueDeserializer());
+		} catch (final BufferUnderflowException e) { // NOPMD records with arrays are larger than their minimal size
+			return false;
+		} catch (final RecordInstantiationException e) {
+			this.logger.error("Failed to create: " + recordClassName, e);
+			connection.setError(true);
+			return false;
+		}
+
+		this.recordRewriter.rewrite(connection, record, loggingTimestamp, this.outputPort);
+		return true;
+	}
+}
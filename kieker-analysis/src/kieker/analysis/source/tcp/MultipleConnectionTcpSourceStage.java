@@ -18,33 +18,48 @@ package kieker.analysis.source.tcp;
 import java.io.IOException;
 import java.net.BindException;
 import java.net.InetSocketAddress;
-import java.nio.channels.ClosedByInterruptException;
-import java.nio.channels.SelectionKey;
-import java.nio.channels.Selector;
+import java.nio.ByteBuffer;
 import java.nio.channels.ServerSocketChannel;
-import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 
 import kieker.analysis.source.rewriter.ITraceMetadataRewriter;
 import kieker.common.record.IMonitoringRecord;
+import kieker.monitoring.queue.MpscRingBufferQueue;
 
 import teetime.framework.AbstractProducerStage;
 
 /**
- * This is a multi connection tcp source stage.
+ * This is a multi connection tcp source stage. The connections are distributed over several {@link ReaderThread}s,
+ * each serving its connections with its own selector. The reader threads only read the received bytes and hand them
+ * over via a lock-free queue to the thread of this stage, which decodes the records and sends them to the output port.
  *
  * @author Reiner Jung
  * @since 1.15
  */
 public class MultipleConnectionTcpSourceStage extends AbstractProducerStage<IMonitoringRecord> {
 
+	/** default number of reader threads. */
+	public static final int DEFAULT_NUMBER_OF_READERS = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+	/** size of the chunks read from a connection at once. */
+	private static final int CHUNK_SIZE = 64 * 1024;
+	/** number of chunks which may wait for decoding. */
+	private static final int CHUNK_QUEUE_CAPACITY = 1024;
+	/** time after which the stage checks whether it is still active. */
+	private static final long POLL_TIMEOUT_IN_MS = 100;
+
 	/** server input port. */
 	private final int inputPort;
 	private final int bufferSize;
+	private final int numberOfReaders;
 
 	private final ITraceMetadataRewriter recordRewriter;
 
 	/**
-	 * Create a single threaded multi connection tcp reader stage.
+	 * Create a multi connection tcp reader stage with {@link #DEFAULT_NUMBER_OF_READERS} reader threads.
 	 *
 	 * @param inputPort
 	 *            used to accept <code>IMonitoringRecord</code>s and string registry entries.
@@ -55,48 +70,114 @@ public class MultipleConnectionTcpSourceStage extends AbstractProducerStage<IMon
 	 */
 	public MultipleConnectionTcpSourceStage(final int inputPort, final int bufferSize,
 			final ITraceMetadataRewriter recordRewriter) {
+		this(inputPort, bufferSize, recordRewriter, DEFAULT_NUMBER_OF_READERS);
+	}
+
+	/**
+	 * Create a multi connection tcp reader stage.
+	 *
+	 * @param inputPort
+	 *            used to accept <code>IMonitoringRecord</code>s and string registry entries.
+	 * @param bufferSize
+	 *            capacity of the receiving buffer
+	 * @param recordRewriter
+	 *            rewriting records
+	 * @param numberOfReaders
+	 *            number of threads reading from the connections
+	 *
+	 * @since 1.15
+	 */
+	public MultipleConnectionTcpSourceStage(final int inputPort, final int bufferSize,
+			final ITraceMetadataRewriter recordRewriter, final int numberOfReaders) {
+		if (numberOfReaders < 1) {
+			throw new IllegalArgumentException("The number of reader threads must be positive, but was " + numberOfReaders);
+		}
 		this.inputPort = inputPort;
 		this.bufferSize = bufferSize;
 		this.recordRewriter = recordRewriter;
+		this.numberOfReaders = numberOfReaders;
 	}
 
 	@Override
 	protected void execute() {
-		try {
-			final ServerSocketChannel serverSocket = ServerSocketChannel.open();
+		final BlockingQueue<ReceivedChunk> chunkQueue = new MpscRingBufferQueue<>(CHUNK_QUEUE_CAPACITY);
+		final Queue<ByteBuffer> freeChunks = new ConcurrentLinkedQueue<>();
+		final ReaderThread[] readers = new ReaderThread[this.numberOfReaders];
+		final ConnectionDecoder decoder = new ConnectionDecoder(this.logger, this.recordRewriter, this.outputPort);
+		AcceptorThread acceptor = null;
+
+		try (ServerSocketChannel serverSocket = ServerSocketChannel.open()) {
 			serverSocket.bind(new InetSocketAddress(this.inputPort));
-			serverSocket.configureBlocking(true);
-			final Selector readSelector = Selector.open();
-			final ReaderThread reader = new ReaderThread(this.logger, readSelector, this.recordRewriter, this.outputPort);
-			reader.start();
+			for (int i = 0; i < readers.length; i++) {
+				readers[i] = new ReaderThread(this.logger, chunkQueue, freeChunks, CHUNK_SIZE);
+				readers[i].start();
+			}
+			acceptor = new AcceptorThread(this.logger, serverSocket, readers, this.bufferSize);
+			acceptor.start();
 
 			while (this.isActive()) {
-				final SocketChannel socketChannel = serverSocket.accept();
-
-				if (socketChannel != null) {
-					this.logger.debug("Connection from {}.", socketChannel.getRemoteAddress().toString());
-					// add socketChannel to list of channels
-					socketChannel.configureBlocking(false);
-
-					readSelector.wakeup();
-					final SelectionKey key = socketChannel.register(readSelector, SelectionKey.OP_READ);
-					final Connection connection = new Connection(socketChannel, this.bufferSize);
-					key.attach(connection);
+				final ReceivedChunk chunk = chunkQueue.poll(POLL_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
+				if (chunk != null) {
+					decoder.decode(chunk);
+					if (!chunk.isEndOfStream()) {
+						chunk.getBuffer().clear();
+						freeChunks.offer(chunk.getBuffer());
+					}
 				}
 			}
-			reader.terminate();
-			reader.join();
-		} catch (final ClosedByInterruptException e) {
-			this.logger.info("External shutdown called");
 		} catch (final BindException e) {
 			this.logger.error("Cannot estabilsh listening port: Address {} is already in use.", this.inputPort);
 		} catch (final IOException e) {
 			this.logger.error("Cannot establish listening port", e);
 		} catch (final InterruptedException e) {
-			this.logger.error("Reader termination was interrupted.", e);
+			this.logger.info("External shutdown called");
 		} finally {
+			MultipleConnectionTcpSourceStage.terminate(readers, acceptor);
 			this.workCompleted();
 		}
 	}
 
+	/**
+	 * Wait until the acceptor thread has ended, then stop the reader threads and wait until they have ended. The server
+	 * socket must have been closed before, which ends the acceptor thread. Hence, no connection is assigned to a reader
+	 * thread after it has closed its connections.
+	 */
+	static void terminate(final ReaderThread[] readers, final AcceptorThread acceptor) {
+		boolean interrupted = false;
+		if (acceptor != null) {
+			interrupted |= MultipleConnectionTcpSourceStage.join(acceptor);
+		}
+		for (final ReaderThread reader : readers) {
+			if (reader != null) {
+				reader.terminate();
+			}
+		}
+		for (final ReaderThread reader : readers) {
+			if (reader != null) {
+				interrupted |= MultipleConnectionTcpSourceStage.join(reader);
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Wait until the thread has ended, even if the waiting thread is interrupted, as a terminated thread ends without
+	 * blocking.
+	 *
+	 * @return true if the waiting thread has been interrupted
+	 */
+	private static boolean join(final Thread thread) {
+		boolean interrupted = false;
+		while (thread.isAlive()) {
+			try {
+				thread.join();
+			} catch (final InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		return interrupted;
+	}
+
 }
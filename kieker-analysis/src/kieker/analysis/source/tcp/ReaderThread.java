@@ -16,237 +16,180 @@
 package kieker.analysis.source.tcp;
 
 import java.io.IOException;
-import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.ClosedSelectorException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
-import java.nio.channels.SocketChannel;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
-import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 
-import kieker.analysis.source.rewriter.ITraceMetadataRewriter;
-import kieker.common.exception.RecordInstantiationException;
-import kieker.common.record.AbstractMonitoringRecord;
-import kieker.common.record.IMonitoringRecord;
-import kieker.common.record.factory.CachedRecordFactoryCatalog;
-import kieker.common.record.factory.IRecordFactory;
-
-import teetime.framework.OutputPort;
-
 /**
- * This is the reader for the MultipleConnectionTcpSourceStage.
+ * This is a reader thread of the {@link MultipleConnectionTcpSourceStage}. It serves its connections with one selector
+ * and only reads their bytes. The received chunks are handed over to the stage which decodes the records.
  *
  * @author Reiner Jung
  * @since 1.15
  */
 final class ReaderThread extends Thread {
 
-	private static final int INT_BYTES = AbstractMonitoringRecord.TYPE_SIZE_INT;
-	private static final int LONG_BYTES = AbstractMonitoringRecord.TYPE_SIZE_LONG;
-	private static final Charset ENCODING = StandardCharsets.UTF_8;
-
-	private final CachedRecordFactoryCatalog recordFactories = CachedRecordFactoryCatalog.getInstance();
-
 	private final Selector readSelector;
 	private final Logger logger;
 
-	private final ITraceMetadataRewriter recordRewriter;
-	private final OutputPort<IMonitoringRecord> outputPort;
-	private boolean active;
+	/** connections which have been assigned to this reader, but are not registered with the selector yet. */
+	private final Queue<Connection> pendingConnections = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger numberOfConnections = new AtomicInteger();
+
+	private final BlockingQueue<ReceivedChunk> chunkQueue;
+	private final Queue<ByteBuffer> freeChunks;
+	private final int chunkSize;
+
+	private volatile boolean active = true;
 
 	/**
 	 * Create a multi stream reader thread.
 	 *
 	 * @param logger
 	 *            logger for the multi tcp reader
+	 * @param chunkQueue
+	 *            queue to hand over the received chunks to the decoding stage
+	 * @param freeChunks
+	 *            pool of chunk buffers which have been processed by the stage
+	 * @param chunkSize
+	 *            size of newly allocated chunk buffers
 	 *
-	 * @param readSelector
-	 *            channel selector
-	 * @param recordRewriter
-	 *            record rewriter
-	 * @param outputPort
-	 *            output port
+	 * @throws IOException
+	 *             when the selector cannot be opened
 	 */
-	public ReaderThread(final Logger logger, final Selector readSelector, final ITraceMetadataRewriter recordRewriter,
-			final OutputPort<IMonitoringRecord> outputPort) {
-		this.readSelector = readSelector;
+	public ReaderThread(final Logger logger, final BlockingQueue<ReceivedChunk> chunkQueue, final Queue<ByteBuffer> freeChunks,
+			final int chunkSize) throws IOException {
+		this.readSelector = Selector.open();
 		this.logger = logger;
-		this.recordRewriter = recordRewriter;
-		this.outputPort = outputPort;
+		this.chunkQueue = chunkQueue;
+		this.freeChunks = freeChunks;
+		this.chunkSize = chunkSize;
 	}
 
-	@Override
-	public void run() {
-		this.active = true;
-		while (this.isAlive() && this.active) {
-			try {
-				final int readReady = this.readSelector.select();
+	/**
+	 * Assign a new connection to this reader. The connection is registered by the reader thread itself, since a
+	 * registration blocks as long as another thread is waiting in the selector.
+	 *
+	 * @param connection
+	 *            connection with a non-blocking channel
+	 */
+	public void register(final Connection connection) {
+		this.numberOfConnections.incrementAndGet();
+		this.pendingConnections.add(connection);
+		this.readSelector.wakeup();
+	}
 
-				if (readReady > 0) {
-					final Set<SelectionKey> selectedKeys = this.readSelector.selectedKeys();
-					final Iterator<SelectionKey> keyIterator = selectedKeys.iterator();
+	/**
+	 * Called by the stage after it has closed a connection of this reader.
+	 */
+	public void connectionClosed() {
+		this.numberOfConnections.decrementAndGet();
+	}
 
-					while (keyIterator.hasNext()) {
-						final SelectionKey key = keyIterator.next();
+	public int getNumberOfConnections() {
+		return this.numberOfConnections.get();
+	}
 
+	@Override
+	public void run() {
+		try {
+			while (this.active) {
+				this.readSelector.select();
+				this.registerPendingConnections();
+
+				final Iterator<SelectionKey> keyIterator = this.readSelector.selectedKeys().iterator();
+				while (keyIterator.hasNext()) {
+					final SelectionKey key = keyIterator.next();
+					keyIterator.remove();
+					if (key.isValid()) {
 						this.readFromSocket(key);
-
-						keyIterator.remove();
 					}
-
-					selectedKeys.clear();
-				} else {
-					Thread.sleep(100); // wait for the registration of the new key in MultipleConnectionTypSourceStage
 				}
-			} catch (final ClosedSelectorException e1) {
-				this.logger.error("Selector has already been closed.", e1);
-			} catch (final IOException e2) {
-				this.logger.error("IO error while reading from connection.", e2);
-			} catch (final InterruptedException e) {
-				this.logger.warn("Thread.sleep was interrupted.");
 			}
+		} catch (final ClosedSelectorException e) {
+			this.logger.error("Selector has already been closed.", e);
+		} catch (final IOException e) {
+			this.logger.error("IO error while selecting connections.", e);
+		} catch (final InterruptedException e) {
+			this.logger.debug("Reader thread was interrupted.");
+		} finally {
+			this.close();
 		}
 	}
 
-	private void readFromSocket(final SelectionKey key) throws IOException {
-		boolean endOfStreamReached = false;
-		final Connection connection = (Connection) key.attachment();
-		final SocketChannel socketChannel = connection.getChannel();
-
-		int bytesRead = socketChannel.read(connection.getBuffer());
-
-		while (bytesRead > 0) {
-			bytesRead = socketChannel.read(connection.getBuffer());
-		}
-		if (bytesRead == -1) {
-			endOfStreamReached = true;
-		}
-
-		this.processBuffer(connection);
-
-		if (endOfStreamReached || connection.isError()) {
-			this.logger.debug("Socket closed: " + socketChannel.getRemoteAddress().toString());
-			key.attach(null);
-			key.cancel();
-			key.channel().close();
-		}
-	}
-
-	private void processBuffer(final Connection connection) throws IOException {
-		final ByteBuffer buffer = connection.getBuffer();
-
-		buffer.flip();
-
-		try {
-			while ((buffer.position() + 4) < buffer.limit()) {
-				buffer.mark();
-				if (!this.onBufferReceived(connection)) {
-					return;
-				}
+	private void registerPendingConnections() {
+		Connection connection = this.pendingConnections.poll();
+		while (connection != null) {
+			try {
+				connection.getChannel().register(this.readSelector, SelectionKey.OP_READ, connection);
+			} catch (final ClosedChannelException e) {
+				this.logger.debug("Connection has been closed before its registration.");
+				this.connectionClosed();
 			}
-			buffer.mark();
-			buffer.compact();
-		} catch (final BufferUnderflowException ex) {
-			this.logger.warn("Unexpected buffer underflow. Resetting and compacting buffer.", ex);
-			buffer.reset();
-			buffer.compact();
+			connection = this.pendingConnections.poll();
 		}
 	}
 
-	private boolean onBufferReceived(final Connection connection) throws IOException {
-		// identify record class
-		if (connection.getBuffer().remaining() < INT_BYTES) {
-			return false;
-		}
-		final int clazzId = connection.getBuffer().getInt();
+	private void readFromSocket(final SelectionKey key) throws InterruptedException {
+		final Connection connection = (Connection) key.attachment();
 
-		if (clazzId == -1) {
-			return this.registerRegistryEntry(connection);
-		} else {
-			return this.deserializeRecord(connection, clazzId);
+		ByteBuffer chunk = this.freeChunks.poll();
+		if (chunk == null) {
+			chunk = ByteBuffer.allocateDirect(this.chunkSize);
 		}
-	}
 
-	private boolean registerRegistryEntry(final Connection connection) {
-		// identify string identifier and string length
-		if (connection.getBuffer().remaining() < (INT_BYTES
-				+ INT_BYTES)) {
-			// incomplete record, move back
-			connection.getBuffer().reset();
-			connection.getBuffer().compact();
+		int bytesRead;
+		try {
+			bytesRead = connection.getChannel().read(chunk);
+		} catch (final IOException e) {
+			this.logger.warn("IO error while reading from connection.", e);
+			bytesRead = -1;
+		}
 
-			return false;
+		if (bytesRead > 0) {
+			chunk.flip();
+			// blocks if the stage cannot keep up, which stops reading and thus throttles the senders
+			this.chunkQueue.put(new ReceivedChunk(connection, this, chunk));
 		} else {
-			final int id = connection.getBuffer().getInt();
-			final int stringLength = connection.getBuffer().getInt();
-
-			if (connection.getBuffer().remaining() < stringLength) {
-				// incomplete record, move back
-				connection.getBuffer().reset();
-				connection.getBuffer().compact();
-
-				return false;
-			} else {
-				final byte[] strBytes = new byte[stringLength];
-				connection.getBuffer().get(strBytes);
-				final String string = new String(strBytes, ENCODING);
-
-				connection.getRegistry().register(id, string);
-				return true;
+			this.freeChunks.offer(chunk);
+			if (bytesRead < 0) {
+				// the stage closes the channel after it has decoded all chunks of the connection
+				key.cancel();
+				this.chunkQueue.put(new ReceivedChunk(connection, this, null));
 			}
 		}
 	}
 
-	private boolean deserializeRecord(final Connection connection, final int clazzId) throws IOException {
-		final String recordClassName = connection.getRegistry().get(clazzId);
-
-		// identify logging timestamp
-		if (connection.getBuffer().remaining() < LONG_BYTES) {
-			// incomplete record, move back
-			connection.getBuffer().reset();
-			connection.getBuffer().compact();
-
-			return false;
-		} else {
-			final long loggingTimestamp = connection.getBuffer().getLong();
-
-			// identify record data
-			final IRecordFactory<? extends IMonitoringRecord> recordFactory = this.recordFactories.get(recordClassName);
-			if (recordFactory == null) {
-				this.logger.debug("Unknown class {}: No factory present. Aborting...", recordClassName);
-				connection.setError(true);
-				return false;
-			} else {
-				if (connection.getBuffer().remaining() < recordFactory.getRecordSizeInBytes()) {
-					// incomplete record, move back
-					connection.getBuffer().reset();
-					connection.getBuffer().compact();
-
-					return false;
-				} else {
-					try {
-						final IMonitoringRecord record = recordFactory.create(connection.getValueDeserializer());
-
-						this.recordRewriter.rewrite(connection, record, loggingTimestamp, this.outputPort);
-						return true;
-					} catch (final RecordInstantiationException ex) {
-						this.logger.error("Failed to create: " + recordClassName, ex);
-						// incomplete record, move back
-						connection.getBuffer().reset();
-						connection.getBuffer().compact();
-						return false;
-					}
-				}
+	private void close() {
+		try {
+			for (final SelectionKey key : this.readSelector.keys()) {
+				key.channel().close();
 			}
+			for (final Connection connection : this.pendingConnections) {
+				connection.getChannel().close();
+			}
+			this.readSelector.close();
+		} catch (final IOException e) {
+			this.logger.warn("Cannot close connections.", e);
 		}
 	}
 
+	/**
+	 * Stop the reader thread and close all its connections. The thread is interrupted as well, since it may be blocked
+	 * handing over a chunk to a full queue which the stage does not poll anymore.
+	 */
 	public void terminate() {
 		this.active = false;
+		this.readSelector.wakeup();
+		this.interrupt();
 	}
 }
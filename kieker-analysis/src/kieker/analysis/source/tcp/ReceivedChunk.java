@@ -0,0 +1,63 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.source.tcp;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bytes received by a {@link ReaderThread} from one connection. A chunk without buffer marks the end of the stream.
+ *
+ * @author Kieker Project
+ * @since 1.15
+ */
+final class ReceivedChunk {
+
+	private final Connection connection;
+	private final ReaderThread reader;
+	private final ByteBuffer buffer;
+
+	/**
+	 * Create a chunk.
+	 *
+	 * @param connection
+	 *            connection the bytes were read from
+	 * @param reader
+	 *            reader thread which serves the connection
+	 * @param buffer
+	 *            buffer in read mode, or <code>null</code> at the end of the stream
+	 */
+	public ReceivedChunk(final Connection connection, final ReaderThread reader, final ByteBuffer buffer) {
+		this.connection = connection;
+		this.reader = reader;
+		this.buffer = buffer;
+	}
+
+	public Connection getConnection() {
+		return this.connection;
+	}
+
+	public ReaderThread getReader() {
+		return this.reader;
+	}
+
+	public ByteBuffer getBuffer() {
+		return this.buffer;
+	}
+
+	public boolean isEndOfStream() {
+		return this.buffer == null;
+	}
+}
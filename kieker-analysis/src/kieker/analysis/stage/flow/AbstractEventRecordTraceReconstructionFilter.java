@@ -16,23 +16,18 @@
 package kieker.analysis.stage.flow;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import kieker.analysis.util.TraceTimeoutIndex;
 import kieker.common.record.flow.IFlowRecord;
 import kieker.common.record.flow.trace.AbstractTraceEvent;
 import kieker.common.record.flow.trace.ConstructionEvent;
@@ -50,6 +45,7 @@ import kieker.common.record.flow.trace.operation.constructor.object.BeforeConstr
 import kieker.common.record.flow.trace.operation.object.AfterOperationFailedObjectEvent;
 import kieker.common.record.flow.trace.operation.object.AfterOperationObjectEvent;
 import kieker.common.record.flow.trace.operation.object.BeforeOperationObjectEvent;
+import kieker.common.util.collection.LongObjectHashMap;
 
 import teetime.framework.AbstractStage;
 import teetime.framework.InputPort;
@@ -80,7 +76,10 @@ public abstract class AbstractEventRecordTraceReconstructionFilter extends Abstr
 	private final boolean repairEventBasedTraces;
 	private long maxEncounteredLoggingTimestamp = -1;
 
-	private final Map<Long, TraceBuffer> traceId2trace;
+	/** The open traces by their trace id; only accessed by the thread executing this stage. */
+	private final LongObjectHashMap<TraceBuffer> traceId2trace;
+	/** The open traces ordered by their expiry; only used if a timeout is set. */
+	private final TraceTimeoutIndex<TraceBuffer> timeoutIndex;
 
 	/**
 	 * Creates a new instance of this class using the given parameters.
@@ -108,12 +107,13 @@ public abstract class AbstractEventRecordTraceReconstructionFilter extends Abstr
 		} else {
 			this.timestampsInputPort = null;
 		}
-		this.traceId2trace = new ConcurrentHashMap<>();
+		this.traceId2trace = new LongObjectHashMap<>();
+		this.timeoutIndex = new TraceTimeoutIndex<>(this.maxTraceDuration, this.maxTraceTimeout);
 	}
 
 	@Override
 	protected void execute() throws Exception {
-		if (!this.hasTimeout) {
+		if (this.hasTimeout) {
 			final Long timestamp = this.timestampsInputPort.receive();
 			if (timestamp != null) {
 				synchronized (this) {
@@ -147,50 +147,40 @@ public abstract class AbstractEventRecordTraceReconstructionFilter extends Abstr
 	 *            The new record to handle.
 	 */
 	protected void newFlowRecordEvent(final IFlowRecord record) {
-		final Long traceId;
-		TraceBuffer traceBuffer;
+		final long traceId;
+		final TraceBuffer traceBuffer;
 		final long loggingTimestamp;
+		final boolean startMovedBackwards;
 		if (record instanceof TraceMetadata) {
 			traceId = ((TraceMetadata) record).getTraceId();
-			traceBuffer = this.traceId2trace.get(traceId);
-			if (traceBuffer == null) { // first record for this id!
-				synchronized (this) {
-					traceBuffer = this.traceId2trace.get(traceId);
-					if (traceBuffer == null) { // NOCS (DCL)
-						traceBuffer = new TraceBuffer();
-						traceBuffer.setRepairEventBasedTracesEnabled(this.repairEventBasedTraces);
-						this.traceId2trace.put(traceId, traceBuffer);
-					}
-				}
-			}
+			traceBuffer = this.getTraceBuffer(traceId);
 			traceBuffer.setTrace((TraceMetadata) record);
 			loggingTimestamp = -1;
+			startMovedBackwards = false;
 		} else if (record instanceof AbstractTraceEvent) {
 			traceId = ((AbstractTraceEvent) record).getTraceId();
-			traceBuffer = this.traceId2trace.get(traceId);
-			if (traceBuffer == null) { // first record for this id!
-				synchronized (this) {
-					traceBuffer = this.traceId2trace.get(traceId);
-					if (traceBuffer == null) { // NOCS (DCL)
-						traceBuffer = new TraceBuffer();
-						traceBuffer.setRepairEventBasedTracesEnabled(this.repairEventBasedTraces);
-						this.traceId2trace.put(traceId, traceBuffer);
-					}
-				}
-			}
+			traceBuffer = this.getTraceBuffer(traceId);
+			final long minLoggingTimestamp = traceBuffer.getMinLoggingTimestamp();
 			traceBuffer.insertEvent((AbstractTraceEvent) record);
 			loggingTimestamp = ((AbstractTraceEvent) record).getTimestamp();
+			startMovedBackwards = traceBuffer.getMinLoggingTimestamp() < minLoggingTimestamp;
 		} else {
 			return; // invalid type which should not happen due to the specified eventTypes
 		}
 		if (traceBuffer.isFinished()) {
 			synchronized (this) { // has to be synchronized because of timeout cleanup
 				this.traceId2trace.remove(traceId);
+				if (this.hasTimeout) {
+					this.timeoutIndex.remove(traceId);
+				}
 			}
 			this.validTracesOutputPort.send(traceBuffer.toTraceEvents());
 		}
 		if (this.hasTimeout) {
 			synchronized (this) {
+				if (startMovedBackwards) {
+					this.timeoutIndex.update(traceId, traceBuffer);
+				}
 				// can we assume a rough order of logging timestamps? (yes, except with DB
 				// reader)
 				if (loggingTimestamp > this.maxEncounteredLoggingTimestamp) {
@@ -201,15 +191,47 @@ public abstract class AbstractEventRecordTraceReconstructionFilter extends Abstr
 		}
 	}
 
+	private TraceBuffer getTraceBuffer(final long traceId) {
+		TraceBuffer traceBuffer = this.traceId2trace.get(traceId);
+		if (traceBuffer == null) { // first record for this id!
+			traceBuffer = new TraceBuffer();
+			traceBuffer.setRepairEventBasedTracesEnabled(this.repairEventBasedTraces);
+			this.traceId2trace.put(traceId, traceBuffer);
+			if (this.hasTimeout) {
+				this.timeoutIndex.add(traceId, traceBuffer);
+			}
+		}
+		return traceBuffer;
+	}
+
+	/**
+	 * Advances the logging time of this filter as if a record with the given logging timestamp had been processed and
+	 * handles the traces which have timed out. Filters which receive only a part of the records of the monitored system
+	 * (e.g., one partition of a parallel reconstruction) use this to process the timeouts like a single filter would do.
+	 *
+	 * @param loggingTimestamp
+	 *            the maximal logging timestamp of all records seen so far
+	 *
+	 * @since 1.15
+	 */
+	protected void advanceLoggingTimestamp(final long loggingTimestamp) {
+		if (this.hasTimeout) {
+			synchronized (this) {
+				if (loggingTimestamp > this.maxEncounteredLoggingTimestamp) {
+					this.maxEncounteredLoggingTimestamp = loggingTimestamp;
+					this.processTimeoutQueue(this.maxEncounteredLoggingTimestamp);
+				}
+			}
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public void onTerminating() {
 		synchronized (this) {
-			final Collection<Long> sortedTraceIds = this.getSortedTraceIds(this.traceId2trace.keySet());
-
-			for (final Long traceId : sortedTraceIds) {
+			for (final long traceId : this.getSortedTraceIds()) {
 				final TraceBuffer traceBuffer = this.traceId2trace.get(traceId);
 				if (this.repairEventBasedTraces && !traceBuffer.getEventStack().isEmpty()) {
 					traceBuffer.repairAllBeforeEventsLeftInStackAtTermination();
@@ -223,29 +245,20 @@ public abstract class AbstractEventRecordTraceReconstructionFilter extends Abstr
 			}
 
 			this.traceId2trace.clear();
+			this.timeoutIndex.clear();
 		}
 		super.onTerminating();
 	}
 
 	// only called within synchronized! We assume timestamps >= 0
 	private void processTimeoutQueue(final long timestamp) {
-		final long duration = timestamp - this.maxTraceDuration;
-		final long traceTimeout = timestamp - this.maxTraceTimeout;
-
-		final Collection<Long> sortedTraceIds = this.getSortedTraceIds(this.traceId2trace.keySet());
-
-		for (final Long traceId : sortedTraceIds) {
-			final TraceBuffer traceBuffer = this.traceId2trace.get(traceId);
-			if ((traceBuffer.getMaxLoggingTimestamp() <= traceTimeout) // long time no see
-					|| (traceBuffer.getMinLoggingTimestamp() <= duration)) { // max duration is gone
-
-				if (traceBuffer.isInvalid()) {
-					this.invalidTracesOutputPort.send(traceBuffer.toTraceEvents());
-				} else {
-					this.validTracesOutputPort.send(traceBuffer.toTraceEvents());
-				}
-
-				this.traceId2trace.remove(traceId);
+		// the index only returns the traces whose duration is gone or which have been silent for too long
+		for (final Long traceId : this.timeoutIndex.pollExpired(timestamp)) {
+			final TraceBuffer traceBuffer = this.traceId2trace.remove(traceId);
+			if (traceBuffer.isInvalid()) {
+				this.invalidTracesOutputPort.send(traceBuffer.toTraceEvents());
+			} else {
+				this.validTracesOutputPort.send(traceBuffer.toTraceEvents());
 			}
 		}
 	}
@@ -257,12 +270,11 @@ public abstract class AbstractEventRecordTraceReconstructionFilter extends Abstr
 	 * In future, we should better sort according to the start timestamp of each
 	 * trace.
 	 */
-	private Collection<Long> getSortedTraceIds(final Set<Long> keys) {
-		final List<Long> copiedKeys = new ArrayList<>(keys);
-		Collections.sort(copiedKeys);
+	private long[] getSortedTraceIds() {
+		final long[] keys = this.traceId2trace.keys();
+		Arrays.sort(keys);
 
-		return copiedKeys;
-		// return keys;
+		return keys;
 	}
 
 	/**
@@ -270,7 +282,7 @@ public abstract class AbstractEventRecordTraceReconstructionFilter extends Abstr
 	 *
 	 * @author Jan Waller
 	 */
-	private static final class TraceBuffer {
+	private static final class TraceBuffer implements TraceTimeoutIndex.ITrace {
 		private static final Logger LOGGER = LoggerFactory.getLogger(TraceBuffer.class);
 		private static final Comparator<AbstractTraceEvent> COMPARATOR = new TraceEventComperator();
 
@@ -502,12 +514,14 @@ public abstract class AbstractEventRecordTraceReconstructionFilter extends Abstr
 			}
 		}
 
+		@Override
 		public long getMaxLoggingTimestamp() {
 			synchronized (this) {
 				return this.maxLoggingTimestamp;
 			}
 		}
 
+		@Override
 		public long getMinLoggingTimestamp() {
 			synchronized (this) {
 				return this.minLoggingTimestamp;
@@ -0,0 +1,69 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.stage.flow;
+
+import java.util.concurrent.TimeUnit;
+
+import kieker.common.record.flow.trace.AbstractTraceEvent;
+
+import teetime.framework.InputPort;
+
+/**
+ * One partition of a {@link ParallelEventRecordTraceReconstructionFilter}. If a timeout is set, the worker expects exactly
+ * one clock value on its timestamps input port for each record, i.e., the maximal logging timestamp of all records which
+ * have been partitioned before this record. It handles the clock before the record. Hence, the traces time out as in a
+ * single {@link EventRecordTraceReconstructionFilter}.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+class EventRecordTraceReconstructionWorker extends AbstractEventRecordTraceReconstructionFilter {
+
+	private final InputPort<AbstractTraceEvent> traceRecordsInputPort = this.createInputPort(AbstractTraceEvent.class);
+	/** Whether the clock of the next record has already been handled. */
+	private boolean clockReceived;
+
+	public EventRecordTraceReconstructionWorker(final TimeUnit timeUnit, final boolean repairEventBasedTraces, final long maxTraceDuration,
+			final long maxTraceTimeout) {
+		super(timeUnit, repairEventBasedTraces, maxTraceDuration, maxTraceTimeout);
+	}
+
+	@Override
+	protected void execute() throws Exception {
+		final InputPort<Long> clockInputPort = this.getTimestampsInputPort();
+		if ((clockInputPort != null) && !this.clockReceived) {
+			final Long loggingTimestamp = clockInputPort.receive();
+			if (loggingTimestamp != null) {
+				this.advanceLoggingTimestamp(loggingTimestamp);
+				this.clockReceived = true;
+			}
+		}
+		// the clock of a record is sent before the record; once the clock port is closed, only its end remains
+		if ((clockInputPort == null) || this.clockReceived || clockInputPort.isClosed()) {
+			final AbstractTraceEvent record = this.traceRecordsInputPort.receive();
+			if (record != null) {
+				this.clockReceived = false;
+				this.newFlowRecordEvent(record);
+			}
+		}
+	}
+
+	public InputPort<AbstractTraceEvent> getTraceRecordsInputPort() {
+		return this.traceRecordsInputPort;
+	}
+}
@@ -0,0 +1,104 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.stage.flow;
+
+import java.util.concurrent.TimeUnit;
+
+import kieker.analysis.util.stage.TraceIdPartitionStage;
+import kieker.common.record.flow.trace.AbstractTraceEvent;
+
+import teetime.framework.CompositeStage;
+import teetime.framework.InputPort;
+import teetime.framework.OutputPort;
+import teetime.stage.basic.merger.Merger;
+
+/**
+ * Reconstructs event based (flow) traces like the {@link EventRecordTraceReconstructionFilter}, but with several
+ * reconstruction workers running in their own threads. The incoming records are partitioned by their trace id, so each
+ * trace is reconstructed by a single worker with a private trace buffer map, which gets the records of the trace in their
+ * original order. The valid and invalid traces of all workers are merged into a single output stream each. Hence, the
+ * order of the traces may differ from the order of a single filter, but the traces themselves are the same.
+ *
+ * <p>
+ * Trace timeouts are evaluated against the maximal logging timestamp of all records, as in a single filter: the partition
+ * stage sends it to a worker along with each record. In contrast to the {@link EventRecordTraceReconstructionFilter}, this
+ * stage has no input port for a periodic time signal.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ParallelEventRecordTraceReconstructionFilter extends CompositeStage {
+
+	private final InputPort<AbstractTraceEvent> traceRecordsInputPort;
+	private final OutputPort<TraceEventRecords> validTracesOutputPort;
+	private final OutputPort<TraceEventRecords> invalidTracesOutputPort;
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 *
+	 * @param timeUnit
+	 *            property determining the time unit
+	 * @param repairEventBasedTraces
+	 *            repair traces where AfterEvents are missing
+	 * @param maxTraceDuration
+	 *            max trace duration
+	 * @param maxTraceTimeout
+	 *            max trace timeout, if set to Long.MAX_VALUE no timeout is used
+	 * @param numWorkers
+	 *            the number of reconstruction workers (threads)
+	 */
+	public ParallelEventRecordTraceReconstructionFilter(final TimeUnit timeUnit, final boolean repairEventBasedTraces, final long maxTraceDuration,
+			final long maxTraceTimeout, final int numWorkers) {
+		final boolean hasTimeout = (maxTraceTimeout != Long.MAX_VALUE) || (maxTraceDuration != Long.MAX_VALUE);
+		final TraceIdPartitionStage<AbstractTraceEvent> partitioner = new TraceIdPartitionStage<>(numWorkers, hasTimeout);
+		final Merger<TraceEventRecords> validTracesMerger = new Merger<>();
+		validTracesMerger.declareActive();
+		final Merger<TraceEventRecords> invalidTracesMerger = new Merger<>();
+		invalidTracesMerger.declareActive();
+
+		for (int i = 0; i < numWorkers; i++) {
+			final EventRecordTraceReconstructionWorker worker = new EventRecordTraceReconstructionWorker(timeUnit, repairEventBasedTraces,
+					maxTraceDuration, maxTraceTimeout);
+			worker.declareActive();
+			this.connectPorts(partitioner.getOutputPort(i), worker.getTraceRecordsInputPort());
+			if (hasTimeout) {
+				this.connectPorts(partitioner.getClockOutputPort(i), worker.getTimestampsInputPort());
+			}
+			this.connectPorts(worker.getValidTracesOutputPort(), validTracesMerger.getNewInputPort());
+			this.connectPorts(worker.getInvalidTracesOutputPort(), invalidTracesMerger.getNewInputPort());
+		}
+
+		this.traceRecordsInputPort = partitioner.getInputPort();
+		this.validTracesOutputPort = validTracesMerger.getOutputPort();
+		this.invalidTracesOutputPort = invalidTracesMerger.getOutputPort();
+	}
+
+	public InputPort<AbstractTraceEvent> getTraceRecordsInputPort() {
+		return this.traceRecordsInputPort;
+	}
+
+	public OutputPort<TraceEventRecords> getValidTracesOutputPort() {
+		return this.validTracesOutputPort;
+	}
+
+	public OutputPort<TraceEventRecords> getInvalidTracesOutputPort() {
+		return this.invalidTracesOutputPort;
+	}
+
+}
@@ -30,7 +30,25 @@ import kieker.analysisteetime.model.analysismodel.trace.OperationCall;
 public class FullReponseTimeStatisticsStage extends FullStatisticsDecoratorStage<OperationCall> {
 
 	public FullReponseTimeStatisticsStage(final StatisticsModel statisticsModel, final Function<OperationCall, Object> objectAccesor) {
-		super(statisticsModel, Units.RESPONSE_TIME, c -> c.getDuration().toNanos(), objectAccesor);
+		this(statisticsModel, objectAccesor, false);
+	}
+
+	/**
+	 * Creates a new response time statistics stage.
+	 *
+	 * @param statisticsModel
+	 *            the model to store the statistics in
+	 * @param objectAccesor
+	 *            accessor for the model object of an operation call
+	 * @param estimateQuantiles
+	 *            whether the median and the percentiles of the response times are estimated in bounded memory, see
+	 *            {@link FullStatisticsDecoratorStage#FullStatisticsDecoratorStage(StatisticsModel, IUnit, Function, Function, boolean)}
+	 *
+	 * @since 1.15
+	 */
+	public FullReponseTimeStatisticsStage(final StatisticsModel statisticsModel, final Function<OperationCall, Object> objectAccesor,
+			final boolean estimateQuantiles) {
+		super(statisticsModel, Units.RESPONSE_TIME, c -> c.getDuration().toNanos(), objectAccesor, estimateQuantiles);
 	}
 
 }
@@ -20,9 +20,11 @@ import java.util.function.Function;
 
 import kieker.analysis.statistics.calculating.AverageCalculator;
 import kieker.analysis.statistics.calculating.CountCalculator;
+import kieker.analysis.statistics.calculating.ICalculator;
 import kieker.analysis.statistics.calculating.MaxCalculator;
 import kieker.analysis.statistics.calculating.MedianCalculator;
 import kieker.analysis.statistics.calculating.MinCalculator;
+import kieker.analysis.statistics.calculating.QuantileCalculator;
 import kieker.analysis.statistics.calculating.TotalCalculator;
 
 import teetime.framework.CompositeStage;
@@ -30,6 +32,10 @@ import teetime.framework.InputPort;
 import teetime.framework.OutputPort;
 
 /**
+ * Sets the count, total, minimum, maximum, average, and median of the values per model object. By default, the median
+ * is exact, i.e., the mean of the two middle values for an even number of values, and all values are kept. Optionally,
+ * a {@link QuantileCalculator} estimates the median and the 90th, 95th, 99th, and 99.9th percentile in bounded memory
+ * instead. The estimated median is the lower median with a relative error of less than 1%.
  *
  * @param <T>
  *            Type of elements
@@ -46,6 +52,28 @@ public class FullStatisticsDecoratorStage<T> extends CompositeStage {
 
 	public FullStatisticsDecoratorStage(final StatisticsModel statisticsModel, final IUnit unit, final Function<T, Long> valueAccessor,
 			final Function<T, Object> objectAccesor) {
+		this(statisticsModel, unit, valueAccessor, objectAccesor, false);
+	}
+
+	/**
+	 * Creates a new statistics stage.
+	 *
+	 * @param statisticsModel
+	 *            the model to store the statistics in
+	 * @param unit
+	 *            the unit of the statistics
+	 * @param valueAccessor
+	 *            accessor for the values
+	 * @param objectAccesor
+	 *            accessor for the model object of an element
+	 * @param estimateQuantiles
+	 *            whether the median and the percentiles are estimated with a {@link QuantileCalculator} instead of
+	 *            calculating the exact median with a {@link MedianCalculator}
+	 *
+	 * @since 1.15
+	 */
+	public FullStatisticsDecoratorStage(final StatisticsModel statisticsModel, final IUnit unit, final Function<T, Long> valueAccessor,
+			final Function<T, Object> objectAccesor, final boolean estimateQuantiles) {
 
 		this.countStatistics = new StatisticsDecoratorStage<>(statisticsModel, unit, new CountCalculator<>(), objectAccesor);
 		final StatisticsDecoratorStage<T> totalStatistics = new StatisticsDecoratorStage<>(statisticsModel, unit, new TotalCalculator<>(valueAccessor),
@@ -53,7 +81,13 @@ public class FullStatisticsDecoratorStage<T> extends CompositeStage {
 		final StatisticsDecoratorStage<T> minStatistics = new StatisticsDecoratorStage<>(statisticsModel, unit, new MinCalculator<>(valueAccessor), objectAccesor);
 		final StatisticsDecoratorStage<T> maxStatistics = new StatisticsDecoratorStage<>(statisticsModel, unit, new MaxCalculator<>(valueAccessor), objectAccesor);
 		final StatisticsDecoratorStage<T> averageStatistics = new StatisticsDecoratorStage<>(statisticsModel, unit, new AverageCalculator<>(), objectAccesor);
-		this.medianStatistics = new StatisticsDecoratorStage<>(statisticsModel, unit, new MedianCalculator<>(valueAccessor), objectAccesor);
+		final ICalculator<T> medianCalculator;
+		if (estimateQuantiles) {
+			medianCalculator = new QuantileCalculator<>(valueAccessor);
+		} else {
+			medianCalculator = new MedianCalculator<>(valueAccessor);
+		}
+		this.medianStatistics = new StatisticsDecoratorStage<>(statisticsModel, unit, medianCalculator, objectAccesor);
 
 		super.connectPorts(this.countStatistics.getOutputPort(), totalStatistics.getInputPort());
 		super.connectPorts(totalStatistics.getOutputPort(), minStatistics.getInputPort());
@@ -25,6 +25,6 @@ package kieker.analysis.statistics;
  */
 public enum Properties implements IProperty {
 
-	MIN, MAX, AVERAGE, MEDIAN, TOTAL, COUNT;
+	MIN, MAX, AVERAGE, MEDIAN, TOTAL, COUNT, PERCENTILE_90, PERCENTILE_95, PERCENTILE_99, PERCENTILE_99_9;
 
 }
@@ -26,6 +26,8 @@ import kieker.analysis.statistics.Statistic;
 import kieker.analysis.util.RunningMedian;
 
 /**
+ * Calculates the exact median of all values per model object. It keeps all values; use a {@link QuantileCalculator} to
+ * estimate the median in bounded memory.
  *
  * @param <T>
  *            Type of elements
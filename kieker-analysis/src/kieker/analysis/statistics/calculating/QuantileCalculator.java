@@ -0,0 +1,156 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.statistics.calculating;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import kieker.analysis.statistics.IProperty;
+import kieker.analysis.statistics.Properties;
+import kieker.analysis.statistics.Statistic;
+import kieker.analysis.util.LogHistogram;
+
+/**
+ * Estimates quantiles, e.g., the median and the 99th percentile, with a {@link LogHistogram} per model object. In contrast
+ * to the {@link MedianCalculator}, the memory per model object does not grow with the number of values. The estimates are
+ * approximate: a quantile q is the value of rank ceil(q * n) among the n values, within the relative error of the
+ * histogram. Hence, for an even number of values, the median is the lower of the two middle values rather than their
+ * mean.
+ *
+ * @param <T>
+ *            Type of elements
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class QuantileCalculator<T> implements ICalculator<T> {
+
+	/** The median, the 90th, 95th, 99th, and 99.9th percentile. */
+	public static final Map<IProperty, Double> DEFAULT_QUANTILES;
+
+	static {
+		final Map<IProperty, Double> quantiles = new LinkedHashMap<>(); // NOPMD (unmodifiable after initialization)
+		quantiles.put(Properties.MEDIAN, 0.5);
+		quantiles.put(Properties.PERCENTILE_90, 0.9);
+		quantiles.put(Properties.PERCENTILE_95, 0.95);
+		quantiles.put(Properties.PERCENTILE_99, 0.99);
+		quantiles.put(Properties.PERCENTILE_99_9, 0.999);
+		DEFAULT_QUANTILES = Collections.unmodifiableMap(quantiles);
+	}
+
+	private final Map<Object, Estimator> estimators = new HashMap<>(); // NOPMD (class not designed for concurrent access)
+	private final Function<T, Long> valueAccessor;
+	private final int precisionBits;
+	private final IProperty[] properties;
+	private final double[] quantiles;
+
+	/**
+	 * Creates a calculator for the {@link #DEFAULT_QUANTILES} with the default precision.
+	 *
+	 * @param valueAccessor
+	 *            accessor for the non-negative values
+	 */
+	public QuantileCalculator(final Function<T, Long> valueAccessor) {
+		this(valueAccessor, LogHistogram.DEFAULT_PRECISION_BITS, DEFAULT_QUANTILES);
+	}
+
+	/**
+	 * Creates a calculator for a single quantile with the default precision.
+	 *
+	 * @param valueAccessor
+	 *            accessor for the non-negative values
+	 * @param property
+	 *            the property of the statistic to set
+	 * @param quantile
+	 *            the quantile between 0 and 1
+	 */
+	public QuantileCalculator(final Function<T, Long> valueAccessor, final IProperty property, final double quantile) {
+		this(valueAccessor, LogHistogram.DEFAULT_PRECISION_BITS, Collections.singletonMap(property, quantile));
+	}
+
+	/**
+	 * Creates a calculator.
+	 *
+	 * @param valueAccessor
+	 *            accessor for the non-negative values
+	 * @param precisionBits
+	 *            the precision of the histograms, see {@link LogHistogram#LogHistogram(int)}
+	 * @param quantiles
+	 *            the properties of the statistic to set and their quantiles between 0 and 1
+	 */
+	public QuantileCalculator(final Function<T, Long> valueAccessor, final int precisionBits, final Map<IProperty, Double> quantiles) {
+		this.valueAccessor = valueAccessor;
+		this.precisionBits = precisionBits;
+		this.properties = new IProperty[quantiles.size()];
+		this.quantiles = new double[quantiles.size()];
+		int i = 0;
+		for (final Map.Entry<IProperty, Double> entry : quantiles.entrySet()) {
+			if ((entry.getValue() < 0) || (entry.getValue() > 1)) {
+				throw new IllegalArgumentException("The quantile must be between 0 and 1, but was " + entry.getValue());
+			}
+			this.properties[i] = entry.getKey();
+			this.quantiles[i] = entry.getValue();
+			i++;
+		}
+	}
+
+	@Override
+	public void calculate(final Statistic statistic, final T input, final Object modelObject) {
+		final Estimator estimator = this.estimators.computeIfAbsent(modelObject, o -> new Estimator(this.precisionBits, this.quantiles));
+		estimator.histogram.add(this.valueAccessor.apply(input));
+		for (int i = 0; i < this.properties.length; i++) {
+			statistic.setProperty(this.properties[i], estimator.cursors[i].getValue());
+		}
+	}
+
+	/**
+	 * Returns the histogram of a model object, e.g., to {@link LogHistogram#merge(LogHistogram) merge} it with the histogram
+	 * of another calculator which processed a different part of the input.
+	 *
+	 * @param modelObject
+	 *            the model object
+	 *
+	 * @return the histogram of all values of the model object, if there is any
+	 */
+	public Optional<LogHistogram> getHistogram(final Object modelObject) {
+		final Estimator estimator = this.estimators.get(modelObject);
+		return (estimator == null) ? Optional.empty() : Optional.of(estimator.histogram); // NOCS (inline conditional)
+	}
+
+	/**
+	 * The histogram of a model object and a cursor per quantile.
+	 */
+	private static final class Estimator {
+
+		private final LogHistogram histogram;
+		private final LogHistogram.Cursor[] cursors;
+
+		public Estimator(final int precisionBits, final double[] quantiles) {
+			this.histogram = new LogHistogram(precisionBits);
+			this.cursors = new LogHistogram.Cursor[quantiles.length];
+			for (int i = 0; i < quantiles.length; i++) {
+				this.cursors[i] = this.histogram.newCursor(quantiles[i]);
+			}
+		}
+	}
+
+}
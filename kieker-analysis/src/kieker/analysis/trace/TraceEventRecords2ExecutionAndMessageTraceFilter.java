@@ -146,6 +146,7 @@ public class TraceEventRecords2ExecutionAndMessageTraceFilter extends AbstractTr
 		}
 		try {
 			traceEventRecordHandler.finish();
+			executionTrace.seal();
 			final MessageTrace messageTrace = executionTrace.toMessageTrace(SystemModelRepository.ROOT_EXECUTION);
 			this.executionTraceOutputPort.send(executionTrace);
 			this.messageTraceOutputPort.send(messageTrace);
@@ -0,0 +1,89 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.trace.reconstruction;
+
+import java.time.temporal.TemporalUnit;
+
+import kieker.analysis.util.stage.TraceIdPartitionStage;
+import kieker.analysisteetime.model.analysismodel.deployment.DeploymentModel;
+import kieker.analysisteetime.model.analysismodel.trace.Trace;
+import kieker.common.record.flow.IFlowRecord;
+
+import teetime.framework.CompositeStage;
+import teetime.framework.InputPort;
+import teetime.framework.OutputPort;
+import teetime.stage.basic.ITransformation;
+import teetime.stage.basic.merger.Merger;
+
+/**
+ * Reconstructs traces like the {@link TraceReconstructorStage}, but with several {@link TraceReconstructorStage}s running
+ * in their own threads. The incoming records are partitioned by their trace id, so each trace is reconstructed by a single
+ * worker, which gets the records of the trace in their original order. The reconstructed traces of all workers are merged
+ * into a single output stream. Hence, the order of the traces may differ from the order of a single
+ * {@link TraceReconstructorStage}.
+ *
+ * <p>
+ * The workers look up the deployed operations in the deployment model while it may still be extended by a
+ * {@link kieker.analysis.model.DeploymentModelAssembler}. Both synchronize on the deployment model for this.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ParallelTraceReconstructorStage extends CompositeStage implements ITransformation<IFlowRecord, Trace> {
+
+	private final InputPort<IFlowRecord> inputPort;
+	private final OutputPort<Trace> outputPort;
+
+	/**
+	 * Creates a new parallel trace reconstruction.
+	 *
+	 * @param deploymentModel
+	 *            the deployment model containing the operations of the traces
+	 * @param temporalUnit
+	 *            the time unit of the records
+	 * @param numWorkers
+	 *            the number of reconstruction workers (threads)
+	 */
+	public ParallelTraceReconstructorStage(final DeploymentModel deploymentModel, final TemporalUnit temporalUnit, final int numWorkers) {
+		final TraceIdPartitionStage<IFlowRecord> partitioner = new TraceIdPartitionStage<>(numWorkers, false);
+		final Merger<Trace> merger = new Merger<>();
+		merger.declareActive();
+
+		for (int i = 0; i < numWorkers; i++) {
+			final TraceReconstructorStage worker = new TraceReconstructorStage(deploymentModel, temporalUnit);
+			worker.declareActive();
+			this.connectPorts(partitioner.getOutputPort(i), worker.getInputPort());
+			this.connectPorts(worker.getOutputPort(), merger.getNewInputPort());
+		}
+
+		this.inputPort = partitioner.getInputPort();
+		this.outputPort = merger.getOutputPort();
+	}
+
+	@Override
+	public InputPort<IFlowRecord> getInputPort() {
+		return this.inputPort;
+	}
+
+	@Override
+	public OutputPort<Trace> getOutputPort() {
+		return this.outputPort;
+	}
+
+}
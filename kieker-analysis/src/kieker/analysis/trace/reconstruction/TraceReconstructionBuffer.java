@@ -19,8 +19,6 @@ package kieker.analysis.trace.reconstruction;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.TemporalUnit;
-import java.util.Deque;
-import java.util.LinkedList;
 
 import kieker.analysis.util.time.Instants;
 import kieker.analysisteetime.model.analysismodel.deployment.DeployedComponent;
@@ -34,6 +32,7 @@ import kieker.common.record.flow.trace.TraceMetadata;
 import kieker.common.record.flow.trace.operation.AfterOperationEvent;
 import kieker.common.record.flow.trace.operation.AfterOperationFailedEvent;
 import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.common.util.collection.ArrayStack;
 
 /**
  *
@@ -48,7 +47,7 @@ public class TraceReconstructionBuffer {
 	private final TraceMetadata traceMetadata;
 	private final TemporalUnit temporalUnit;
 
-	private final Deque<BeforeOperationEvent> stack = new LinkedList<>();
+	private final ArrayStack<BeforeOperationEvent> stack = new ArrayStack<>();
 	private OperationCall root;
 	private OperationCall current;
 
@@ -66,10 +65,13 @@ public class TraceReconstructionBuffer {
 		final Instant start = Instants.createFromEpochTimestamp(record.getTimestamp(), this.temporalUnit);
 		newCall.setStart(start);
 
-		final DeploymentContext context = this.deploymentModel.getDeploymentContexts()
-				.get(this.traceMetadata.getHostname());
-		final DeployedComponent component = context.getComponents().get(record.getClassSignature());
-		final DeployedOperation operation = component.getContainedOperations().get(record.getOperationSignature());
+		final DeployedOperation operation;
+		synchronized (this.deploymentModel) { // the model may be extended concurrently (cf. DeploymentModelAssembler)
+			final DeploymentContext context = this.deploymentModel.getDeploymentContexts()
+					.get(this.traceMetadata.getHostname());
+			final DeployedComponent component = context.getComponents().get(record.getClassSignature());
+			operation = component.getContainedOperations().get(record.getOperationSignature());
+		}
 		newCall.setOperation(operation);
 
 		newCall.setOrderIndex(record.getOrderIndex());
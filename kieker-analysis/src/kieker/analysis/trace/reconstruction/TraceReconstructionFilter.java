@@ -199,6 +199,8 @@ public class TraceReconstructionFilter extends AbstractTraceProcessingFilter<Exe
 	 */
 	private void processExecutionTrace(final ExecutionTrace executionTrace) throws ExecutionEventProcessingException {
 		final long curTraceId = executionTrace.getTraceId();
+		// the trace is complete or has timed out, later executions of this trace start a new one
+		executionTrace.seal();
 		try {
 			// If the polled trace is invalid, the following method toMessageTrace(..)
 			// throws an exception
@@ -41,6 +41,11 @@ import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
 final class TraceReconstructor {
 
 	private final DeploymentModel deploymentModel;
+	/**
+	 * Unlike the event record trace reconstruction filters, this map stays a HashMap: for trace ids counting up, it keeps
+	 * consecutive traces in consecutive slots, which made the reconstruction about twice as fast as with a
+	 * LongObjectHashMap.
+	 */
 	private final Map<Long, TraceReconstructionBuffer> traceBuffers = new HashMap<>(); // NOPMD (no concurrent access
 																						// intended)
 	private final List<TraceReconstructionBuffer> faultyTraceBuffers = new ArrayList<>();
@@ -0,0 +1,332 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.util;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of non-negative <code>long</code> values, e.g., response times, which estimates quantiles in bounded memory.
+ * Like an HDR histogram, it divides each power of two into 2^precisionBits buckets of equal width. Hence, a quantile
+ * estimate has a relative error of at most 2^-(precisionBits + 1), and values below 2^precisionBits are counted exactly.
+ * The histogram only allocates the buckets between the smallest and the largest value added so far, which is at most
+ * (64 - precisionBits) * 2^precisionBits counters.
+ *
+ * <p>
+ * Histograms with the same precision can be merged, e.g., to combine the results of parallel analyses. The histogram is
+ * not thread-safe.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public final class LogHistogram {
+
+	/** The default precision yields a relative error of less than 1%. */
+	public static final int DEFAULT_PRECISION_BITS = 6;
+	private static final int MAX_PRECISION_BITS = 16;
+
+	private static final long[] NO_COUNTS = new long[0];
+	private static final Cursor[] NO_CURSORS = new Cursor[0];
+
+	private final int precisionBits;
+	private final int subBucketCount;
+
+	/** The counts of the buckets with the indices firstIndex, firstIndex + 1, ... */
+	private long[] counts = NO_COUNTS;
+	private int firstIndex;
+
+	private long totalCount;
+	private long min = Long.MAX_VALUE;
+	private long max = Long.MIN_VALUE;
+
+	private Cursor[] cursors = NO_CURSORS;
+
+	/**
+	 * Creates a new histogram with the {@link #DEFAULT_PRECISION_BITS default precision}.
+	 */
+	public LogHistogram() {
+		this(DEFAULT_PRECISION_BITS);
+	}
+
+	/**
+	 * Creates a new histogram.
+	 *
+	 * @param precisionBits
+	 *            the number of bits of each value which are kept exactly, between 1 and 16
+	 */
+	public LogHistogram(final int precisionBits) {
+		if ((precisionBits < 1) || (precisionBits > MAX_PRECISION_BITS)) {
+			throw new IllegalArgumentException("The precision must be between 1 and " + MAX_PRECISION_BITS + " bits, but was " + precisionBits);
+		}
+		this.precisionBits = precisionBits;
+		this.subBucketCount = 1 << precisionBits;
+	}
+
+	public void add(final long value) {
+		this.add(value, 1);
+	}
+
+	/**
+	 * Adds a value several times.
+	 *
+	 * @param value
+	 *            the value, not negative
+	 * @param count
+	 *            how often the value is added
+	 */
+	public void add(final long value, final long count) {
+		if (value < 0) {
+			throw new IllegalArgumentException("The histogram only supports non-negative values, but got " + value);
+		}
+		if (count <= 0) {
+			return;
+		}
+		final int index = this.indexOf(value);
+		this.ensureIndex(index);
+		this.counts[index - this.firstIndex] += count;
+		this.totalCount += count;
+		this.min = Math.min(this.min, value);
+		this.max = Math.max(this.max, value);
+		for (final Cursor cursor : this.cursors) {
+			if (index < cursor.index) {
+				cursor.countBelow += count;
+			}
+		}
+	}
+
+	/**
+	 * Adds all values of the given histogram to this histogram.
+	 *
+	 * @param other
+	 *            a histogram with the same precision
+	 */
+	public void merge(final LogHistogram other) {
+		if (other.precisionBits != this.precisionBits) {
+			throw new IllegalArgumentException("Cannot merge a histogram with " + other.precisionBits + " precision bits into one with "
+					+ this.precisionBits + " precision bits.");
+		}
+		if (other.totalCount == 0) {
+			return;
+		}
+		final int otherMinIndex = this.indexOf(other.min);
+		final int otherMaxIndex = this.indexOf(other.max);
+		this.ensureIndex(otherMinIndex);
+		this.ensureIndex(otherMaxIndex);
+		for (int index = otherMinIndex; index <= otherMaxIndex; index++) {
+			this.counts[index - this.firstIndex] += other.counts[index - other.firstIndex];
+		}
+		this.totalCount += other.totalCount;
+		this.min = Math.min(this.min, other.min);
+		this.max = Math.max(this.max, other.max);
+		for (final Cursor cursor : this.cursors) {
+			cursor.reset();
+		}
+	}
+
+	/**
+	 * Estimates the value below or at which the given fraction of all values lies (nearest rank). For instance, the
+	 * quantile 0.5 of an even number of values estimates the lower median. This method walks through the buckets; use a
+	 * {@link #newCursor(double) cursor} to estimate a quantile repeatedly while values are added.
+	 *
+	 * @param quantile
+	 *            the quantile between 0 and 1
+	 *
+	 * @return the estimate, which is never smaller than the minimum or larger than the maximum of all values; the minimum and
+	 *         the maximum themselves are exact
+	 */
+	public long getQuantile(final double quantile) {
+		LogHistogram.checkQuantile(quantile);
+		final long rank = this.rankOf(quantile);
+		if (rank == 1) {
+			return this.min;
+		} else if (rank == this.totalCount) {
+			return this.max;
+		}
+		// walk from the end which is closer to the rank, e.g., from the largest values for the 99th percentile
+		int i;
+		if (rank <= (this.totalCount / 2)) {
+			long cumulativeCount = 0;
+			i = -1;
+			while (cumulativeCount < rank) {
+				cumulativeCount += this.counts[++i];
+			}
+		} else {
+			long cumulativeCount = this.totalCount;
+			i = this.counts.length;
+			while (cumulativeCount >= rank) {
+				cumulativeCount -= this.counts[--i];
+			}
+		}
+		return this.estimateOf(this.firstIndex + i);
+	}
+
+	/**
+	 * Creates a cursor which estimates the given quantile like {@link #getQuantile(double)}. The cursor remembers the bucket
+	 * of its last estimate and moves from there, which usually takes only a few steps after adding a value.
+	 *
+	 * @param quantile
+	 *            the quantile between 0 and 1
+	 *
+	 * @return the new cursor
+	 */
+	public Cursor newCursor(final double quantile) {
+		LogHistogram.checkQuantile(quantile);
+		final Cursor cursor = new Cursor(quantile);
+		this.cursors = Arrays.copyOf(this.cursors, this.cursors.length + 1);
+		this.cursors[this.cursors.length - 1] = cursor;
+		return cursor;
+	}
+
+	private static void checkQuantile(final double quantile) {
+		if ((quantile < 0) || (quantile > 1)) {
+			throw new IllegalArgumentException("The quantile must be between 0 and 1, but was " + quantile);
+		}
+	}
+
+	private long rankOf(final double quantile) {
+		if (this.totalCount == 0) {
+			throw new IllegalStateException("There are no values in this histogram.");
+		}
+		return Math.max(1, (long) Math.ceil(quantile * this.totalCount));
+	}
+
+	private long estimateOf(final int index) {
+		final long lowestValue = this.lowestValueOf(index);
+		final long highestValue = this.highestValueOf(index);
+		final long estimate = lowestValue + ((highestValue - lowestValue) / 2);
+		return Math.max(this.min, Math.min(this.max, estimate));
+	}
+
+	private long countOf(final int index) {
+		final int i = index - this.firstIndex;
+		return ((i >= 0) && (i < this.counts.length)) ? this.counts[i] : 0; // NOCS (inline conditional)
+	}
+
+	public long getCount() {
+		return this.totalCount;
+	}
+
+	public long getMin() {
+		return this.min;
+	}
+
+	public long getMax() {
+		return this.max;
+	}
+
+	public int getPrecisionBits() {
+		return this.precisionBits;
+	}
+
+	private int indexOf(final long value) {
+		if (value < this.subBucketCount) {
+			return (int) value;
+		}
+		final int shift = (63 - Long.numberOfLeadingZeros(value)) - this.precisionBits;
+		return ((shift + 1) << this.precisionBits) + (int) ((value >>> shift) - this.subBucketCount);
+	}
+
+	private long lowestValueOf(final int index) {
+		if (index < this.subBucketCount) {
+			return index;
+		}
+		final int shift = (index >>> this.precisionBits) - 1;
+		return ((long) (index & (this.subBucketCount - 1)) + this.subBucketCount) << shift;
+	}
+
+	private long highestValueOf(final int index) {
+		if (index < this.subBucketCount) {
+			return index;
+		}
+		final int shift = (index >>> this.precisionBits) - 1;
+		return this.lowestValueOf(index) + ((1L << shift) - 1);
+	}
+
+	private void ensureIndex(final int index) {
+		// grow geometrically, but never beyond the range of possible indices
+		if (this.counts.length == 0) {
+			this.counts = new long[1];
+			this.firstIndex = index;
+		} else if (index < this.firstIndex) {
+			final int newFirstIndex = Math.min(index, Math.max(0, this.firstIndex - this.counts.length));
+			final long[] newCounts = new long[(this.firstIndex - newFirstIndex) + this.counts.length];
+			System.arraycopy(this.counts, 0, newCounts, this.firstIndex - newFirstIndex, this.counts.length);
+			this.counts = newCounts;
+			this.firstIndex = newFirstIndex;
+		} else if (index >= (this.firstIndex + this.counts.length)) {
+			final int indexCount = (64 - this.precisionBits) << this.precisionBits;
+			final int newLength = Math.max((index - this.firstIndex) + 1, Math.min(2 * this.counts.length, indexCount - this.firstIndex));
+			this.counts = Arrays.copyOf(this.counts, newLength);
+		}
+	}
+
+	/**
+	 * Estimates a quantile of the histogram incrementally. It keeps the bucket of its last estimate and the number of values
+	 * in the buckets below, which the histogram updates when a value is added.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 1.15
+	 */
+	public final class Cursor {
+
+		private final double quantile;
+		/** The bucket of the last estimate or -1 if the cursor has not been positioned yet. */
+		private int index = -1;
+		private long countBelow;
+
+		Cursor(final double quantile) {
+			this.quantile = quantile;
+		}
+
+		public double getQuantile() {
+			return this.quantile;
+		}
+
+		/**
+		 * @return the current estimate of the quantile, see {@link LogHistogram#getQuantile(double)}
+		 */
+		public long getValue() {
+			final LogHistogram histogram = LogHistogram.this;
+			final long rank = histogram.rankOf(this.quantile);
+			if (rank == 1) {
+				return histogram.min;
+			} else if (rank == histogram.totalCount) {
+				return histogram.max;
+			}
+			if (this.index < 0) {
+				this.index = histogram.firstIndex;
+				this.countBelow = 0;
+			}
+			while (this.countBelow >= rank) {
+				this.index--;
+				this.countBelow -= histogram.countOf(this.index);
+			}
+			long count;
+			while ((this.countBelow + (count = histogram.countOf(this.index))) < rank) { // NOPMD (assignment in operand)
+				this.countBelow += count;
+				this.index++;
+			}
+			return histogram.estimateOf(this.index);
+		}
+
+		void reset() {
+			this.index = -1;
+		}
+	}
+}
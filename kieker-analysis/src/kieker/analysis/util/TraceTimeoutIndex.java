@@ -0,0 +1,252 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * An ordered expiry index for the open traces of a trace reconstruction filter. A trace expires at the logging timestamp
+ * <code>min(lastSeen + maxTraceTimeout, start + maxTraceDuration)</code>, where <code>start</code> and <code>lastSeen</code>
+ * are the minimal and maximal logging timestamps of its events.
+ *
+ * <p>
+ * The index keeps one entry per trace in a priority queue ordered by this deadline. Events which only extend a trace
+ * (i.e., increase its last-seen timestamp) do not touch the index at all: an entry whose deadline has passed is
+ * re-checked against the current timestamps of its trace and re-scheduled if the trace is still alive. Hence, looking for
+ * expired traces costs O(1) as long as no trace expires, and each trace is moved in the queue at most once per timeout
+ * period. Only events which move the start of a trace backwards have to call {@link #update(long, ITrace)}.
+ * </p>
+ *
+ * <p>
+ * The index is not thread-safe; the filters use it within their <code>synchronized</code> blocks.
+ * </p>
+ *
+ * @param <T>
+ *            the type of the trace buffers
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public final class TraceTimeoutIndex<T extends TraceTimeoutIndex.ITrace> {
+
+	/** Minimal number of stale entries before the queue is compacted. */
+	private static final int MIN_STALE_ENTRIES_FOR_COMPACTION = 1024;
+
+	private static final Comparator<Entry<?>> DEADLINE_COMPARATOR = new Comparator<Entry<?>>() {
+		@Override
+		public int compare(final Entry<?> o1, final Entry<?> o2) {
+			final int result = Long.compare(o1.deadline, o2.deadline);
+			return (result != 0) ? result : Long.compare(o1.traceId, o2.traceId); // NOCS (inline conditional)
+		}
+	};
+
+	private final long maxTraceDuration;
+	private final long maxTraceTimeout;
+
+	private PriorityQueue<Entry<T>> queue = new PriorityQueue<>(64, DEADLINE_COMPARATOR);
+	private final Map<Long, Entry<T>> entries = new HashMap<>(); // NOPMD (not accessed concurrently)
+	private int staleEntries;
+
+	/**
+	 * Creates a new empty index.
+	 *
+	 * @param maxTraceDuration
+	 *            the maximal duration of a trace; <code>Long.MAX_VALUE</code> for no limit
+	 * @param maxTraceTimeout
+	 *            the maximal time between two events of a trace; <code>Long.MAX_VALUE</code> for no limit
+	 */
+	public TraceTimeoutIndex(final long maxTraceDuration, final long maxTraceTimeout) {
+		this.maxTraceDuration = maxTraceDuration;
+		this.maxTraceTimeout = maxTraceTimeout;
+	}
+
+	/**
+	 * Adds a new trace to the index.
+	 *
+	 * @param traceId
+	 *            the id of the trace
+	 * @param trace
+	 *            the trace buffer
+	 */
+	public void add(final long traceId, final T trace) {
+		final Entry<T> entry = new Entry<>(traceId, trace, this.computeDeadline(trace));
+		this.queue.add(entry);
+		final Entry<T> previous = this.entries.put(traceId, entry);
+		if (previous != null) {
+			this.markStale(previous);
+		}
+	}
+
+	/**
+	 * Re-schedules a trace whose start timestamp has been moved backwards by an out-of-order event. Calls for traces which
+	 * are not in the index are ignored.
+	 *
+	 * @param traceId
+	 *            the id of the trace
+	 * @param trace
+	 *            the trace buffer
+	 */
+	public void update(final long traceId, final T trace) {
+		final Entry<T> entry = this.entries.get(traceId);
+		if (entry == null) {
+			return;
+		}
+		final long deadline = this.computeDeadline(trace);
+		if (deadline < entry.deadline) {
+			final Entry<T> replacement = new Entry<>(traceId, trace, deadline);
+			this.queue.add(replacement);
+			this.entries.put(traceId, replacement);
+			this.markStale(entry);
+		}
+	}
+
+	/**
+	 * Removes a trace from the index, e.g., because it has been completed.
+	 *
+	 * @param traceId
+	 *            the id of the trace
+	 */
+	public void remove(final long traceId) {
+		final Entry<T> entry = this.entries.remove(traceId);
+		if (entry != null) {
+			this.markStale(entry);
+		}
+	}
+
+	/**
+	 * Removes all traces which have expired at the given timestamp from the index.
+	 *
+	 * @param timestamp
+	 *            the current logging timestamp
+	 *
+	 * @return the ids of the expired traces in ascending order (as the filters deliver them), possibly empty
+	 */
+	public List<Long> pollExpired(final long timestamp) {
+		List<Long> expiredTraceIds = Collections.emptyList();
+		Entry<T> entry = this.queue.peek();
+		while ((entry != null) && (entry.deadline <= timestamp)) {
+			this.queue.poll();
+			if (entry.stale) {
+				this.staleEntries--;
+			} else {
+				final long deadline = this.computeDeadline(entry.trace);
+				if (deadline <= timestamp) {
+					this.entries.remove(entry.traceId);
+					if (expiredTraceIds.isEmpty()) {
+						expiredTraceIds = new ArrayList<>();
+					}
+					expiredTraceIds.add(entry.traceId);
+				} else { // the trace has seen new events since it has been scheduled
+					entry.deadline = deadline;
+					this.queue.add(entry);
+				}
+			}
+			entry = this.queue.peek();
+		}
+		if (expiredTraceIds.size() > 1) {
+			Collections.sort(expiredTraceIds);
+		}
+		return expiredTraceIds;
+	}
+
+	/**
+	 * Removes all traces from the index.
+	 */
+	public void clear() {
+		this.queue.clear();
+		this.entries.clear();
+		this.staleEntries = 0;
+	}
+
+	/**
+	 * @return the number of traces in the index
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+	private long computeDeadline(final T trace) {
+		return Math.min(TraceTimeoutIndex.saturatedAdd(trace.getMaxLoggingTimestamp(), this.maxTraceTimeout),
+				TraceTimeoutIndex.saturatedAdd(trace.getMinLoggingTimestamp(), this.maxTraceDuration));
+	}
+
+	private void markStale(final Entry<T> entry) {
+		entry.stale = true;
+		this.staleEntries++;
+		// completed traces would otherwise stay in the queue until their deadline, which may be far away
+		if ((this.staleEntries > MIN_STALE_ENTRIES_FOR_COMPACTION) && (this.staleEntries > this.entries.size())) {
+			final PriorityQueue<Entry<T>> compactedQueue = new PriorityQueue<>(Math.max(64, this.entries.size()), DEADLINE_COMPARATOR);
+			compactedQueue.addAll(this.entries.values());
+			this.queue = compactedQueue;
+			this.staleEntries = 0;
+		}
+	}
+
+	private static long saturatedAdd(final long value, final long summand) {
+		final long result = value + summand;
+		if (((value ^ result) & (summand ^ result)) < 0) { // overflow
+			return (value < 0) ? Long.MIN_VALUE : Long.MAX_VALUE; // NOCS (inline conditional)
+		}
+		return result;
+	}
+
+	/**
+	 * The logging timestamps of a trace which determine its expiry.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 1.15
+	 */
+	public interface ITrace {
+
+		/**
+		 * @return the minimal logging timestamp of the events of the trace, <code>Long.MAX_VALUE</code> if there are none
+		 */
+		long getMinLoggingTimestamp();
+
+		/**
+		 * @return the maximal logging timestamp of the events of the trace, <code>-1</code> if there are none
+		 */
+		long getMaxLoggingTimestamp();
+	}
+
+	/**
+	 * A scheduled trace.
+	 *
+	 * @param <T>
+	 *            the type of the trace buffer
+	 */
+	private static final class Entry<T> {
+		private final long traceId;
+		private final T trace;
+		private long deadline;
+		private boolean stale;
+
+		public Entry(final long traceId, final T trace, final long deadline) {
+			this.traceId = traceId;
+			this.trace = trace;
+			this.deadline = deadline;
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.util.stage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import kieker.common.record.flow.IFlowRecord;
+import kieker.common.record.flow.trace.AbstractTraceEvent;
+import kieker.common.record.flow.trace.TraceMetadata;
+
+import teetime.framework.AbstractConsumerStage;
+import teetime.framework.OutputPort;
+
+/**
+ * This stage hash-partitions incoming flow records by their trace id. All records of a trace leave the stage via the same
+ * output port in the order of their arrival. Records without a trace id are sent to the first partition.
+ *
+ * <p>
+ * Optionally, the stage sends the maximal logging timestamp of all records seen so far to the clock output port of a
+ * partition right before each record it sends to this partition. This allows time-based processing in the partitions
+ * (e.g. trace timeouts) to behave as if all records were processed by a single stage.
+ * </p>
+ *
+ * @param <T>
+ *            the type of the records
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class TraceIdPartitionStage<T extends IFlowRecord> extends AbstractConsumerStage<T> {
+
+	private final List<OutputPort<T>> outputPorts;
+	private final List<OutputPort<Long>> clockOutputPorts;
+
+	private long maxLoggingTimestamp = -1;
+
+	/**
+	 * Creates a new partition stage.
+	 *
+	 * @param numPartitions
+	 *            the number of partitions, i.e., output ports
+	 * @param clock
+	 *            whether to create a clock output port for each partition
+	 */
+	public TraceIdPartitionStage(final int numPartitions, final boolean clock) {
+		if (numPartitions < 1) {
+			throw new IllegalArgumentException("The number of partitions must be positive, but was " + numPartitions);
+		}
+		final List<OutputPort<T>> ports = new ArrayList<>(numPartitions);
+		final List<OutputPort<Long>> clockPorts = new ArrayList<>(clock ? numPartitions : 0); // NOCS (inline conditional)
+		for (int i = 0; i < numPartitions; i++) {
+			ports.add(this.<T> createOutputPort());
+			if (clock) {
+				clockPorts.add(this.createOutputPort(Long.class));
+			}
+		}
+		this.outputPorts = Collections.unmodifiableList(ports);
+		this.clockOutputPorts = Collections.unmodifiableList(clockPorts);
+	}
+
+	@Override
+	protected void execute(final T record) {
+		final int partition;
+		if (record instanceof AbstractTraceEvent) {
+			partition = TraceIdPartitionStage.getPartition(((AbstractTraceEvent) record).getTraceId(), this.outputPorts.size());
+		} else if (record instanceof TraceMetadata) {
+			partition = TraceIdPartitionStage.getPartition(((TraceMetadata) record).getTraceId(), this.outputPorts.size());
+		} else {
+			partition = 0;
+		}
+
+		if (!this.clockOutputPorts.isEmpty()) {
+			// the partition has to see the clock before the record (cf. AbstractEventRecordTraceReconstructionFilter)
+			this.clockOutputPorts.get(partition).send(this.maxLoggingTimestamp);
+			if ((record instanceof AbstractTraceEvent) && (((AbstractTraceEvent) record).getTimestamp() > this.maxLoggingTimestamp)) {
+				this.maxLoggingTimestamp = ((AbstractTraceEvent) record).getTimestamp();
+			}
+		}
+		this.outputPorts.get(partition).send(record);
+	}
+
+	/**
+	 * Returns the partition of the given trace id.
+	 *
+	 * @param traceId
+	 *            the trace id
+	 * @param numPartitions
+	 *            the number of partitions
+	 *
+	 * @return the partition in the range <code>[0, numPartitions)</code>
+	 */
+	public static int getPartition(final long traceId, final int numPartitions) {
+		// trace ids are often consecutive or share their upper bits (the host part), so we spread them first
+		final long hash = traceId * 0x9E3779B97F4A7C15L;
+		return (int) ((hash >>> 32) % numPartitions);
+	}
+
+	public int getNumPartitions() {
+		return this.outputPorts.size();
+	}
+
+	public OutputPort<T> getOutputPort(final int partition) {
+		return this.outputPorts.get(partition);
+	}
+
+	/**
+	 * @param partition
+	 *            the partition
+	 *
+	 * @return the clock output port of the given partition
+	 *
+	 * @throws IndexOutOfBoundsException
+	 *             if the stage has been created without clock output ports
+	 */
+	public OutputPort<Long> getClockOutputPort(final int partition) {
+		return this.clockOutputPorts.get(partition);
+	}
+
+}
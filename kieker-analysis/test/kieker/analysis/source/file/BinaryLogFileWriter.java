@@ -0,0 +1,167 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.source.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.io.BinaryValueSerializer;
+import kieker.common.registry.IRegistryListener;
+import kieker.common.registry.writer.WriterRegistry;
+import kieker.common.util.filesystem.FSUtil;
+
+/**
+ * Writes binary log files and their map file like the <code>FileWriter</code> with the <code>BinaryLogStreamHandler</code>
+ * or, with a header holding the committed end, like the <code>MappedBinaryLogStreamHandler</code>.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+class BinaryLogFileWriter implements IRegistryListener<String> {
+
+	private final File directory;
+	private final boolean withHeader;
+	private final Writer mapWriter;
+	private final WriterRegistry registry = new WriterRegistry(this);
+	private final ByteBuffer buffer = ByteBuffer.allocate(1024 * 1024);
+	private final BinaryValueSerializer serializer = BinaryValueSerializer.create(this.buffer, this.registry);
+	private File logFile;
+	private long completeRecordsEnd;
+
+	/**
+	 * Create the map file and the log file <code>kieker-1.bin</code> in the given directory.
+	 */
+	public BinaryLogFileWriter(final File directory) throws IOException {
+		this(directory, false);
+	}
+
+	/**
+	 * Create the map file and the log file <code>kieker-1.bin</code>, or <code>kieker-1.mbin</code> with header, in the
+	 * given directory.
+	 *
+	 * @param withHeader
+	 *            start each log file with the header of the <code>MappedBinaryLogStreamHandler</code>
+	 */
+	public BinaryLogFileWriter(final File directory, final boolean withHeader) throws IOException {
+		this.directory = directory;
+		this.withHeader = withHeader;
+		this.mapWriter = new OutputStreamWriter(Files.newOutputStream(new File(directory, "kieker" + FSUtil.MAP_FILE_EXTENSION).toPath()),
+				FSUtil.ENCODING);
+		this.startLogFile("kieker-1" + this.getExtension());
+	}
+
+	/**
+	 * @return the extension of the log files written by this writer
+	 */
+	public final String getExtension() {
+		return this.withHeader ? FSUtil.MAPPED_BINARY_FILE_EXTENSION : FSUtil.BINARY_FILE_EXTENSION; // NOCS (inline conditional)
+	}
+
+	/**
+	 * Continue with a new log file.
+	 */
+	public final void startLogFile(final String name) throws IOException {
+		this.logFile = new File(this.directory, name);
+		this.completeRecordsEnd = 0;
+		Files.createFile(this.logFile.toPath());
+		if (this.withHeader) {
+			this.buffer.putInt(FSUtil.MAPPED_BINARY_FILE_MAGIC);
+			this.buffer.putInt(0);
+			this.buffer.putLong(FSUtil.MAPPED_BINARY_FILE_HEADER_SIZE);
+			this.completeRecordsEnd = FSUtil.MAPPED_BINARY_FILE_HEADER_SIZE;
+			this.flush();
+		}
+	}
+
+	@Override
+	public void onNewRegistryEntry(final String value, final int id) {
+		try {
+			this.mapWriter.write("$" + id + "=" + value + "\n");
+			this.mapWriter.flush();
+		} catch (final IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public void write(final List<IMonitoringRecord> records) throws IOException {
+		for (final IMonitoringRecord record : records) {
+			this.serializer.putString(record.getClass().getName());
+			this.serializer.putLong(record.getLoggingTimestamp());
+			record.serialize(this.serializer);
+		}
+		this.completeRecordsEnd += this.buffer.position();
+		this.flush();
+		if (this.withHeader) {
+			final ByteBuffer committedEnd = ByteBuffer.allocate(8);
+			committedEnd.putLong(this.completeRecordsEnd);
+			committedEnd.flip();
+			try (FileChannel channel = FileChannel.open(this.logFile.toPath(), StandardOpenOption.WRITE)) {
+				channel.write(committedEnd, FSUtil.MAPPED_BINARY_FILE_COMMITTED_END_POSITION);
+			}
+		}
+	}
+
+	public void writeIncompleteRecord() throws IOException {
+		this.serializer.putString(OperationExecutionRecord.class.getName());
+		this.serializer.putLong(1);
+		this.serializer.putString("public void Foo.bar()");
+		this.flush();
+	}
+
+	public void writeZeros(final int count) throws IOException {
+		this.buffer.put(new byte[count]);
+		this.flush();
+	}
+
+	public void truncateToCompleteRecords() throws IOException {
+		try (FileChannel channel = FileChannel.open(this.logFile.toPath(), StandardOpenOption.WRITE)) {
+			channel.truncate(this.completeRecordsEnd);
+		}
+	}
+
+	private void flush() throws IOException {
+		this.buffer.flip();
+		try (FileChannel channel = FileChannel.open(this.logFile.toPath(), StandardOpenOption.APPEND)) {
+			while (this.buffer.hasRemaining()) {
+				channel.write(this.buffer);
+			}
+		}
+		this.buffer.clear();
+	}
+
+	public void close() throws IOException {
+		this.mapWriter.close();
+	}
+
+	public File getLogFile() {
+		return this.logFile;
+	}
+
+	public long getCompleteRecordsEnd() {
+		return this.completeRecordsEnd;
+	}
+}
@@ -0,0 +1,127 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.source.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.analysis.plugin.reader.util.FSReaderUtil;
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.common.record.io.columnar.ColumnarSegmentWriter;
+import kieker.common.registry.reader.ReaderRegistry;
+
+import teetime.framework.OutputPort;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ColumnarEventDeserializerTest {
+
+	public ColumnarEventDeserializerTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testReadAllColumns() throws IOException {
+		final List<IMonitoringRecord> records = ColumnarEventDeserializerTest.createRecords(100);
+
+		Assert.assertEquals(ColumnarEventDeserializer.class, FSReaderUtil.findEventDeserializer("kieker-1.col"));
+		Assert.assertEquals(records, ColumnarEventDeserializerTest.deserialize(ColumnarEventDeserializerTest.write(records), new Configuration()));
+	}
+
+	@Test
+	public void testReadProjection() throws IOException {
+		final List<IMonitoringRecord> records = ColumnarEventDeserializerTest.createRecords(100);
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(ColumnarEventDeserializer.PROJECTION, "traceId|operationSignature");
+
+		final List<IMonitoringRecord> readRecords = ColumnarEventDeserializerTest.deserialize(ColumnarEventDeserializerTest.write(records),
+				configuration);
+
+		Assert.assertEquals("Wrong number of records", records.size(), readRecords.size());
+		for (int i = 0; i < records.size(); i++) {
+			if (records.get(i) instanceof BeforeOperationEvent) {
+				final BeforeOperationEvent expected = (BeforeOperationEvent) records.get(i);
+				final BeforeOperationEvent actual = (BeforeOperationEvent) readRecords.get(i);
+				Assert.assertEquals("Wrong trace id", expected.getTraceId(), actual.getTraceId());
+				Assert.assertEquals("Wrong operation", expected.getOperationSignature(), actual.getOperationSignature());
+				Assert.assertEquals("Timestamp must not be read", 0, actual.getTimestamp());
+			} else {
+				final OperationExecutionRecord expected = (OperationExecutionRecord) records.get(i);
+				final OperationExecutionRecord actual = (OperationExecutionRecord) readRecords.get(i);
+				Assert.assertEquals("Wrong trace id", expected.getTraceId(), actual.getTraceId());
+				Assert.assertEquals("Wrong operation", expected.getOperationSignature(), actual.getOperationSignature());
+				Assert.assertEquals("Host must not be read", "", actual.getHostname());
+			}
+			Assert.assertEquals("Wrong logging timestamp", records.get(i).getLoggingTimestamp(), readRecords.get(i).getLoggingTimestamp());
+		}
+	}
+
+	private static List<IMonitoringRecord> createRecords(final int numRecords) {
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		for (int i = 0; i < numRecords; i++) {
+			final IMonitoringRecord record;
+			if ((i % 2) == 0) {
+				record = new OperationExecutionRecord("public void Example.op" + (i % 5) + "()", "session", i, 10L * i, (10L * i) + 5, "host", i, 0);
+			} else {
+				record = new BeforeOperationEvent(10L * i, i, 1, "public void Example.op" + (i % 5) + "()", "Example");
+			}
+			record.setLoggingTimestamp(1000L + i);
+			records.add(record);
+		}
+		return records;
+	}
+
+	private static byte[] write(final List<IMonitoringRecord> records) throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final WritableByteChannel channel = Channels.newChannel(output);
+		final ColumnarSegmentWriter writer = new ColumnarSegmentWriter(512);
+		writer.writeFileHeader(channel);
+		for (final IMonitoringRecord record : records) {
+			if (writer.add(record)) {
+				writer.writeSegment(channel);
+			}
+		}
+		writer.writeSegment(channel);
+		return output.toByteArray();
+	}
+
+	private static List<IMonitoringRecord> deserialize(final byte[] log, final Configuration configuration) throws IOException {
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		final OutputPort<IMonitoringRecord> outputPort = new OutputPort<IMonitoringRecord>() {
+			@Override
+			public void send(final IMonitoringRecord record) {
+				records.add(record);
+			}
+		};
+		new ColumnarEventDeserializer(configuration, new ReaderRegistry<String>()).processDataStream(new ByteArrayInputStream(log), outputPort);
+		return records;
+	}
+}
@@ -0,0 +1,130 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.source.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.common.record.io.TextValueSerializer;
+import kieker.common.registry.reader.ReaderRegistry;
+
+import teetime.framework.OutputPort;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class DatEventDeserializerTest {
+
+	private static final int OPERATION_EXECUTION_RECORD_ID = 0;
+	private static final int BEFORE_OPERATION_EVENT_ID = 1;
+
+	public DatEventDeserializerTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testReadLinesWithDifferentSeparators() throws IOException {
+		final List<IMonitoringRecord> records = DatEventDeserializerTest.createRecords(100);
+		final StringBuilder text = new StringBuilder();
+		for (int i = 0; i < records.size(); i++) {
+			text.append(DatEventDeserializerTest.toLine(records.get(i)));
+			if (i < (records.size() - 1)) { // no separator behind the last line
+				text.append(((i % 2) == 0) ? "\n" : "\r\n"); // NOCS (inline conditional)
+			}
+		}
+
+		Assert.assertEquals(records, DatEventDeserializerTest.deserialize(text.toString(), new Configuration()));
+	}
+
+	@Test
+	public void testGrowBufferForLongLines() throws IOException {
+		final List<IMonitoringRecord> records = DatEventDeserializerTest.createRecords(20);
+		final StringBuilder text = new StringBuilder();
+		for (final IMonitoringRecord record : records) {
+			text.append(DatEventDeserializerTest.toLine(record)).append('\n');
+		}
+
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(DatEventDeserializer.BUFFER_SIZE, "16");
+		Assert.assertEquals(records, DatEventDeserializerTest.deserialize(text.toString(), configuration));
+	}
+
+	@Test
+	public void testSkipMalformedAndUnknownLines() throws IOException {
+		final List<IMonitoringRecord> records = DatEventDeserializerTest.createRecords(2);
+		final String text = DatEventDeserializerTest.toLine(records.get(0)) + "\n"
+				+ "malformed line\n"
+				+ "\n"
+				+ "$7;1000;unknown record type\n"
+				+ DatEventDeserializerTest.toLine(records.get(1)) + ";additional value\n";
+
+		Assert.assertEquals(records, DatEventDeserializerTest.deserialize(text, new Configuration()));
+	}
+
+	private static List<IMonitoringRecord> createRecords(final int numRecords) {
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		for (int i = 0; i < numRecords; i++) {
+			final IMonitoringRecord record;
+			if ((i % 2) == 0) {
+				record = new OperationExecutionRecord("public void Café.bär" + (i % 5) + "()", "session", i, 10L * i, (10L * i) + 5, "host", i, 0);
+			} else {
+				record = new BeforeOperationEvent(10L * i, i, 1, "public void Café.bär" + (i % 5) + "()", "Café");
+			}
+			record.setLoggingTimestamp(1000L + i);
+			records.add(record);
+		}
+		return records;
+	}
+
+	private static String toLine(final IMonitoringRecord record) {
+		final CharBuffer buffer = CharBuffer.allocate(1024);
+		final int id = (record instanceof OperationExecutionRecord) ? OPERATION_EXECUTION_RECORD_ID : BEFORE_OPERATION_EVENT_ID; // NOCS
+		buffer.put("$" + id + ";" + record.getLoggingTimestamp());
+		record.serialize(TextValueSerializer.create(buffer));
+		buffer.flip();
+		return buffer.toString();
+	}
+
+	private static List<IMonitoringRecord> deserialize(final String text, final Configuration configuration) throws IOException {
+		final ReaderRegistry<String> registry = new ReaderRegistry<>();
+		registry.register(OPERATION_EXECUTION_RECORD_ID, OperationExecutionRecord.class.getName());
+		registry.register(BEFORE_OPERATION_EVENT_ID, BeforeOperationEvent.class.getName());
+
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		final OutputPort<IMonitoringRecord> outputPort = new OutputPort<IMonitoringRecord>() {
+			@Override
+			public void send(final IMonitoringRecord record) {
+				records.add(record);
+			}
+		};
+		new DatEventDeserializer(configuration, registry).processDataStream(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), outputPort);
+		return records;
+	}
+}
@@ -0,0 +1,214 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.source.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.registry.reader.ReaderRegistry;
+
+import teetime.framework.AbstractProducerStage;
+import teetime.framework.test.StageTester;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class DirectoryReaderStageTest {
+
+	@Rule
+	public final TemporaryFolder tmpFolder = new TemporaryFolder(); // NOCS (@Rule must be public)
+
+	public DirectoryReaderStageTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testMappedReadEqualsStreamRead() throws IOException {
+		final File directory = this.tmpFolder.getRoot();
+		final BinaryLogFileWriter writer = new BinaryLogFileWriter(directory);
+		final List<IMonitoringRecord> records = DirectoryReaderStageTest.createRecords(0, 100);
+		writer.write(records);
+		writer.close();
+
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(DirectoryReaderStage.MEMORY_MAPPED, "false");
+		Assert.assertEquals(records, DirectoryReaderStageTest.read(directory, configuration));
+		Assert.assertEquals(records, DirectoryReaderStageTest.read(directory, new Configuration()));
+	}
+
+	@Test
+	public void testReadUpToCommittedEnd() throws IOException {
+		final File directory = this.tmpFolder.getRoot();
+		final BinaryLogFileWriter writer = new BinaryLogFileWriter(directory, true);
+		final List<IMonitoringRecord> records = DirectoryReaderStageTest.createRecords(0, 100);
+		// type id 0 and logging timestamp 0 are legitimate values
+		records.get(0).setLoggingTimestamp(0);
+		writer.write(records);
+		// unwritten tail of a pre-allocated region
+		writer.writeZeros(64);
+		writer.close();
+
+		Assert.assertEquals(records, DirectoryReaderStageTest.read(directory, new Configuration()));
+		// read by the MappedBinaryEventDeserializer
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(DirectoryReaderStage.MEMORY_MAPPED, "false");
+		Assert.assertEquals(records, DirectoryReaderStageTest.read(directory, configuration));
+	}
+
+	@Test
+	public void testReadMappedLogWithoutRecords() throws IOException {
+		final File directory = this.tmpFolder.getRoot();
+		final BinaryLogFileWriter writer = new BinaryLogFileWriter(directory, true);
+		writer.writeZeros(64);
+		writer.close();
+
+		Assert.assertEquals(new ArrayList<IMonitoringRecord>(), DirectoryReaderStageTest.read(directory, new Configuration()));
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(DirectoryReaderStage.MEMORY_MAPPED, "false");
+		Assert.assertEquals(new ArrayList<IMonitoringRecord>(), DirectoryReaderStageTest.read(directory, configuration));
+	}
+
+	@Test
+	public void testRecordsSpanningWindows() throws IOException {
+		final File directory = this.tmpFolder.getRoot();
+		final BinaryLogFileWriter writer = new BinaryLogFileWriter(directory);
+		final List<IMonitoringRecord> records = DirectoryReaderStageTest.createRecords(0, 100);
+		writer.write(records);
+		// incomplete last record
+		writer.writeIncompleteRecord();
+		writer.close();
+
+		final ReaderRegistry<String> registry = DirectoryReaderStageTest.readRegistry(directory);
+		final MappedBinaryLogReader reader = new MappedBinaryLogReader(registry, 100);
+		final List<IMonitoringRecord> received = new ArrayList<>();
+		try (FileChannel channel = FileChannel.open(writer.getLogFile().toPath(), StandardOpenOption.READ)) {
+			final MappedReaderStage stage = new MappedReaderStage(reader, channel);
+			StageTester.test(stage).and().receive(received).from(stage.getOutputPort()).start();
+			Assert.assertEquals(writer.getCompleteRecordsEnd(), stage.getEnd());
+			Assert.assertFalse(reader.isUnknownTypeFound());
+		}
+		Assert.assertEquals(records, received);
+	}
+
+	@Test
+	public void testFollowAppendedRecords() throws Exception {
+		final File directory = this.tmpFolder.getRoot();
+		final BinaryLogFileWriter writer = new BinaryLogFileWriter(directory);
+		final List<IMonitoringRecord> firstRecords = DirectoryReaderStageTest.createRecords(0, 10);
+		final List<IMonitoringRecord> secondRecords = DirectoryReaderStageTest.createRecords(10, 10);
+		writer.write(firstRecords);
+
+		final Thread appender = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(100);
+					writer.writeIncompleteRecord();
+					Thread.sleep(100);
+					writer.truncateToCompleteRecords();
+					writer.write(secondRecords);
+					writer.close();
+				} catch (final IOException | InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		};
+		appender.start();
+
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(DirectoryReaderStage.FOLLOW, "true");
+		configuration.setProperty(DirectoryReaderStage.FOLLOW_POLL_INTERVAL, "10");
+		configuration.setProperty(DirectoryReaderStage.FOLLOW_IDLE_TIMEOUT, "1000");
+		final List<IMonitoringRecord> received = DirectoryReaderStageTest.read(directory, configuration);
+		appender.join();
+
+		final List<IMonitoringRecord> expected = new ArrayList<>(firstRecords);
+		expected.addAll(secondRecords);
+		Assert.assertEquals(expected, received);
+	}
+
+	private static List<IMonitoringRecord> read(final File directory, final Configuration configuration) {
+		final DirectoryReaderStage stage = new DirectoryReaderStage(configuration);
+		final List<File> input = new ArrayList<>();
+		input.add(directory);
+		final List<IMonitoringRecord> received = new ArrayList<>();
+		StageTester.test(stage).and().send(input).to(stage.getInputPort()).and().receive(received).from(stage.getOutputPort()).start();
+		return received;
+	}
+
+	private static ReaderRegistry<String> readRegistry(final File directory) throws IOException {
+		final ReaderRegistry<String> registry = new ReaderRegistry<>();
+		new TextMapDeserializer(new Configuration()).processDataStream(Files.newInputStream(new File(directory, "kieker.map").toPath()), registry,
+				"kieker.map");
+		return registry;
+	}
+
+	/**
+	 * Each record uses its own session id; hence, the writer registers new strings while writing.
+	 */
+	private static List<IMonitoringRecord> createRecords(final int first, final int count) {
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		for (int i = first; i < (first + count); i++) {
+			final OperationExecutionRecord record = new OperationExecutionRecord("public void Foo.bar()", "session-" + i, i, 10 * i, (10 * i) + 5,
+					"host", 0, 0);
+			record.setLoggingTimestamp(1000 + i);
+			records.add(record);
+		}
+		return records;
+	}
+
+	/**
+	 * Runs the {@link MappedBinaryLogReader} as a producer stage.
+	 */
+	private static class MappedReaderStage extends AbstractProducerStage<IMonitoringRecord> {
+
+		private final MappedBinaryLogReader reader;
+		private final FileChannel channel;
+		private long end;
+
+		public MappedReaderStage(final MappedBinaryLogReader reader, final FileChannel channel) {
+			super();
+			this.reader = reader;
+			this.channel = channel;
+		}
+
+		@Override
+		protected void execute() throws Exception {
+			this.end = this.reader.read(this.channel, 0, this.channel.size(), this.outputPort);
+			this.workCompleted();
+		}
+
+		public long getEnd() {
+			return this.end;
+		}
+	}
+}
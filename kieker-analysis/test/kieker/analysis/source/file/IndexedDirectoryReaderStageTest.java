@@ -0,0 +1,161 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.source.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.util.filesystem.FSUtil;
+import kieker.monitoring.core.configuration.ConfigurationConstants;
+import kieker.monitoring.writer.filesystem.AbstractLogStreamHandler;
+import kieker.monitoring.writer.filesystem.BinaryLogStreamHandler;
+import kieker.monitoring.writer.filesystem.FileWriter;
+import kieker.monitoring.writer.filesystem.MappedBinaryLogStreamHandler;
+
+import teetime.framework.test.StageTester;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class IndexedDirectoryReaderStageTest {
+
+	private static final int NUM_RECORDS = 5000;
+	private static final int RECORDS_PER_TRACE = 10;
+
+	@Rule
+	public final TemporaryFolder tmpFolder = new TemporaryFolder(); // NOCS (@Rule must be public)
+
+	private final List<IMonitoringRecord> records = new ArrayList<>();
+	private File logDirectory;
+
+	public IndexedDirectoryReaderStageTest() {
+		// empty default constructor
+	}
+
+	/**
+	 * Write a log of three files with an index of blocks of 100 records.
+	 */
+	@Before
+	public void before() throws IOException {
+		this.logDirectory = this.writeLog(BinaryLogStreamHandler.class, this.tmpFolder.newFolder("streamed"));
+	}
+
+	private File writeLog(final Class<? extends AbstractLogStreamHandler> logStreamHandler, final File path) throws IOException {
+		this.records.clear();
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(ConfigurationConstants.HOST_NAME, "testHostName");
+		configuration.setProperty(ConfigurationConstants.CONTROLLER_NAME, "testControllerName");
+		configuration.setProperty(FileWriter.CONFIG_PATH, path.getAbsolutePath());
+		configuration.setProperty(FileWriter.CONFIG_LOG_STREAM_HANDLER, logStreamHandler.getName());
+		configuration.setProperty(FileWriter.CONFIG_MAXENTRIESINFILE, "2000");
+		configuration.setProperty(FileWriter.CONFIG_INDEX, "true");
+		configuration.setProperty(FileWriter.CONFIG_INDEX_BLOCK_SIZE, "100");
+
+		final FileWriter writer = new FileWriter(configuration);
+		writer.onStarting();
+		for (int i = 0; i < NUM_RECORDS; i++) {
+			final OperationExecutionRecord record = new OperationExecutionRecord("public void Foo.bar()", "session", i / RECORDS_PER_TRACE, i, i + 1,
+					"host", i % RECORDS_PER_TRACE, 0);
+			record.setLoggingTimestamp(1000 + i);
+			writer.writeMonitoringRecord(record);
+			this.records.add(record);
+		}
+		writer.onTerminating();
+
+		return Files.list(path.toPath()).findFirst().get().toFile();
+	}
+
+	@Test
+	public void testTimeRange() {
+		final IndexedDirectoryReaderStage stage = new IndexedDirectoryReaderStage(new Configuration(), 2950, 3049, true, null);
+		final List<IMonitoringRecord> received = this.read(stage);
+
+		Assert.assertEquals(this.records.subList(1950, 2050), received);
+		// the last block of the first file and the first block of the second file
+		Assert.assertTrue(stage.getBytesRead() < (stage.getBytesTotal() / 10));
+	}
+
+	@Test
+	public void testTraceIds() {
+		final IndexedDirectoryReaderStage stage = new IndexedDirectoryReaderStage(new Configuration(), Long.MIN_VALUE, Long.MAX_VALUE, false,
+				new Long[] { 7L, 321L });
+		final List<IMonitoringRecord> received = this.read(stage);
+
+		final List<IMonitoringRecord> expected = new ArrayList<>(this.records.subList(70, 80));
+		expected.addAll(this.records.subList(3210, 3220));
+		Assert.assertEquals(expected, received);
+		Assert.assertTrue(stage.getBytesRead() < (stage.getBytesTotal() / 10));
+	}
+
+	@Test
+	public void testLogFileWithoutIndex() throws IOException {
+		for (final File indexFile : this.logDirectory.listFiles((dir, name) -> name.endsWith(FSUtil.INDEX_FILE_EXTENSION))) {
+			Files.delete(indexFile.toPath());
+		}
+
+		final IndexedDirectoryReaderStage stage = new IndexedDirectoryReaderStage(new Configuration(), 2950, 3049, true, null);
+		Assert.assertEquals(this.records.subList(1950, 2050), this.read(stage));
+		Assert.assertEquals(stage.getBytesTotal(), stage.getBytesRead());
+	}
+
+	@Test
+	public void testMappedLogFiles() throws IOException {
+		this.logDirectory = this.writeLog(MappedBinaryLogStreamHandler.class, this.tmpFolder.newFolder("mapped"));
+
+		final IndexedDirectoryReaderStage stage = new IndexedDirectoryReaderStage(new Configuration(), 2950, 3049, true, null);
+		Assert.assertEquals(this.records.subList(1950, 2050), this.read(stage));
+		Assert.assertTrue(stage.getBytesRead() < (stage.getBytesTotal() / 10));
+
+		final DirectoryReaderStage directoryReader = new DirectoryReaderStage(new Configuration());
+		final List<File> input = new ArrayList<>();
+		input.add(this.logDirectory);
+		final List<IMonitoringRecord> received = new ArrayList<>();
+		StageTester.test(directoryReader).and().send(input).to(directoryReader.getInputPort()).and().receive(received)
+				.from(directoryReader.getOutputPort()).start();
+		Assert.assertEquals(this.records, received);
+
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(DirectoryReaderStage.MEMORY_MAPPED, "false");
+		final DirectoryReaderStage streamReader = new DirectoryReaderStage(configuration);
+		received.clear();
+		StageTester.test(streamReader).and().send(input).to(streamReader.getInputPort()).and().receive(received)
+				.from(streamReader.getOutputPort()).start();
+		Assert.assertEquals(this.records, received);
+	}
+
+	private List<IMonitoringRecord> read(final IndexedDirectoryReaderStage stage) {
+		final List<File> input = new ArrayList<>();
+		input.add(this.logDirectory);
+		final List<IMonitoringRecord> received = new ArrayList<>();
+		StageTester.test(stage).and().send(input).to(stage.getInputPort()).and().receive(received).from(stage.getOutputPort()).start();
+		return received;
+	}
+}
@@ -0,0 +1,276 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.source.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.util.filesystem.FSUtil;
+
+import teetime.framework.test.StageTester;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ParallelDirectoryReaderStageTest {
+
+	private static final int NUM_FILES = 5;
+	private static final int RECORDS_PER_FILE = 3000;
+
+	@Rule
+	public final TemporaryFolder tmpFolder = new TemporaryFolder(); // NOCS (@Rule must be public)
+
+	public ParallelDirectoryReaderStageTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testOrderedMergeOfInterleavedFiles() throws IOException {
+		final List<IMonitoringRecord> records = this.writeInterleavedLog(this.tmpFolder.getRoot());
+
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(ParallelDirectoryReaderStage.THREADS, String.valueOf(NUM_FILES));
+		configuration.setProperty(ParallelDirectoryReaderStage.QUEUE_CAPACITY, "2048");
+		final List<IMonitoringRecord> received = ParallelDirectoryReaderStageTest.read(this.tmpFolder.getRoot(), configuration);
+
+		records.sort(Comparator.comparingLong(IMonitoringRecord::getLoggingTimestamp));
+		Assert.assertEquals(records, received);
+	}
+
+	/**
+	 * The merge width does not depend on the number of threads, so a single thread merges all interleaved files as well.
+	 */
+	@Test
+	public void testOrderedMergeWithSingleThread() throws IOException {
+		final List<IMonitoringRecord> records = this.writeInterleavedLog(this.tmpFolder.getRoot());
+
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(ParallelDirectoryReaderStage.THREADS, "1");
+		configuration.setProperty(ParallelDirectoryReaderStage.QUEUE_CAPACITY, "1024");
+		final List<IMonitoringRecord> received = ParallelDirectoryReaderStageTest.read(this.tmpFolder.getRoot(), configuration);
+
+		records.sort(Comparator.comparingLong(IMonitoringRecord::getLoggingTimestamp));
+		Assert.assertEquals(records, received);
+	}
+
+	@Test
+	public void testOrderedMergeWithSmallWindow() throws IOException {
+		final File directory = this.tmpFolder.getRoot();
+		final BinaryLogFileWriter writer = new BinaryLogFileWriter(directory);
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		for (int file = 0; file < NUM_FILES; file++) {
+			if (file > 0) {
+				writer.startLogFile("kieker-" + (file + 1) + FSUtil.BINARY_FILE_EXTENSION);
+			}
+			// consecutive files overlap, but a file does not overlap with the one before the previous one
+			final List<IMonitoringRecord> fileRecords = ParallelDirectoryReaderStageTest.createRecords(file * RECORDS_PER_FILE, RECORDS_PER_FILE,
+					(file * RECORDS_PER_FILE) - (RECORDS_PER_FILE / 2), 1);
+			writer.write(fileRecords);
+			records.addAll(fileRecords);
+		}
+		writer.close();
+
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(ParallelDirectoryReaderStage.MERGE_WIDTH, "2");
+		configuration.setProperty(ParallelDirectoryReaderStage.QUEUE_CAPACITY, "1024");
+		final List<IMonitoringRecord> received = ParallelDirectoryReaderStageTest.read(directory, configuration);
+
+		records.sort(Comparator.comparingLong(IMonitoringRecord::getLoggingTimestamp));
+		Assert.assertEquals(records, received);
+	}
+
+	@Test
+	public void testUnorderedKeepsRecordsOfEachFile() throws IOException {
+		final List<IMonitoringRecord> records = this.writeInterleavedLog(this.tmpFolder.getRoot());
+
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(ParallelDirectoryReaderStage.ORDERED, "false");
+		configuration.setProperty(ParallelDirectoryReaderStage.THREADS, "3");
+		final List<IMonitoringRecord> received = ParallelDirectoryReaderStageTest.read(this.tmpFolder.getRoot(), configuration);
+
+		Assert.assertEquals(records.size(), received.size());
+		for (int file = 0; file < NUM_FILES; file++) {
+			Assert.assertEquals(ParallelDirectoryReaderStageTest.recordsOfFile(records, file), ParallelDirectoryReaderStageTest.recordsOfFile(received, file));
+		}
+	}
+
+	@Test
+	public void testZippedLogWithCompressedFiles() throws IOException {
+		final File directory = this.tmpFolder.newFolder("log");
+		final List<IMonitoringRecord> records = this.writeInterleavedLog(directory);
+
+		final File zipFile = new File(this.tmpFolder.getRoot(), "log" + FSUtil.ZIP_FILE_EXTENSION);
+		try (ZipOutputStream zipStream = new ZipOutputStream(Files.newOutputStream(zipFile.toPath()))) {
+			for (final File file : directory.listFiles()) {
+				final boolean compress = file.getName().endsWith("-1" + FSUtil.BINARY_FILE_EXTENSION);
+				zipStream.putNextEntry(new ZipEntry("log/" + file.getName() + (compress ? FSUtil.GZIP_FILE_EXTENSION : ""))); // NOCS (declarative)
+				if (compress) {
+					final OutputStream gzipStream = new GZIPOutputStream(zipStream);
+					Files.copy(file.toPath(), gzipStream);
+					gzipStream.flush();
+					((GZIPOutputStream) gzipStream).finish();
+				} else {
+					Files.copy(file.toPath(), zipStream);
+				}
+				zipStream.closeEntry();
+			}
+		}
+
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(ParallelDirectoryReaderStage.THREADS, String.valueOf(NUM_FILES));
+		final List<IMonitoringRecord> received = ParallelDirectoryReaderStageTest.read(zipFile, configuration);
+
+		records.sort(Comparator.comparingLong(IMonitoringRecord::getLoggingTimestamp));
+		Assert.assertEquals(records, received);
+	}
+
+	@Test
+	public void testZippedMappedLog() throws IOException {
+		final File directory = this.tmpFolder.newFolder("log");
+		final List<IMonitoringRecord> records = this.writeInterleavedLog(directory, true);
+
+		final File zipFile = new File(this.tmpFolder.getRoot(), "log" + FSUtil.ZIP_FILE_EXTENSION);
+		try (ZipOutputStream zipStream = new ZipOutputStream(Files.newOutputStream(zipFile.toPath()))) {
+			for (final File file : directory.listFiles()) {
+				zipStream.putNextEntry(new ZipEntry("log/" + file.getName()));
+				Files.copy(file.toPath(), zipStream);
+				zipStream.closeEntry();
+			}
+		}
+
+		final List<IMonitoringRecord> received = ParallelDirectoryReaderStageTest.read(zipFile, new Configuration());
+
+		records.sort(Comparator.comparingLong(IMonitoringRecord::getLoggingTimestamp));
+		Assert.assertEquals(records, received);
+	}
+
+	@Test
+	public void testFollowModeReadsSequentially() throws Exception {
+		final File directory = this.tmpFolder.getRoot();
+		final BinaryLogFileWriter writer = new BinaryLogFileWriter(directory);
+		final List<IMonitoringRecord> records = ParallelDirectoryReaderStageTest.createRecords(0, 20, 0, 1);
+		writer.write(records.subList(0, 10));
+
+		final Thread appender = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(100);
+					writer.write(records.subList(10, 20));
+					writer.close();
+				} catch (final IOException | InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		};
+		appender.start();
+
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(DirectoryReaderStage.FOLLOW, "true");
+		configuration.setProperty(DirectoryReaderStage.FOLLOW_POLL_INTERVAL, "10");
+		configuration.setProperty(DirectoryReaderStage.FOLLOW_IDLE_TIMEOUT, "1000");
+		final List<IMonitoringRecord> received = ParallelDirectoryReaderStageTest.read(directory, configuration);
+		appender.join();
+
+		Assert.assertEquals(records, received);
+	}
+
+	/**
+	 * Write {@link #NUM_FILES} log files whose records are interleaved in time.
+	 */
+	private List<IMonitoringRecord> writeInterleavedLog(final File directory) throws IOException {
+		return this.writeInterleavedLog(directory, false);
+	}
+
+	/**
+	 * Write {@link #NUM_FILES} log files whose records are interleaved in time.
+	 *
+	 * @param mapped
+	 *            write the log files like the <code>MappedBinaryLogStreamHandler</code>, including an unwritten tail
+	 *            behind the committed end
+	 */
+	private List<IMonitoringRecord> writeInterleavedLog(final File directory, final boolean mapped) throws IOException {
+		final BinaryLogFileWriter writer = new BinaryLogFileWriter(directory, mapped);
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		for (int file = 0; file < NUM_FILES; file++) {
+			if (file > 0) {
+				writer.startLogFile("kieker-" + (file + 1) + writer.getExtension());
+			}
+			final List<IMonitoringRecord> fileRecords = ParallelDirectoryReaderStageTest.createRecords(file * RECORDS_PER_FILE, RECORDS_PER_FILE, file,
+					NUM_FILES);
+			writer.write(fileRecords);
+			if (mapped) {
+				writer.writeZeros(64);
+			}
+			records.addAll(fileRecords);
+		}
+		writer.close();
+		return records;
+	}
+
+	/**
+	 * The trace id identifies the record, the session id its file. The logging timestamp of the i-th record is
+	 * <code>10000 + firstTimestamp + i * step</code>.
+	 */
+	private static List<IMonitoringRecord> createRecords(final int firstTraceId, final int count, final long firstTimestamp, final int step) {
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			final OperationExecutionRecord record = new OperationExecutionRecord("public void Foo.bar()", "file-" + (firstTraceId / RECORDS_PER_FILE),
+					firstTraceId + i, i, i + 5, "host", 0, 0);
+			record.setLoggingTimestamp(10000 + firstTimestamp + ((long) i * step));
+			records.add(record);
+		}
+		return records;
+	}
+
+	private static List<IMonitoringRecord> recordsOfFile(final List<IMonitoringRecord> records, final int file) {
+		final List<IMonitoringRecord> result = new ArrayList<>();
+		for (final IMonitoringRecord record : records) {
+			if (((OperationExecutionRecord) record).getSessionId().equals("file-" + file)) {
+				result.add(record);
+			}
+		}
+		return result;
+	}
+
+	private static List<IMonitoringRecord> read(final File logLocation, final Configuration configuration) {
+		final ParallelDirectoryReaderStage stage = new ParallelDirectoryReaderStage(configuration);
+		final List<File> input = new ArrayList<>();
+		input.add(logLocation);
+		final List<IMonitoringRecord> received = new ArrayList<>();
+		StageTester.test(stage).and().send(input).to(stage.getInputPort()).and().receive(received).from(stage.getOutputPort()).start();
+		return received;
+	}
+}
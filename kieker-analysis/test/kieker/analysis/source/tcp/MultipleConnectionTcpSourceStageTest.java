@@ -0,0 +1,264 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.source.tcp;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.analysis.source.rewriter.ITraceMetadataRewriter;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.io.BinaryValueSerializer;
+import kieker.common.registry.IRegistryListener;
+import kieker.common.registry.writer.WriterRegistry;
+import kieker.monitoring.queue.MpscRingBufferQueue;
+
+import teetime.framework.OutputPort;
+
+/**
+ * Tests the reader threads and the decoding of the {@link MultipleConnectionTcpSourceStage}.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class MultipleConnectionTcpSourceStageTest {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MultipleConnectionTcpSourceStageTest.class);
+
+	private static final int NUM_RECORDS = 1000;
+	private static final long TIMEOUT_IN_MS = 10_000;
+
+	private final Map<Connection, List<OperationExecutionRecord>> receivedRecords = new HashMap<>();
+	private final ITraceMetadataRewriter rewriter = (connection, record, loggingTimestamp, outputPort) -> {
+		List<OperationExecutionRecord> records = this.receivedRecords.get(connection);
+		if (records == null) {
+			records = new ArrayList<>();
+			this.receivedRecords.put(connection, records);
+		}
+		records.add((OperationExecutionRecord) record);
+	};
+	private final ConnectionDecoder decoder = new ConnectionDecoder(LOGGER, this.rewriter, new OutputPort<IMonitoringRecord>());
+
+	public MultipleConnectionTcpSourceStageTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testRecordsSplitOverChunks() throws IOException {
+		final byte[] data = MultipleConnectionTcpSourceStageTest.serialize("host", NUM_RECORDS);
+		final ReaderThread reader = this.createReader();
+
+		for (final int chunkSize : new int[] { 1, 7, 4096 }) {
+			this.receivedRecords.clear();
+			final Connection connection = new Connection(SocketChannel.open(), 256);
+			for (int offset = 0; offset < data.length; offset += chunkSize) {
+				final ByteBuffer chunk = ByteBuffer.wrap(data, offset, Math.min(chunkSize, data.length - offset));
+				this.decoder.decode(new ReceivedChunk(connection, reader, chunk));
+			}
+			MultipleConnectionTcpSourceStageTest.assertRecords("host", this.receivedRecords.get(connection));
+			connection.getChannel().close();
+		}
+	}
+
+	@Test
+	public void testUnknownRecordTypeClosesConnection() throws IOException {
+		final ReaderThread reader = this.createReader();
+		final Connection connection = new Connection(SocketChannel.open(), 256);
+		reader.register(connection);
+
+		final ByteBuffer chunk = ByteBuffer.allocate(64);
+		chunk.putInt(42).putLong(1L).putInt(0).flip();
+		this.decoder.decode(new ReceivedChunk(connection, reader, chunk));
+
+		Assert.assertTrue("Connection must be marked as erroneous", connection.isError());
+		Assert.assertFalse("Connection must be closed", connection.getChannel().isOpen());
+		Assert.assertEquals("Connection must be removed from its reader", 0, reader.getNumberOfConnections());
+	}
+
+	@Test
+	public void testConnectionsAreDistributedOverReaders() throws IOException, InterruptedException {
+		final int numReaders = 2;
+		final int numConnections = 6;
+		final BlockingQueue<ReceivedChunk> chunkQueue = new MpscRingBufferQueue<>(16);
+		final Queue<ByteBuffer> freeChunks = new ConcurrentLinkedQueue<>();
+
+		final ReaderThread[] readers = new ReaderThread[numReaders];
+		for (int i = 0; i < numReaders; i++) {
+			readers[i] = new ReaderThread(LOGGER, chunkQueue, freeChunks, 1024);
+			readers[i].start();
+		}
+		try (ServerSocketChannel serverSocket = ServerSocketChannel.open()) {
+			serverSocket.bind(new InetSocketAddress("localhost", 0));
+			new AcceptorThread(LOGGER, serverSocket, readers, 1024).start();
+
+			final SocketChannel[] clients = new SocketChannel[numConnections];
+			for (int i = 0; i < numConnections; i++) {
+				clients[i] = SocketChannel.open(serverSocket.getLocalAddress());
+			}
+			this.awaitConnections(readers, numConnections);
+			for (final ReaderThread reader : readers) {
+				Assert.assertEquals("Connections must be balanced", numConnections / numReaders, reader.getNumberOfConnections());
+			}
+
+			for (int i = 0; i < numConnections; i++) {
+				final ByteBuffer data = ByteBuffer.wrap(MultipleConnectionTcpSourceStageTest.serialize("host" + i, NUM_RECORDS));
+				while (data.hasRemaining()) {
+					clients[i].write(data);
+				}
+				clients[i].close();
+			}
+
+			// decode like the stage until all connections have been closed
+			final long deadline = System.currentTimeMillis() + TIMEOUT_IN_MS;
+			while (this.countConnections(readers) > 0) {
+				final ReceivedChunk chunk = chunkQueue.poll(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+				Assert.assertNotNull("Timeout while waiting for chunks", chunk);
+				this.decoder.decode(chunk);
+				if (!chunk.isEndOfStream()) {
+					chunk.getBuffer().clear();
+					freeChunks.offer(chunk.getBuffer());
+				}
+			}
+		} finally {
+			for (final ReaderThread reader : readers) {
+				reader.terminate();
+				reader.join(TIMEOUT_IN_MS);
+			}
+		}
+
+		Assert.assertEquals("Wrong number of connections", numConnections, this.receivedRecords.size());
+		for (final List<OperationExecutionRecord> records : this.receivedRecords.values()) {
+			MultipleConnectionTcpSourceStageTest.assertRecords(records.get(0).getHostname(), records);
+		}
+	}
+
+	/**
+	 * Stops the threads of the stage while the reader thread is blocked handing over a chunk to the full chunk queue, which
+	 * is not polled anymore.
+	 */
+	@Test
+	public void testTerminateWhileChunkQueueIsFull() throws IOException, InterruptedException {
+		final BlockingQueue<ReceivedChunk> chunkQueue = new MpscRingBufferQueue<>(2);
+		final ReaderThread[] readers = { new ReaderThread(LOGGER, chunkQueue, new ConcurrentLinkedQueue<ByteBuffer>(), 16) };
+		readers[0].start();
+
+		final AcceptorThread acceptor;
+		try (ServerSocketChannel serverSocket = ServerSocketChannel.open()) {
+			serverSocket.bind(new InetSocketAddress("localhost", 0));
+			acceptor = new AcceptorThread(LOGGER, serverSocket, readers, 1024);
+			acceptor.start();
+
+			try (SocketChannel client = SocketChannel.open(serverSocket.getLocalAddress())) {
+				client.write(ByteBuffer.wrap(MultipleConnectionTcpSourceStageTest.serialize("host", 10)));
+
+				final long deadline = System.currentTimeMillis() + TIMEOUT_IN_MS;
+				while ((chunkQueue.remainingCapacity() > 0) && (System.currentTimeMillis() < deadline)) {
+					Thread.sleep(10);
+				}
+				Assert.assertEquals("The chunk queue must be full", 0, chunkQueue.remainingCapacity());
+			}
+		}
+
+		final Thread terminator = new Thread(() -> MultipleConnectionTcpSourceStage.terminate(readers, acceptor));
+		terminator.start();
+		terminator.join(TIMEOUT_IN_MS);
+
+		Assert.assertFalse("Termination must not block", terminator.isAlive());
+		Assert.assertFalse("Reader thread must have ended", readers[0].isAlive());
+		Assert.assertFalse("Acceptor thread must have ended", acceptor.isAlive());
+	}
+
+	private ReaderThread createReader() throws IOException {
+		return new ReaderThread(LOGGER, new MpscRingBufferQueue<ReceivedChunk>(16), new ConcurrentLinkedQueue<ByteBuffer>(), 1024);
+	}
+
+	private void awaitConnections(final ReaderThread[] readers, final int numConnections) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + TIMEOUT_IN_MS;
+		while ((this.countConnections(readers) < numConnections) && (System.currentTimeMillis() < deadline)) {
+			Thread.sleep(10);
+		}
+	}
+
+	private int countConnections(final ReaderThread[] readers) {
+		int count = 0;
+		for (final ReaderThread reader : readers) {
+			count += reader.getNumberOfConnections();
+		}
+		return count;
+	}
+
+	private static void assertRecords(final String hostname, final List<OperationExecutionRecord> records) {
+		Assert.assertNotNull("No records received from " + hostname, records);
+		Assert.assertEquals("Wrong number of records from " + hostname, NUM_RECORDS, records.size());
+		for (int i = 0; i < NUM_RECORDS; i++) {
+			Assert.assertEquals(MultipleConnectionTcpSourceStageTest.createRecord(hostname, i), records.get(i));
+		}
+	}
+
+	private static OperationExecutionRecord createRecord(final String hostname, final int eoi) {
+		return new OperationExecutionRecord("public void Foo.bar" + (eoi % 10) + "()", "session", eoi, 2L * eoi, (2L * eoi) + 1, hostname, eoi, 0);
+	}
+
+	/**
+	 * Serialize records like the <code>SingleSocketTcpWriter</code> with the string registry entries in front of the records.
+	 */
+	private static byte[] serialize(final String hostname, final int numRecords) {
+		final ByteBuffer stream = ByteBuffer.allocate(1024 * 1024);
+		final WriterRegistry registry = new WriterRegistry(new IRegistryListener<String>() {
+			@Override
+			public void onNewRegistryEntry(final String value, final int id) {
+				final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				stream.putInt(-1).putInt(id).putInt(bytes.length).put(bytes);
+			}
+		});
+		final ByteBuffer recordBuffer = ByteBuffer.allocate(1024);
+		final BinaryValueSerializer serializer = BinaryValueSerializer.create(recordBuffer, registry);
+
+		for (int i = 0; i < numRecords; i++) {
+			final OperationExecutionRecord record = MultipleConnectionTcpSourceStageTest.createRecord(hostname, i);
+			serializer.putString(record.getClass().getName());
+			serializer.putLong(i);
+			record.serialize(serializer);
+			recordBuffer.flip();
+			stream.put(recordBuffer);
+			recordBuffer.clear();
+		}
+
+		final byte[] data = new byte[stream.position()];
+		stream.flip();
+		stream.get(data);
+		return data;
+	}
+}
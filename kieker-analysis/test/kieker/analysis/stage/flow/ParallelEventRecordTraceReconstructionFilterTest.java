@@ -0,0 +1,142 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.stage.flow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.flow.trace.AbstractTraceEvent;
+import kieker.common.record.flow.trace.operation.AfterOperationEvent;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+import teetime.framework.Configuration;
+import teetime.framework.Execution;
+import teetime.stage.CollectorSink;
+import teetime.stage.InitialElementProducer;
+
+/**
+ * Checks that the {@link ParallelEventRecordTraceReconstructionFilter} reconstructs the same traces with several workers as
+ * with a single one.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ParallelEventRecordTraceReconstructionFilterTest extends AbstractKiekerTest {
+
+	private static final int NUM_TRACES = 200;
+	private static final long TIMEOUT = 50;
+
+	/**
+	 * Default constructor.
+	 */
+	public ParallelEventRecordTraceReconstructionFilterTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testWithoutTimeout() {
+		this.assertSameTraces(Long.MAX_VALUE);
+	}
+
+	@Test
+	public void testWithTimeout() {
+		this.assertSameTraces(TIMEOUT);
+	}
+
+	private void assertSameTraces(final long timeout) {
+		final List<AbstractTraceEvent> records = ParallelEventRecordTraceReconstructionFilterTest.createRecords();
+
+		final ReconstructionConfiguration sequential = new ReconstructionConfiguration(records, timeout, 1);
+		new Execution<>(sequential).executeBlocking();
+		final ReconstructionConfiguration parallel = new ReconstructionConfiguration(records, timeout, 4);
+		new Execution<>(parallel).executeBlocking();
+
+		final List<TraceEventRecords> expectedTraces = sequential.invalidTraces.getElements();
+		final List<TraceEventRecords> traces = parallel.invalidTraces.getElements();
+		if (timeout != Long.MAX_VALUE) { // the delayed events form traces on their own
+			Assert.assertTrue(expectedTraces.size() > NUM_TRACES);
+		}
+		Assert.assertEquals(expectedTraces.size(), traces.size());
+		Assert.assertTrue(traces.containsAll(expectedTraces));
+		// without trace metadata, no trace is valid
+		Assert.assertEquals(0, sequential.validTraces.getElements().size());
+		Assert.assertEquals(0, parallel.validTraces.getElements().size());
+	}
+
+	/**
+	 * Creates operation calls with a nested call for groups of four concurrent traces. The last event of every 10th trace
+	 * is delayed until the end and thus arrives after the timeout. Every 7th trace misses its last event.
+	 */
+	private static List<AbstractTraceEvent> createRecords() {
+		final List<AbstractTraceEvent> records = new ArrayList<>();
+		final List<Long> delayedTraceIds = new ArrayList<>();
+		long timestamp = 0;
+		for (long group = 0; group < (NUM_TRACES / 4); group++) {
+			for (int orderIndex = 0; orderIndex < 4; orderIndex++) {
+				for (long traceId = group * 4; traceId < ((group * 4) + 4); traceId++) {
+					if (orderIndex < 3) {
+						records.add(ParallelEventRecordTraceReconstructionFilterTest.createEvent(timestamp++, traceId, orderIndex));
+					} else if ((traceId % 10) == 0) {
+						delayedTraceIds.add(traceId);
+					} else if ((traceId % 7) != 0) {
+						records.add(ParallelEventRecordTraceReconstructionFilterTest.createEvent(timestamp++, traceId, orderIndex));
+					}
+				}
+			}
+		}
+		for (final long traceId : delayedTraceIds) {
+			records.add(ParallelEventRecordTraceReconstructionFilterTest.createEvent(timestamp++, traceId, 3));
+		}
+		return records;
+	}
+
+	private static AbstractTraceEvent createEvent(final long timestamp, final long traceId, final int orderIndex) {
+		switch (orderIndex) {
+		case 0:
+		case 1:
+			return new BeforeOperationEvent(timestamp, traceId, orderIndex, "op" + orderIndex, "Class");
+		default:
+			return new AfterOperationEvent(timestamp, traceId, orderIndex, "op" + (3 - orderIndex), "Class");
+		}
+	}
+
+	/**
+	 * Feeds the records into a {@link ParallelEventRecordTraceReconstructionFilter} and collects its traces.
+	 */
+	private static class ReconstructionConfiguration extends Configuration {
+
+		private final CollectorSink<TraceEventRecords> validTraces = new CollectorSink<>();
+		private final CollectorSink<TraceEventRecords> invalidTraces = new CollectorSink<>();
+
+		public ReconstructionConfiguration(final List<AbstractTraceEvent> records, final long timeout, final int numWorkers) {
+			final InitialElementProducer<AbstractTraceEvent> producer = new InitialElementProducer<>(records);
+			final ParallelEventRecordTraceReconstructionFilter filter = new ParallelEventRecordTraceReconstructionFilter(TimeUnit.NANOSECONDS, false,
+					Long.MAX_VALUE, timeout, numWorkers);
+
+			this.connectPorts(producer.getOutputPort(), filter.getTraceRecordsInputPort());
+			this.connectPorts(filter.getValidTracesOutputPort(), this.validTraces.getInputPort());
+			this.connectPorts(filter.getInvalidTracesOutputPort(), this.invalidTraces.getInputPort());
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.statistics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.analysisteetime.model.analysismodel.trace.OperationCall;
+import kieker.analysisteetime.model.analysismodel.trace.TraceFactory;
+
+import teetime.framework.Configuration;
+import teetime.framework.Execution;
+import teetime.stage.CollectorSink;
+import teetime.stage.InitialElementProducer;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class FullReponseTimeStatisticsStageTest {
+
+	private static final String OPERATION = "operation";
+
+	public FullReponseTimeStatisticsStageTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testExactMedianByDefault() {
+		final StatisticsConfiguration configuration = new StatisticsConfiguration(false);
+		new Execution<>(configuration).executeBlocking();
+
+		final Statistic statistic = configuration.statisticsModel.get(OPERATION).getStatistic(Units.RESPONSE_TIME);
+		Assert.assertEquals(Long.valueOf(50), statistic.getProperty(Properties.COUNT));
+		Assert.assertEquals(Long.valueOf(49), statistic.getProperty(Properties.MEDIAN)); // mean of 48 and 50
+		Assert.assertFalse(statistic.hasProperty(Properties.PERCENTILE_99));
+	}
+
+	@Test
+	public void testEstimatedQuantiles() {
+		final StatisticsConfiguration configuration = new StatisticsConfiguration(true);
+		new Execution<>(configuration).executeBlocking();
+
+		final Statistic statistic = configuration.statisticsModel.get(OPERATION).getStatistic(Units.RESPONSE_TIME);
+		Assert.assertEquals(Long.valueOf(50), statistic.getProperty(Properties.COUNT));
+		// the nearest ranks, exact as the histogram buckets of values below 128 have the width 1 with the default precision
+		Assert.assertEquals(Long.valueOf(48), statistic.getProperty(Properties.MEDIAN)); // the lower median
+		Assert.assertEquals(Long.valueOf(88), statistic.getProperty(Properties.PERCENTILE_90));
+		Assert.assertEquals(Long.valueOf(94), statistic.getProperty(Properties.PERCENTILE_95));
+		Assert.assertEquals(Long.valueOf(98), statistic.getProperty(Properties.PERCENTILE_99));
+		Assert.assertEquals(Long.valueOf(98), statistic.getProperty(Properties.PERCENTILE_99_9));
+	}
+
+	/**
+	 * Sends operation calls with the even response times 0 to 98 ns to the statistics stage.
+	 */
+	private static class StatisticsConfiguration extends Configuration {
+
+		private final StatisticsModel statisticsModel = new StatisticsModel();
+
+		public StatisticsConfiguration(final boolean estimateQuantiles) {
+			final List<OperationCall> operationCalls = new ArrayList<>();
+			for (int i = 0; i < 50; i++) {
+				final OperationCall operationCall = TraceFactory.eINSTANCE.createOperationCall();
+				operationCall.setDuration(Duration.ofNanos(2L * i));
+				operationCalls.add(operationCall);
+			}
+			final InitialElementProducer<OperationCall> producer = new InitialElementProducer<>(operationCalls);
+			final FullReponseTimeStatisticsStage statistics = new FullReponseTimeStatisticsStage(this.statisticsModel, c -> OPERATION,
+					estimateQuantiles);
+			this.connectPorts(producer.getOutputPort(), statistics.getInputPort());
+			this.connectPorts(statistics.getOutputPort(), new CollectorSink<OperationCall>().getInputPort());
+		}
+	}
+}
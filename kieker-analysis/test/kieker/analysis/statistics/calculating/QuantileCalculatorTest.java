@@ -0,0 +1,89 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.statistics.calculating;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.analysis.statistics.IProperty;
+import kieker.analysis.statistics.Properties;
+import kieker.analysis.statistics.Statistic;
+import kieker.analysis.statistics.StatisticsModel;
+import kieker.analysis.statistics.Units;
+import kieker.analysis.util.LogHistogram;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class QuantileCalculatorTest {
+
+	private static final Object MODEL_OBJECT = new Object();
+
+	public QuantileCalculatorTest() {
+		// empty default constructor
+	}
+
+	/**
+	 * For an even number of values, the median is the lower of the two middle values, whereas the {@link MedianCalculator}
+	 * returns their mean.
+	 */
+	@Test
+	public void testLowerMedianOfEvenNumberOfValues() {
+		final Statistic quantiles = new StatisticsModel().get(MODEL_OBJECT).getStatistic(Units.RESPONSE_TIME);
+		final Statistic median = new StatisticsModel().get(MODEL_OBJECT).getStatistic(Units.RESPONSE_TIME);
+		final QuantileCalculator<Long> quantileCalculator = new QuantileCalculator<>(v -> v);
+		final MedianCalculator<Long> medianCalculator = new MedianCalculator<>(v -> v);
+		for (final long value : new long[] { 8, 2, 6, 4 }) { // values below 2^6 are counted exactly
+			quantileCalculator.calculate(quantiles, value, MODEL_OBJECT);
+			medianCalculator.calculate(median, value, MODEL_OBJECT);
+		}
+
+		Assert.assertEquals(Long.valueOf(4), quantiles.getProperty(Properties.MEDIAN));
+		Assert.assertEquals(Long.valueOf(5), median.getProperty(Properties.MEDIAN));
+		Assert.assertEquals(Long.valueOf(8), quantiles.getProperty(Properties.PERCENTILE_99_9));
+	}
+
+	@Test
+	public void testRelativeErrorOfEvenNumberOfValues() {
+		final Random random = new Random(11);
+		for (final int precisionBits : new int[] { 3, LogHistogram.DEFAULT_PRECISION_BITS }) {
+			final Statistic statistic = new StatisticsModel().get(MODEL_OBJECT).getStatistic(Units.RESPONSE_TIME);
+			final QuantileCalculator<Long> calculator = new QuantileCalculator<>(v -> v, precisionBits, QuantileCalculator.DEFAULT_QUANTILES);
+			final long[] values = new long[10_000];
+			for (int i = 0; i < values.length; i++) {
+				// log-normally distributed response times
+				values[i] = (long) Math.exp(12 + (2 * random.nextGaussian()));
+				calculator.calculate(statistic, values[i], MODEL_OBJECT);
+			}
+			Arrays.sort(values);
+
+			final double maxRelativeError = 1.0 / (1 << (precisionBits + 1));
+			// the nearest rank of the median is values.length / 2, i.e., the lower of the two middle values
+			for (final Map.Entry<IProperty, Double> quantile : QuantileCalculator.DEFAULT_QUANTILES.entrySet()) {
+				final long exact = values[(int) Math.ceil(quantile.getValue() * values.length) - 1];
+				Assert.assertEquals(quantile.getKey() + " with " + precisionBits + " bits", exact, statistic.getProperty(quantile.getKey()),
+						maxRelativeError * exact);
+			}
+		}
+	}
+}
@@ -0,0 +1,143 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.trace.reconstruction;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.analysis.model.StaticModelsAssemblerStage;
+import kieker.analysis.plugin.filter.flow.TraceEventRecords;
+import kieker.analysis.signature.SignatureExtractor;
+import kieker.analysisteetime.model.analysismodel.trace.OperationCall;
+import kieker.analysisteetime.model.analysismodel.trace.Trace;
+import kieker.common.record.flow.IFlowRecord;
+import kieker.common.record.flow.trace.AbstractTraceEvent;
+
+import kieker.test.analysis.util.plugin.filter.flow.BookstoreEventRecordFactory;
+import kieker.test.common.junit.AbstractKiekerTest;
+
+import teetime.framework.Configuration;
+import teetime.framework.Execution;
+import teetime.framework.OutputPort;
+import teetime.stage.CollectorSink;
+import teetime.stage.InitialElementProducer;
+
+/**
+ * Checks that the {@link ParallelTraceReconstructorStage} reconstructs the same traces as the {@link TraceReconstructorStage}.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ParallelTraceReconstructorStageTest extends AbstractKiekerTest {
+
+	private static final int NUM_TRACES = 100;
+
+	/**
+	 * Default constructor.
+	 */
+	public ParallelTraceReconstructorStageTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testSameTracesAsSequentialReconstruction() {
+		final List<IFlowRecord> records = ParallelTraceReconstructorStageTest.createRecords();
+
+		final ReconstructionConfiguration sequential = new ReconstructionConfiguration(records, 0);
+		new Execution<>(sequential).executeBlocking();
+		final ReconstructionConfiguration parallel = new ReconstructionConfiguration(records, 4);
+		new Execution<>(parallel).executeBlocking();
+
+		final Map<Long, String> expectedTraces = ParallelTraceReconstructorStageTest.describe(sequential.traces.getElements());
+		Assert.assertEquals(NUM_TRACES, expectedTraces.size());
+		Assert.assertEquals(expectedTraces, ParallelTraceReconstructorStageTest.describe(parallel.traces.getElements()));
+	}
+
+	/**
+	 * Interleaves the events of pairs of Bookstore traces on two hosts.
+	 */
+	private static List<IFlowRecord> createRecords() {
+		final List<IFlowRecord> records = new ArrayList<>();
+		for (int traceId = 0; traceId < NUM_TRACES; traceId += 2) {
+			final TraceEventRecords first = BookstoreEventRecordFactory.validSyncTraceBeforeAfterEvents(traceId * 100L, traceId, "session", "host1");
+			final TraceEventRecords second = BookstoreEventRecordFactory.validSyncTraceBeforeAfterEvents((traceId * 100L) + 1, traceId + 1, "session",
+					"host2");
+			records.add(first.getTraceMetadata());
+			records.add(second.getTraceMetadata());
+			final AbstractTraceEvent[] firstEvents = first.getTraceEvents();
+			final AbstractTraceEvent[] secondEvents = second.getTraceEvents();
+			for (int i = 0; i < firstEvents.length; i++) {
+				records.add(firstEvents[i]);
+				records.add(secondEvents[i]);
+			}
+		}
+		return records;
+	}
+
+	private static Map<Long, String> describe(final List<Trace> traces) {
+		final Map<Long, String> descriptions = new TreeMap<>();
+		for (final Trace trace : traces) {
+			final StringBuilder builder = new StringBuilder();
+			ParallelTraceReconstructorStageTest.describe(trace.getRootOperationCall(), builder);
+			descriptions.put(trace.getTraceID(), builder.toString());
+		}
+		return descriptions;
+	}
+
+	private static void describe(final OperationCall call, final StringBuilder builder) {
+		builder.append(call.getOperation().getAssemblyOperation().getOperationType().getSignature()).append('@')
+				.append(call.getStart()).append('+').append(call.getDuration()).append('[');
+		for (final OperationCall child : call.getChildren()) {
+			ParallelTraceReconstructorStageTest.describe(child, builder);
+		}
+		builder.append(']');
+	}
+
+	/**
+	 * Reconstructs the traces of the given records sequentially (no workers) or in parallel.
+	 */
+	private static class ReconstructionConfiguration extends Configuration {
+
+		private final CollectorSink<Trace> traces = new CollectorSink<>();
+
+		public ReconstructionConfiguration(final List<IFlowRecord> records, final int numWorkers) {
+			final InitialElementProducer<IFlowRecord> producer = new InitialElementProducer<>(records);
+			final StaticModelsAssemblerStage staticModelsAssembler = new StaticModelsAssemblerStage(SignatureExtractor.forJava());
+			this.connectPorts(producer.getOutputPort(), staticModelsAssembler.getInputPort());
+
+			final OutputPort<Trace> traceOutputPort;
+			if (numWorkers > 0) {
+				final ParallelTraceReconstructorStage reconstructor = new ParallelTraceReconstructorStage(staticModelsAssembler.getDeploymentModel(),
+						ChronoUnit.NANOS, numWorkers);
+				this.connectPorts(staticModelsAssembler.getOutputPort(), reconstructor.getInputPort());
+				traceOutputPort = reconstructor.getOutputPort();
+			} else {
+				final TraceReconstructorStage reconstructor = new TraceReconstructorStage(staticModelsAssembler.getDeploymentModel(), ChronoUnit.NANOS);
+				this.connectPorts(staticModelsAssembler.getOutputPort(), reconstructor.getInputPort());
+				traceOutputPort = reconstructor.getOutputPort();
+			}
+			this.connectPorts(traceOutputPort, this.traces.getInputPort());
+		}
+	}
+}
@@ -0,0 +1,161 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.util;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class LogHistogramTest {
+
+	private static final double[] QUANTILES = { 0.0, 0.25, 0.5, 0.9, 0.95, 0.99, 0.999, 1.0 };
+
+	@Rule
+	public ExpectedException exceptions = ExpectedException.none();
+
+	public LogHistogramTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testEmptyHistogram() { // NOPMD expect exception
+		this.exceptions.expect(IllegalStateException.class);
+
+		new LogHistogram().getQuantile(0.5);
+	}
+
+	@Test
+	public void testSmallValuesAreExact() {
+		final LogHistogram histogram = new LogHistogram(6);
+		for (final long value : new long[] { 15, 5, 63, 5, 0, 42 }) {
+			histogram.add(value);
+		}
+
+		Assert.assertEquals(6, histogram.getCount());
+		Assert.assertEquals(0, histogram.getQuantile(0.0));
+		Assert.assertEquals(5, histogram.getQuantile(0.5)); // lower median like the nearest rank
+		Assert.assertEquals(15, histogram.getQuantile(0.6));
+		Assert.assertEquals(63, histogram.getQuantile(1.0));
+	}
+
+	@Test
+	public void testRelativeError() {
+		final Random random = new Random(42);
+		for (final int precisionBits : new int[] { 1, 4, 6, 10 }) {
+			final LogHistogram histogram = new LogHistogram(precisionBits);
+			final long[] values = new long[100_000];
+			for (int i = 0; i < values.length; i++) {
+				// log-normally distributed values spanning several orders of magnitude, like response times
+				values[i] = (long) Math.exp(10 + (3 * random.nextGaussian()));
+				histogram.add(values[i]);
+			}
+			Arrays.sort(values);
+
+			final double maxRelativeError = 1.0 / (1 << (precisionBits + 1));
+			for (final double quantile : QUANTILES) {
+				final long exact = values[(int) Math.max(0, Math.ceil(quantile * values.length) - 1)];
+				final long estimate = histogram.getQuantile(quantile);
+				Assert.assertEquals("quantile " + quantile + " with " + precisionBits + " bits", exact, estimate, maxRelativeError * exact);
+			}
+		}
+	}
+
+	@Test
+	public void testMerge() {
+		final Random random = new Random(7);
+		final LogHistogram all = new LogHistogram();
+		final LogHistogram first = new LogHistogram();
+		final LogHistogram second = new LogHistogram();
+		for (int i = 0; i < 10_000; i++) {
+			final long value = random.nextInt(1_000_000);
+			all.add(value);
+			if ((i % 2) == 0) {
+				first.add(value);
+			} else {
+				second.add(value + 1_000_000_000L); // disjoint range to merge the bucket arrays at an offset
+				all.add(value + 1_000_000_000L, 0); // no effect
+			}
+		}
+		final LogHistogram merged = new LogHistogram();
+		merged.merge(second);
+		merged.merge(first);
+		merged.merge(new LogHistogram());
+
+		Assert.assertEquals(10_000, merged.getCount());
+		Assert.assertEquals(first.getMin(), merged.getMin());
+		Assert.assertEquals(second.getMax(), merged.getMax());
+		Assert.assertEquals(first.getQuantile(0.9), merged.getQuantile(0.45));
+		Assert.assertEquals(second.getQuantile(0.1), merged.getQuantile(0.55));
+	}
+
+	@Test
+	public void testCursors() {
+		final Random random = new Random(3);
+		final LogHistogram histogram = new LogHistogram(4);
+		final LogHistogram.Cursor[] cursors = new LogHistogram.Cursor[QUANTILES.length];
+		for (int i = 0; i < QUANTILES.length; i++) {
+			cursors[i] = histogram.newCursor(QUANTILES[i]);
+		}
+
+		for (int i = 0; i < 5_000; i++) {
+			// drifting values make the histogram grow in both directions
+			histogram.add((long) Math.exp((10 + (3 * random.nextGaussian())) + ((i % 1000) / 100.0)));
+			if (i == 2_500) {
+				final LogHistogram other = new LogHistogram(4);
+				other.add(1L << 40, 100);
+				histogram.merge(other);
+			}
+			for (final LogHistogram.Cursor cursor : cursors) {
+				Assert.assertEquals("quantile " + cursor.getQuantile() + " after " + i + " values", histogram.getQuantile(cursor.getQuantile()),
+						cursor.getValue());
+			}
+		}
+	}
+
+	@Test
+	public void testMergeDifferentPrecision() { // NOPMD expect exception
+		this.exceptions.expect(IllegalArgumentException.class);
+
+		new LogHistogram(5).merge(new LogHistogram(6));
+	}
+
+	@Test
+	public void testNegativeValue() { // NOPMD expect exception
+		this.exceptions.expect(IllegalArgumentException.class);
+
+		new LogHistogram().add(-1);
+	}
+
+	@Test
+	public void testLargestValue() {
+		final LogHistogram histogram = new LogHistogram(16);
+		histogram.add(Long.MAX_VALUE);
+		histogram.add(1);
+
+		Assert.assertEquals(1, histogram.getQuantile(0.5));
+		Assert.assertEquals(Long.MAX_VALUE, histogram.getQuantile(1.0));
+	}
+}
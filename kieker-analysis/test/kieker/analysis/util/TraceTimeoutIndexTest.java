@@ -0,0 +1,131 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class TraceTimeoutIndexTest {
+
+	public TraceTimeoutIndexTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testTimeoutAfterLastEvent() {
+		final TraceTimeoutIndex<Trace> index = new TraceTimeoutIndex<>(Long.MAX_VALUE, 10);
+		final Trace trace = new Trace(0, 5);
+		index.add(1, trace);
+
+		Assert.assertEquals(Collections.emptyList(), index.pollExpired(14));
+		trace.max = 20; // a new event has been seen
+		Assert.assertEquals(Collections.emptyList(), index.pollExpired(15));
+		Assert.assertEquals(Collections.emptyList(), index.pollExpired(29));
+		Assert.assertEquals(Arrays.asList(1L), index.pollExpired(30));
+		Assert.assertEquals(0, index.size());
+	}
+
+	@Test
+	public void testMaxDuration() {
+		final TraceTimeoutIndex<Trace> index = new TraceTimeoutIndex<>(100, 10);
+		final Trace trace = new Trace(0, 0);
+		index.add(1, trace);
+
+		for (long timestamp = 5; timestamp < 100; timestamp += 5) {
+			trace.max = timestamp;
+			Assert.assertEquals(Collections.emptyList(), index.pollExpired(timestamp));
+		}
+		Assert.assertEquals(Arrays.asList(1L), index.pollExpired(100));
+	}
+
+	@Test
+	public void testStartMovedBackwards() {
+		final TraceTimeoutIndex<Trace> index = new TraceTimeoutIndex<>(100, Long.MAX_VALUE);
+		final Trace trace = new Trace(50, 50);
+		index.add(1, trace);
+
+		trace.min = 10;
+		index.update(1, trace);
+		Assert.assertEquals(Arrays.asList(1L), index.pollExpired(110));
+	}
+
+	@Test
+	public void testExpiredTracesAreSortedById() {
+		final TraceTimeoutIndex<Trace> index = new TraceTimeoutIndex<>(Long.MAX_VALUE, 10);
+		index.add(3, new Trace(0, 1));
+		index.add(1, new Trace(0, 3));
+		index.add(2, new Trace(0, 2));
+		index.add(4, new Trace(0, 50));
+
+		Assert.assertEquals(Arrays.asList(1L, 2L, 3L), index.pollExpired(20));
+		Assert.assertEquals(1, index.size());
+	}
+
+	@Test
+	public void testRemovedTracesDoNotExpire() {
+		final TraceTimeoutIndex<Trace> index = new TraceTimeoutIndex<>(Long.MAX_VALUE, 10);
+		for (long traceId = 0; traceId < 5000; traceId++) {
+			index.add(traceId, new Trace(traceId, traceId));
+			if ((traceId % 2) == 0) {
+				index.remove(traceId);
+			}
+		}
+
+		Assert.assertEquals(2500, index.size());
+		Assert.assertEquals(Arrays.asList(1L, 3L), index.pollExpired(14));
+		Assert.assertEquals(2498, index.pollExpired(Long.MAX_VALUE).size());
+	}
+
+	@Test
+	public void testTraceWithoutEventsAndWithoutTimeout() {
+		final TraceTimeoutIndex<Trace> index = new TraceTimeoutIndex<>(Long.MAX_VALUE, Long.MAX_VALUE);
+		index.add(1, new Trace(Long.MAX_VALUE, -1));
+
+		Assert.assertEquals(Collections.emptyList(), index.pollExpired(Long.MAX_VALUE - 2));
+	}
+
+	/**
+	 * A trace with mutable logging timestamps.
+	 */
+	private static final class Trace implements TraceTimeoutIndex.ITrace {
+		private long min;
+		private long max;
+
+		public Trace(final long min, final long max) {
+			this.min = min;
+			this.max = max;
+		}
+
+		@Override
+		public long getMinLoggingTimestamp() {
+			return this.min;
+		}
+
+		@Override
+		public long getMaxLoggingTimestamp() {
+			return this.max;
+		}
+	}
+}
@@ -0,0 +1,144 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.model.system.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import kieker.analysis.util.bookstore.ExecutionFactory;
+import kieker.model.repository.SystemModelRepository;
+import kieker.model.system.model.exceptions.InvalidTraceException;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the array-backed storage of the {@link ExecutionTrace}.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ExecutionTraceTest extends AbstractKiekerTest {
+
+	private static final long TRACE_ID = 4711L;
+	private static final String SESSION_ID = "session";
+	private static final int NUM_EXECUTIONS = 2000;
+
+	private final List<Execution> executions = new ArrayList<>();
+
+	public ExecutionTraceTest() {
+		// empty default constructor
+	}
+
+	@Before
+	public void setUp() {
+		final ExecutionFactory executionFactory = new ExecutionFactory(new SystemModelRepository());
+		final Random random = new Random(42);
+		int ess = 0;
+		for (int eoi = 0; eoi < NUM_EXECUTIONS; eoi++) {
+			this.executions.add(executionFactory.genExecution("Type" + (eoi % 7), "instance" + (eoi % 7), "op" + (eoi % 13), TRACE_ID, SESSION_ID,
+					eoi * 10L, (eoi * 10L) + 5, eoi, ess));
+			// the next execution is a callee, a sibling, or returns to an outer level
+			ess = (random.nextInt(3) == 0) ? random.nextInt(ess + 1) : ess + 1; // NOCS
+		}
+	}
+
+	@Test
+	public void testUnorderedAddEqualsOrderedAdd() throws InvalidTraceException {
+		final ExecutionTrace orderedTrace = this.createTrace(this.executions);
+		final List<Execution> reversed = new ArrayList<>(this.executions);
+		Collections.reverse(reversed);
+		final ExecutionTrace reversedTrace = this.createTrace(reversed);
+
+		Assert.assertEquals(this.executions.get(0), reversedTrace.getTraceAsSortedExecutionSet().first());
+		Assert.assertEquals(orderedTrace, reversedTrace);
+		Assert.assertEquals(new ArrayList<>(orderedTrace.getTraceAsSortedExecutionSet()), new ArrayList<>(reversedTrace.getTraceAsSortedExecutionSet()));
+
+		final MessageTrace messageTrace = reversedTrace.toMessageTrace(SystemModelRepository.ROOT_EXECUTION);
+		Assert.assertEquals(2 * NUM_EXECUTIONS, messageTrace.getSequenceAsVector().size());
+		Assert.assertEquals(orderedTrace.toMessageTrace(SystemModelRepository.ROOT_EXECUTION), messageTrace);
+	}
+
+	@Test
+	public void testSortedSetLikeTreeSet() throws InvalidTraceException {
+		final List<Execution> shuffled = new ArrayList<>(this.executions);
+		Collections.shuffle(shuffled, new Random(7));
+		// duplicates must be ignored like in a set
+		shuffled.addAll(this.executions.subList(0, 100));
+		final ExecutionTrace trace = this.createTrace(shuffled);
+		final TreeSet<Execution> expected = new TreeSet<>(ExecutionTrace.createExecutionTraceComparator());
+		expected.addAll(shuffled);
+
+		final SortedSet<Execution> actual = trace.getTraceAsSortedExecutionSet();
+		Assert.assertEquals(NUM_EXECUTIONS, trace.getLength());
+		Assert.assertEquals(new ArrayList<>(expected), new ArrayList<>(actual));
+		Assert.assertEquals(expected.last(), actual.last());
+		Assert.assertTrue(actual.contains(this.executions.get(10)));
+
+		final Execution from = this.executions.get(100);
+		final Execution to = this.executions.get(200);
+		Assert.assertEquals(new ArrayList<>(expected.subSet(from, to)), new ArrayList<>(actual.subSet(from, to)));
+		Assert.assertEquals(new ArrayList<>(expected.headSet(to)), new ArrayList<>(actual.headSet(to)));
+		Assert.assertEquals(new ArrayList<>(expected.tailSet(from)), new ArrayList<>(actual.tailSet(from)));
+		Assert.assertEquals(from, actual.tailSet(from).first());
+		Assert.assertFalse(actual.headSet(to).contains(to));
+	}
+
+	@Test
+	public void testSealedTrace() throws InvalidTraceException {
+		final List<Execution> reversed = new ArrayList<>(this.executions);
+		Collections.reverse(reversed);
+		final ExecutionTrace trace = this.createTrace(reversed);
+		final ExecutionTrace unsealedTrace = this.createTrace(reversed);
+		trace.seal();
+
+		Assert.assertTrue(trace.isSealed());
+		Assert.assertEquals(unsealedTrace, trace);
+		Assert.assertEquals(unsealedTrace.getMinTin(), trace.getMinTin());
+		Assert.assertEquals(unsealedTrace.getMaxTout(), trace.getMaxTout());
+		Assert.assertEquals(unsealedTrace.getMaxEss(), trace.getMaxEss());
+		Assert.assertEquals(NUM_EXECUTIONS - 1, trace.getMaxEoi());
+		Assert.assertEquals(this.executions.get(0), trace.getTraceAsSortedExecutionSet().first());
+
+		final MessageTrace messageTrace = trace.toMessageTrace(SystemModelRepository.ROOT_EXECUTION);
+		Assert.assertSame(messageTrace, trace.toMessageTrace(SystemModelRepository.ROOT_EXECUTION));
+		Assert.assertEquals(unsealedTrace.toMessageTrace(SystemModelRepository.ROOT_EXECUTION), messageTrace);
+
+		try {
+			trace.add(this.executions.get(0));
+			Assert.fail("Executions must not be added to a sealed trace");
+		} catch (final IllegalStateException e) {
+			// expected
+		}
+	}
+
+	private ExecutionTrace createTrace(final List<Execution> traceExecutions) throws InvalidTraceException {
+		final ExecutionTrace trace = new ExecutionTrace(TRACE_ID, SESSION_ID);
+		for (final Execution execution : traceExecutions) {
+			trace.add(execution);
+		}
+		return trace;
+	}
+}
@@ -0,0 +1,233 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.analysis.junit.plugin; // NOCS (outer types)
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.analysis.AnalysisController;
+import kieker.analysis.IProjectContext;
+import kieker.analysis.analysisComponent.AbstractAnalysisComponent;
+import kieker.analysis.exception.AnalysisConfigurationException;
+import kieker.analysis.plugin.annotation.InputPort;
+import kieker.analysis.plugin.annotation.OutputPort;
+import kieker.analysis.plugin.annotation.Plugin;
+import kieker.analysis.plugin.filter.AbstractFilterPlugin;
+import kieker.analysis.plugin.filter.forward.ListCollectionFilter;
+import kieker.analysis.plugin.reader.list.ListReader;
+import kieker.common.configuration.Configuration;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests plugins running on their own thread, in particular that they process all pending data on termination.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class TestAsynchronousPlugins extends AbstractKiekerTest {
+
+	private static final int NUM_EVENTS = 200;
+	private static final String ASYNCHRONOUS_FILTER_NAME = "asynchronousFilter";
+
+	/**
+	 * Default constructor.
+	 */
+	public TestAsynchronousPlugins() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests a plugin made asynchronous by the project configuration: all events have to be forwarded in their original order before the
+	 * plugin terminates, and they have to be processed by another thread than the one of the preceding synchronous plugin.
+	 *
+	 * @throws AnalysisConfigurationException
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testAsynchronousByProjectConfiguration() throws AnalysisConfigurationException {
+		final Configuration controllerConfiguration = new Configuration();
+		controllerConfiguration.setProperty(IProjectContext.CONFIG_PROPERTY_NAME_ASYNCHRONOUS_PLUGINS, "otherFilter|" + ASYNCHRONOUS_FILTER_NAME);
+		controllerConfiguration.setProperty(IProjectContext.CONFIG_PROPERTY_NAME_ASYNCHRONOUS_QUEUE_CAPACITY, "16");
+		final AnalysisController analysisController = new AnalysisController(controllerConfiguration);
+
+		final Configuration filterConfiguration = new Configuration();
+		filterConfiguration.setProperty(AbstractAnalysisComponent.CONFIG_NAME, ASYNCHRONOUS_FILTER_NAME);
+		final ThreadRecordingFilter filter = new ThreadRecordingFilter(filterConfiguration, analysisController);
+		final ThreadRecordingFilter synchronousFilter = new ThreadRecordingFilter(new Configuration(), analysisController);
+		Assert.assertTrue(filter.isAsynchronous());
+		Assert.assertFalse(synchronousFilter.isAsynchronous());
+
+		final ListCollectionFilter<Object> sink = this.runChain(analysisController, synchronousFilter, filter);
+
+		Assert.assertEquals(AnalysisController.STATE.TERMINATED, analysisController.getState());
+		Assert.assertEquals(TestAsynchronousPlugins.createEvents(), sink.getList());
+		Assert.assertEquals(1, filter.threads.size());
+		Assert.assertEquals(1, synchronousFilter.threads.size());
+		Assert.assertNotEquals(synchronousFilter.threads, filter.threads);
+		Assert.assertEquals(NUM_EVENTS, filter.numEventsOnTermination);
+	}
+
+	/**
+	 * Tests a plugin made asynchronous by its annotation.
+	 *
+	 * @throws AnalysisConfigurationException
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testAsynchronousByAnnotation() throws AnalysisConfigurationException {
+		final AnalysisController analysisController = new AnalysisController();
+		final AsynchronousFilter filter = new AsynchronousFilter(new Configuration(), analysisController);
+		final ThreadRecordingFilter synchronousFilter = new ThreadRecordingFilter(new Configuration(), analysisController);
+		Assert.assertTrue(filter.isAsynchronous());
+
+		final ListCollectionFilter<Object> sink = this.runChain(analysisController, filter, synchronousFilter);
+
+		Assert.assertEquals(AnalysisController.STATE.TERMINATED, analysisController.getState());
+		Assert.assertEquals(TestAsynchronousPlugins.createEvents(), sink.getList());
+		Assert.assertEquals(NUM_EVENTS, filter.numEventsOnTermination);
+	}
+
+	/**
+	 * Tests that an error within an asynchronous plugin terminates the analysis with a failure.
+	 *
+	 * @throws AnalysisConfigurationException
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testErrorInAsynchronousPlugin() throws AnalysisConfigurationException {
+		final AnalysisController analysisController = new AnalysisController();
+		final AsynchronousFilter filter = new AsynchronousFilter(new Configuration(), analysisController);
+		filter.failingEvent = NUM_EVENTS / 2;
+		final ThreadRecordingFilter synchronousFilter = new ThreadRecordingFilter(new Configuration(), analysisController);
+
+		final ListCollectionFilter<Object> sink = this.runChain(analysisController, filter, synchronousFilter);
+
+		Assert.assertEquals(AnalysisController.STATE.FAILED, analysisController.getState());
+		Assert.assertEquals(TestAsynchronousPlugins.createEvents().subList(0, NUM_EVENTS / 2), sink.getList());
+	}
+
+	private ListCollectionFilter<Object> runChain(final AnalysisController analysisController, final ThreadRecordingFilter first,
+			final ThreadRecordingFilter second) throws AnalysisConfigurationException {
+		final ListReader<Object> reader = new ListReader<>(new Configuration(), analysisController);
+		reader.addAllObjects(TestAsynchronousPlugins.createEvents());
+		final ListCollectionFilter<Object> sink = new ListCollectionFilter<>(new Configuration(), analysisController);
+
+		analysisController.connect(reader, ListReader.OUTPUT_PORT_NAME, first, ThreadRecordingFilter.INPUT_PORT_NAME);
+		analysisController.connect(first, ThreadRecordingFilter.OUTPUT_PORT_NAME, second, ThreadRecordingFilter.INPUT_PORT_NAME);
+		analysisController.connect(second, ThreadRecordingFilter.OUTPUT_PORT_NAME, sink, ListCollectionFilter.INPUT_PORT_NAME);
+		analysisController.run();
+		return sink;
+	}
+
+	private static List<Object> createEvents() {
+		final List<Object> events = new ArrayList<>(NUM_EVENTS);
+		for (int i = 0; i < NUM_EVENTS; i++) {
+			events.add(i);
+		}
+		return events;
+	}
+
+	/**
+	 * A filter forwarding its events slowly and recording the threads calling its input port.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 1.15
+	 */
+	@Plugin(programmaticOnly = true, outputPorts = @OutputPort(name = ThreadRecordingFilter.OUTPUT_PORT_NAME))
+	public static class ThreadRecordingFilter extends AbstractFilterPlugin {
+
+		/** The name of the input port. */
+		public static final String INPUT_PORT_NAME = "input";
+		/** The name of the output port. */
+		public static final String OUTPUT_PORT_NAME = "output";
+
+		final Set<Thread> threads = new CopyOnWriteArraySet<>(); // NOCS (package visible for the test)
+		volatile int numEventsOnTermination; // NOCS (package visible for the test)
+		volatile int failingEvent = -1; // NOCS (package visible for the test)
+		private volatile int numEvents;
+
+		/**
+		 * Creates a new instance of this class using the given parameters.
+		 *
+		 * @param configuration
+		 *            The configuration for this filter.
+		 * @param projectContext
+		 *            The project context for this filter.
+		 */
+		public ThreadRecordingFilter(final Configuration configuration, final IProjectContext projectContext) {
+			super(configuration, projectContext);
+		}
+
+		/**
+		 * The input port of this filter.
+		 *
+		 * @param event
+		 *            The next event.
+		 */
+		@InputPort(name = INPUT_PORT_NAME)
+		public void inputEvent(final Object event) {
+			this.threads.add(Thread.currentThread());
+			if (event.equals(this.failingEvent)) {
+				throw new AssertionError("Failing for test purposes");
+			}
+			Thread.yield(); // be slower than the reader
+			this.numEvents++;
+			super.deliver(OUTPUT_PORT_NAME, event);
+		}
+
+		@Override
+		public void terminate(final boolean error) {
+			this.numEventsOnTermination = this.numEvents;
+		}
+
+		@Override
+		public Configuration getCurrentConfiguration() {
+			return new Configuration();
+		}
+	}
+
+	/**
+	 * A {@link ThreadRecordingFilter} which is asynchronous due to its annotation.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 1.15
+	 */
+	@Plugin(programmaticOnly = true, asynchronous = true, outputPorts = @OutputPort(name = ThreadRecordingFilter.OUTPUT_PORT_NAME))
+	public static class AsynchronousFilter extends ThreadRecordingFilter {
+
+		/**
+		 * Creates a new instance of this class using the given parameters.
+		 *
+		 * @param configuration
+		 *            The configuration for this filter.
+		 * @param projectContext
+		 *            The project context for this filter.
+		 */
+		public AsynchronousFilter(final Configuration configuration, final IProjectContext projectContext) {
+			super(configuration, projectContext);
+		}
+	}
+}
@@ -0,0 +1,258 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.analysis.junit.plugin; // NOCS (outer types)
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.analysis.AnalysisController;
+import kieker.analysis.IAnalysisController;
+import kieker.analysis.IProjectContext;
+import kieker.analysis.exception.AnalysisConfigurationException;
+import kieker.analysis.plugin.annotation.InputPort;
+import kieker.analysis.plugin.annotation.OutputPort;
+import kieker.analysis.plugin.annotation.Plugin;
+import kieker.analysis.plugin.filter.AbstractFilterPlugin;
+import kieker.analysis.plugin.reader.list.ListReader;
+import kieker.common.configuration.Configuration;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the delivery of events from output ports to the connected input ports, i.e., the type checks of both ports
+ * and the handling of exceptions thrown by input ports.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class TestOutputPortDispatch extends AbstractKiekerTest {
+
+	private static final String FAIL = "fail";
+
+	/**
+	 * Default constructor.
+	 */
+	public TestOutputPortDispatch() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests that each input port only receives the events of its event types and that the output port rejects events which do not suit its
+	 * event types.
+	 *
+	 * @throws AnalysisConfigurationException
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testEventTypes() throws AnalysisConfigurationException {
+		final List<Object> events = Arrays.<Object> asList(1, "a", 2L, 3, "b", 4.0);
+		final IAnalysisController analysisController = new AnalysisController();
+		final SourceFilter source = this.createSource(analysisController, events);
+		final SinkFilter sink = new SinkFilter(new Configuration(), analysisController);
+
+		analysisController.connect(source, SourceFilter.OUTPUT_PORT_NAME_NUMBERS, sink, SinkFilter.INPUT_PORT_NAME_INTEGERS);
+		analysisController.connect(source, SourceFilter.OUTPUT_PORT_NAME_NUMBERS, sink, SinkFilter.INPUT_PORT_NAME_ALL);
+		analysisController.connect(source, SourceFilter.OUTPUT_PORT_NAME_ANY, sink, SinkFilter.INPUT_PORT_NAME_STRINGS);
+		analysisController.run();
+
+		Assert.assertEquals(Arrays.<Object> asList(1, 3), sink.integers);
+		Assert.assertEquals(Arrays.<Object> asList(1, 2L, 3, 4.0), sink.all);
+		Assert.assertEquals(Arrays.<Object> asList("a", "b"), sink.strings);
+		Assert.assertEquals(Arrays.asList(true, false, true, true, false, true), source.numbersResults);
+		Assert.assertEquals(Arrays.asList(true, true, true, true, true, true), source.anyResults);
+	}
+
+	/**
+	 * Tests that an exception thrown by an input port neither stops the delivery to the other input ports nor the delivery of the following
+	 * events.
+	 *
+	 * @throws AnalysisConfigurationException
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testExceptionInInputPort() throws AnalysisConfigurationException {
+		final List<Object> events = Arrays.<Object> asList("a", FAIL, "b");
+		final IAnalysisController analysisController = new AnalysisController();
+		final SourceFilter source = this.createSource(analysisController, events);
+		final SinkFilter sink = new SinkFilter(new Configuration(), analysisController);
+
+		analysisController.connect(source, SourceFilter.OUTPUT_PORT_NAME_ANY, sink, SinkFilter.INPUT_PORT_NAME_FAILING);
+		analysisController.connect(source, SourceFilter.OUTPUT_PORT_NAME_ANY, sink, SinkFilter.INPUT_PORT_NAME_STRINGS);
+		analysisController.run();
+
+		Assert.assertEquals(AnalysisController.STATE.TERMINATED, analysisController.getState());
+		Assert.assertEquals(Arrays.<Object> asList("a", "b"), sink.all);
+		Assert.assertEquals(events, sink.strings);
+		Assert.assertEquals(Arrays.asList(true, true, true), source.anyResults);
+	}
+
+	private SourceFilter createSource(final IAnalysisController analysisController, final List<Object> events) throws AnalysisConfigurationException {
+		final ListReader<Object> reader = new ListReader<>(new Configuration(), analysisController);
+		reader.addAllObjects(events);
+		final SourceFilter source = new SourceFilter(new Configuration(), analysisController);
+		analysisController.connect(reader, ListReader.OUTPUT_PORT_NAME, source, SourceFilter.INPUT_PORT_NAME);
+		return source;
+	}
+
+	/**
+	 * A filter delivering each event to a port for numbers (by index) and to an untyped port (by name).
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 1.15
+	 */
+	@Plugin(programmaticOnly = true, outputPorts = {
+		@OutputPort(name = SourceFilter.OUTPUT_PORT_NAME_NUMBERS, eventTypes = Number.class),
+		@OutputPort(name = SourceFilter.OUTPUT_PORT_NAME_ANY) })
+	public static class SourceFilter extends AbstractFilterPlugin {
+
+		/** The name of the input port. */
+		public static final String INPUT_PORT_NAME = "input";
+		/** The name of the output port for numbers. */
+		public static final String OUTPUT_PORT_NAME_NUMBERS = "numbers";
+		/** The name of the untyped output port. */
+		public static final String OUTPUT_PORT_NAME_ANY = "any";
+
+		final List<Boolean> numbersResults = new ArrayList<>(); // NOCS (package visible for the test)
+		final List<Boolean> anyResults = new ArrayList<>(); // NOCS (package visible for the test)
+
+		private final int numbersPortIndex;
+
+		/**
+		 * Creates a new instance of this class using the given parameters.
+		 *
+		 * @param configuration
+		 *            The configuration for this filter.
+		 * @param projectContext
+		 *            The project context for this filter.
+		 */
+		public SourceFilter(final Configuration configuration, final IProjectContext projectContext) {
+			super(configuration, projectContext);
+			this.numbersPortIndex = this.getOutputPortIndex(OUTPUT_PORT_NAME_NUMBERS);
+		}
+
+		/**
+		 * The input port of this filter.
+		 *
+		 * @param event
+		 *            The next event.
+		 */
+		@InputPort(name = INPUT_PORT_NAME)
+		public void inputEvent(final Object event) {
+			this.numbersResults.add(super.deliver(this.numbersPortIndex, event));
+			this.anyResults.add(super.deliver(OUTPUT_PORT_NAME_ANY, event));
+		}
+
+		@Override
+		public Configuration getCurrentConfiguration() {
+			return new Configuration();
+		}
+	}
+
+	/**
+	 * A filter collecting the events of its input ports.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 1.15
+	 */
+	@Plugin(programmaticOnly = true)
+	public static class SinkFilter extends AbstractFilterPlugin {
+
+		/** The name of the input port for integers. */
+		public static final String INPUT_PORT_NAME_INTEGERS = "integers";
+		/** The name of the input port for strings. */
+		public static final String INPUT_PORT_NAME_STRINGS = "strings";
+		/** The name of the untyped input port. */
+		public static final String INPUT_PORT_NAME_ALL = "all";
+		/** The name of the input port failing for the event {@value TestOutputPortDispatch#FAIL}. */
+		public static final String INPUT_PORT_NAME_FAILING = "failing";
+
+		final List<Object> integers = new ArrayList<>(); // NOCS (package visible for the test)
+		final List<Object> strings = new ArrayList<>(); // NOCS (package visible for the test)
+		final List<Object> all = new ArrayList<>(); // NOCS (package visible for the test)
+
+		/**
+		 * Creates a new instance of this class using the given parameters.
+		 *
+		 * @param configuration
+		 *            The configuration for this filter.
+		 * @param projectContext
+		 *            The project context for this filter.
+		 */
+		public SinkFilter(final Configuration configuration, final IProjectContext projectContext) {
+			super(configuration, projectContext);
+		}
+
+		/**
+		 * An input port for integers.
+		 *
+		 * @param event
+		 *            The next event.
+		 */
+		@InputPort(name = INPUT_PORT_NAME_INTEGERS, eventTypes = Integer.class)
+		public void inputInteger(final Object event) {
+			this.integers.add(event);
+		}
+
+		/**
+		 * An input port for strings.
+		 *
+		 * @param event
+		 *            The next event.
+		 */
+		@InputPort(name = INPUT_PORT_NAME_STRINGS, eventTypes = String.class)
+		public void inputString(final String event) {
+			this.strings.add(event);
+		}
+
+		/**
+		 * An untyped input port.
+		 *
+		 * @param event
+		 *            The next event.
+		 */
+		@InputPort(name = INPUT_PORT_NAME_ALL)
+		public void inputAll(final Object event) {
+			this.all.add(event);
+		}
+
+		/**
+		 * An input port throwing an exception for the event {@value TestOutputPortDispatch#FAIL}.
+		 *
+		 * @param event
+		 *            The next event.
+		 */
+		@InputPort(name = INPUT_PORT_NAME_FAILING, eventTypes = Object.class)
+		public void inputFailing(final Object event) {
+			if (FAIL.equals(event)) {
+				throw new IllegalStateException("Failing for test purposes");
+			}
+			this.all.add(event);
+		}
+
+		@Override
+		public Configuration getCurrentConfiguration() {
+			return new Configuration();
+		}
+	}
+}
@@ -337,6 +337,24 @@ public abstract class AbstractMonitoringRecord implements IMonitoringRecord {
 		return clazz;
 	}
 
+	/**
+	 * Returns the name of the record type the given record is serialized as. This is the name of the record's class
+	 * except for {@link IPooledRecord}s, which are serialized as their (immutable) record type.
+	 *
+	 * @param record
+	 *            The record.
+	 *
+	 * @return The fully qualified name of the record type.
+	 *
+	 * @since 1.15
+	 */
+	public static final String getTypeName(final IMonitoringRecord record) {
+		if (record instanceof IPooledRecord) {
+			return ((IPooledRecord) record).getRecordTypeName();
+		}
+		return record.getClass().getName();
+	}
+
 	/**
 	 * This method delivers the types array of the given class, either by finding the declared field (in case of a factory record) or via the {@code getValueTypes}
 	 * method.
@@ -0,0 +1,47 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.record;
+
+/**
+ * A record which is taken from a pool, filled by a probe, and returned to its pool by the writer once it has been
+ * serialized. A pooled record serializes exactly like the (immutable) record type denoted by
+ * {@link #getRecordTypeName()}. Hence, writers must use that name instead of the name of the record's class; see
+ * {@link AbstractMonitoringRecord#getTypeName(IMonitoringRecord)}. Readers never see pooled records, they create
+ * instances of the record type.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public interface IPooledRecord extends IMonitoringRecord {
+
+	/**
+	 * @return the fully qualified class name of the record type whose serialization format this record uses; the same
+	 *         for all instances of a class
+	 *
+	 * @since 1.15
+	 */
+	public String getRecordTypeName();
+
+	/**
+	 * Returns this record to its pool. The caller must not access the record afterwards, since it is reused by the
+	 * probe which takes it from the pool next. Must be called at most once per use of the record.
+	 *
+	 * @since 1.15
+	 */
+	public void release();
+}
@@ -0,0 +1,145 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.record.flow.trace.operation;
+
+import java.nio.BufferOverflowException;
+import java.util.Queue;
+
+import kieker.common.record.AbstractMonitoringRecord;
+import kieker.common.record.IPooledRecord;
+import kieker.common.record.flow.IEventRecord;
+import kieker.common.record.flow.IOperationRecord;
+import kieker.common.record.flow.ITraceRecord;
+import kieker.common.record.io.IValueSerializer;
+
+/**
+ * Mutable, reusable counterpart of {@link AbstractOperationEvent}. Instances are taken from a pool by a probe, filled,
+ * and returned to the pool by the writer via {@link #release()}. They serialize exactly like the immutable record
+ * type they stand for.
+ *
+ * @param <T>
+ *            the concrete type of the pooled record
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public abstract class AbstractPooledOperationEvent<T extends AbstractPooledOperationEvent<T>> extends AbstractMonitoringRecord
+		implements IPooledRecord, IEventRecord, ITraceRecord, IOperationRecord {
+
+	private static final long serialVersionUID = 7396428311093470713L;
+
+	/** the pool to return this record to; <code>null</code> if the record is not pooled. */
+	private final transient Queue<? super T> pool;
+
+	private long timestamp;
+	private long traceId;
+	private int orderIndex;
+	private String operationSignature = AbstractOperationEvent.OPERATION_SIGNATURE;
+	private String classSignature = AbstractOperationEvent.CLASS_SIGNATURE;
+
+	/**
+	 * Creates a new pooled record.
+	 *
+	 * @param pool
+	 *            the pool the record is returned to by {@link #release()}; may be <code>null</code>
+	 */
+	protected AbstractPooledOperationEvent(final Queue<? super T> pool) {
+		super();
+		this.pool = pool;
+	}
+
+	protected final void setValues(final long newTimestamp, final long newTraceId, final int newOrderIndex, final String newOperationSignature,
+			final String newClassSignature) {
+		this.timestamp = newTimestamp;
+		this.traceId = newTraceId;
+		this.orderIndex = newOrderIndex;
+		this.operationSignature = (newOperationSignature == null) ? AbstractOperationEvent.OPERATION_SIGNATURE : newOperationSignature; // NOCS
+		this.classSignature = (newClassSignature == null) ? AbstractOperationEvent.CLASS_SIGNATURE : newClassSignature; // NOCS
+	}
+
+	/**
+	 * Clears the references of the record before it is returned to its pool.
+	 */
+	protected void clear() {
+		this.operationSignature = AbstractOperationEvent.OPERATION_SIGNATURE;
+		this.classSignature = AbstractOperationEvent.CLASS_SIGNATURE;
+	}
+
+	protected abstract T self();
+
+	@Override
+	public final void release() {
+		if (this.pool != null) {
+			this.clear();
+			// a full pool drops the record
+			this.pool.offer(this.self());
+		}
+	}
+
+	@Override
+	public void serialize(final IValueSerializer serializer) throws BufferOverflowException {
+		serializer.putLong(this.getTimestamp());
+		serializer.putLong(this.getTraceId());
+		serializer.putInt(this.getOrderIndex());
+		serializer.putString(this.getOperationSignature());
+		serializer.putString(this.getClassSignature());
+	}
+
+	@Override
+	public final long getTimestamp() {
+		return this.timestamp;
+	}
+
+	@Override
+	public final void setTimestamp(final long timestamp) {
+		this.timestamp = timestamp;
+	}
+
+	@Override
+	public final long getTraceId() {
+		return this.traceId;
+	}
+
+	@Override
+	public final void setTraceId(final long traceId) {
+		this.traceId = traceId;
+	}
+
+	@Override
+	public final int getOrderIndex() {
+		return this.orderIndex;
+	}
+
+	@Override
+	public final String getOperationSignature() {
+		return this.operationSignature;
+	}
+
+	@Override
+	public final String getClassSignature() {
+		return this.classSignature;
+	}
+
+	@Override
+	public String toString() {
+		final String typeName = this.getRecordTypeName();
+		return typeName.substring(typeName.lastIndexOf('.') + 1) + ": timestamp = " + this.getTimestamp() + ", traceId = " + this.getTraceId()
+				+ ", orderIndex = " + this.getOrderIndex() + ", operationSignature = " + this.getOperationSignature() + ", classSignature = "
+				+ this.getClassSignature() + ", ";
+	}
+}
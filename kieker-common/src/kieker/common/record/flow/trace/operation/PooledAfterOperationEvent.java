@@ -0,0 +1,95 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.record.flow.trace.operation;
+
+import java.util.Queue;
+
+/**
+ * Pooled, mutable counterpart of {@link AfterOperationEvent}; serialized as {@link AfterOperationEvent}.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public final class PooledAfterOperationEvent extends AbstractPooledOperationEvent<PooledAfterOperationEvent> {
+
+	private static final long serialVersionUID = 5031289547206781353L;
+
+	/** Descriptive definition of the serialization size of the record (the same as of {@link AfterOperationEvent}). */
+	public static final int SIZE = AfterOperationEvent.SIZE;
+
+	public static final Class<?>[] TYPES = AfterOperationEvent.TYPES;
+
+	/** property name array. */
+	public static final String[] VALUE_NAMES = AfterOperationEvent.VALUE_NAMES;
+
+	/**
+	 * Creates a new pooled record.
+	 *
+	 * @param pool
+	 *            the pool the record is returned to by {@link #release()}; may be <code>null</code>
+	 */
+	public PooledAfterOperationEvent(final Queue<? super PooledAfterOperationEvent> pool) {
+		super(pool);
+	}
+
+	/**
+	 * Sets all values of the record.
+	 *
+	 * @param timestamp
+	 *            timestamp
+	 * @param traceId
+	 *            traceId
+	 * @param orderIndex
+	 *            orderIndex
+	 * @param operationSignature
+	 *            operationSignature
+	 * @param classSignature
+	 *            classSignature
+	 * @return this record
+	 */
+	public PooledAfterOperationEvent set(final long timestamp, final long traceId, final int orderIndex, final String operationSignature,
+			final String classSignature) {
+		this.setValues(timestamp, traceId, orderIndex, operationSignature, classSignature);
+		return this;
+	}
+
+	@Override
+	protected PooledAfterOperationEvent self() {
+		return this;
+	}
+
+	@Override
+	public String getRecordTypeName() {
+		return AfterOperationEvent.class.getName();
+	}
+
+	@Override
+	public Class<?>[] getValueTypes() {
+		return TYPES; // NOPMD
+	}
+
+	@Override
+	public String[] getValueNames() {
+		return VALUE_NAMES; // NOPMD
+	}
+
+	@Override
+	public int getSize() {
+		return SIZE;
+	}
+}
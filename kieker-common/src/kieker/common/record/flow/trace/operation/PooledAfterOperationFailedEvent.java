@@ -0,0 +1,126 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.record.flow.trace.operation;
+
+import java.nio.BufferOverflowException;
+import java.util.Queue;
+
+import kieker.common.record.flow.IExceptionRecord;
+import kieker.common.record.io.IValueSerializer;
+
+/**
+ * Pooled, mutable counterpart of {@link AfterOperationFailedEvent}; serialized as {@link AfterOperationFailedEvent}.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public final class PooledAfterOperationFailedEvent extends AbstractPooledOperationEvent<PooledAfterOperationFailedEvent> implements IExceptionRecord {
+
+	private static final long serialVersionUID = 8460817213563540128L;
+
+	/** Descriptive definition of the serialization size of the record (the same as of {@link AfterOperationFailedEvent}). */
+	public static final int SIZE = AfterOperationFailedEvent.SIZE;
+
+	public static final Class<?>[] TYPES = AfterOperationFailedEvent.TYPES;
+
+	/** property name array. */
+	public static final String[] VALUE_NAMES = AfterOperationFailedEvent.VALUE_NAMES;
+
+	private String cause = AfterOperationFailedEvent.CAUSE;
+
+	/**
+	 * Creates a new pooled record.
+	 *
+	 * @param pool
+	 *            the pool the record is returned to by {@link #release()}; may be <code>null</code>
+	 */
+	public PooledAfterOperationFailedEvent(final Queue<? super PooledAfterOperationFailedEvent> pool) {
+		super(pool);
+	}
+
+	/**
+	 * Sets all values of the record.
+	 *
+	 * @param timestamp
+	 *            timestamp
+	 * @param traceId
+	 *            traceId
+	 * @param orderIndex
+	 *            orderIndex
+	 * @param operationSignature
+	 *            operationSignature
+	 * @param classSignature
+	 *            classSignature
+	 * @param newCause
+	 *            cause
+	 * @return this record
+	 */
+	public PooledAfterOperationFailedEvent set(final long timestamp, final long traceId, final int orderIndex, final String operationSignature,
+			final String classSignature, final String newCause) {
+		this.setValues(timestamp, traceId, orderIndex, operationSignature, classSignature);
+		this.cause = (newCause == null) ? AfterOperationFailedEvent.CAUSE : newCause; // NOCS (inline conditional)
+		return this;
+	}
+
+	@Override
+	protected void clear() {
+		super.clear();
+		this.cause = AfterOperationFailedEvent.CAUSE;
+	}
+
+	@Override
+	protected PooledAfterOperationFailedEvent self() {
+		return this;
+	}
+
+	@Override
+	public void serialize(final IValueSerializer serializer) throws BufferOverflowException {
+		super.serialize(serializer);
+		serializer.putString(this.getCause());
+	}
+
+	@Override
+	public String getCause() {
+		return this.cause;
+	}
+
+	@Override
+	public String getRecordTypeName() {
+		return AfterOperationFailedEvent.class.getName();
+	}
+
+	@Override
+	public Class<?>[] getValueTypes() {
+		return TYPES; // NOPMD
+	}
+
+	@Override
+	public String[] getValueNames() {
+		return VALUE_NAMES; // NOPMD
+	}
+
+	@Override
+	public int getSize() {
+		return SIZE;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + "cause = " + this.getCause() + ", ";
+	}
+}
@@ -0,0 +1,465 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.common.record.io;
+
+import java.nio.BufferUnderflowException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import kieker.common.exception.RecordInstantiationException;
+
+/**
+ * Text value deserializer which parses the fields of a text record in place, i.e., directly from the encoded bytes
+ * of a line of a <code>.dat</code> file. In contrast to {@link TextValueDeserializer}, it does not create a string
+ * for numeric or boolean fields. Repeated string fields, like operation signatures or host names, are returned from a
+ * small cache instead of being decoded again.
+ *
+ * <p>
+ * The field syntax is the one of {@link TextValueDeserializer}: fields are separated by <code>;</code> and a backslash
+ * escapes the next character, which is kept in the value. In addition, a line separator ends the last field of a line,
+ * so that a reader does not need to search the end of a line before deserializing it. Numbers which are not handled by
+ * the fast paths (e.g., exponents or too many significant digits) are passed to the parse methods of the JDK, so that
+ * the results and exceptions are the same as for {@link TextValueDeserializer}. The charset must be ASCII-compatible,
+ * e.g., UTF-8.
+ * </p>
+ *
+ * <p>
+ * A deserializer is meant to be reused for all lines of a file. It is not thread-safe.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class TextByteArrayValueDeserializer extends AbstractValueDeserializer implements IValueDeserializer {
+
+	/** Default number of entries of the string cache. */
+	public static final int DEFAULT_STRING_CACHE_SIZE = 1024;
+
+	/** Longer strings are not cached. */
+	private static final int MAX_CACHED_STRING_LENGTH = 512;
+
+	/** A long with up to 18 digits cannot overflow; a 19th digit may only be appended to smaller values. */
+	private static final long MAX_LONG_PREFIX = Long.MAX_VALUE / 10;
+
+	/** Up to 15 decimal digits are exactly representable as a double. */
+	private static final int MAX_DOUBLE_DIGITS = 15;
+	/** Up to 7 decimal digits are exactly representable as a float. */
+	private static final int MAX_FLOAT_DIGITS = 7;
+
+	/** Powers of ten which are exactly representable as a double. */
+	private static final double[] DOUBLE_POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+		1e17, 1e18, 1e19, 1e20, 1e21, 1e22, };
+	/** Powers of ten which are exactly representable as a float. */
+	private static final float[] FLOAT_POWERS_OF_TEN = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f, };
+
+	/** The separators <code>;</code>, <code>\n</code>, and <code>\r</code> and the escape character <code>\\</code>. */
+	private static final boolean[] SPECIAL_CHARACTERS = new boolean[256];
+
+	static {
+		SPECIAL_CHARACTERS[';'] = true;
+		SPECIAL_CHARACTERS['\n'] = true;
+		SPECIAL_CHARACTERS['\r'] = true;
+		SPECIAL_CHARACTERS['\\'] = true;
+	}
+
+	private final Charset charset;
+
+	private final String[] cachedStrings;
+	private final byte[][] cachedStringBytes;
+	private final int cacheMask;
+
+	private byte[] bytes;
+	private int position;
+	private int limit;
+
+	/** result of {@link #scanDecimal()}. */
+	private long decimalMantissa;
+	private int decimalDigits;
+	private int decimalFractionDigits;
+
+	/**
+	 * Create a text value deserializer for byte arrays.
+	 *
+	 * @param charset
+	 *            the ASCII-compatible charset of the text
+	 * @param stringCacheSize
+	 *            number of entries of the string cache; it is rounded up to the next power of two (at least 2), 0 disables the cache
+	 */
+	protected TextByteArrayValueDeserializer(final Charset charset, final int stringCacheSize) {
+		if (stringCacheSize < 0) {
+			throw new IllegalArgumentException("The string cache size must not be negative, but was " + stringCacheSize);
+		}
+		this.charset = charset;
+		if (stringCacheSize > 0) {
+			final int size = Integer.highestOneBit(Math.max(1, stringCacheSize - 1)) << 1;
+			this.cachedStrings = new String[size];
+			this.cachedStringBytes = new byte[size][];
+			this.cacheMask = size - 1;
+		} else {
+			this.cachedStrings = null;
+			this.cachedStringBytes = null;
+			this.cacheMask = 0;
+		}
+	}
+
+	/**
+	 * Factory method to create a text value deserializer for UTF-8 encoded text with a string cache of the default size.
+	 *
+	 * @return the value deserializer
+	 */
+	public static TextByteArrayValueDeserializer create() {
+		return new TextByteArrayValueDeserializer(StandardCharsets.UTF_8, DEFAULT_STRING_CACHE_SIZE);
+	}
+
+	/**
+	 * Factory method to create a text value deserializer for byte arrays.
+	 *
+	 * @param charset
+	 *            the ASCII-compatible charset of the text
+	 * @param stringCacheSize
+	 *            number of entries of the string cache; 0 disables the cache
+	 * @return the value deserializer
+	 */
+	public static TextByteArrayValueDeserializer create(final Charset charset, final int stringCacheSize) {
+		return new TextByteArrayValueDeserializer(charset, stringCacheSize);
+	}
+
+	/**
+	 * Sets the bytes to read the next values from. The array is not copied.
+	 *
+	 * @param buffer
+	 *            the array containing the encoded text
+	 * @param offset
+	 *            the index of the first byte of the first value
+	 * @param end
+	 *            the index behind the last byte which may be read, e.g., the end of the buffered text
+	 * @return this deserializer
+	 */
+	public TextByteArrayValueDeserializer wrap(final byte[] buffer, final int offset, final int end) {
+		this.bytes = buffer;
+		this.position = offset;
+		this.limit = end;
+		return this;
+	}
+
+	/**
+	 * @return the index of the first byte of the next value or of the line separator behind the last value
+	 */
+	public int getPosition() {
+		return this.position;
+	}
+
+	@Override
+	public boolean getBoolean() { // NOPMD
+		final int start = this.position;
+		final int end = this.nextField();
+		// same as Boolean.parseBoolean: true if the value equals "true" ignoring case
+		return ((end - start) == 4) && ((this.bytes[start] | 0x20) == 't') && ((this.bytes[start + 1] | 0x20) == 'r')
+				&& ((this.bytes[start + 2] | 0x20) == 'u') && ((this.bytes[start + 3] | 0x20) == 'e');
+	}
+
+	@Override
+	public byte getByte() throws NumberFormatException {
+		final int start = this.position;
+		final long value = this.parseLong();
+		if ((value < Byte.MIN_VALUE) || (value > Byte.MAX_VALUE)) {
+			return Byte.parseByte(this.decode(start, this.fieldEnd(start)));
+		}
+		return (byte) value;
+	}
+
+	@Override
+	public char getChar() {
+		final int start = this.position;
+		if (start >= this.limit) {
+			throw new BufferUnderflowException();
+		}
+		final byte first = this.bytes[start];
+		if ((first >= 0) && !TextByteArrayValueDeserializer.isLineSeparator(first)) {
+			this.position = start + 1;
+			if (this.endNumber()) {
+				return (char) first;
+			}
+			this.position = start;
+		}
+		return this.decode(start, this.nextField()).charAt(0);
+	}
+
+	@Override
+	public short getShort() throws NumberFormatException { // NOPMD
+		final int start = this.position;
+		final long value = this.parseLong();
+		if ((value < Short.MIN_VALUE) || (value > Short.MAX_VALUE)) {
+			return Short.parseShort(this.decode(start, this.fieldEnd(start)));
+		}
+		return (short) value;
+	}
+
+	@Override
+	public int getInt() throws NumberFormatException {
+		final int start = this.position;
+		final long value = this.parseLong();
+		if ((value < Integer.MIN_VALUE) || (value > Integer.MAX_VALUE)) {
+			return Integer.parseInt(this.decode(start, this.fieldEnd(start)));
+		}
+		return (int) value;
+	}
+
+	@Override
+	public long getLong() throws NumberFormatException {
+		return this.parseLong();
+	}
+
+	@Override
+	public float getFloat() throws NumberFormatException {
+		final int start = this.position;
+		final boolean negative = this.skipMinus();
+		if (this.scanDecimal() && (this.decimalDigits <= MAX_FLOAT_DIGITS) && (this.decimalFractionDigits < FLOAT_POWERS_OF_TEN.length)) {
+			// both operands are exact, hence the division is correctly rounded
+			final float value = this.decimalMantissa / FLOAT_POWERS_OF_TEN[this.decimalFractionDigits];
+			return negative ? -value : value; // NOCS (inline conditional)
+		}
+		this.position = start;
+		return Float.parseFloat(this.decode(start, this.nextField()));
+	}
+
+	@Override
+	public double getDouble() throws NumberFormatException {
+		final int start = this.position;
+		final boolean negative = this.skipMinus();
+		if (this.scanDecimal() && (this.decimalDigits <= MAX_DOUBLE_DIGITS) && (this.decimalFractionDigits < DOUBLE_POWERS_OF_TEN.length)) {
+			// both operands are exact, hence the division is correctly rounded
+			final double value = this.decimalMantissa / DOUBLE_POWERS_OF_TEN[this.decimalFractionDigits];
+			return negative ? -value : value; // NOCS (inline conditional)
+		}
+		this.position = start;
+		return Double.parseDouble(this.decode(start, this.nextField()));
+	}
+
+	@Override
+	public String getString() {
+		final int start = this.position;
+		// find the end of the field and compute the hash of its bytes in one pass
+		int hash = 0;
+		int i = start;
+		while (i < this.limit) {
+			final byte b = this.bytes[i];
+			if (SPECIAL_CHARACTERS[b & 0xFF]) {
+				if (b != '\\') {
+					break;
+				} else if (this.isEscaping(i)) {
+					hash = (31 * hash) + b;
+					i++; // the escaped character is part of the value
+				}
+			}
+			hash = (31 * hash) + this.bytes[i];
+			i++;
+		}
+		final int end = i;
+		this.position = ((end < this.limit) && (this.bytes[end] == ';')) ? end + 1 : end; // NOCS (inline conditional)
+
+		final int length = end - start;
+		if (length == 0) {
+			return "";
+		}
+		if ((this.cachedStrings == null) || (length > MAX_CACHED_STRING_LENGTH)) {
+			return this.decode(start, end);
+		}
+
+		// two-way associative: each hash value selects a pair of entries, the most recently added one first
+		final int index = (hash ^ (hash >>> 16)) & this.cacheMask & ~1;
+		if (this.isCached(index, start, length)) {
+			return this.cachedStrings[index];
+		} else if (this.isCached(index + 1, start, length)) {
+			return this.cachedStrings[index + 1];
+		}
+
+		final String value = this.decode(start, end);
+		final byte[] valueBytes = new byte[length];
+		System.arraycopy(this.bytes, start, valueBytes, 0, length);
+		this.cachedStringBytes[index + 1] = this.cachedStringBytes[index];
+		this.cachedStrings[index + 1] = this.cachedStrings[index];
+		this.cachedStringBytes[index] = valueBytes;
+		this.cachedStrings[index] = value;
+		return value;
+	}
+
+	@Override
+	public <T extends Enum<T>> T getEnumeration(final Class<T> clazz) throws RecordInstantiationException {
+		final int value = this.getInt();
+		return this.enumerationValueOf(clazz, value);
+	}
+
+	private static boolean isLineSeparator(final byte b) {
+		return (b == '\n') || (b == '\r');
+	}
+
+	/**
+	 * A backslash escapes the next character, unless it is the last one of a line.
+	 */
+	private boolean isEscaping(final int backslashIndex) {
+		return ((backslashIndex + 1) < this.limit) && !TextByteArrayValueDeserializer.isLineSeparator(this.bytes[backslashIndex + 1]);
+	}
+
+	/**
+	 * Moves the position behind the separator of the current field. A line separator is not skipped.
+	 *
+	 * @return the index behind the last byte of the current field
+	 */
+	private int nextField() {
+		int i = this.position;
+		while (i < this.limit) {
+			final byte b = this.bytes[i];
+			if (SPECIAL_CHARACTERS[b & 0xFF]) {
+				if (b == ';') {
+					this.position = i + 1;
+					return i;
+				} else if (b != '\\') { // line separator
+					this.position = i;
+					return i;
+				} else if (this.isEscaping(i)) {
+					i++; // the escaped character is part of the value
+				}
+			}
+			i++;
+		}
+		this.position = this.limit;
+		return this.limit;
+	}
+
+	/**
+	 * Finds the end of the field starting at the given index without moving the position.
+	 */
+	private int fieldEnd(final int start) {
+		final int current = this.position;
+		this.position = start;
+		final int end = this.nextField();
+		this.position = current;
+		return end;
+	}
+
+	/**
+	 * Completes a field after its last digit or, for a character, after its only byte.
+	 *
+	 * @return true if the field ends at the current position
+	 */
+	private boolean endNumber() {
+		if (this.position == this.limit) {
+			return true;
+		}
+		final byte b = this.bytes[this.position];
+		if (b == ';') {
+			this.position++;
+			return true;
+		}
+		return TextByteArrayValueDeserializer.isLineSeparator(b);
+	}
+
+	private boolean skipMinus() {
+		if ((this.position < this.limit) && (this.bytes[this.position] == '-')) {
+			this.position++;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Parses a decimal integer like {@link Long#parseLong(String)}, but without creating a string. Unusual input is
+	 * passed to {@link Long#parseLong(String)}, which also reports malformed numbers.
+	 */
+	private long parseLong() {
+		final int start = this.position;
+		final boolean negative = this.skipMinus();
+		final int digitsStart = this.position;
+		long result = 0;
+		int i = digitsStart;
+		while (i < this.limit) {
+			final int digit = this.bytes[i] - '0';
+			if ((digit < 0) || (digit > 9)) {
+				break;
+			}
+			if (result >= MAX_LONG_PREFIX) { // possible overflow, including Long.MIN_VALUE
+				i = -1;
+				break;
+			}
+			result = (result * 10) + digit;
+			i++;
+		}
+		if (i > digitsStart) {
+			this.position = i;
+			if (this.endNumber()) {
+				return negative ? -result : result; // NOCS (inline conditional)
+			}
+		}
+		this.position = start;
+		return Long.parseLong(this.decode(start, this.nextField()));
+	}
+
+	/**
+	 * Scans a plain decimal number of the form <code>digits[.digits]</code> or <code>.digits</code> and completes the field.
+	 *
+	 * @return true if the number has this form and its mantissa fits into a long
+	 */
+	private boolean scanDecimal() {
+		long mantissa = 0;
+		int digits = 0;
+		int fractionDigits = 0;
+		boolean fraction = false;
+		int i = this.position;
+		for (; i < this.limit; i++) {
+			final byte b = this.bytes[i];
+			if ((b == '.') && !fraction) {
+				fraction = true;
+			} else {
+				final int digit = b - '0';
+				if ((digit < 0) || (digit > 9)) {
+					break;
+				}
+				if (digits > MAX_DOUBLE_DIGITS) {
+					return false;
+				}
+				mantissa = (mantissa * 10) + digit;
+				digits++;
+				if (fraction) {
+					fractionDigits++;
+				}
+			}
+		}
+		this.position = i;
+		this.decimalMantissa = mantissa;
+		this.decimalDigits = digits;
+		this.decimalFractionDigits = fractionDigits;
+		return (digits > 0) && this.endNumber();
+	}
+
+	private boolean isCached(final int index, final int start, final int length) {
+		final byte[] cachedBytes = this.cachedStringBytes[index];
+		if ((cachedBytes == null) || (cachedBytes.length != length)) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (cachedBytes[i] != this.bytes[start + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String decode(final int start, final int end) {
+		return new String(this.bytes, start, end - start, this.charset);
+	}
+}
@@ -0,0 +1,141 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.record.io.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import kieker.common.util.dataformat.VariableLengthEncoding;
+
+/**
+ * Decodes the values of one column chunk written by a {@link ColumnWriter}. A reader without a chunk represents a
+ * column which has not been read because it is not part of the projection; it returns default values.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+final class ColumnReader {
+
+	private static final String DEFAULT_STRING = "";
+	private static final byte[] DEFAULT_BYTES = new byte[0];
+
+	private final int valueIndex;
+	private final ColumnType type;
+	private final ByteBuffer chunk;
+
+	/** next column for the same value index, but another type. */
+	private ColumnReader nextOfValueIndex;
+
+	private long previousValue;
+	private List<String> dictionary;
+
+	/**
+	 * Create a column reader.
+	 *
+	 * @param valueIndex
+	 *            the index of the value in the serialized record or {@link ColumnarValueSerializer#LOGGING_TIMESTAMP_INDEX}
+	 * @param type
+	 *            the type of the values
+	 * @param chunk
+	 *            the encoded values or <code>null</code> if the column has been skipped
+	 */
+	ColumnReader(final int valueIndex, final ColumnType type, final ByteBuffer chunk) {
+		this.valueIndex = valueIndex;
+		this.type = type;
+		this.chunk = chunk;
+	}
+
+	int getValueIndex() {
+		return this.valueIndex;
+	}
+
+	ColumnType getType() {
+		return this.type;
+	}
+
+	ColumnReader getNextOfValueIndex() {
+		return this.nextOfValueIndex;
+	}
+
+	void setNextOfValueIndex(final ColumnReader nextOfValueIndex) {
+		this.nextOfValueIndex = nextOfValueIndex;
+	}
+
+	long getDelta() {
+		if (this.chunk == null) {
+			return 0;
+		}
+		this.previousValue += VariableLengthEncoding.zigZagDecode(VariableLengthEncoding.decodeLong(this.chunk));
+		return this.previousValue;
+	}
+
+	boolean getBoolean() { // NOPMD (getBoolean is consistent with the other methods)
+		if (this.chunk == null) {
+			return false;
+		}
+		return this.chunk.get() != 0;
+	}
+
+	float getFloat() {
+		if (this.chunk == null) {
+			return 0;
+		}
+		return this.chunk.getFloat();
+	}
+
+	double getDouble() {
+		if (this.chunk == null) {
+			return 0;
+		}
+		return this.chunk.getDouble();
+	}
+
+	String getString() {
+		if (this.chunk == null) {
+			return DEFAULT_STRING;
+		}
+		final int code = VariableLengthEncoding.decodeInt(this.chunk);
+		if (code == ColumnWriter.NULL_STRING) {
+			return null;
+		}
+		if (this.dictionary == null) {
+			this.dictionary = new ArrayList<>();
+		}
+		if (code == ColumnWriter.NEW_STRING) {
+			final String value = new String(this.getBytes(), StandardCharsets.UTF_8);
+			this.dictionary.add(value);
+			return value;
+		}
+		final int index = code - ColumnWriter.FIRST_DICTIONARY_CODE;
+		if (index >= this.dictionary.size()) {
+			throw new IllegalArgumentException("Unknown string code " + code + " in column " + this.valueIndex);
+		}
+		return this.dictionary.get(index);
+	}
+
+	byte[] getBytes() {
+		if (this.chunk == null) {
+			return DEFAULT_BYTES;
+		}
+		final byte[] value = new byte[VariableLengthEncoding.decodeInt(this.chunk)];
+		this.chunk.get(value);
+		return value;
+	}
+}
@@ -0,0 +1,66 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.record.io.columnar;
+
+/**
+ * The value types of the columns of a columnar log. Each type corresponds to a put and a get method of the value
+ * serializer and deserializer interfaces. The ordinal is written to the log.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public enum ColumnType {
+	/** Booleans, one byte each. */
+	BOOLEAN,
+	/** Bytes, delta and variable-length encoded. */
+	BYTE,
+	/** Characters, delta and variable-length encoded. */
+	CHAR,
+	/** Shorts, delta and variable-length encoded. */
+	SHORT,
+	/** Integers, delta and variable-length encoded. */
+	INT,
+	/** Longs, delta and variable-length encoded. */
+	LONG,
+	/** Floats, four bytes each. */
+	FLOAT,
+	/** Doubles, eight bytes each. */
+	DOUBLE,
+	/** Ordinals of enumeration values, delta and variable-length encoded. */
+	ENUMERATION,
+	/** Strings, dictionary encoded. */
+	STRING,
+	/** Byte arrays, each prefixed with its length. */
+	BYTES;
+
+	private static final ColumnType[] VALUES = ColumnType.values();
+
+	/**
+	 * @param ordinal
+	 *            the ordinal of a column type
+	 * @return the column type
+	 * @throws IllegalArgumentException
+	 *             if there is no column type with the given ordinal
+	 */
+	public static ColumnType valueOf(final int ordinal) {
+		if ((ordinal < 0) || (ordinal >= VALUES.length)) {
+			throw new IllegalArgumentException("Unknown column type " + ordinal);
+		}
+		return VALUES[ordinal];
+	}
+}
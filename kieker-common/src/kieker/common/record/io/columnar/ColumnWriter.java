@@ -0,0 +1,182 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.record.io.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import kieker.common.util.dataformat.VariableLengthEncoding;
+
+/**
+ * Encodes the values of one column of a block. Integral values are stored as variable-length, zig-zag encoded
+ * differences to the previous value of the column, which makes monotonic values like timestamps and trace ids small.
+ * Strings are replaced by their index in a dictionary of the column; the first occurrence of a string carries its bytes.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+final class ColumnWriter {
+
+	/** string code of <code>null</code>. */
+	static final int NULL_STRING = 0;
+	/** string code of a string which is not yet in the dictionary; the string follows. */
+	static final int NEW_STRING = 1;
+	/** string codes of dictionary entries start with this value. */
+	static final int FIRST_DICTIONARY_CODE = 2;
+
+	/** maximal size of a variable-length encoded long. */
+	private static final int MAX_VARIABLE_LENGTH = 10;
+
+	private final int valueIndex;
+	private final ColumnType type;
+
+	/** next column for the same value index, but another type. */
+	private ColumnWriter nextOfValueIndex;
+
+	private ByteBuffer buffer;
+	private long previousValue;
+	private Map<String, Integer> dictionary;
+
+	/**
+	 * Create a column.
+	 *
+	 * @param valueIndex
+	 *            the index of the value in the serialized record or {@link ColumnarValueSerializer#LOGGING_TIMESTAMP_INDEX}
+	 * @param type
+	 *            the type of the values
+	 * @param initialCapacity
+	 *            initial capacity of the column in bytes
+	 */
+	ColumnWriter(final int valueIndex, final ColumnType type, final int initialCapacity) {
+		this.valueIndex = valueIndex;
+		this.type = type;
+		this.buffer = ByteBuffer.allocate(initialCapacity);
+	}
+
+	int getValueIndex() {
+		return this.valueIndex;
+	}
+
+	ColumnType getType() {
+		return this.type;
+	}
+
+	ColumnWriter getNextOfValueIndex() {
+		return this.nextOfValueIndex;
+	}
+
+	void setNextOfValueIndex(final ColumnWriter nextOfValueIndex) {
+		this.nextOfValueIndex = nextOfValueIndex;
+	}
+
+	/**
+	 * @return the number of encoded bytes
+	 */
+	int size() {
+		return this.buffer.position();
+	}
+
+	/**
+	 * Appends an integral value as difference to the previous value.
+	 *
+	 * @return the number of encoded bytes
+	 */
+	int putDelta(final long value) {
+		this.ensureCapacity(MAX_VARIABLE_LENGTH);
+		final int start = this.buffer.position();
+		VariableLengthEncoding.encodeLong(VariableLengthEncoding.zigZagEncode(value - this.previousValue), this.buffer);
+		this.previousValue = value;
+		return this.buffer.position() - start;
+	}
+
+	int putBoolean(final boolean value) { // NOPMD (boolean parameter)
+		this.ensureCapacity(1);
+		this.buffer.put(value ? (byte) 1 : (byte) 0); // NOCS (inline conditional)
+		return 1;
+	}
+
+	int putFloat(final float value) {
+		this.ensureCapacity(4);
+		this.buffer.putFloat(value);
+		return 4;
+	}
+
+	int putDouble(final double value) {
+		this.ensureCapacity(8);
+		this.buffer.putDouble(value);
+		return 8;
+	}
+
+	int putString(final String value) {
+		this.ensureCapacity(MAX_VARIABLE_LENGTH);
+		final int start = this.buffer.position();
+		if (value == null) {
+			VariableLengthEncoding.encodeInt(NULL_STRING, this.buffer);
+			return this.buffer.position() - start;
+		}
+		if (this.dictionary == null) {
+			this.dictionary = new HashMap<>();
+		}
+		final Integer index = this.dictionary.get(value);
+		if (index != null) {
+			VariableLengthEncoding.encodeInt(FIRST_DICTIONARY_CODE + index, this.buffer);
+			return this.buffer.position() - start;
+		}
+
+		this.dictionary.put(value, this.dictionary.size());
+		VariableLengthEncoding.encodeInt(NEW_STRING, this.buffer);
+		return (this.buffer.position() - start) + this.putBytes(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	int putBytes(final byte[] value) {
+		this.ensureCapacity(MAX_VARIABLE_LENGTH + value.length);
+		final int start = this.buffer.position();
+		VariableLengthEncoding.encodeInt(value.length, this.buffer);
+		this.buffer.put(value);
+		return this.buffer.position() - start;
+	}
+
+	/**
+	 * Copies the encoded values to the given buffer.
+	 */
+	void writeTo(final ByteBuffer target) {
+		target.put(this.buffer.array(), 0, this.buffer.position());
+	}
+
+	/**
+	 * Removes all values, e.g., after the column has been written.
+	 */
+	void clear() {
+		this.buffer.clear();
+		this.previousValue = 0;
+		if (this.dictionary != null) {
+			this.dictionary.clear();
+		}
+	}
+
+	private void ensureCapacity(final int numBytes) {
+		if (this.buffer.remaining() < numBytes) {
+			final ByteBuffer largerBuffer = ByteBuffer.allocate(Math.max(this.buffer.capacity() * 2, this.buffer.position() + numBytes));
+			this.buffer.flip();
+			largerBuffer.put(this.buffer);
+			this.buffer = largerBuffer;
+		}
+	}
+}
@@ -0,0 +1,272 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.record.io.columnar;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+import kieker.common.record.factory.IRecordFactory;
+import kieker.common.util.dataformat.VariableLengthEncoding;
+
+/**
+ * Reads the segments of a columnar log written by a {@link ColumnarSegmentWriter}. The reader may be restricted to a
+ * projection, i.e., a set of value names as returned by {@link IRecordFactory#getValueNames()}. The chunks of all other
+ * columns are skipped in the input stream and the corresponding fields of the records get default values (see
+ * {@link ColumnarValueDeserializer}). The logging timestamps are always read. Record types with array values are always
+ * read completely, because their columns do not correspond to value names.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ColumnarSegmentReader {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ColumnarSegmentReader.class);
+
+	private final CachedRecordFactoryCatalog recordFactories = CachedRecordFactoryCatalog.getInstance();
+	private final Set<String> projection;
+	private final Map<String, RecordType> recordTypes = new HashMap<>();
+
+	private final byte[] intBytes = new byte[4];
+
+	/**
+	 * Create a reader which reads all columns.
+	 */
+	public ColumnarSegmentReader() {
+		this(null);
+	}
+
+	/**
+	 * Create a reader which reads only the given columns.
+	 *
+	 * @param projection
+	 *            the value names of the columns to read or <code>null</code> to read all columns
+	 */
+	public ColumnarSegmentReader(final Collection<String> projection) {
+		this.projection = (projection != null) ? new HashSet<>(projection) : null; // NOCS (inline conditional)
+	}
+
+	/**
+	 * Reads and checks the file header of a columnar log.
+	 *
+	 * @param inputStream
+	 *            the log
+	 * @throws IOException
+	 *             if the stream cannot be read or is not a columnar log of a supported version
+	 */
+	public void readFileHeader(final InputStream inputStream) throws IOException {
+		if (!this.readFully(inputStream, this.intBytes) || (ByteBuffer.wrap(this.intBytes).getInt() != ColumnarSegmentWriter.MAGIC)) {
+			throw new IOException("The stream is not a columnar Kieker log.");
+		}
+		final int version = inputStream.read();
+		if (version != ColumnarSegmentWriter.VERSION) {
+			throw new IOException("Unsupported version " + version + " of the columnar log format.");
+		}
+	}
+
+	/**
+	 * Reads the next segment.
+	 *
+	 * @param inputStream
+	 *            the log positioned at the start of a segment
+	 * @param records
+	 *            the list to which the records of the segment are added in their original order
+	 * @return <code>false</code> if the end of the stream has been reached before a complete segment was read
+	 * @throws IOException
+	 *             on read errors or if the segment is corrupt
+	 */
+	public boolean readSegment(final InputStream inputStream, final List<IMonitoringRecord> records) throws IOException {
+		if (!this.readFully(inputStream, this.intBytes)) {
+			return false;
+		}
+		final int segmentLength = ByteBuffer.wrap(this.intBytes).getInt();
+		if (!this.readFully(inputStream, this.intBytes)) {
+			return false;
+		}
+		final int headerLength = ByteBuffer.wrap(this.intBytes).getInt();
+		final byte[] headerBytes = new byte[headerLength];
+		if (!this.readFully(inputStream, headerBytes)) {
+			return false;
+		}
+		long remainingBytes = segmentLength - 4L - headerLength;
+
+		try {
+			final ByteBuffer header = ByteBuffer.wrap(headerBytes);
+			final int numRecords = VariableLengthEncoding.decodeInt(header);
+			final int numBlocks = VariableLengthEncoding.decodeInt(header);
+			final RecordType[] blockTypes = new RecordType[numBlocks];
+			final ColumnarValueDeserializer[] deserializers = new ColumnarValueDeserializer[numBlocks];
+			final int[][] columnKeys = new int[numBlocks][];
+			final ColumnType[][] columnTypes = new ColumnType[numBlocks][];
+			final int[][] chunkLengths = new int[numBlocks][];
+
+			for (int block = 0; block < numBlocks; block++) {
+				final byte[] typeName = new byte[VariableLengthEncoding.decodeInt(header)];
+				header.get(typeName);
+				blockTypes[block] = this.getRecordType(new String(typeName, StandardCharsets.UTF_8));
+				VariableLengthEncoding.decodeInt(header); // number of records of the block
+				final int numColumns = VariableLengthEncoding.decodeInt(header);
+				columnKeys[block] = new int[numColumns];
+				columnTypes[block] = new ColumnType[numColumns];
+				chunkLengths[block] = new int[numColumns];
+				for (int column = 0; column < numColumns; column++) {
+					columnKeys[block][column] = VariableLengthEncoding.decodeInt(header);
+					columnTypes[block][column] = ColumnType.valueOf(header.get());
+					chunkLengths[block][column] = VariableLengthEncoding.decodeInt(header);
+				}
+			}
+			final byte[] orderBytes = new byte[VariableLengthEncoding.decodeInt(header)];
+			if (!this.readFully(inputStream, orderBytes)) {
+				return false;
+			}
+			remainingBytes -= orderBytes.length;
+
+			for (int block = 0; block < numBlocks; block++) {
+				final RecordType recordType = blockTypes[block];
+				final ColumnarValueDeserializer deserializer = new ColumnarValueDeserializer();
+				for (int column = 0; column < columnKeys[block].length; column++) {
+					final int valueIndex = columnKeys[block][column] - 1;
+					final int chunkLength = chunkLengths[block][column];
+					if ((recordType != null) && recordType.isProjected(valueIndex)) {
+						final byte[] chunk = new byte[chunkLength];
+						if (!this.readFully(inputStream, chunk)) {
+							return false;
+						}
+						deserializer.addColumn(new ColumnReader(valueIndex, columnTypes[block][column], ByteBuffer.wrap(chunk)));
+					} else if (!this.skipFully(inputStream, chunkLength)) {
+						return false;
+					}
+					remainingBytes -= chunkLength;
+				}
+				deserializers[block] = deserializer;
+			}
+			if (!this.skipFully(inputStream, remainingBytes)) { // future extensions of the segment
+				return false;
+			}
+
+			final ByteBuffer order = ByteBuffer.wrap(orderBytes);
+			for (int i = 0; i < numRecords; i++) {
+				final int block = (numBlocks > 1) ? VariableLengthEncoding.decodeInt(order) : 0; // NOCS (inline conditional)
+				final RecordType recordType = blockTypes[block];
+				if (recordType != null) {
+					final long loggingTimestamp = deserializers[block].startRecord();
+					final IMonitoringRecord record = recordType.factory.create(deserializers[block]);
+					record.setLoggingTimestamp(loggingTimestamp);
+					records.add(record);
+				}
+			}
+		} catch (final RuntimeException ex) { // NOPMD (corrupt segments cause various exceptions)
+			throw new IOException("Corrupt segment in columnar log.", ex);
+		}
+		return true;
+	}
+
+	private RecordType getRecordType(final String typeName) {
+		if (this.recordTypes.containsKey(typeName)) {
+			return this.recordTypes.get(typeName);
+		}
+		final IRecordFactory<? extends IMonitoringRecord> factory = this.recordFactories.get(typeName);
+		RecordType recordType = null;
+		if (factory == null) {
+			LOGGER.error("Class type {} was not found. Cannot instantiate event type.", typeName);
+		} else {
+			recordType = new RecordType(factory, this.projection);
+		}
+		this.recordTypes.put(typeName, recordType);
+		return recordType;
+	}
+
+	private boolean readFully(final InputStream inputStream, final byte[] bytes) throws IOException {
+		int offset = 0;
+		while (offset < bytes.length) {
+			final int bytesRead = inputStream.read(bytes, offset, bytes.length - offset);
+			if (bytesRead < 0) {
+				if (offset > 0) {
+					LOGGER.warn("Incomplete segment at the end of the columnar log.");
+				}
+				return false;
+			}
+			offset += bytesRead;
+		}
+		return true;
+	}
+
+	private boolean skipFully(final InputStream inputStream, final long numBytes) throws IOException {
+		long remaining = numBytes;
+		while (remaining > 0) {
+			final long skipped = inputStream.skip(remaining);
+			if (skipped > 0) {
+				remaining -= skipped;
+			} else if (inputStream.read() >= 0) { // skip may return 0 before the end of the stream
+				remaining--;
+			} else {
+				LOGGER.warn("Incomplete segment at the end of the columnar log.");
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The factory and the projected value indices of a record type.
+	 */
+	private static final class RecordType {
+		private final IRecordFactory<? extends IMonitoringRecord> factory;
+		/** <code>null</code> if all columns are read. */
+		private final boolean[] projectedValueIndices;
+
+		RecordType(final IRecordFactory<? extends IMonitoringRecord> factory, final Set<String> projection) {
+			this.factory = factory;
+			this.projectedValueIndices = RecordType.computeProjection(factory, projection);
+		}
+
+		private static boolean[] computeProjection(final IRecordFactory<? extends IMonitoringRecord> factory, final Set<String> projection) {
+			if (projection == null) {
+				return null; // NOPMD (null indicates all columns)
+			}
+			for (final Class<?> valueType : factory.getValueTypes()) {
+				if (valueType.isArray()) {
+					return null; // NOPMD (null indicates all columns)
+				}
+			}
+			final String[] valueNames = factory.getValueNames();
+			final boolean[] projected = new boolean[valueNames.length];
+			for (int i = 0; i < valueNames.length; i++) {
+				projected[i] = projection.contains(valueNames[i]);
+			}
+			return projected;
+		}
+
+		boolean isProjected(final int valueIndex) {
+			return (this.projectedValueIndices == null) || (valueIndex == ColumnarValueSerializer.LOGGING_TIMESTAMP_INDEX)
+					|| ((valueIndex < this.projectedValueIndices.length) && this.projectedValueIndices[valueIndex]);
+		}
+	}
+}
@@ -0,0 +1,252 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.record.io.columnar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import kieker.common.record.AbstractMonitoringRecord;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.util.dataformat.VariableLengthEncoding;
+
+/**
+ * Collects records in a segment of a columnar log and writes the segment. A columnar log starts with a file header
+ * (magic number and version) followed by segments. Within a segment, the records are grouped by their type into blocks
+ * and each block stores each field of its record type in a column chunk:
+ *
+ * <pre>
+ * segment := int segmentLength, int headerLength, header, order, chunks of block 1, ..., chunks of block n
+ * header  := numRecords, numBlocks, (typeNameLength, typeName, numRecords, columnDirectory)*, orderLength
+ * </pre>
+ *
+ * <p>
+ * The column directory lists key, type, and chunk length of each column of the block (see
+ * {@link ColumnarValueSerializer#writeColumnDirectory(ByteBuffer)}). It is part of the segment header rather than
+ * a footer of the block so that readers of a stream can skip the chunks of the columns they do not need without
+ * seeking. The order chunk holds the block index of each record and restores the original order of the records; it
+ * is empty if the segment holds a single block. All numbers except the two leading ints are variable-length encoded.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ColumnarSegmentWriter {
+
+	/** Magic number at the beginning of a columnar log ("KCOL"). */
+	public static final int MAGIC = 0x4B434F4C;
+	/** Version of the columnar log format. */
+	public static final byte VERSION = 1;
+
+	/** Maximal number of records per segment. */
+	private static final int MAX_RECORDS = 1 << 20;
+	private static final int MAX_VARIABLE_INT_LENGTH = 5;
+
+	private final int maxSegmentSize;
+
+	private final Map<Class<?>, Block> blocksByClass = new HashMap<>();
+	private final Map<String, Block> blocksByTypeName = new HashMap<>();
+	/** The non-empty blocks of the current segment in the order of their first record. */
+	private final List<Block> segmentBlocks = new ArrayList<>();
+
+	private int[] order = new int[1024];
+	private int numRecords;
+	private int orderSize;
+
+	private ByteBuffer buffer = ByteBuffer.allocate(0);
+
+	/**
+	 * Create a segment writer.
+	 *
+	 * @param maxSegmentSize
+	 *            the encoded size in bytes at which {@link #add(IMonitoringRecord)} reports the segment as full
+	 */
+	public ColumnarSegmentWriter(final int maxSegmentSize) {
+		this.maxSegmentSize = maxSegmentSize;
+	}
+
+	/**
+	 * Writes the file header of a columnar log.
+	 *
+	 * @param channel
+	 *            the channel of the log file
+	 * @return the number of written bytes
+	 * @throws IOException
+	 *             on write errors
+	 */
+	public int writeFileHeader(final WritableByteChannel channel) throws IOException {
+		final ByteBuffer header = ByteBuffer.allocate(5);
+		header.putInt(MAGIC);
+		header.put(VERSION);
+		header.flip();
+		ColumnarSegmentWriter.writeFully(header, channel);
+		return header.capacity();
+	}
+
+	/**
+	 * Adds a record to the current segment.
+	 *
+	 * @param record
+	 *            the record
+	 * @return <code>true</code> if the segment is full and should be written
+	 */
+	public boolean add(final IMonitoringRecord record) {
+		Block block = this.blocksByClass.get(record.getClass());
+		if (block == null) {
+			final String typeName = AbstractMonitoringRecord.getTypeName(record);
+			block = this.blocksByTypeName.get(typeName);
+			if (block == null) {
+				block = new Block(typeName);
+				this.blocksByTypeName.put(typeName, block);
+			}
+			this.blocksByClass.put(record.getClass(), block);
+		}
+
+		final ColumnarValueSerializer serializer = block.serializer;
+		if (serializer.getNumRecords() == 0) {
+			block.index = this.segmentBlocks.size();
+			this.segmentBlocks.add(block);
+		}
+		serializer.startRecord(record.getLoggingTimestamp());
+		record.serialize(serializer);
+
+		if (this.numRecords == this.order.length) {
+			this.order = Arrays.copyOf(this.order, this.order.length * 2);
+		}
+		this.order[this.numRecords++] = block.index;
+		this.orderSize += ColumnarSegmentWriter.getVariableLength(block.index);
+
+		return (this.numRecords >= MAX_RECORDS) || (this.getEncodedSize() >= this.maxSegmentSize);
+	}
+
+	/**
+	 * @return the number of records in the current segment
+	 */
+	public int getNumRecords() {
+		return this.numRecords;
+	}
+
+	/**
+	 * @return the number of bytes of the columns of the current segment, excluding the segment header
+	 */
+	public int getEncodedSize() {
+		int size = this.orderSize;
+		for (final Block block : this.segmentBlocks) {
+			size += block.serializer.getEncodedSize();
+		}
+		return size;
+	}
+
+	/**
+	 * Writes the current segment, if it is not empty, and starts a new one.
+	 *
+	 * @param channel
+	 *            the channel of the log file
+	 * @return the number of written bytes
+	 * @throws IOException
+	 *             on write errors
+	 */
+	public int writeSegment(final WritableByteChannel channel) throws IOException {
+		if (this.numRecords == 0) {
+			return 0;
+		}
+
+		final boolean writeOrder = this.segmentBlocks.size() > 1;
+		int maxHeaderSize = 3 * MAX_VARIABLE_INT_LENGTH;
+		for (final Block block : this.segmentBlocks) {
+			maxHeaderSize += (3 * MAX_VARIABLE_INT_LENGTH) + block.typeName.length + block.serializer.getMaxColumnDirectorySize();
+		}
+		final int maxSize = 8 + maxHeaderSize + (writeOrder ? this.orderSize : 0) + this.getEncodedSize(); // NOCS (inline conditional)
+		if (this.buffer.capacity() < maxSize) {
+			this.buffer = ByteBuffer.allocate(maxSize);
+		}
+		final ByteBuffer segment = this.buffer;
+		segment.clear();
+
+		// header
+		segment.position(8);
+		VariableLengthEncoding.encodeInt(this.numRecords, segment);
+		VariableLengthEncoding.encodeInt(this.segmentBlocks.size(), segment);
+		for (final Block block : this.segmentBlocks) {
+			VariableLengthEncoding.encodeInt(block.typeName.length, segment);
+			segment.put(block.typeName);
+			VariableLengthEncoding.encodeInt(block.serializer.getNumRecords(), segment);
+			block.serializer.writeColumnDirectory(segment);
+		}
+		VariableLengthEncoding.encodeInt(writeOrder ? this.orderSize : 0, segment); // NOCS (inline conditional)
+		final int headerLength = segment.position() - 8;
+
+		// order
+		if (writeOrder) {
+			for (int i = 0; i < this.numRecords; i++) {
+				VariableLengthEncoding.encodeInt(this.order[i], segment);
+			}
+		}
+
+		// chunks
+		for (final Block block : this.segmentBlocks) {
+			block.serializer.writeColumns(segment);
+			block.serializer.reset();
+		}
+
+		segment.putInt(0, segment.position() - 4);
+		segment.putInt(4, headerLength);
+		segment.flip();
+		final int size = segment.remaining();
+		ColumnarSegmentWriter.writeFully(segment, channel);
+
+		this.segmentBlocks.clear();
+		this.numRecords = 0;
+		this.orderSize = 0;
+		return size;
+	}
+
+	private static int getVariableLength(final int value) {
+		int length = 1;
+		for (int remaining = value >>> 7; remaining != 0; remaining >>>= 7) {
+			length++;
+		}
+		return length;
+	}
+
+	private static void writeFully(final ByteBuffer source, final WritableByteChannel channel) throws IOException {
+		while (source.hasRemaining()) {
+			channel.write(source);
+		}
+	}
+
+	/**
+	 * The columns of the records of one type.
+	 */
+	private static final class Block {
+		private final byte[] typeName;
+		private final ColumnarValueSerializer serializer = new ColumnarValueSerializer();
+		/** the index of the block in the current segment. */
+		private int index;
+
+		Block(final String typeName) {
+			this.typeName = typeName.getBytes(StandardCharsets.UTF_8);
+		}
+	}
+}
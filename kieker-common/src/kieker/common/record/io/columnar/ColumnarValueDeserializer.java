@@ -0,0 +1,147 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.record.io.columnar;
+
+import java.util.Arrays;
+
+import kieker.common.exception.RecordInstantiationException;
+import kieker.common.record.io.AbstractValueDeserializer;
+import kieker.common.record.io.IValueDeserializer;
+
+/**
+ * Deserializes the records of one block of a columnar log. The n-th get call of a record reads from the column of
+ * value index n and the type of the call, which mirrors the {@link ColumnarValueSerializer}. Columns which have not
+ * been read, because they are not part of the projection, yield default values: 0, <code>false</code>, an empty string, and
+ * the enumeration value with ordinal 0.
+ *
+ * <p>
+ * Call {@link #startRecord()} before the deserialization of each record.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ColumnarValueDeserializer extends AbstractValueDeserializer implements IValueDeserializer {
+
+	/** Column used for value indices and types without a chunk in the block. */
+	private static final ColumnReader MISSING_COLUMN = new ColumnReader(ColumnarValueSerializer.LOGGING_TIMESTAMP_INDEX, ColumnType.LONG, null);
+
+	private ColumnReader loggingTimestamps = MISSING_COLUMN;
+	/** The first column of each value index; further columns of the same index are chained. */
+	private ColumnReader[] columnsByValueIndex = new ColumnReader[16];
+
+	private int valueIndex;
+
+	/**
+	 * Create a columnar value deserializer without columns.
+	 */
+	public ColumnarValueDeserializer() {
+		super();
+	}
+
+	/**
+	 * Adds a column of the block.
+	 *
+	 * @param column
+	 *            the column, possibly without chunk if it has been skipped
+	 */
+	void addColumn(final ColumnReader column) {
+		final int index = column.getValueIndex();
+		if (index == ColumnarValueSerializer.LOGGING_TIMESTAMP_INDEX) {
+			this.loggingTimestamps = column;
+			return;
+		}
+		if (index >= this.columnsByValueIndex.length) {
+			this.columnsByValueIndex = Arrays.copyOf(this.columnsByValueIndex, Math.max(this.columnsByValueIndex.length * 2, index + 1));
+		}
+		column.setNextOfValueIndex(this.columnsByValueIndex[index]);
+		this.columnsByValueIndex[index] = column;
+	}
+
+	/**
+	 * Starts the deserialization of the next record.
+	 *
+	 * @return the logging timestamp of the record
+	 */
+	public long startRecord() {
+		this.valueIndex = 0;
+		return this.loggingTimestamps.getDelta();
+	}
+
+	@Override
+	public boolean getBoolean() { // NOPMD (getBoolean is consistent with the other methods)
+		return this.nextColumn(ColumnType.BOOLEAN).getBoolean();
+	}
+
+	@Override
+	public byte getByte() {
+		return (byte) this.nextColumn(ColumnType.BYTE).getDelta();
+	}
+
+	@Override
+	public char getChar() {
+		return (char) this.nextColumn(ColumnType.CHAR).getDelta();
+	}
+
+	@Override
+	public short getShort() { // NOPMD (short)
+		return (short) this.nextColumn(ColumnType.SHORT).getDelta();
+	}
+
+	@Override
+	public int getInt() {
+		return (int) this.nextColumn(ColumnType.INT).getDelta();
+	}
+
+	@Override
+	public long getLong() {
+		return this.nextColumn(ColumnType.LONG).getDelta();
+	}
+
+	@Override
+	public float getFloat() {
+		return this.nextColumn(ColumnType.FLOAT).getFloat();
+	}
+
+	@Override
+	public double getDouble() {
+		return this.nextColumn(ColumnType.DOUBLE).getDouble();
+	}
+
+	@Override
+	public String getString() {
+		return this.nextColumn(ColumnType.STRING).getString();
+	}
+
+	@Override
+	public <T extends Enum<T>> T getEnumeration(final Class<T> clazz) throws RecordInstantiationException {
+		return this.enumerationValueOf(clazz, (int) this.nextColumn(ColumnType.ENUMERATION).getDelta());
+	}
+
+	private ColumnReader nextColumn(final ColumnType type) {
+		final int index = this.valueIndex++;
+		if (index >= this.columnsByValueIndex.length) {
+			return MISSING_COLUMN;
+		}
+		ColumnReader column = this.columnsByValueIndex[index];
+		while ((column != null) && (column.getType() != type)) {
+			column = column.getNextOfValueIndex();
+		}
+		return (column != null) ? column : MISSING_COLUMN; // NOCS (inline conditional)
+	}
+}
@@ -0,0 +1,228 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.record.io.columnar;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import kieker.common.record.io.IValueSerializer;
+import kieker.common.util.dataformat.VariableLengthEncoding;
+
+/**
+ * Serializes the records of one record type into columns. The n-th put call of a record writes to the column of
+ * value index n and the type of the call. Hence, each field of the record type gets its own column and record types
+ * with array values get additional columns for the array elements.
+ *
+ * <p>
+ * Call {@link #startRecord(long)} before the serialization of each record.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ColumnarValueSerializer implements IValueSerializer {
+
+	/** The value index of the column of the logging timestamps. */
+	public static final int LOGGING_TIMESTAMP_INDEX = -1;
+
+	/** Upper bound of the size of a column directory entry: key, type, and chunk length. */
+	private static final int MAX_DIRECTORY_ENTRY_SIZE = 11;
+	private static final int INITIAL_COLUMN_CAPACITY = 256;
+
+	private final ColumnWriter loggingTimestamps = new ColumnWriter(LOGGING_TIMESTAMP_INDEX, ColumnType.LONG, INITIAL_COLUMN_CAPACITY);
+	/** The first column of each value index; further columns of the same index are chained. */
+	private ColumnWriter[] columnsByValueIndex = new ColumnWriter[16];
+	/** All columns in the order of their creation. */
+	private final List<ColumnWriter> columns = new ArrayList<>();
+
+	private int valueIndex;
+	private int numRecords;
+	private int encodedSize;
+
+	/**
+	 * Create a columnar value serializer.
+	 */
+	public ColumnarValueSerializer() {
+		// empty default constructor
+	}
+
+	/**
+	 * Starts the serialization of the next record.
+	 *
+	 * @param loggingTimestamp
+	 *            the logging timestamp of the record
+	 */
+	public void startRecord(final long loggingTimestamp) {
+		this.valueIndex = 0;
+		this.numRecords++;
+		this.encodedSize += this.loggingTimestamps.putDelta(loggingTimestamp);
+	}
+
+	@Override
+	public void putBoolean(final boolean value) { // NOPMD (boolean parameter)
+		this.encodedSize += this.nextColumn(ColumnType.BOOLEAN).putBoolean(value);
+	}
+
+	@Override
+	public void putByte(final byte value) {
+		this.encodedSize += this.nextColumn(ColumnType.BYTE).putDelta(value);
+	}
+
+	@Override
+	public void putChar(final char value) {
+		this.encodedSize += this.nextColumn(ColumnType.CHAR).putDelta(value);
+	}
+
+	@Override
+	public void putShort(final short value) { // NOPMD (short)
+		this.encodedSize += this.nextColumn(ColumnType.SHORT).putDelta(value);
+	}
+
+	@Override
+	public void putInt(final int value) {
+		this.encodedSize += this.nextColumn(ColumnType.INT).putDelta(value);
+	}
+
+	@Override
+	public void putLong(final long value) {
+		this.encodedSize += this.nextColumn(ColumnType.LONG).putDelta(value);
+	}
+
+	@Override
+	public void putFloat(final float value) {
+		this.encodedSize += this.nextColumn(ColumnType.FLOAT).putFloat(value);
+	}
+
+	@Override
+	public void putDouble(final double value) {
+		this.encodedSize += this.nextColumn(ColumnType.DOUBLE).putDouble(value);
+	}
+
+	@Override
+	public <T extends Enum<T>> void putEnumeration(final T value) {
+		this.encodedSize += this.nextColumn(ColumnType.ENUMERATION).putDelta(value.ordinal());
+	}
+
+	@Override
+	public void putBytes(final byte[] value) {
+		this.encodedSize += this.nextColumn(ColumnType.BYTES).putBytes(value);
+	}
+
+	@Override
+	public void putString(final String value) {
+		this.encodedSize += this.nextColumn(ColumnType.STRING).putString(value);
+	}
+
+	private ColumnWriter nextColumn(final ColumnType type) {
+		final int index = this.valueIndex++;
+		if (index >= this.columnsByValueIndex.length) {
+			this.columnsByValueIndex = Arrays.copyOf(this.columnsByValueIndex, this.columnsByValueIndex.length * 2);
+		}
+
+		ColumnWriter column = this.columnsByValueIndex[index];
+		while ((column != null) && (column.getType() != type)) {
+			column = column.getNextOfValueIndex();
+		}
+		if (column == null) {
+			column = new ColumnWriter(index, type, INITIAL_COLUMN_CAPACITY);
+			column.setNextOfValueIndex(this.columnsByValueIndex[index]);
+			this.columnsByValueIndex[index] = column;
+			this.columns.add(column);
+		}
+		return column;
+	}
+
+	/**
+	 * @return the number of records serialized since the last {@link #reset()}
+	 */
+	public int getNumRecords() {
+		return this.numRecords;
+	}
+
+	/**
+	 * @return the number of bytes of all columns
+	 */
+	public int getEncodedSize() {
+		return this.encodedSize;
+	}
+
+	/**
+	 * @return an upper bound of the number of bytes written by {@link #writeColumnDirectory(ByteBuffer)}
+	 */
+	public int getMaxColumnDirectorySize() {
+		return (1 + this.columns.size()) * MAX_DIRECTORY_ENTRY_SIZE;
+	}
+
+	/**
+	 * Writes the number of non-empty columns and, for each of them, the key (0 for the logging timestamps and
+	 * value index + 1 otherwise), the column type, and the length of the chunk.
+	 *
+	 * @param buffer
+	 *            the buffer to write to
+	 */
+	public void writeColumnDirectory(final ByteBuffer buffer) {
+		int numColumns = 1;
+		for (final ColumnWriter column : this.columns) {
+			if (column.size() > 0) {
+				numColumns++;
+			}
+		}
+		VariableLengthEncoding.encodeInt(numColumns, buffer);
+		ColumnarValueSerializer.writeDirectoryEntry(this.loggingTimestamps, buffer);
+		for (final ColumnWriter column : this.columns) {
+			if (column.size() > 0) {
+				ColumnarValueSerializer.writeDirectoryEntry(column, buffer);
+			}
+		}
+	}
+
+	private static void writeDirectoryEntry(final ColumnWriter column, final ByteBuffer buffer) {
+		VariableLengthEncoding.encodeInt(column.getValueIndex() + 1, buffer);
+		buffer.put((byte) column.getType().ordinal());
+		VariableLengthEncoding.encodeInt(column.size(), buffer);
+	}
+
+	/**
+	 * Writes the chunks of the non-empty columns in the order of the column directory.
+	 *
+	 * @param buffer
+	 *            the buffer to write to; it must have {@link #getEncodedSize()} bytes remaining
+	 */
+	public void writeColumns(final ByteBuffer buffer) {
+		this.loggingTimestamps.writeTo(buffer);
+		for (final ColumnWriter column : this.columns) {
+			if (column.size() > 0) {
+				column.writeTo(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Removes all records. The columns are kept for the next records of the same type.
+	 */
+	public void reset() {
+		this.loggingTimestamps.clear();
+		for (final ColumnWriter column : this.columns) {
+			column.clear();
+		}
+		this.numRecords = 0;
+		this.encodedSize = 0;
+	}
+}
@@ -0,0 +1,68 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.registry.writer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import kieker.common.record.AbstractMonitoringRecord;
+import kieker.common.record.IMonitoringRecord;
+
+/**
+ * Caches the id of the type name of each record class in a string registry. Writers look up the type id of each
+ * record; with this cache, the lookup is keyed by the record class instead of the type name. The type name of a class
+ * is determined once by {@link AbstractMonitoringRecord#getTypeName(IMonitoringRecord)}; hence, all records of a class
+ * must have the same type name. The cache is thread-safe if the registry is thread-safe.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public final class RecordTypeIdCache {
+
+	private final IWriterRegistry<String> registry;
+	private final ConcurrentMap<Class<?>, Integer> typeIds = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new cache.
+	 *
+	 * @param registry
+	 *            the registry which assigns the ids to the type names
+	 */
+	public RecordTypeIdCache(final IWriterRegistry<String> registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * Returns the id of the type name of the given record and registers the type name if necessary.
+	 *
+	 * @param record
+	 *            the record
+	 * @return the id of the record's type name in the registry
+	 */
+	public int getTypeId(final IMonitoringRecord record) {
+		final Class<? extends IMonitoringRecord> recordClass = record.getClass();
+		final Integer typeId = this.typeIds.get(recordClass);
+		if (typeId != null) {
+			return typeId;
+		}
+
+		final int newTypeId = this.registry.getId(AbstractMonitoringRecord.getTypeName(record));
+		this.typeIds.put(recordClass, newTypeId);
+		return newTypeId;
+	}
+}
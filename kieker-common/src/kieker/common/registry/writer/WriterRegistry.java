@@ -16,13 +16,17 @@
 
 package kieker.common.registry.writer;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import kieker.common.registry.IRegistryListener;
 
 /**
  * Manages a writer registry. It triggers an registry listener for every new entry.
+ * The registry is thread-safe: Looking up a registered value does not lock. Registering a new value is serialized
+ * so that the ids are assigned without gaps and the listener is notified in the order of the ids. A value becomes
+ * visible to other threads only after the listener has been notified about it. Hence, no thread can use an id
+ * before its entry has been announced.
  *
  * @author Christian Wulf (chw)
  *
@@ -30,8 +34,8 @@ import kieker.common.registry.IRegistryListener;
  */
 public class WriterRegistry implements IWriterRegistry<String> {
 
-	private final Map<String, Integer> storage = new HashMap<String, Integer>(); // NOPMD (synchronization is not necessary)
-	/** id of the next value which will be registered. */
+	private final ConcurrentMap<String, Integer> storage = new ConcurrentHashMap<String, Integer>();
+	/** id of the next value which will be registered; guarded by <code>this</code>. */
 	private int nextId;
 	/** the listener of this registry which is notified upon a newly registered value. */
 	private final IRegistryListener<String> registryListener;
@@ -53,8 +57,7 @@ public class WriterRegistry implements IWriterRegistry<String> {
 	public int getId(final String value) {
 		final Integer valueId = this.storage.get(value);
 		if (valueId == null) {
-			this.register(value);
-			return this.storage.get(value);
+			return this.registerNewValue(value);
 		} else {
 			return valueId;
 		}
@@ -63,12 +66,22 @@ public class WriterRegistry implements IWriterRegistry<String> {
 	@Override
 	public void register(final String value) {
 		if (!this.storage.containsKey(value)) {
-			final int valueId = this.nextId++;
-			this.storage.put(value, valueId);
-			this.registryListener.onNewRegistryEntry(value, valueId);
+			this.registerNewValue(value);
 		}
 	}
 
+	private synchronized int registerNewValue(final String value) {
+		final Integer registeredId = this.storage.get(value);
+		if (registeredId != null) { // registered by another thread in the meantime
+			return registeredId;
+		}
+		final int valueId = this.nextId++;
+		// notify the listener before the value becomes visible to other threads
+		this.registryListener.onNewRegistryEntry(value, valueId);
+		this.storage.put(value, valueId);
+		return valueId;
+	}
+
 	@Override
 	public long getId() {
 		return this.id;
@@ -0,0 +1,115 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.util.collection;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A stack backed by a growing array. In contrast to a {@link java.util.LinkedList}, it does not allocate a node per element,
+ * and in contrast to a {@link java.util.ArrayDeque}, it starts small, which suits the many short call stacks of open traces.
+ *
+ * <p>
+ * The stack is not thread-safe.
+ * </p>
+ *
+ * @param <E>
+ *            the type of the elements
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public final class ArrayStack<E> {
+
+	private static final int DEFAULT_INITIAL_CAPACITY = 4;
+
+	private Object[] elements;
+	private int size;
+
+	/**
+	 * Creates a new empty stack with a default initial capacity.
+	 */
+	public ArrayStack() {
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Creates a new empty stack.
+	 *
+	 * @param initialCapacity
+	 *            the initial capacity
+	 */
+	public ArrayStack(final int initialCapacity) {
+		this.elements = new Object[Math.max(1, initialCapacity)];
+	}
+
+	/**
+	 * Pushes the element on top of the stack.
+	 *
+	 * @param element
+	 *            the element
+	 */
+	public void push(final E element) {
+		if (this.size == this.elements.length) {
+			this.elements = Arrays.copyOf(this.elements, this.size << 1);
+		}
+		this.elements[this.size++] = element;
+	}
+
+	/**
+	 * Removes the top element of the stack.
+	 *
+	 * @return the removed element
+	 *
+	 * @throws NoSuchElementException
+	 *             if the stack is empty
+	 */
+	@SuppressWarnings("unchecked")
+	public E pop() {
+		if (this.size == 0) {
+			throw new NoSuchElementException("The stack is empty.");
+		}
+		final E element = (E) this.elements[--this.size];
+		this.elements[this.size] = null;
+		return element;
+	}
+
+	/**
+	 * @return the top element of the stack or <code>null</code> if the stack is empty
+	 */
+	@SuppressWarnings("unchecked")
+	public E peek() {
+		return (this.size == 0) ? null : (E) this.elements[this.size - 1]; // NOCS (inline conditional)
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Removes all elements.
+	 */
+	public void clear() {
+		Arrays.fill(this.elements, 0, this.size, null);
+		this.size = 0;
+	}
+}
@@ -0,0 +1,294 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.util.collection;
+
+import java.util.Arrays;
+
+/**
+ * A hash map with primitive <code>long</code> keys, e.g., trace ids, which avoids boxing the keys and allocating an entry
+ * object per mapping. The map uses open addressing with linear probing in two parallel arrays. Entries are kept ordered
+ * by their home slot within a probe run (Robin Hood hashing), so a removal shifts back only the entries up to the next
+ * one in its home slot, without tombstones. A free slot is marked by the key 0, so probing only reads the key array;
+ * the mapping of the key 0 itself is kept in a separate field. The map does not permit <code>null</code> values.
+ *
+ * <p>
+ * The map is not thread-safe.
+ * </p>
+ *
+ * @param <V>
+ *            the type of the values
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public final class LongObjectHashMap<V> {
+
+	private static final long FREE_KEY = 0L;
+	private static final int DEFAULT_INITIAL_CAPACITY = 16;
+	/** The maximal load factor is 1/2 (i.e., the size is at most half of the capacity), which keeps probe sequences short. */
+	private static final int MAX_LOAD_SHIFT = 1;
+	/** Blocks of 2^3 consecutive keys are stored in the same 2^3 slots, i.e., within a cache line of the key array. */
+	private static final int BLOCK_BITS = 3;
+	private static final int BLOCK_MASK = (1 << BLOCK_BITS) - 1;
+	/** 2^64 divided by the golden ratio. */
+	private static final long FIBONACCI_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	private long[] keys;
+	private Object[] values;
+	private int mask;
+	/** 64 minus the number of bits of a slot index. */
+	private int shift;
+	/** The number of occupied slots, i.e., without the mapping of the free key. */
+	private int occupiedSlots;
+	private V freeKeyValue;
+
+	/**
+	 * Creates a new map with a default initial capacity.
+	 */
+	public LongObjectHashMap() {
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Creates a new map.
+	 *
+	 * @param expectedSize
+	 *            the number of mappings the map should hold without resizing
+	 */
+	public LongObjectHashMap(final int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("The expected size must not be negative, but was " + expectedSize);
+		}
+		this.allocate(LongObjectHashMap.capacityFor(expectedSize));
+	}
+
+	private static int capacityFor(final int expectedSize) {
+		final long minCapacity = Math.max(DEFAULT_INITIAL_CAPACITY, (long) expectedSize << MAX_LOAD_SHIFT);
+		if (minCapacity > (1 << 30)) {
+			throw new IllegalArgumentException("The map cannot hold " + expectedSize + " entries.");
+		}
+		return Integer.highestOneBit((int) minCapacity - 1) << 1;
+	}
+
+	private void allocate(final int capacity) {
+		this.keys = new long[capacity];
+		this.values = new Object[capacity];
+		this.mask = capacity - 1;
+		this.shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+	}
+
+	/**
+	 * Returns the home slot of the key. Each block of 8 consecutive keys occupies 8 adjacent slots, and the blocks are
+	 * spread over the table by Fibonacci hashing, i.e., the block number multiplied by 2^64 divided by the golden ratio.
+	 * Consecutive keys, like the trace ids of a monitored JVM, share cache lines but do not pile up in one probe run, and
+	 * keys which differ only in their upper bits, like the trace ids of several JVMs, are spread, too.
+	 */
+	private int slot(final long key) {
+		return ((int) (((key >>> BLOCK_BITS) * FIBONACCI_MULTIPLIER) >>> (this.shift + BLOCK_BITS)) << BLOCK_BITS) | ((int) key & BLOCK_MASK);
+	}
+
+	/**
+	 * @param key
+	 *            the key
+	 *
+	 * @return the value mapped to the key or <code>null</code> if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(final long key) {
+		if (key == FREE_KEY) {
+			return this.freeKeyValue;
+		}
+		int index = this.slot(key);
+		long current;
+		while ((current = this.keys[index]) != FREE_KEY) { // NOPMD (assignment in operand)
+			if (current == key) {
+				return (V) this.values[index];
+			}
+			index = (index + 1) & this.mask;
+		}
+		return null;
+	}
+
+	public boolean containsKey(final long key) {
+		return this.get(key) != null;
+	}
+
+	/**
+	 * Maps the key to the given value.
+	 *
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value, not <code>null</code>
+	 *
+	 * @return the value previously mapped to the key or <code>null</code> if there was none
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(final long key, final V value) {
+		if (value == null) {
+			throw new NullPointerException("The map does not permit null values.");
+		}
+		if (key == FREE_KEY) {
+			final V previous = this.freeKeyValue;
+			this.freeKeyValue = value;
+			return previous;
+		}
+		int index = this.slot(key);
+		int distance = 0;
+		long current;
+		while ((current = this.keys[index]) != FREE_KEY) { // NOPMD (assignment in operand)
+			if (current == key) {
+				final V previous = (V) this.values[index];
+				this.values[index] = value;
+				return previous;
+			}
+			if (this.distance(current, index) < distance) {
+				// the key would have been found before an entry which is closer to its home slot
+				break;
+			}
+			index = (index + 1) & this.mask;
+			distance++;
+		}
+		this.insert(key, value, index, distance);
+		this.occupiedSlots++;
+		if ((this.occupiedSlots << MAX_LOAD_SHIFT) > this.keys.length) {
+			this.resize(this.keys.length << 1);
+		}
+		return null;
+	}
+
+	/**
+	 * Stores a new mapping at the given slot of its probe sequence. Entries which are closer to their home slot are
+	 * displaced further (Robin Hood hashing). This keeps the entries of a run ordered by their home slot, so a removal
+	 * stops shifting at the first entry in its home slot instead of scanning the whole run.
+	 */
+	private void insert(final long key, final Object value, final int slot, final int slotDistance) {
+		long insertedKey = key;
+		Object insertedValue = value;
+		int index = slot;
+		int distance = slotDistance;
+		long current;
+		while ((current = this.keys[index]) != FREE_KEY) { // NOPMD (assignment in operand)
+			final int currentDistance = this.distance(current, index);
+			if (currentDistance < distance) {
+				final Object currentValue = this.values[index];
+				this.keys[index] = insertedKey;
+				this.values[index] = insertedValue;
+				insertedKey = current;
+				insertedValue = currentValue;
+				distance = currentDistance;
+			}
+			index = (index + 1) & this.mask;
+			distance++;
+		}
+		this.keys[index] = insertedKey;
+		this.values[index] = insertedValue;
+	}
+
+	/**
+	 * @return the distance of the slot to the home slot of the key
+	 */
+	private int distance(final long key, final int slot) {
+		return (slot - this.slot(key)) & this.mask;
+	}
+
+	/**
+	 * Removes the mapping of the given key.
+	 *
+	 * @param key
+	 *            the key
+	 *
+	 * @return the value which was mapped to the key or <code>null</code> if there was none
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(final long key) {
+		if (key == FREE_KEY) {
+			final V previous = this.freeKeyValue;
+			this.freeKeyValue = null;
+			return previous;
+		}
+		int index = this.slot(key);
+		long current;
+		while ((current = this.keys[index]) != key) { // NOPMD (assignment in operand)
+			if (current == FREE_KEY) {
+				return null;
+			}
+			index = (index + 1) & this.mask;
+		}
+		final V previous = (V) this.values[index];
+		this.occupiedSlots--;
+
+		// shift the following entries back by one slot until an entry is in its home slot
+		int next = (index + 1) & this.mask;
+		while (((current = this.keys[next]) != FREE_KEY) && (this.distance(current, next) != 0)) { // NOPMD (assignment in operand)
+			this.keys[index] = current;
+			this.values[index] = this.values[next];
+			index = next;
+			next = (next + 1) & this.mask;
+		}
+		this.keys[index] = FREE_KEY;
+		this.values[index] = null;
+		return previous;
+	}
+
+	private void resize(final int capacity) {
+		final long[] oldKeys = this.keys;
+		final Object[] oldValues = this.values;
+		this.allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != FREE_KEY) {
+				this.insert(oldKeys[i], oldValues[i], this.slot(oldKeys[i]), 0);
+			}
+		}
+	}
+
+	public int size() {
+		return (this.freeKeyValue == null) ? this.occupiedSlots : this.occupiedSlots + 1; // NOCS (inline conditional)
+	}
+
+	public boolean isEmpty() {
+		return this.size() == 0;
+	}
+
+	/**
+	 * Removes all mappings. The map keeps its capacity.
+	 */
+	public void clear() {
+		Arrays.fill(this.keys, FREE_KEY);
+		Arrays.fill(this.values, null);
+		this.occupiedSlots = 0;
+		this.freeKeyValue = null;
+	}
+
+	/**
+	 * @return a new array with all keys of the map in no particular order
+	 */
+	public long[] keys() {
+		final long[] result = new long[this.size()];
+		int count = 0;
+		if (this.freeKeyValue != null) {
+			result[count++] = FREE_KEY;
+		}
+		for (int i = 0; i < this.keys.length; i++) {
+			if (this.keys[i] != FREE_KEY) {
+				result[count++] = this.keys[i];
+			}
+		}
+		return result;
+	}
+}
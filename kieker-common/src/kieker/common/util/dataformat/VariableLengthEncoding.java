@@ -94,4 +94,84 @@ public final class VariableLengthEncoding {
 
 		return value;
 	}
+
+	/**
+	 * Encodes a given long value using the variable-length encoding of {@link #encodeInt(int, ByteBuffer)}.
+	 * Negative values always take 10 bytes; use {@link #zigZagEncode(long)} for signed values.
+	 *
+	 * @param value
+	 *            The value to encode
+	 * @param buffer
+	 *            The buffer to write the data to
+	 *
+	 * @since 1.15
+	 */
+	public static void encodeLong(final long value, final ByteBuffer buffer) {
+		long remainingData = value;
+
+		while ((remainingData & ~0x7FL) != 0) {
+			buffer.put((byte) ((remainingData & 0x7F) | 0x80));
+			remainingData = remainingData >>> 7;
+		}
+		buffer.put((byte) remainingData);
+	}
+
+	/**
+	 * Decodes a variable-length long value stored at the current position
+	 * in the byte buffer.
+	 *
+	 * @param buffer
+	 *            The buffer to decode the data from
+	 * @return The decoded long value
+	 *
+	 * @since 1.15
+	 */
+	public static long decodeLong(final ByteBuffer buffer) {
+		final int startPosition = buffer.position();
+		long value = 0;
+		int shiftAmount = 0;
+
+		while (true) {
+			final byte currentByte = buffer.get();
+			value |= (long) (currentByte & 0x7F) << shiftAmount;
+			// Non-terminal bytes have their msb set and are thus negative
+			if (currentByte >= 0) {
+				break;
+			}
+			shiftAmount += 7;
+			// Check whether the highest allowed shift amount was exceeded
+			if (shiftAmount > 63) {
+				throw new IllegalArgumentException("Unterminated variable-length long found at position " + startPosition);
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Maps a signed value to an unsigned one such that values of a small magnitude, including negative ones,
+	 * have a short variable-length encoding (0, -1, 1, -2, ... become 0, 1, 2, 3, ...).
+	 *
+	 * @param value
+	 *            The signed value
+	 * @return The zig-zag encoded value
+	 *
+	 * @since 1.15
+	 */
+	public static long zigZagEncode(final long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	/**
+	 * Reverts {@link #zigZagEncode(long)}.
+	 *
+	 * @param value
+	 *            The zig-zag encoded value
+	 * @return The signed value
+	 *
+	 * @since 1.15
+	 */
+	public static long zigZagDecode(final long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
 }
@@ -45,8 +45,30 @@ public final class FSUtil { // NOCS NOPMD (constants interface)
 	public static final String XZ_FILE_EXTENSION = ".xz";
 	/** The extension of Kieker's binary record files. */
 	public static final String BINARY_FILE_EXTENSION = ".bin";
+	/**
+	 * The extension of Kieker's binary record files written via memory mapping. They start with a header and are
+	 * therefore not readable as plain binary record files.
+	 */
+	public static final String MAPPED_BINARY_FILE_EXTENSION = ".mbin";
+	/** The extension of Kieker's columnar record files. */
+	public static final String COLUMNAR_FILE_EXTENSION = ".col";
 	/** The extension of Kieker's mapping files. */
 	public static final String MAP_FILE_EXTENSION = ".map";
+	/** The extension of the index files written alongside binary record files, appended to the full file name. */
+	public static final String INDEX_FILE_EXTENSION = ".idx";
+
+	/**
+	 * The first int of a binary record file written via memory mapping. As type ids are never negative, it distinguishes
+	 * such files from streamed binary record files.
+	 */
+	public static final int MAPPED_BINARY_FILE_MAGIC = 0xCB1E4B1E;
+	/**
+	 * Size of the header of a binary record file written via memory mapping: the magic int, a reserved int, and the file
+	 * offset behind the last committed record as long.
+	 */
+	public static final int MAPPED_BINARY_FILE_HEADER_SIZE = 16;
+	/** Position of the offset behind the last committed record in the header of a memory-mapped binary record file. */
+	public static final int MAPPED_BINARY_FILE_COMMITTED_END_POSITION = 8;
 
 	/** The encoding usually used within Kieker. */
 	public static final String ENCODING = "UTF-8";
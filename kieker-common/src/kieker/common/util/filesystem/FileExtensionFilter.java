@@ -34,6 +34,7 @@ public class FileExtensionFilter implements FilenameFilter {
 	public static final FileExtensionFilter DEFLATE = new FileExtensionFilter(FSUtil.DEFLATE_FILE_EXTENSION);
 	public static final FileExtensionFilter GZIP = new FileExtensionFilter(FSUtil.GZIP_FILE_EXTENSION);
 	public static final FileExtensionFilter MAP = new FileExtensionFilter(FSUtil.MAP_FILE_EXTENSION);
+	public static final FileExtensionFilter MAPPED_BIN = new FileExtensionFilter(FSUtil.MAPPED_BINARY_FILE_EXTENSION);
 	public static final FileExtensionFilter XZ = new FileExtensionFilter(FSUtil.XZ_FILE_EXTENSION);
 	public static final FileExtensionFilter ZIP = new FileExtensionFilter(FSUtil.ZIP_FILE_EXTENSION);
 
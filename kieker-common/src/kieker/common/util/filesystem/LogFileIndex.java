@@ -0,0 +1,275 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.util.filesystem;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.flow.ITraceRecord;
+import kieker.common.record.flow.trace.TraceMetadata;
+
+/**
+ * A sparse index of an uncompressed binary Kieker log file. The index divides the log file into blocks of a fixed
+ * number of records and stores, for each block, its position in the log file, the minimal and maximal logging
+ * timestamp of its records, and a bloom filter of the trace ids of its records. Readers can use the index to skip
+ * all blocks which cannot contain records of a time range or of a trace.
+ *
+ * <p>
+ * The index file is named like the log file with {@link FSUtil#INDEX_FILE_EXTENSION} appended. It starts with the
+ * header <code>magic (int), version (int), bloom filter bits (int), bloom filter hash functions (int)</code>, followed
+ * by the blocks <code>offset (long), length (long), records (int), minimal timestamp (long), maximal timestamp (long),
+ * bloom filter (long[bits / 64])</code>. Blocks are appended when they are complete, hence the index of a log file
+ * which is still being written covers a prefix of the file.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public final class LogFileIndex {
+
+	/** "KIDX". */
+	public static final int MAGIC = 0x4B494458;
+	public static final int VERSION = 1;
+
+	/** Default number of records per block. */
+	public static final int DEFAULT_BLOCK_SIZE = 4096;
+	/** Number of hash functions of the bloom filters. */
+	public static final int DEFAULT_HASH_FUNCTIONS = 3;
+
+	/** Value of {@link #getTraceId(IMonitoringRecord)} for records without trace id. */
+	public static final long NO_TRACE_ID = Long.MIN_VALUE;
+
+	private final int bloomFilterBits;
+	private final int hashFunctions;
+	private final List<Block> blocks;
+
+	private LogFileIndex(final int bloomFilterBits, final int hashFunctions, final List<Block> blocks) {
+		this.bloomFilterBits = bloomFilterBits;
+		this.hashFunctions = hashFunctions;
+		this.blocks = blocks;
+	}
+
+	/**
+	 * Read an index file. A trailing incomplete block, e.g., of an index which is still being written, is ignored.
+	 *
+	 * @param indexFile
+	 *            the index file
+	 * @return the index
+	 * @throws IOException
+	 *             when the file cannot be read or is not a log file index
+	 */
+	public static LogFileIndex read(final Path indexFile) throws IOException {
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+			if (input.readInt() != MAGIC) {
+				throw new IOException(indexFile + " is not a log file index.");
+			}
+			final int version = input.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported version " + version + " of the log file index " + indexFile);
+			}
+			final int bloomFilterBits = input.readInt();
+			final int hashFunctions = input.readInt();
+
+			final List<Block> blocks = new ArrayList<>();
+			try {
+				while (true) { // NOPMD (terminated by the end of the file)
+					final long offset = input.readLong();
+					final long length = input.readLong();
+					final int records = input.readInt();
+					final long minTimestamp = input.readLong();
+					final long maxTimestamp = input.readLong();
+					final long[] bloomFilter = new long[bloomFilterBits / Long.SIZE];
+					for (int i = 0; i < bloomFilter.length; i++) {
+						bloomFilter[i] = input.readLong();
+					}
+					blocks.add(new Block(offset, length, records, minTimestamp, maxTimestamp, bloomFilter));
+				}
+			} catch (final EOFException e) { // NOPMD (end of the index)
+				// all complete blocks have been read
+			}
+			return new LogFileIndex(bloomFilterBits, hashFunctions, Collections.unmodifiableList(blocks));
+		}
+	}
+
+	/**
+	 * Return the blocks which may contain records within the given time range and of one of the given traces.
+	 *
+	 * @param fromTimestamp
+	 *            the lower bound of the logging timestamps (inclusive)
+	 * @param toTimestamp
+	 *            the upper bound of the logging timestamps (inclusive)
+	 * @param traceIds
+	 *            the trace ids to look for, <code>null</code> to accept all traces
+	 * @return the blocks in the order of the log file
+	 */
+	public List<Block> findBlocks(final long fromTimestamp, final long toTimestamp, final long[] traceIds) {
+		final List<Block> result = new ArrayList<>();
+		for (final Block block : this.blocks) {
+			if ((block.maxTimestamp >= fromTimestamp) && (block.minTimestamp <= toTimestamp) && this.mightContainAny(block, traceIds)) {
+				result.add(block);
+			}
+		}
+		return result;
+	}
+
+	private boolean mightContainAny(final Block block, final long[] traceIds) {
+		if (traceIds == null) {
+			return true;
+		}
+		for (final long traceId : traceIds) {
+			if (LogFileIndex.mightContain(block.bloomFilter, this.bloomFilterBits, this.hashFunctions, traceId)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public List<Block> getBlocks() {
+		return this.blocks;
+	}
+
+	public int getBloomFilterBits() {
+		return this.bloomFilterBits;
+	}
+
+	/**
+	 * Return the trace id of a record, as used by the trace id filters.
+	 *
+	 * @param record
+	 *            the record
+	 * @return the trace id or {@link #NO_TRACE_ID} if the record does not belong to a trace
+	 */
+	public static long getTraceId(final IMonitoringRecord record) {
+		if (record instanceof ITraceRecord) {
+			return ((ITraceRecord) record).getTraceId();
+		} else if (record instanceof TraceMetadata) {
+			return ((TraceMetadata) record).getTraceId();
+		} else if (record instanceof OperationExecutionRecord) {
+			return ((OperationExecutionRecord) record).getTraceId();
+		} else {
+			return NO_TRACE_ID;
+		}
+	}
+
+	/**
+	 * Add a trace id to a bloom filter.
+	 *
+	 * @param bloomFilter
+	 *            the bloom filter
+	 * @param bits
+	 *            the number of bits of the filter
+	 * @param hashFunctions
+	 *            the number of hash functions
+	 * @param traceId
+	 *            the trace id
+	 */
+	static void add(final long[] bloomFilter, final int bits, final int hashFunctions, final long traceId) {
+		final long hash = LogFileIndex.mix(traceId);
+		final int hash1 = (int) hash;
+		final int hash2 = (int) (hash >>> 32);
+		for (int i = 0; i < hashFunctions; i++) {
+			final int bit = ((hash1 + (i * hash2)) & Integer.MAX_VALUE) % bits;
+			bloomFilter[bit >>> 6] |= 1L << bit;
+		}
+	}
+
+	private static boolean mightContain(final long[] bloomFilter, final int bits, final int hashFunctions, final long traceId) {
+		final long hash = LogFileIndex.mix(traceId);
+		final int hash1 = (int) hash;
+		final int hash2 = (int) (hash >>> 32);
+		for (int i = 0; i < hashFunctions; i++) {
+			final int bit = ((hash1 + (i * hash2)) & Integer.MAX_VALUE) % bits;
+			if ((bloomFilter[bit >>> 6] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** Finalizer of MurmurHash3; trace ids are often consecutive numbers. */
+	private static long mix(final long value) {
+		long hash = value;
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	/**
+	 * A block of consecutive records of the log file.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 1.15
+	 */
+	public static final class Block {
+
+		private final long offset;
+		private final long length;
+		private final int records;
+		private final long minTimestamp;
+		private final long maxTimestamp;
+		private final long[] bloomFilter;
+
+		Block(final long offset, final long length, final int records, final long minTimestamp, final long maxTimestamp, final long[] bloomFilter) {
+			this.offset = offset;
+			this.length = length;
+			this.records = records;
+			this.minTimestamp = minTimestamp;
+			this.maxTimestamp = maxTimestamp;
+			this.bloomFilter = bloomFilter;
+		}
+
+		/**
+		 * @return position of the first record of the block in the log file
+		 */
+		public long getOffset() {
+			return this.offset;
+		}
+
+		/**
+		 * @return number of bytes of the block in the log file
+		 */
+		public long getLength() {
+			return this.length;
+		}
+
+		public int getRecords() {
+			return this.records;
+		}
+
+		public long getMinTimestamp() {
+			return this.minTimestamp;
+		}
+
+		public long getMaxTimestamp() {
+			return this.maxTimestamp;
+		}
+	}
+}
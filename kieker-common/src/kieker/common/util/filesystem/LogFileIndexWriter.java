@@ -0,0 +1,150 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.util.filesystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import kieker.common.record.IMonitoringRecord;
+
+/**
+ * Writes the {@link LogFileIndex} of a binary log file while the log file is being written.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class LogFileIndexWriter {
+
+	private static final int HEADER_SIZE = 4 * 4;
+	/** offset, length, records, minimal and maximal timestamp. */
+	private static final int BLOCK_HEADER_SIZE = 8 + 8 + 4 + 8 + 8;
+
+	private final FileChannel channel;
+	private final int blockSize;
+	private final int bloomFilterBits;
+	private final long[] bloomFilter;
+	private final ByteBuffer buffer;
+
+	private long blockOffset;
+	private long blockEnd;
+	private int records;
+	private long minTimestamp;
+	private long maxTimestamp;
+
+	/**
+	 * Create the index file and write its header.
+	 *
+	 * @param indexFile
+	 *            the index file, usually the name of the log file with {@link FSUtil#INDEX_FILE_EXTENSION} appended
+	 * @param blockSize
+	 *            number of records per block
+	 * @throws IOException
+	 *             when the file cannot be created
+	 */
+	public LogFileIndexWriter(final Path indexFile, final int blockSize) throws IOException {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("The block size must be positive, but was " + blockSize);
+		}
+		this.blockSize = blockSize;
+		// two bits per record keep false positives rare even if every record belongs to another trace
+		this.bloomFilterBits = ((blockSize * 2) + Long.SIZE - 1) & -Long.SIZE;
+		this.bloomFilter = new long[this.bloomFilterBits / Long.SIZE];
+		this.buffer = ByteBuffer.allocate(BLOCK_HEADER_SIZE + (this.bloomFilter.length * 8));
+
+		this.channel = FileChannel.open(indexFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(LogFileIndex.MAGIC).putInt(LogFileIndex.VERSION).putInt(this.bloomFilterBits).putInt(LogFileIndex.DEFAULT_HASH_FUNCTIONS);
+		header.flip();
+		this.write(header);
+	}
+
+	/**
+	 * Add a record to the index.
+	 *
+	 * @param record
+	 *            the record
+	 * @param offset
+	 *            position of the record in the log file
+	 * @param end
+	 *            position behind the record in the log file
+	 * @throws IOException
+	 *             when a completed block cannot be written
+	 */
+	public void add(final IMonitoringRecord record, final long offset, final long end) throws IOException {
+		final long timestamp = record.getLoggingTimestamp();
+		if (this.records == 0) {
+			this.blockOffset = offset;
+			this.minTimestamp = timestamp;
+			this.maxTimestamp = timestamp;
+		} else if (timestamp < this.minTimestamp) {
+			this.minTimestamp = timestamp;
+		} else if (timestamp > this.maxTimestamp) {
+			this.maxTimestamp = timestamp;
+		}
+		final long traceId = LogFileIndex.getTraceId(record);
+		if (traceId != LogFileIndex.NO_TRACE_ID) {
+			LogFileIndex.add(this.bloomFilter, this.bloomFilterBits, LogFileIndex.DEFAULT_HASH_FUNCTIONS, traceId);
+		}
+		this.blockEnd = end;
+		this.records++;
+
+		if (this.records == this.blockSize) {
+			this.writeBlock();
+		}
+	}
+
+	/**
+	 * Write the last, incomplete block and close the index file.
+	 *
+	 * @throws IOException
+	 *             when the block cannot be written
+	 */
+	public void close() throws IOException {
+		try {
+			if (this.records > 0) {
+				this.writeBlock();
+			}
+		} finally {
+			this.channel.close();
+		}
+	}
+
+	private void writeBlock() throws IOException {
+		this.buffer.clear();
+		this.buffer.putLong(this.blockOffset).putLong(this.blockEnd - this.blockOffset).putInt(this.records);
+		this.buffer.putLong(this.minTimestamp).putLong(this.maxTimestamp);
+		for (final long word : this.bloomFilter) {
+			this.buffer.putLong(word);
+		}
+		this.buffer.flip();
+		this.write(this.buffer);
+
+		this.records = 0;
+		Arrays.fill(this.bloomFilter, 0);
+	}
+
+	private void write(final ByteBuffer data) throws IOException {
+		while (data.hasRemaining()) {
+			this.channel.write(data);
+		}
+	}
+}
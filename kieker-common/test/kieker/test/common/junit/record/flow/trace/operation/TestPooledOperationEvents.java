@@ -0,0 +1,112 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.common.junit.record.flow.trace.operation;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.AbstractMonitoringRecord;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.flow.trace.operation.AbstractOperationEvent;
+import kieker.common.record.flow.trace.operation.AfterOperationFailedEvent;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.common.record.flow.trace.operation.PooledAfterOperationFailedEvent;
+import kieker.common.record.flow.trace.operation.PooledBeforeOperationEvent;
+import kieker.common.record.io.BinaryValueDeserializer;
+import kieker.common.record.io.BinaryValueSerializer;
+import kieker.common.registry.writer.IWriterRegistry;
+import kieker.common.registry.writer.WriterRegistry;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+import kieker.test.common.junit.WriterListener;
+
+/**
+ * Tests that the pooled flow records are serialized exactly like the records they stand in for.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class TestPooledOperationEvents extends AbstractKiekerTest {
+
+	private static final long TSTAMP = 987998L;
+	private static final long TRACE_ID = 23444L;
+	private static final int ORDER_INDEX = 234;
+	private static final String FQ_CLASSNAME = "p1.p2.p3.classname";
+	private static final String FQ_OPERATION_SIGNATURE = FQ_CLASSNAME + ".callerOp(boolean arg1, int arg2)";
+	private static final String CAUSE = "java.lang.IllegalStateException";
+
+	/**
+	 * Default constructor.
+	 */
+	public TestPooledOperationEvents() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testBeforeOperationEventIsSerializedAsOriginal() {
+		final PooledBeforeOperationEvent pooledEvent = new PooledBeforeOperationEvent(null)
+				.set(TSTAMP, TRACE_ID, ORDER_INDEX, FQ_OPERATION_SIGNATURE, FQ_CLASSNAME);
+		final BeforeOperationEvent event = new BeforeOperationEvent(TSTAMP, TRACE_ID, ORDER_INDEX, FQ_OPERATION_SIGNATURE, FQ_CLASSNAME);
+
+		Assert.assertEquals(BeforeOperationEvent.class.getName(), AbstractMonitoringRecord.getTypeName(pooledEvent));
+		Assert.assertEquals(event.getSize(), pooledEvent.getSize());
+		Assert.assertEquals(TestPooledOperationEvents.serialize(event), TestPooledOperationEvents.serialize(pooledEvent));
+
+		final WriterListener receiver = new WriterListener();
+		final ByteBuffer buffer = ByteBuffer.allocate(pooledEvent.getSize());
+		pooledEvent.serialize(BinaryValueSerializer.create(buffer, new WriterRegistry(receiver)));
+		buffer.flip();
+		Assert.assertEquals(event, new BeforeOperationEvent(BinaryValueDeserializer.create(buffer, receiver.getReaderRegistry())));
+	}
+
+	@Test
+	public void testAfterOperationFailedEventIsSerializedAsOriginal() {
+		final PooledAfterOperationFailedEvent pooledEvent = new PooledAfterOperationFailedEvent(null)
+				.set(TSTAMP, TRACE_ID, ORDER_INDEX, FQ_OPERATION_SIGNATURE, FQ_CLASSNAME, CAUSE);
+		final AfterOperationFailedEvent event = new AfterOperationFailedEvent(TSTAMP, TRACE_ID, ORDER_INDEX, FQ_OPERATION_SIGNATURE, FQ_CLASSNAME,
+				CAUSE);
+
+		Assert.assertEquals(AfterOperationFailedEvent.class.getName(), AbstractMonitoringRecord.getTypeName(pooledEvent));
+		Assert.assertEquals(TestPooledOperationEvents.serialize(event), TestPooledOperationEvents.serialize(pooledEvent));
+	}
+
+	@Test
+	public void testReleaseReturnsClearedRecordToPool() {
+		final Queue<PooledBeforeOperationEvent> pool = new ArrayDeque<>();
+		final PooledBeforeOperationEvent pooledEvent = new PooledBeforeOperationEvent(pool)
+				.set(TSTAMP, TRACE_ID, ORDER_INDEX, FQ_OPERATION_SIGNATURE, FQ_CLASSNAME);
+
+		pooledEvent.release();
+
+		Assert.assertSame(pooledEvent, pool.poll());
+		Assert.assertEquals(AbstractOperationEvent.OPERATION_SIGNATURE, pooledEvent.getOperationSignature());
+		Assert.assertEquals(AbstractOperationEvent.CLASS_SIGNATURE, pooledEvent.getClassSignature());
+	}
+
+	private static ByteBuffer serialize(final IMonitoringRecord record) {
+		final IWriterRegistry<String> stringRegistry = new WriterRegistry(new WriterListener());
+		final ByteBuffer buffer = ByteBuffer.allocate(record.getSize());
+		record.serialize(BinaryValueSerializer.create(buffer, stringRegistry));
+		buffer.flip();
+		return buffer;
+	}
+}
@@ -0,0 +1,192 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.common.junit.record.io;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.io.TextByteArrayValueDeserializer;
+import kieker.common.util.Version;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Test the text value deserializer for byte arrays.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class TextByteArrayValueDeserializerTest extends AbstractKiekerTest { // NOCS NOPMD test, no constructor needed
+
+	private static TextByteArrayValueDeserializer create(final String string) {
+		final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		return TextByteArrayValueDeserializer.create().wrap(bytes, 0, bytes.length);
+	}
+
+	@Test
+	public void testCreateAndReadKiekerMonitoringRecord() {
+		final TextByteArrayValueDeserializer deserializer = TextByteArrayValueDeserializerTest
+				.create("0;1521828677048314440;" + Version.getVERSION() + ";SingleCatBuyer;stockholm;1;false;0;NANOSECONDS;0");
+
+		Assert.assertEquals("record id error", 0, deserializer.getInt());
+		Assert.assertEquals("logging timestamp error", 1521828677048314440L, deserializer.getLong());
+		Assert.assertEquals("version error", Version.getVERSION(), deserializer.getString());
+		Assert.assertEquals("controller name error", "SingleCatBuyer", deserializer.getString());
+		Assert.assertEquals("hostname error", "stockholm", deserializer.getString());
+		Assert.assertEquals("experiment id error", 1, deserializer.getInt());
+		Assert.assertEquals("debug mode error", false, deserializer.getBoolean());
+		Assert.assertEquals("time offset error", 0, deserializer.getLong());
+		Assert.assertEquals("time unit error", "NANOSECONDS", deserializer.getString());
+		Assert.assertEquals("number of records error", 0, deserializer.getLong());
+	}
+
+	/**
+	 * @author Kieker Project
+	 *
+	 * @since 1.15
+	 */
+	enum ETestExample {
+		NO, YES
+	}
+
+	@Test
+	public void testCreateAndReadCheckEveryMethod() {
+		final TextByteArrayValueDeserializer deserializer = TextByteArrayValueDeserializerTest
+				.create("TRUE;-7;1;2;3;4;5.5;6.6;a line of text with a semicolon(\\;);1");
+
+		Assert.assertEquals("boolean error", true, deserializer.getBoolean());
+		Assert.assertEquals("byte error", -7, deserializer.getByte());
+		Assert.assertEquals("char error", '1', deserializer.getChar());
+		Assert.assertEquals("short error", 2, deserializer.getShort());
+		Assert.assertEquals("int error", 3, deserializer.getInt());
+		Assert.assertEquals("long error", 4, deserializer.getLong());
+		Assert.assertEquals("float error", 5.5f, deserializer.getFloat(), 0.0f);
+		Assert.assertEquals("double error", 6.6, deserializer.getDouble(), 0.0);
+		Assert.assertEquals("string error", "a line of text with a semicolon(\\;)", deserializer.getString());
+		Assert.assertEquals("enum error", ETestExample.YES, deserializer.getEnumeration(ETestExample.class));
+	}
+
+	@Test
+	public void testLineSeparatorEndsLastField() {
+		final TextByteArrayValueDeserializer deserializer = TextByteArrayValueDeserializerTest.create("42;text\\\n$1;2\r\n");
+
+		Assert.assertEquals("int error", 42, deserializer.getInt());
+		Assert.assertEquals("string error", "text\\", deserializer.getString());
+		Assert.assertEquals("position error", 8, deserializer.getPosition());
+		Assert.assertEquals("empty field error", "", deserializer.getString());
+	}
+
+	@Test
+	public void testCharacterIsLastField() {
+		final byte[] bytes = "1;x\n2;é\r\n;".getBytes(StandardCharsets.UTF_8);
+		final TextByteArrayValueDeserializer deserializer = TextByteArrayValueDeserializer.create().wrap(bytes, 0, bytes.length);
+
+		Assert.assertEquals("int error", 1, deserializer.getInt());
+		Assert.assertEquals("char error", 'x', deserializer.getChar());
+		Assert.assertEquals("position error", 3, deserializer.getPosition());
+
+		deserializer.wrap(bytes, 4, bytes.length);
+		Assert.assertEquals("int error", 2, deserializer.getInt());
+		Assert.assertEquals("char error", 'é', deserializer.getChar());
+		Assert.assertEquals("position error", 8, deserializer.getPosition());
+
+		deserializer.wrap(bytes, 10, bytes.length);
+		Assert.assertEquals("char error", ';', deserializer.getChar());
+		Assert.assertEquals("position error", 11, deserializer.getPosition());
+	}
+
+	@Test
+	public void testLastFieldEmpty() {
+		final TextByteArrayValueDeserializer deserializer = TextByteArrayValueDeserializerTest.create("text;");
+
+		Assert.assertEquals("string error", "text", deserializer.getString());
+		Assert.assertEquals("string error", "", deserializer.getString());
+	}
+
+	@Test
+	public void testNumbersAreParsedLikeTheJdk() {
+		final String[] longs = { "0", "-0", "+17", "9223372036854775807", "-9223372036854775808", "1600000000000000000", "0007" };
+		for (final String value : longs) {
+			Assert.assertEquals(value, Long.parseLong(value), TextByteArrayValueDeserializerTest.create(value).getLong());
+		}
+
+		final String[] doubles = { "0.0", "-0.0", "1.0E10", "3.141592653589793", "0.1", "123456.789", "1e-300", "NaN", "-Infinity", ".5", "5.", "+2.5",
+			"4.9E-324", "0.30000000000000004", };
+		for (final String value : doubles) {
+			Assert.assertEquals(value, Double.doubleToLongBits(Double.parseDouble(value)),
+					Double.doubleToLongBits(TextByteArrayValueDeserializerTest.create(value).getDouble()));
+			Assert.assertEquals(value, Float.floatToIntBits(Float.parseFloat(value)),
+					Float.floatToIntBits(TextByteArrayValueDeserializerTest.create(value).getFloat()));
+		}
+	}
+
+	@Test
+	public void testNumberOutOfRange() {
+		final String[] values = { "9223372036854775808", "2147483648", "32768", "128" };
+		final TextByteArrayValueDeserializer deserializer = TextByteArrayValueDeserializerTest.create(String.join(";", values));
+		try {
+			deserializer.getLong();
+			Assert.fail("getLong should not accept " + values[0]);
+		} catch (final NumberFormatException e) { // NOPMD (expected)
+			// expected
+		}
+		try {
+			deserializer.getInt();
+			Assert.fail("getInt should not accept " + values[1]);
+		} catch (final NumberFormatException e) { // NOPMD (expected)
+			// expected
+		}
+		try {
+			deserializer.getShort();
+			Assert.fail("getShort should not accept " + values[2]);
+		} catch (final NumberFormatException e) { // NOPMD (expected)
+			// expected
+		}
+		try {
+			deserializer.getByte();
+			Assert.fail("getByte should not accept " + values[3]);
+		} catch (final NumberFormatException e) { // NOPMD (expected)
+			// expected
+		}
+	}
+
+	@Test
+	public void testWrongValueInField() {
+		final TextByteArrayValueDeserializer deserializer = TextByteArrayValueDeserializerTest.create("text;12number");
+
+		Assert.assertEquals("string error", "text", deserializer.getString());
+		try {
+			deserializer.getInt();
+			Assert.fail("getInt should never return a value for non-number strings.");
+		} catch (final NumberFormatException e) {
+			Assert.assertTrue(true);
+		}
+	}
+
+	@Test
+	public void testRepeatedStringsAreShared() {
+		final TextByteArrayValueDeserializer deserializer = TextByteArrayValueDeserializerTest.create("café;other;café");
+
+		final String first = deserializer.getString();
+		Assert.assertEquals("string error", "café", first);
+		Assert.assertEquals("string error", "other", deserializer.getString());
+		Assert.assertSame("cached string expected", first, deserializer.getString());
+	}
+}
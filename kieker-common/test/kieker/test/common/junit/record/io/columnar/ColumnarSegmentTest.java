@@ -0,0 +1,184 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.common.junit.record.io.columnar;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.flow.trace.operation.AfterOperationEvent;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.common.record.io.columnar.ColumnarSegmentReader;
+import kieker.common.record.io.columnar.ColumnarSegmentWriter;
+import kieker.common.record.misc.KiekerMetadataRecord;
+import kieker.common.record.system.LoadAverageRecord;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Test the columnar segment writer and reader.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ColumnarSegmentTest extends AbstractKiekerTest { // NOCS NOPMD test, no constructor needed
+
+	private static List<IMonitoringRecord> createRecords() {
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		records.add(new KiekerMetadataRecord("1.15", "controller", "host", 1, true, 0, "NANOSECONDS", 0));
+		for (int trace = 0; trace < 100; trace++) {
+			final String operation = "public void kieker.Example.operation" + (trace % 3) + "()";
+			records.add(new BeforeOperationEvent(1000L * trace, trace, 0, operation, "kieker.Example"));
+			records.add(new LoadAverageRecord(1000L * trace, "host", 0.5 * trace, -1.25, Double.NaN));
+			records.add(new AfterOperationEvent((1000L * trace) + 500, trace, 1, operation, "kieker.Example"));
+		}
+		long loggingTimestamp = 1_600_000_000_000_000_000L;
+		for (final IMonitoringRecord record : records) {
+			record.setLoggingTimestamp(loggingTimestamp);
+			loggingTimestamp += 17;
+		}
+		return records;
+	}
+
+	private static byte[] write(final List<IMonitoringRecord> records, final int maxSegmentSize) throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final WritableByteChannel channel = Channels.newChannel(output);
+		final ColumnarSegmentWriter writer = new ColumnarSegmentWriter(maxSegmentSize);
+		writer.writeFileHeader(channel);
+		for (final IMonitoringRecord record : records) {
+			if (writer.add(record)) {
+				writer.writeSegment(channel);
+			}
+		}
+		writer.writeSegment(channel);
+		return output.toByteArray();
+	}
+
+	private static List<IMonitoringRecord> read(final InputStream input, final ColumnarSegmentReader reader) throws IOException {
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		reader.readFileHeader(input);
+		while (reader.readSegment(input, records)) { // NOPMD (empty while)
+			// read all segments
+		}
+		return records;
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		final List<IMonitoringRecord> records = ColumnarSegmentTest.createRecords();
+
+		for (final int maxSegmentSize : new int[] { 100, 1_000_000 }) {
+			final byte[] log = ColumnarSegmentTest.write(records, maxSegmentSize);
+			final List<IMonitoringRecord> readRecords = ColumnarSegmentTest.read(new ByteArrayInputStream(log), new ColumnarSegmentReader());
+
+			Assert.assertEquals("Wrong records for segment size " + maxSegmentSize, records, readRecords);
+			for (int i = 0; i < records.size(); i++) {
+				Assert.assertEquals("Wrong logging timestamp", records.get(i).getLoggingTimestamp(), readRecords.get(i).getLoggingTimestamp());
+			}
+		}
+	}
+
+	@Test
+	public void testProjection() throws IOException {
+		final List<IMonitoringRecord> records = ColumnarSegmentTest.createRecords();
+		final byte[] log = ColumnarSegmentTest.write(records, 1_000_000);
+
+		final CountingInputStream input = new CountingInputStream(new ByteArrayInputStream(log));
+		final List<IMonitoringRecord> readRecords = ColumnarSegmentTest.read(input,
+				new ColumnarSegmentReader(Arrays.asList("traceId", "timestamp", "operationSignature")));
+
+		Assert.assertEquals("Wrong number of records", records.size(), readRecords.size());
+		Assert.assertTrue("Projection must skip columns, read " + input.numBytesRead + " of " + log.length,
+				input.numBytesRead < (log.length / 2));
+		for (int i = 0; i < records.size(); i++) {
+			final IMonitoringRecord expected = records.get(i);
+			final IMonitoringRecord actual = readRecords.get(i);
+			Assert.assertEquals("Wrong record type", expected.getClass(), actual.getClass());
+			Assert.assertEquals("Wrong logging timestamp", expected.getLoggingTimestamp(), actual.getLoggingTimestamp());
+			if (expected instanceof BeforeOperationEvent) {
+				final BeforeOperationEvent expectedEvent = (BeforeOperationEvent) expected;
+				final BeforeOperationEvent actualEvent = (BeforeOperationEvent) actual;
+				Assert.assertEquals("Wrong timestamp", expectedEvent.getTimestamp(), actualEvent.getTimestamp());
+				Assert.assertEquals("Wrong trace id", expectedEvent.getTraceId(), actualEvent.getTraceId());
+				Assert.assertEquals("Wrong operation", expectedEvent.getOperationSignature(), actualEvent.getOperationSignature());
+				Assert.assertEquals("Class signature must not be read", "", actualEvent.getClassSignature());
+				Assert.assertEquals("Order index must not be read", 0, actualEvent.getOrderIndex());
+			}
+		}
+	}
+
+	@Test
+	public void testIncompleteSegment() throws IOException {
+		final List<IMonitoringRecord> records = ColumnarSegmentTest.createRecords();
+		final byte[] log = ColumnarSegmentTest.write(records, 1_000_000);
+
+		final ColumnarSegmentReader reader = new ColumnarSegmentReader();
+		final InputStream input = new ByteArrayInputStream(log, 0, log.length - 1);
+		reader.readFileHeader(input);
+		final List<IMonitoringRecord> readRecords = new ArrayList<>();
+
+		Assert.assertFalse("Incomplete segment must not be read", reader.readSegment(input, readRecords));
+		Assert.assertTrue("No records expected", readRecords.isEmpty());
+	}
+
+	@Test(expected = IOException.class)
+	public void testWrongFileHeader() throws IOException {
+		new ColumnarSegmentReader().readFileHeader(new ByteArrayInputStream(new byte[] { 0, 1, 2, 3, 4 }));
+	}
+
+	/**
+	 * Counts the bytes which are actually read, but not the skipped bytes.
+	 */
+	private static class CountingInputStream extends FilterInputStream {
+
+		private long numBytesRead;
+
+		public CountingInputStream(final InputStream input) {
+			super(input);
+		}
+
+		@Override
+		public int read() throws IOException {
+			final int value = super.read();
+			if (value >= 0) {
+				this.numBytesRead++;
+			}
+			return value;
+		}
+
+		@Override
+		public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+			final int bytesRead = super.read(bytes, offset, length);
+			if (bytesRead > 0) {
+				this.numBytesRead += bytesRead;
+			}
+			return bytesRead;
+		}
+	}
+}
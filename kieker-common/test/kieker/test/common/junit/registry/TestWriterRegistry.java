@@ -0,0 +1,144 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.common.junit.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.common.record.flow.trace.operation.PooledBeforeOperationEvent;
+import kieker.common.record.misc.EmptyRecord;
+import kieker.common.registry.IRegistryListener;
+import kieker.common.registry.writer.RecordTypeIdCache;
+import kieker.common.registry.writer.WriterRegistry;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the {@link WriterRegistry} and the {@link RecordTypeIdCache}.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class TestWriterRegistry extends AbstractKiekerTest {
+
+	/**
+	 * Default constructor.
+	 */
+	public TestWriterRegistry() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testIdsAreAssignedInOrder() {
+		final RecordingListener listener = new RecordingListener();
+		final WriterRegistry registry = new WriterRegistry(listener);
+
+		Assert.assertEquals(0, registry.getId("a"));
+		registry.register("b");
+		Assert.assertEquals(0, registry.getId("a"));
+		Assert.assertEquals(1, registry.getId("b"));
+		Assert.assertEquals(2, registry.getId("c"));
+
+		Assert.assertEquals(3, listener.values.size());
+		Assert.assertEquals("c", listener.values.get(2));
+	}
+
+	@Test
+	public void testConcurrentRegistration() throws Exception {
+		final int numThreads = 4;
+		final int numValues = 1000;
+		final RecordingListener listener = new RecordingListener();
+		final WriterRegistry registry = new WriterRegistry(listener);
+		final CountDownLatch startSignal = new CountDownLatch(1);
+		final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+
+		final List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < numThreads; t++) {
+			final Thread thread = new Thread() {
+				@Override
+				public void run() {
+					try {
+						startSignal.await();
+						for (int i = 0; i < numValues; i++) {
+							final String value = "value" + i;
+							final int id = registry.getId(value);
+							// the listener must have been notified before the id is handed out
+							Assert.assertEquals(value, listener.getValue(id));
+						}
+					} catch (final Throwable e) { // NOPMD NOCS (collect assertion errors)
+						errors.add(e);
+					}
+				}
+			};
+			threads.add(thread);
+			thread.start();
+		}
+		startSignal.countDown();
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+
+		Assert.assertEquals(Collections.emptyList(), errors);
+		Assert.assertEquals(numValues, listener.values.size());
+	}
+
+	@Test
+	public void testRecordTypeIdCache() {
+		final RecordingListener listener = new RecordingListener();
+		final RecordTypeIdCache cache = new RecordTypeIdCache(new WriterRegistry(listener));
+
+		final int beforeId = cache.getTypeId(new BeforeOperationEvent(1L, 1L, 0, "op()", "Class"));
+		final int emptyId = cache.getTypeId(new EmptyRecord());
+
+		Assert.assertEquals(beforeId, cache.getTypeId(new BeforeOperationEvent(2L, 2L, 1, "op()", "Class")));
+		Assert.assertEquals(emptyId, cache.getTypeId(new EmptyRecord()));
+		Assert.assertEquals(BeforeOperationEvent.class.getName(), listener.getValue(beforeId));
+		Assert.assertEquals(EmptyRecord.class.getName(), listener.getValue(emptyId));
+		// pooled records are registered under the name of the record type they stand in for
+		Assert.assertEquals(beforeId, cache.getTypeId(new PooledBeforeOperationEvent(null)));
+		Assert.assertEquals(2, listener.values.size());
+	}
+
+	/**
+	 * Records the registered values in the order of the notifications and checks that the ids are consecutive.
+	 */
+	private static final class RecordingListener implements IRegistryListener<String> {
+
+		private final List<String> values = new ArrayList<>();
+
+		public RecordingListener() {
+			// nothing to do
+		}
+
+		@Override
+		public synchronized void onNewRegistryEntry(final String value, final int id) {
+			Assert.assertEquals(this.values.size(), id);
+			this.values.add(value);
+		}
+
+		public synchronized String getValue(final int id) {
+			return this.values.get(id);
+		}
+	}
+}
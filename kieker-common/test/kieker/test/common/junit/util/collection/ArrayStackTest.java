@@ -0,0 +1,67 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.common.junit.util.collection;
+
+import java.util.NoSuchElementException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.util.collection.ArrayStack;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ArrayStackTest extends AbstractKiekerTest {
+
+	/**
+	 * Test class constructor.
+	 */
+	public ArrayStackTest() {
+		// No code necessary
+	}
+
+	@Test
+	public void testPushPop() {
+		final ArrayStack<Integer> stack = new ArrayStack<>(1);
+		Assert.assertTrue(stack.isEmpty());
+		Assert.assertNull(stack.peek());
+
+		for (int i = 0; i < 100; i++) {
+			stack.push(i);
+		}
+		Assert.assertEquals(100, stack.size());
+		Assert.assertEquals(Integer.valueOf(99), stack.peek());
+
+		for (int i = 99; i >= 0; i--) {
+			Assert.assertEquals(Integer.valueOf(i), stack.pop());
+		}
+		Assert.assertTrue(stack.isEmpty());
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testPopEmpty() {
+		final ArrayStack<Integer> stack = new ArrayStack<>();
+		stack.push(1);
+		stack.clear();
+		stack.pop();
+	}
+}
@@ -0,0 +1,134 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.common.junit.util.collection;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.util.collection.LongObjectHashMap;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class LongObjectHashMapTest extends AbstractKiekerTest {
+
+	/**
+	 * Test class constructor.
+	 */
+	public LongObjectHashMapTest() {
+		// No code necessary
+	}
+
+	@Test
+	public void testPutGetRemove() {
+		final LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+		Assert.assertNull(map.put(1L, "a"));
+		Assert.assertNull(map.put(-1L, "b"));
+		Assert.assertNull(map.put(0L, "c"));
+		Assert.assertEquals("a", map.put(1L, "d"));
+		Assert.assertEquals(3, map.size());
+
+		Assert.assertEquals("d", map.get(1L));
+		Assert.assertEquals("b", map.get(-1L));
+		Assert.assertEquals("c", map.get(0L));
+		Assert.assertNull(map.get(2L));
+		Assert.assertTrue(map.containsKey(0L));
+		Assert.assertFalse(map.containsKey(2L));
+
+		Assert.assertEquals("b", map.remove(-1L));
+		Assert.assertNull(map.remove(-1L));
+		Assert.assertEquals(2, map.size());
+
+		final long[] keys = map.keys();
+		Arrays.sort(keys);
+		Assert.assertArrayEquals(new long[] { 0L, 1L }, keys);
+
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertNull(map.get(1L));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullValue() {
+		new LongObjectHashMap<String>().put(1L, null);
+	}
+
+	/**
+	 * Compares the map with a {@link HashMap} for random operations on a small key range, which provokes long probe
+	 * sequences, wrap-arounds at the end of the arrays, and many removals with backward shifts.
+	 */
+	@Test
+	public void testRandomOperations() {
+		final LongObjectHashMap<Long> map = new LongObjectHashMap<>(4);
+		final Map<Long, Long> reference = new HashMap<>(); // NOPMD (HashMap is the reference implementation)
+		final Random random = new Random(42);
+
+		for (int i = 0; i < 200_000; i++) {
+			final long key = random.nextInt(512) * 1024L; // identical low bits
+			final int operation = random.nextInt(3);
+			if (operation == 0) {
+				Assert.assertEquals(reference.remove(key), map.remove(key));
+			} else {
+				final Long value = Long.valueOf(i);
+				Assert.assertEquals(reference.put(key, value), map.put(key, value));
+			}
+			Assert.assertEquals(reference.size(), map.size());
+		}
+
+		for (long key = 0; key < (512 * 1024L); key += 1024L) {
+			Assert.assertEquals(reference.get(key), map.get(key));
+		}
+	}
+
+	/**
+	 * Opens and closes consecutive trace ids of four JVMs in FIFO order, like a trace reconstruction does, and compares
+	 * the map with a {@link HashMap} while it grows and shrinks.
+	 */
+	@Test
+	public void testConsecutiveKeysRemovedInInsertionOrder() {
+		final LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+		final Map<Long, Long> reference = new HashMap<>(); // NOPMD (HashMap is the reference implementation)
+		final long[] prefixes = { 0L, 12_345L << 48, -1L << 48, 42L << 32 };
+		final int openTraces = 10_000;
+
+		for (int i = 0; i < 100_000; i++) {
+			final long key = prefixes[i % prefixes.length] + (i / prefixes.length);
+			final Long value = Long.valueOf(i);
+			Assert.assertEquals(reference.put(key, value), map.put(key, value));
+			if (i >= openTraces) {
+				final int closed = i - openTraces;
+				final long closedKey = prefixes[closed % prefixes.length] + (closed / prefixes.length);
+				Assert.assertEquals(reference.remove(closedKey), map.remove(closedKey));
+			}
+		}
+
+		Assert.assertEquals(reference.size(), map.size());
+		for (final Map.Entry<Long, Long> entry : reference.entrySet()) {
+			Assert.assertEquals(entry.getValue(), map.get(entry.getKey()));
+		}
+	}
+}
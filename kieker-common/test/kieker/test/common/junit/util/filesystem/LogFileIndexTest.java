@@ -0,0 +1,125 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.common.junit.util.filesystem;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.misc.EmptyRecord;
+import kieker.common.util.filesystem.LogFileIndex;
+import kieker.common.util.filesystem.LogFileIndexWriter;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class LogFileIndexTest extends AbstractKiekerTest {
+
+	private static final int BLOCK_SIZE = 100;
+	private static final int RECORD_SIZE = 10;
+
+	@Rule
+	public final TemporaryFolder tmpFolder = new TemporaryFolder(); // NOCS (@Rule must be public)
+
+	/**
+	 * Test class constructor.
+	 */
+	public LogFileIndexTest() {
+		// No code necessary
+	}
+
+	@Test
+	public void testBlocks() throws IOException {
+		final LogFileIndex index = this.writeIndex(1050);
+
+		final List<LogFileIndex.Block> blocks = index.getBlocks();
+		Assert.assertEquals(11, blocks.size());
+		for (int i = 0; i < 10; i++) {
+			final LogFileIndex.Block block = blocks.get(i);
+			Assert.assertEquals((long) i * BLOCK_SIZE * RECORD_SIZE, block.getOffset());
+			Assert.assertEquals(BLOCK_SIZE * RECORD_SIZE, block.getLength());
+			Assert.assertEquals(BLOCK_SIZE, block.getRecords());
+			Assert.assertEquals((i * BLOCK_SIZE) + 1000L, block.getMinTimestamp());
+			Assert.assertEquals((i * BLOCK_SIZE) + 1099L, block.getMaxTimestamp());
+		}
+		Assert.assertEquals(50, blocks.get(10).getRecords());
+	}
+
+	@Test
+	public void testFindBlocksByTime() throws IOException {
+		final LogFileIndex index = this.writeIndex(1000);
+
+		Assert.assertEquals(10, index.findBlocks(Long.MIN_VALUE, Long.MAX_VALUE, null).size());
+		final List<LogFileIndex.Block> blocks = index.findBlocks(1250, 1300, null);
+		Assert.assertEquals(2, blocks.size());
+		Assert.assertEquals(1200, blocks.get(0).getMinTimestamp());
+		Assert.assertEquals(1300, blocks.get(1).getMinTimestamp());
+		Assert.assertTrue(index.findBlocks(0, 999, null).isEmpty());
+	}
+
+	@Test
+	public void testFindBlocksByTraceId() throws IOException {
+		final LogFileIndex index = this.writeIndex(1000);
+
+		// every 10 consecutive records belong to one trace
+		final List<LogFileIndex.Block> blocks = index.findBlocks(Long.MIN_VALUE, Long.MAX_VALUE, new long[] { 42 });
+		Assert.assertTrue(blocks.contains(index.getBlocks().get(4)));
+		// the bloom filters may report a few false positives
+		Assert.assertTrue(blocks.size() <= 2);
+		Assert.assertTrue(index.findBlocks(Long.MIN_VALUE, Long.MAX_VALUE, new long[] { 12345 }).size() <= 1);
+	}
+
+	@Test
+	public void testIncompleteBlockIsIgnored() throws IOException {
+		final Path indexFile = this.tmpFolder.getRoot().toPath().resolve("kieker-1.bin.idx");
+		final LogFileIndexWriter writer = new LogFileIndexWriter(indexFile, BLOCK_SIZE);
+		for (int i = 0; i < (2 * BLOCK_SIZE); i++) {
+			writer.add(new EmptyRecord(), i * RECORD_SIZE, (i + 1) * RECORD_SIZE);
+		}
+		writer.close();
+		// cut off a part of the last block
+		try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 1);
+		}
+
+		Assert.assertEquals(1, LogFileIndex.read(indexFile).getBlocks().size());
+	}
+
+	private LogFileIndex writeIndex(final int records) throws IOException {
+		final Path indexFile = this.tmpFolder.getRoot().toPath().resolve("kieker-1.bin.idx");
+		final LogFileIndexWriter writer = new LogFileIndexWriter(indexFile, BLOCK_SIZE);
+		for (int i = 0; i < records; i++) {
+			final OperationExecutionRecord record = new OperationExecutionRecord("op", "session", i / 10, i, i + 1, "host", 0, 0);
+			record.setLoggingTimestamp(1000 + i);
+			writer.add(record, i * RECORD_SIZE, (i + 1) * RECORD_SIZE);
+		}
+		writer.close();
+		return LogFileIndex.read(indexFile);
+	}
+}
@@ -143,6 +143,24 @@ public class VariableLengthEncodingTest {
 		Assert.assertEquals(expected, actual);
 	}
 
+	/**
+	 * Tests encoding and decoding of zig-zag encoded long values.
+	 */
+	@Test
+	public void testEncodeDecodeZigZagLong() {
+		final long[] values = { 0L, 1L, -1L, 63L, -64L, 1L << 40, Long.MAX_VALUE, Long.MIN_VALUE };
+		final ByteBuffer buffer = ByteBuffer.allocate(10 * values.length);
+		for (final long value : values) {
+			VariableLengthEncoding.encodeLong(VariableLengthEncoding.zigZagEncode(value), buffer);
+		}
+		Assert.assertEquals("small negative values must be mapped to small values", 127L, VariableLengthEncoding.zigZagEncode(-64L));
+
+		buffer.flip();
+		for (final long value : values) {
+			Assert.assertEquals(value, VariableLengthEncoding.zigZagDecode(VariableLengthEncoding.decodeLong(buffer)));
+		}
+	}
+
 	private static byte[] asByteArray(final int... values) {
 		final byte[] data = new byte[values.length]; // NOPMD plural not relevant
 
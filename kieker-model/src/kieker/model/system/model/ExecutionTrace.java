@@ -17,14 +17,16 @@
 package kieker.model.system.model;
 
 import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.SortedSet;
-import java.util.Stack;
-import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicReference;
 
 import kieker.common.util.dataformat.LoggingTimestampConverter;
@@ -34,6 +36,11 @@ import kieker.model.system.model.exceptions.InvalidTraceException;
  * This class is a container for a whole trace of executions (represented as
  * instances of {@link Execution}).
  *
+ * The executions are appended to an array and only sorted (by eoi and ess, see
+ * {@link #createExecutionTraceComparator()}) when they are read in order. Once a
+ * trace is complete, it can be {@link #seal() sealed}. Afterwards, no executions
+ * can be added and the trace is read without locking.
+ *
  * Note that no assumptions about the {@link java.util.concurrent.TimeUnit} used
  * for the timestamps are made.
  *
@@ -43,14 +50,27 @@ import kieker.model.system.model.exceptions.InvalidTraceException;
  */
 public class ExecutionTrace extends AbstractTrace {
 
+	private static final Comparator<Execution> EXECUTION_COMPARATOR = ExecutionTrace.createExecutionTraceComparator();
+	private static final int INITIAL_CAPACITY = 16;
+
 	private final AtomicReference<MessageTrace> messageTrace = new AtomicReference<>();
 	private int minEoi = -1;
 	private int maxEoi = -1;
 	private long minTin = -1;
 	private long maxTout = -1;
 	private int maxEss = -1;
-	private final SortedSet<Execution> set = new TreeSet<>(ExecutionTrace.createExecutionTraceComparator());
-	private final SortedSet<Execution> unmodifiableExecutions = Collections.unmodifiableSortedSet(this.set);
+
+	/** executions in the order of their insertion; sorted and without duplicates if {@link #sorted} holds. */
+	private Execution[] executions = new Execution[INITIAL_CAPACITY];
+	private int size;
+	private boolean sorted = true;
+	/** the first execution with respect to the comparator, which is known without sorting. */
+	private Execution firstExecution;
+	/** sorted copy of the executions, which is never modified; <code>null</code> after an execution has been added. */
+	private Execution[] sortedExecutions = new Execution[0];
+	private volatile boolean sealed;
+
+	private final SortedSet<Execution> unmodifiableExecutions = new ExecutionSet(null, null);
 
 	/**
 	 * Creates a new instance of this class using the given parameters.
@@ -84,9 +104,14 @@ public class ExecutionTrace extends AbstractTrace {
 	 *             If the traceId of the passed Execution object
 	 *             is not the same as the traceId of this
 	 *             ExecutionTrace object.
+	 * @throws IllegalStateException
+	 *             If the trace has been sealed.
 	 */
 	public void add(final Execution execution) throws InvalidTraceException {
 		synchronized (this) {
+			if (this.sealed) {
+				throw new IllegalStateException("Cannot add an execution to the sealed trace " + this.getTraceId());
+			}
 			if (this.getTraceId() != execution.getTraceId()) {
 				throw new InvalidTraceException("TraceId of new record (" + execution.getTraceId()
 						+ ") differs from Id of this trace (" + this.getTraceId() + ")");
@@ -106,12 +131,99 @@ public class ExecutionTrace extends AbstractTrace {
 			if (execution.getEss() > this.maxEss) {
 				this.maxEss = execution.getEss();
 			}
-			this.set.add(execution);
+			this.append(execution);
 			// Invalidate the current message trace representation
 			this.messageTrace.set(null);
 		}
 	}
 
+	private void append(final Execution execution) {
+		if ((this.size > 0) && this.sorted) {
+			final int order = EXECUTION_COMPARATOR.compare(this.executions[this.size - 1], execution);
+			if (order == 0) { // the trace contains the execution already
+				return;
+			}
+			this.sorted = order < 0;
+		}
+		if ((this.firstExecution == null) || (EXECUTION_COMPARATOR.compare(execution, this.firstExecution) < 0)) {
+			this.firstExecution = execution;
+		}
+		if (this.size == this.executions.length) {
+			this.executions = Arrays.copyOf(this.executions, this.size * 2);
+		}
+		this.executions[this.size++] = execution;
+		this.sortedExecutions = null;
+	}
+
+	/**
+	 * Seals this trace. Afterwards, executions can no longer be added and all read
+	 * methods work without locking. Sealing a sealed trace has no effect.
+	 *
+	 * @since 1.15
+	 */
+	public void seal() {
+		synchronized (this) {
+			this.sortExecutions();
+			this.executions = null; // NOPMD (the sorted copy is all we need from now on)
+			this.sealed = true;
+		}
+	}
+
+	/**
+	 * Returns whether the trace has been {@link #seal() sealed}.
+	 *
+	 * @return true if no executions can be added to this trace
+	 *
+	 * @since 1.15
+	 */
+	public boolean isSealed() {
+		return this.sealed;
+	}
+
+	/**
+	 * Returns the executions in the order of the comparator. The returned array must not be modified.
+	 */
+	private Execution[] getSortedExecutions() {
+		if (this.sealed) {
+			return this.sortedExecutions;
+		}
+		synchronized (this) {
+			return this.sortExecutions();
+		}
+	}
+
+	/**
+	 * Sorts the executions, removes duplicates, and returns a copy. Must be called while synchronizing on this trace.
+	 */
+	private Execution[] sortExecutions() {
+		if (this.sortedExecutions == null) {
+			if (!this.sorted) {
+				// the sort is stable, hence we keep the execution added first like a set does
+				Arrays.sort(this.executions, 0, this.size, EXECUTION_COMPARATOR);
+				int unique = 1;
+				for (int i = 1; i < this.size; i++) {
+					if (EXECUTION_COMPARATOR.compare(this.executions[unique - 1], this.executions[i]) != 0) {
+						this.executions[unique++] = this.executions[i];
+					}
+				}
+				Arrays.fill(this.executions, unique, this.size, null);
+				this.size = unique;
+				this.sorted = true;
+			}
+			this.sortedExecutions = Arrays.copyOf(this.executions, this.size);
+		}
+		return this.sortedExecutions;
+	}
+
+	private Execution getFirstExecution() {
+		if (this.sealed) {
+			return (this.sortedExecutions.length > 0) ? this.sortedExecutions[0] : null; // NOCS
+		}
+		synchronized (this) {
+			return this.firstExecution;
+		}
+	}
+
 	/**
 	 * Returns the message trace representation for this trace.<br/>
 	 *
@@ -129,77 +241,89 @@ public class ExecutionTrace extends AbstractTrace {
 	 *             or invalid.
 	 */
 	public MessageTrace toMessageTrace(final Execution rootExecution) throws InvalidTraceException {
+		if (this.sealed) {
+			final MessageTrace mt = this.messageTrace.get();
+			if (mt != null) {
+				return mt;
+			}
+			// concurrent callers may both create the message trace, but all of them return the first one
+			this.messageTrace.compareAndSet(null, this.createMessageTrace(rootExecution, this.sortedExecutions));
+			return this.messageTrace.get();
+		}
 		synchronized (this) {
 			MessageTrace mt = this.messageTrace.get();
 			if (mt != null) {
 				return mt;
 			}
+			mt = this.createMessageTrace(rootExecution, this.sortExecutions());
+			this.messageTrace.set(mt);
+			return mt;
+		}
+	}
 
-			final List<AbstractMessage> mSeq = new ArrayList<>();
-			final Stack<AbstractMessage> curStack = new Stack<>();
-			final Iterator<Execution> eSeqIt = this.set.iterator();
-
-			Execution prevE = rootExecution;
-			int prevEoi = -1;
-			boolean expectingEntryCall = true; // used to make that entry call found in first iteration
-			while (eSeqIt.hasNext()) {
-				final Execution curE = eSeqIt.next();
-				if (expectingEntryCall && (curE.getEss() != 0)) {
-					final InvalidTraceException ex = new InvalidTraceException("First execution must have ess "
-							+ "0 (found " + curE.getEss() + ")\n Causing execution: " + curE);
-					// don't log and throw
-					// LOG.error("Found invalid trace:" + ex.getMessage()); // don't need the stack
-					// trace here
-					throw ex;
-				}
-				expectingEntryCall = false; // now we're happy
-				if (prevEoi != (curE.getEoi() - 1)) {
-					final InvalidTraceException ex = new InvalidTraceException(
-							"Eois must increment by 1 --" + "but found sequence <" + prevEoi + "," + curE.getEoi() + ">"
-									+ "(Execution: " + curE + ")");
-					// don't log and throw
-					// LOG.error("Found invalid trace:" + ex.getMessage()); // don't need the stack
-					// trace here
-					throw ex;
-				}
-				prevEoi = curE.getEoi();
-
-				// First, we might need to clean up the stack for the next execution callMessage
-				if ((!prevE.equals(rootExecution)) && (prevE.getEss() >= curE.getEss())) {
-					Execution curReturnReceiver; // receiverComponentName of return message
-					while (curStack.size() > curE.getEss()) {
-						final AbstractMessage poppedCall = curStack.pop();
-						prevE = poppedCall.getReceivingExecution();
-						curReturnReceiver = poppedCall.getSendingExecution();
-						final AbstractMessage m = new SynchronousReplyMessage(prevE.getTout(), prevE,
-								curReturnReceiver);
-						mSeq.add(m);
-						prevE = curReturnReceiver;
-					}
+	private MessageTrace createMessageTrace(final Execution rootExecution, final Execution[] eSeq) throws InvalidTraceException {
+		// each execution results in a call and a reply message
+		final List<AbstractMessage> mSeq = new ArrayList<>(2 * eSeq.length);
+		final Deque<AbstractMessage> curStack = new ArrayDeque<>();
+
+		Execution prevE = rootExecution;
+		int prevEoi = -1;
+		boolean expectingEntryCall = true; // used to make that entry call found in first iteration
+		for (int i = 0; i < eSeq.length; i++) {
+			final Execution curE = eSeq[i];
+			if (expectingEntryCall && (curE.getEss() != 0)) {
+				final InvalidTraceException ex = new InvalidTraceException("First execution must have ess "
+						+ "0 (found " + curE.getEss() + ")\n Causing execution: " + curE);
+				// don't log and throw
+				// LOG.error("Found invalid trace:" + ex.getMessage()); // don't need the stack
+				// trace here
+				throw ex;
+			}
+			expectingEntryCall = false; // now we're happy
+			if (prevEoi != (curE.getEoi() - 1)) {
+				final InvalidTraceException ex = new InvalidTraceException(
+						"Eois must increment by 1 --" + "but found sequence <" + prevEoi + "," + curE.getEoi() + ">"
+								+ "(Execution: " + curE + ")");
+				// don't log and throw
+				// LOG.error("Found invalid trace:" + ex.getMessage()); // don't need the stack
+				// trace here
+				throw ex;
+			}
+			prevEoi = curE.getEoi();
+
+			// First, we might need to clean up the stack for the next execution callMessage
+			if ((!prevE.equals(rootExecution)) && (prevE.getEss() >= curE.getEss())) {
+				Execution curReturnReceiver; // receiverComponentName of return message
+				while (curStack.size() > curE.getEss()) {
+					final AbstractMessage poppedCall = curStack.pop();
+					prevE = poppedCall.getReceivingExecution();
+					curReturnReceiver = poppedCall.getSendingExecution();
+					final AbstractMessage m = new SynchronousReplyMessage(prevE.getTout(), prevE,
+							curReturnReceiver);
+					mSeq.add(m);
+					prevE = curReturnReceiver;
 				}
+			}
 
-				final SynchronousCallMessage callMessage = this.createCallMessage(rootExecution, prevE, curE);
-				mSeq.add(callMessage);
-				curStack.push(callMessage);
-
-				if (!eSeqIt.hasNext()) { // empty stack completely, since no more executions
-					Execution curReturnReceiver; // receiverComponentName of return message
-					while (!curStack.empty()) {
-						final AbstractMessage poppedCall = curStack.pop();
-						prevE = poppedCall.getReceivingExecution();
-						curReturnReceiver = poppedCall.getSendingExecution();
-						final AbstractMessage m = new SynchronousReplyMessage(prevE.getTout(), prevE,
-								curReturnReceiver);
-						mSeq.add(m);
-						prevE = curReturnReceiver;
-					}
+			final SynchronousCallMessage callMessage = this.createCallMessage(rootExecution, prevE, curE);
+			mSeq.add(callMessage);
+			curStack.push(callMessage);
+
+			if (i == (eSeq.length - 1)) { // empty stack completely, since no more executions
+				Execution curReturnReceiver; // receiverComponentName of return message
+				while (!curStack.isEmpty()) {
+					final AbstractMessage poppedCall = curStack.pop();
+					prevE = poppedCall.getReceivingExecution();
+					curReturnReceiver = poppedCall.getSendingExecution();
+					final AbstractMessage m = new SynchronousReplyMessage(prevE.getTout(), prevE,
+							curReturnReceiver);
+					mSeq.add(m);
+					prevE = curReturnReceiver;
 				}
-				prevE = curE; // prepair next loop
 			}
-			mt = new MessageTrace(this.getTraceId(), this.getSessionId(), mSeq);
-			this.messageTrace.set(mt);
-			return mt;
+			prevE = curE; // prepair next loop
 		}
+		return new MessageTrace(this.getTraceId(), this.getSessionId(), mSeq);
 	}
 
 	private SynchronousCallMessage createCallMessage(final Execution rootExecution, final Execution prevE,
@@ -230,20 +354,16 @@ public class ExecutionTrace extends AbstractTrace {
 	/**
 	 * Returns a sorted set (unmodifiable) of {@link Execution}s in this trace.
 	 *
-	 * Note that the returned data structure is the (wrapped )internal data
-	 * structure of this {@link ExecutionTrace} object, to which further elements
-	 * may be added by the
-	 * {@link kieker.model.system.model.ExecutionTrace#add(Execution)} method.
-	 * Consider to create a copy of the returned list, while synchronizing on this
-	 * (i.e., the {@link ExecutionTrace}) object.
+	 * Note that the returned set is a view of this {@link ExecutionTrace}
+	 * object, to which further elements may be added by the
+	 * {@link kieker.model.system.model.ExecutionTrace#add(Execution)} method
+	 * unless the trace has been {@link #seal() sealed}. An iterator of the set
+	 * is not affected by later additions.
 	 *
 	 * @return the sorted set of {@link Execution}s in this trace
 	 */
 	public final SortedSet<Execution> getTraceAsSortedExecutionSet() {
-		// The justification why this works can be found in #1537.
-		synchronized (this) {
-			return this.unmodifiableExecutions;
-		}
+		return this.unmodifiableExecutions;
 	}
 
 	/**
@@ -253,9 +373,7 @@ public class ExecutionTrace extends AbstractTrace {
 	 * @return the length of this trace.
 	 */
 	public final int getLength() {
-		synchronized (this) {
-			return this.set.size();
-		}
+		return this.getSortedExecutions().length;
 	}
 
 	@Override
@@ -268,7 +386,7 @@ public class ExecutionTrace extends AbstractTrace {
 			strBuild.append("); maxTout=").append(this.maxTout);
 			strBuild.append(" (").append(LoggingTimestampConverter.convertLoggingTimestampToUTCString(this.maxTout));
 			strBuild.append("); maxEss=").append(this.maxEss).append("):\n");
-			for (final Execution e : this.set) {
+			for (final Execution e : this.sortExecutions()) {
 				strBuild.append('<');
 				strBuild.append(e.toString()).append(">\n");
 			}
@@ -283,6 +401,9 @@ public class ExecutionTrace extends AbstractTrace {
 	 * @return the maximum ess; -1 if the trace contains no executions.
 	 */
 	public int getMaxEss() {
+		if (this.sealed) {
+			return this.maxEss;
+		}
 		synchronized (this) {
 			return this.maxEss;
 		}
@@ -294,6 +415,9 @@ public class ExecutionTrace extends AbstractTrace {
 	 * @return the maximum eoi; -1 if the trace contains no executions.
 	 */
 	public int getMaxEoi() {
+		if (this.sealed) {
+			return this.maxEoi;
+		}
 		synchronized (this) {
 			return this.maxEoi;
 		}
@@ -305,6 +429,9 @@ public class ExecutionTrace extends AbstractTrace {
 	 * @return the minimum eoi; -1 if the trace contains no executions.
 	 */
 	public int getMinEoi() {
+		if (this.sealed) {
+			return this.minEoi;
+		}
 		synchronized (this) {
 			return this.minEoi;
 		}
@@ -320,8 +447,11 @@ public class ExecutionTrace extends AbstractTrace {
 	 * @return the duration of this trace.
 	 */
 	public long getDuration() {
+		if (this.sealed) {
+			return this.maxTout - this.minTin;
+		}
 		synchronized (this) {
-			return this.getMaxTout() - this.minTin;
+			return this.maxTout - this.minTin;
 		}
 	}
 
@@ -334,6 +464,9 @@ public class ExecutionTrace extends AbstractTrace {
 	 * @return the maxmum timestamp value; -1 if the trace contains no executions.
 	 */
 	public long getMaxTout() {
+		if (this.sealed) {
+			return this.maxTout;
+		}
 		synchronized (this) {
 			return this.maxTout;
 		}
@@ -348,6 +481,9 @@ public class ExecutionTrace extends AbstractTrace {
 	 * @return the minimum timestamp value; -1 if the trace contains no executions.
 	 */
 	public long getMinTin() {
+		if (this.sealed) {
+			return this.minTin;
+		}
 		synchronized (this) {
 			return this.minTin;
 		}
@@ -380,26 +516,184 @@ public class ExecutionTrace extends AbstractTrace {
 	 */
 	@Override
 	public boolean equals(final Object obj) {
-		synchronized (this) {
-			if (!(obj instanceof ExecutionTrace)) {
+		if (!(obj instanceof ExecutionTrace)) {
+			return false;
+		}
+		if (this == obj) {
+			return true;
+		}
+		final ExecutionTrace other = (ExecutionTrace) obj;
+		if (this.getTraceId() != other.getTraceId()) {
+			return false;
+		}
+		// Note that we are not using the Object's equals method but the
+		// comparator, like the sorted set of executions does.
+		final Execution[] thisExecutions = this.getSortedExecutions();
+		final Execution[] otherExecutions = other.getSortedExecutions();
+		if (thisExecutions.length != otherExecutions.length) {
+			return false;
+		}
+		for (int i = 0; i < thisExecutions.length; i++) {
+			if (EXECUTION_COMPARATOR.compare(thisExecutions[i], otherExecutions[i]) != 0) {
 				return false;
 			}
-			if (this == obj) {
-				return true;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the index of the first execution which is not smaller than the given one.
+	 */
+	private static int lowerBound(final Execution[] eSeq, final Execution execution) {
+		int low = 0;
+		int high = eSeq.length;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (EXECUTION_COMPARATOR.compare(eSeq[mid], execution) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
 			}
-			final ExecutionTrace other = (ExecutionTrace) obj;
-			if (this.getTraceId() != other.getTraceId()) {
+		}
+		return low;
+	}
+
+	/**
+	 * Unmodifiable sorted set view of the executions of the trace, optionally restricted to the
+	 * executions between two bounds.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 1.15
+	 */
+	private final class ExecutionSet extends AbstractSet<Execution> implements SortedSet<Execution> {
+
+		/** inclusive lower bound, or <code>null</code>. */
+		private final Execution fromElement;
+		/** exclusive upper bound, or <code>null</code>. */
+		private final Execution toElement;
+
+		public ExecutionSet(final Execution fromElement, final Execution toElement) {
+			this.fromElement = fromElement;
+			this.toElement = toElement;
+		}
+
+		private int fromIndex(final Execution[] eSeq) {
+			return (this.fromElement == null) ? 0 : ExecutionTrace.lowerBound(eSeq, this.fromElement); // NOCS
+		}
+
+		private int toIndex(final Execution[] eSeq) {
+			return (this.toElement == null) ? eSeq.length : ExecutionTrace.lowerBound(eSeq, this.toElement); // NOCS
+		}
+
+		@Override
+		public Iterator<Execution> iterator() {
+			final Execution[] eSeq = ExecutionTrace.this.getSortedExecutions();
+			final int from = this.fromIndex(eSeq);
+			final int to = Math.max(from, this.toIndex(eSeq));
+			return new Iterator<Execution>() {
+				private int index = from;
+
+				@Override
+				public boolean hasNext() {
+					return this.index < to;
+				}
+
+				@Override
+				public Execution next() {
+					if (this.index >= to) {
+						throw new NoSuchElementException();
+					}
+					return eSeq[this.index++];
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			final Execution[] eSeq = ExecutionTrace.this.getSortedExecutions();
+			return Math.max(0, this.toIndex(eSeq) - this.fromIndex(eSeq));
+		}
+
+		@Override
+		public boolean contains(final Object o) {
+			if (!(o instanceof Execution)) {
 				return false;
 			}
-			// Note that we are using a TreeSet which is not using the Object's equals
-			// method but the Set's Comparator, which we defined in this case.
-			return this.set.equals(other.set);
+			final Execution execution = (Execution) o;
+			if (!this.inRange(execution)) {
+				return false;
+			}
+			final Execution[] eSeq = ExecutionTrace.this.getSortedExecutions();
+			final int index = ExecutionTrace.lowerBound(eSeq, execution);
+			return (index < eSeq.length) && (EXECUTION_COMPARATOR.compare(eSeq[index], execution) == 0);
+		}
+
+		private boolean inRange(final Execution execution) {
+			return ((this.fromElement == null) || (EXECUTION_COMPARATOR.compare(execution, this.fromElement) >= 0))
+					&& ((this.toElement == null) || (EXECUTION_COMPARATOR.compare(execution, this.toElement) < 0));
+		}
+
+		@Override
+		public Comparator<? super Execution> comparator() {
+			return EXECUTION_COMPARATOR;
+		}
+
+		@Override
+		public SortedSet<Execution> subSet(final Execution from, final Execution to) {
+			return new ExecutionSet(this.max(this.fromElement, from), this.min(this.toElement, to));
+		}
+
+		@Override
+		public SortedSet<Execution> headSet(final Execution to) {
+			return new ExecutionSet(this.fromElement, this.min(this.toElement, to));
+		}
+
+		@Override
+		public SortedSet<Execution> tailSet(final Execution from) {
+			return new ExecutionSet(this.max(this.fromElement, from), this.toElement);
+		}
+
+		private Execution max(final Execution bound, final Execution execution) {
+			return ((bound == null) || (EXECUTION_COMPARATOR.compare(execution, bound) > 0)) ? execution : bound; // NOCS
+		}
+
+		private Execution min(final Execution bound, final Execution execution) {
+			return ((bound == null) || (EXECUTION_COMPARATOR.compare(execution, bound) < 0)) ? execution : bound; // NOCS
+		}
+
+		@Override
+		public Execution first() {
+			if ((this.fromElement == null) && (this.toElement == null)) {
+				// known without sorting, the reconstruction filters call this for every added execution
+				final Execution first = ExecutionTrace.this.getFirstExecution();
+				if (first == null) {
+					throw new NoSuchElementException();
+				}
+				return first;
+			}
+			final Execution[] eSeq = ExecutionTrace.this.getSortedExecutions();
+			final int from = this.fromIndex(eSeq);
+			if (from >= this.toIndex(eSeq)) {
+				throw new NoSuchElementException();
+			}
+			return eSeq[from];
+		}
+
+		@Override
+		public Execution last() {
+			final Execution[] eSeq = ExecutionTrace.this.getSortedExecutions();
+			final int to = this.toIndex(eSeq);
+			if (to <= this.fromIndex(eSeq)) {
+				throw new NoSuchElementException();
+			}
+			return eSeq[to - 1];
 		}
 	}
 
 	/**
-	 * Returns an instance of the {@link Comparator} used by the internal
-	 * {@link TreeSet} to compare {@link Execution}s.
+	 * Returns an instance of the {@link Comparator} used to sort the
+	 * {@link Execution}s of a trace.
 	 *
 	 * @return A comparator instance to compare execution objects.
 	 */
@@ -422,10 +716,8 @@ public class ExecutionTrace extends AbstractTrace {
 		}
 
 		/**
-		 * Note that this method is not only used by
-		 * {@link ExecutionTrace#add(Execution)} but also by
-		 * {@link TreeSet#equals(Object)} utilized in
-		 * {@link ExecutionTrace#equals(Object)}.
+		 * Note that this method is not only used to sort the executions of a
+		 * trace but also by {@link ExecutionTrace#equals(Object)}.
 		 *
 		 * @param e1
 		 *            The first execution object.
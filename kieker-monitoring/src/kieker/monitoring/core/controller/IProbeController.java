@@ -61,6 +61,32 @@ public interface IProbeController {
 	 */
 	public boolean isProbeActivated(final String signature);
 
+	/**
+	 * Returns the id of the probe with the given signature. The id is assigned once per signature and does not change
+	 * afterwards; it can be passed to {@link #isProbeActivated(int)} to test the probe without hashing the signature.
+	 *
+	 * @param signature
+	 *            signature of the probe
+	 * @return the id of the probe
+	 *
+	 * @since 1.15
+	 */
+	public int getProbeId(final String signature);
+
+	/**
+	 * Tests if a probe is active.
+	 *
+	 * This test is ignorant of the fact whether monitoring itself is
+	 * enabled/disabled/terminated.
+	 *
+	 * @param probeId
+	 *            id of the probe as returned by {@link #getProbeId(String)}
+	 * @return true if the probe with this id is active
+	 *
+	 * @since 1.15
+	 */
+	public boolean isProbeActivated(final int probeId);
+
 	/**
 	 * Overwrites the current list of patterns with a new pattern list.
 	 *
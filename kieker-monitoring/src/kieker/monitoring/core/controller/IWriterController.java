@@ -61,4 +61,14 @@ public interface IWriterController extends IMonitoringRecordReceiver {
 	 */
 	void waitForTermination(long timeoutInMs) throws InterruptedException;
 
+	/**
+	 * Returns the capacity of the per-thread pools which the probes may use to reuse their records
+	 * (see {@link kieker.common.record.IPooledRecord}).
+	 *
+	 * @return the capacity of a record pool or 0 if record pooling is disabled or not supported by the writer
+	 *
+	 * @since 1.15
+	 */
+	int getRecordPoolCapacity();
+
 }
@@ -322,6 +322,11 @@ public final class MonitoringController extends AbstractController implements IM
 		this.writerController.waitForTermination(timeoutInMs);
 	}
 
+	@Override
+	public int getRecordPoolCapacity() {
+		return this.writerController.getRecordPoolCapacity();
+	}
+
 	@Override
 	public final ScheduledSamplerJob schedulePeriodicSampler(final ISampler sampler, final long initialDelay,
 			final long period, final TimeUnit timeUnit) {
@@ -358,6 +363,16 @@ public final class MonitoringController extends AbstractController implements IM
 		return this.probeController.isProbeActivated(signature);
 	}
 
+	@Override
+	public int getProbeId(final String signature) {
+		return this.probeController.getProbeId(signature);
+	}
+
+	@Override
+	public boolean isProbeActivated(final int probeId) {
+		return this.probeController.isProbeActivated(probeId);
+	}
+
 	@Override
 	public void setProbePatternList(final List<String> patternList) {
 		this.probeController.setProbePatternList(patternList);
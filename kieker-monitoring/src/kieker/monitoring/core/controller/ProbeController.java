@@ -31,6 +31,7 @@ import java.nio.file.StandardOpenOption;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -65,6 +66,11 @@ public class ProbeController extends AbstractController implements IProbeControl
 	static final Logger LOGGER = LoggerFactory.getLogger(ProbeController.class); // NOPMD package for inner class
 	private static final String ENCODING = "UTF-8";
 
+	/** Entry of the activation table for a probe which has not been matched against the patterns yet. */
+	private static final byte UNKNOWN = 0;
+	private static final byte ACTIVATED = 1;
+	private static final byte DEACTIVATED = 2;
+
 	private final boolean enabled;
 	private final String configFilePathname;
 	private final boolean configFileUpdate;
@@ -77,6 +83,14 @@ public class ProbeController extends AbstractController implements IProbeControl
 	private final List<PatternEntry> patterns = new ArrayList<>(); // only accessed synchronized
 	private final Map<String, Map<String, List<String>>> patternListParameters = new ConcurrentHashMap<>();
 
+	private final ConcurrentMap<String, Integer> probeIds = new ConcurrentHashMap<>();
+	private final List<String> probeSignatures = new ArrayList<>(); // only accessed synchronized
+	/**
+	 * The activation state per probe id. Any change of the patterns replaces the table by an empty one (only while
+	 * synchronized) which invalidates all entries at once.
+	 */
+	private volatile byte[] activationTable = new byte[64]; // NOPMD (volatile array is replaced, not modified)
+
 	/**
 	 * Creates a new instance of this class using the given configuration to
 	 * initialize the class.
@@ -229,6 +243,47 @@ public class ProbeController extends AbstractController implements IProbeControl
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getProbeId(final String signature) {
+		final Integer probeId = this.probeIds.get(signature);
+		if (null != probeId) {
+			return probeId;
+		}
+		synchronized (this) {
+			Integer newProbeId = this.probeIds.get(signature);
+			if (null == newProbeId) {
+				newProbeId = this.probeSignatures.size();
+				this.probeSignatures.add(signature);
+				this.probeIds.put(signature, newProbeId);
+			}
+			return newProbeId;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isProbeActivated(final int probeId) {
+		if (this.enabled) {
+			final byte[] table = this.activationTable;
+			if (probeId < table.length) {
+				final byte state = table[probeId];
+				if (ACTIVATED == state) {
+					return true;
+				} else if (DEACTIVATED == state) {
+					return false;
+				}
+			}
+			return this.matchesPattern(probeId);
+		} else {
+			return true;
+		}
+	}
+
 	/**
 	 * Sets the list of probe patterns.
 	 *
@@ -247,6 +302,7 @@ public class ProbeController extends AbstractController implements IProbeControl
 		synchronized (this) {
 			this.patterns.clear();
 			this.signatureCache.clear();
+			this.activationTable = new byte[this.activationTable.length];
 			for (final String pattern : strPatternList) {
 				this.addToPatternEntryList(pattern);
 			}
@@ -402,14 +458,11 @@ public class ProbeController extends AbstractController implements IProbeControl
 	 */
 	private boolean matchesPattern(final String signature) {
 		synchronized (this) {
-			final ListIterator<PatternEntry> patternListIterator = this.patterns.listIterator(this.patterns.size());
-			while (patternListIterator.hasPrevious()) {
-				final PatternEntry patternEntry = patternListIterator.previous();
-				if (patternEntry.getPattern().matcher(signature).matches()) {
-					final boolean value = patternEntry.isActivated();
-					this.signatureCache.put(signature, value);
-					return value;
-				}
+			final PatternEntry patternEntry = this.findLastMatchingPattern(signature);
+			if (null != patternEntry) {
+				final boolean value = patternEntry.isActivated();
+				this.signatureCache.put(signature, value);
+				return value;
 			}
 		}
 		// Do not forget to remember this default value
@@ -418,6 +471,40 @@ public class ProbeController extends AbstractController implements IProbeControl
 		return true; // if nothing matches, the default is true!
 	}
 
+	/**
+	 * This method tests if the signature of the given probe matches a pattern and completes
+	 * accordingly the activation table.
+	 *
+	 * @param probeId
+	 *            The id of the probe to match.
+	 */
+	private boolean matchesPattern(final int probeId) {
+		synchronized (this) {
+			final PatternEntry patternEntry = this.findLastMatchingPattern(this.probeSignatures.get(probeId));
+			// if nothing matches, the default is true!
+			final boolean value = (null == patternEntry) || patternEntry.isActivated();
+
+			byte[] table = this.activationTable;
+			if (probeId >= table.length) {
+				table = Arrays.copyOf(table, Math.max(probeId + 1, table.length * 2));
+				this.activationTable = table;
+			}
+			table[probeId] = value ? ACTIVATED : DEACTIVATED; // NOCS (inline conditional)
+			return value;
+		}
+	}
+
+	private PatternEntry findLastMatchingPattern(final String signature) { // only called within synchronized
+		final ListIterator<PatternEntry> patternListIterator = this.patterns.listIterator(this.patterns.size());
+		while (patternListIterator.hasPrevious()) {
+			final PatternEntry patternEntry = patternListIterator.previous();
+			if (patternEntry.getPattern().matcher(signature).matches()) {
+				return patternEntry;
+			}
+		}
+		return null;
+	}
+
 	private boolean addPattern(final String strPattern, final boolean activated) {
 		if (!this.enabled) {
 			ProbeController.LOGGER.warn("Adapative Monitoring is disabled!");
@@ -426,6 +513,7 @@ public class ProbeController extends AbstractController implements IProbeControl
 		synchronized (this) {
 			// we must always clear the cache!
 			this.signatureCache.clear();
+			this.activationTable = new byte[this.activationTable.length];
 			final Pattern pattern;
 			try {
 				pattern = PatternParser.parseToPattern(strPattern);
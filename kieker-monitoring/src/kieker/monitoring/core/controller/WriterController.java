@@ -21,6 +21,7 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,6 +30,7 @@ import kieker.common.configuration.Configuration;
 import kieker.common.record.IMonitoringRecord;
 import kieker.monitoring.core.configuration.ConfigurationConstants;
 import kieker.monitoring.queue.BlockingQueueDecorator;
+import kieker.monitoring.queue.MpscRingBufferQueue;
 import kieker.monitoring.queue.behavior.BlockOnFailedInsertBehavior;
 import kieker.monitoring.queue.behavior.BypassQueueBehavior;
 import kieker.monitoring.queue.behavior.CountOnFailedInsertBehavior;
@@ -62,6 +64,21 @@ public final class WriterController extends AbstractController implements IWrite
 	public static final String RECORD_QUEUE_INSERT_BEHAVIOR = "RecordQueueInsertBehavior";
 	/** The fully qualified name of the queue to be used for the records. */
 	public static final String RECORD_QUEUE_FQN = "RecordQueueFQN";
+	/**
+	 * The name of the configuration determining the maximal number of records the writer thread drains from the
+	 * queue at once and passes as a batch to the writer.
+	 */
+	public static final String RECORD_QUEUE_BATCH_SIZE = "RecordQueueBatchSize";
+	/**
+	 * The name of the configuration determining how long (in microseconds) the writer thread waits at most for a batch
+	 * to fill up.
+	 */
+	public static final String RECORD_QUEUE_BATCH_MAX_WAIT = "RecordQueueBatchMaxWaitInUs";
+	/**
+	 * The name of the configuration determining the capacity of the per-thread pools of reusable records of the probes;
+	 * 0 disables record pooling.
+	 */
+	public static final String RECORD_POOL_CAPACITY = "RecordPoolCapacity";
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(WriterController.class);
 	/** Monitoring Writer. */
@@ -83,11 +100,8 @@ public final class WriterController extends AbstractController implements IWrite
 	private InsertBehavior<IMonitoringRecord> insertBehavior; // NOPMD (so far, cannot be made final due to the
 																// MonitoringController)
 
-	// private Disruptor<IMonitoringRecordEvent> disruptor;
-
-	// private RingBuffer<IMonitoringRecordEvent> ringBuffer;
-
-	// private int numInsertedRecords;
+	/** the capacity of the record pools; 0 if the writer does not support pooled records. */
+	private int recordPoolCapacity; // NOPMD (so far, cannot be made final due to the missing writer)
 
 	/**
 	 * Creates a new instance of this class using the given parameters.
@@ -122,7 +136,18 @@ public final class WriterController extends AbstractController implements IWrite
 			// throw new IllegalStateException("monitoringWriter may not be null");
 		}
 
-		this.monitoringWriterThread = new MonitoringWriterThread(this.monitoringWriter, this.writerQueue);
+		final int requestedRecordPoolCapacity = configuration.getIntProperty(WriterController.PREFIX + WriterController.RECORD_POOL_CAPACITY, 0);
+		if ((requestedRecordPoolCapacity > 0) && !this.monitoringWriter.supportsPooledRecords()) {
+			WriterController.LOGGER.warn("The writer {} does not support pooled records; ignoring {}{}={}", writerClassName,
+					WriterController.PREFIX, WriterController.RECORD_POOL_CAPACITY, requestedRecordPoolCapacity);
+		} else {
+			this.recordPoolCapacity = Math.max(0, requestedRecordPoolCapacity);
+		}
+
+		final int batchSize = configuration.getIntProperty(WriterController.PREFIX + WriterController.RECORD_QUEUE_BATCH_SIZE, 1);
+		final long batchMaxWaitInUs = configuration.getLongProperty(WriterController.PREFIX + WriterController.RECORD_QUEUE_BATCH_MAX_WAIT, 0);
+		this.monitoringWriterThread = new MonitoringWriterThread(this.monitoringWriter, this.writerQueue, batchSize,
+				TimeUnit.MICROSECONDS.toNanos(batchMaxWaitInUs));
 
 		int recordQueueInsertBehavior = configuration
 				.getIntProperty(WriterController.PREFIX + WriterController.RECORD_QUEUE_INSERT_BEHAVIOR);
@@ -143,13 +168,11 @@ public final class WriterController extends AbstractController implements IWrite
 			this.insertBehavior = new DoNotInsertBehavior<>();
 			break;
 		case 4:
-			// try {
-			// this.initDisruptor(configuration);
-			// } catch (final IOException e) {
-			// throw new IllegalStateException(e);
-			// }
-			// this.insertBehavior = new
-			// DisruptorInsertBehavior<IMonitoringRecord>(this.ringBuffer);
+			// formerly reserved for the Disruptor; the ring buffer is now selected via RecordQueueFQN
+			WriterController.LOGGER.warn("{}{}=4 is deprecated. Use {}{}={} with a blocking insert behavior instead.",
+					WriterController.PREFIX, WriterController.RECORD_QUEUE_INSERT_BEHAVIOR, WriterController.PREFIX,
+					WriterController.RECORD_QUEUE_FQN, MpscRingBufferQueue.class.getName());
+			this.insertBehavior = new BlockOnFailedInsertBehavior<>(this.writerQueue);
 			break;
 		case 5:
 			this.insertBehavior = new BypassQueueBehavior(this.monitoringWriter);
@@ -160,38 +183,6 @@ public final class WriterController extends AbstractController implements IWrite
 		}
 	}
 
-	// private void initDisruptor(final Configuration configuration) throws
-	// IOException {
-	// final EventFactory<IMonitoringRecordEvent> eventFactory = new
-	// NewRecordEventFactory();
-	// final int bufferSize = 1024;
-	// final ThreadFactory threadFactory = new ThreadFactory() {
-	// @Override
-	// public Thread newThread(final Runnable r) {
-	// final Thread thread = new Thread(r);
-	// thread.setDaemon(true);
-	// return thread;
-	// }
-	// };
-	//
-	// this.disruptor = new Disruptor<IMonitoringRecordEvent>(eventFactory,
-	// bufferSize, threadFactory);
-	//
-	// final SharedConnection connection = new SharedConnection(configuration);
-	// final EventHandler<? super IMonitoringRecordEvent> handler1 = new
-	// DisruptorTcpWriter(configuration, connection);
-	// // allowing more than one consumes breaks the assumptions that the records
-	// are sent in order of occurrence
-	// // final EventHandler<? super IMonitoringRecordEvent> handler2 = new
-	// DisruptorTcpWriter(configuration,
-	// connection);
-	//
-	// this.disruptor.handleEventsWith(handler1);
-	// this.disruptor.start();
-	//
-	// this.ringBuffer = this.disruptor.getRingBuffer();
-	// }
-
 	/**
 	 * @param queueFqn
 	 *            the fully qualified queue name
@@ -247,10 +238,6 @@ public final class WriterController extends AbstractController implements IWrite
 			this.monitoringWriterThread.terminate();
 		}
 
-		// if (this.disruptor != null) {
-		// this.disruptor.shutdown();
-		// }
-
 		// LOG.info("block durations: {}" + this.insertBehavior.toString());
 		// System.out.println("block durations: " + this.insertBehavior.toString());
 	}
@@ -261,6 +248,7 @@ public final class WriterController extends AbstractController implements IWrite
 				.append("WriterController:").append("\n\tQueue type: ").append(this.writerQueue.getClass())
 				.append("\n\tQueue capacity: ").append(this.queueCapacity)
 				.append("\n\tInsert behavior (a.k.a. QueueFullBehavior): ").append(this.insertBehavior.toString())
+				.append("\n\tRecord pool capacity: ").append(this.recordPoolCapacity)
 				.append('\n');
 		if (this.monitoringWriter != null) {
 			sb.append(this.monitoringWriter.toString());
@@ -289,6 +277,11 @@ public final class WriterController extends AbstractController implements IWrite
 		}
 	}
 
+	@Override
+	public int getRecordPoolCapacity() {
+		return this.recordPoolCapacity;
+	}
+
 	/**
 	 * Used in tests only.
 	 */
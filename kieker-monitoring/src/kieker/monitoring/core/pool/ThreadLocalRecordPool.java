@@ -0,0 +1,79 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.core.pool;
+
+import java.util.Queue;
+
+import kieker.common.record.IPooledRecord;
+import kieker.monitoring.queue.MpscRingBufferQueue;
+
+/**
+ * A pool of reusable records per thread. A probe acquires a record from the pool of its thread; the writer returns it by
+ * {@link IPooledRecord#release()} after the record has been serialized. Hence, the owning thread is the single consumer
+ * of its pool and the writer thread is a producer. If the pool of a thread is empty, e.g., because its records are
+ * still queued for writing, a new record is created. If the pool is full, a released record is simply dropped.
+ *
+ * @param <T>
+ *            the type of the pooled records
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public abstract class ThreadLocalRecordPool<T extends IPooledRecord> {
+
+	private final ThreadLocal<Queue<T>> threadLocalPool;
+
+	/**
+	 * Creates a new record pool.
+	 *
+	 * @param capacity
+	 *            the maximal number of idle records per thread
+	 */
+	public ThreadLocalRecordPool(final int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity must be positive, but was " + capacity);
+		}
+		this.threadLocalPool = new ThreadLocal<Queue<T>>() {
+			@Override
+			protected Queue<T> initialValue() {
+				return new MpscRingBufferQueue<>(capacity);
+			}
+		};
+	}
+
+	/**
+	 * @return an idle record of the calling thread's pool or a new record if the pool is empty
+	 */
+	public T acquire() {
+		final Queue<T> pool = this.threadLocalPool.get();
+		final T record = pool.poll();
+		if (record != null) {
+			return record;
+		}
+		return this.createRecord(pool);
+	}
+
+	/**
+	 * Creates a new record which returns itself to the given pool on release.
+	 *
+	 * @param pool
+	 *            the pool of the calling thread
+	 * @return a new record
+	 */
+	protected abstract T createRecord(Queue<? super T> pool);
+}
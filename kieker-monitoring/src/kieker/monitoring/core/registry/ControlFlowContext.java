@@ -0,0 +1,147 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.core.registry;
+
+/**
+ * The mutable control flow state (trace id, execution order index, and execution stack size) of a single thread.
+ * An instance is obtained once per probe entry by {@link ControlFlowRegistry#getThreadLocalContext()} and must only
+ * be used by the thread it belongs to. All values are primitives; hence, reading and updating the state does not
+ * allocate any objects.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public final class ControlFlowContext {
+
+	/** Marks an unset trace id. */
+	public static final long NO_TRACE_ID = -1L;
+	/** Marks an unset execution order index or execution stack size. */
+	private static final int UNSET = Integer.MIN_VALUE;
+
+	private long traceId = NO_TRACE_ID;
+	private int eoi = UNSET;
+	private int ess = UNSET;
+
+	ControlFlowContext() {
+		// only created by the ControlFlowRegistry
+	}
+
+	/**
+	 * @return <code>true</code> if a trace id is stored, i.e., the current execution is not the entry point of a trace
+	 */
+	public boolean hasTraceId() {
+		return this.traceId != NO_TRACE_ID;
+	}
+
+	/**
+	 * @return the trace id or {@link #NO_TRACE_ID} if no trace id is stored
+	 */
+	public long getTraceId() {
+		return this.traceId;
+	}
+
+	public void setTraceId(final long traceId) {
+		this.traceId = traceId;
+	}
+
+	/**
+	 * Starts a new trace with the given id, i.e., the current execution is the entry point with eoi 0 and ess 0.
+	 * The next execution gets eoi 1 and ess 1.
+	 *
+	 * @param newTraceId
+	 *            the id of the new trace
+	 */
+	public void startTrace(final long newTraceId) {
+		this.traceId = newTraceId;
+		this.eoi = 0;
+		this.ess = 1;
+	}
+
+	/**
+	 * Resets the trace id, the eoi, and the ess.
+	 */
+	public void reset() {
+		this.traceId = NO_TRACE_ID;
+		this.eoi = UNSET;
+		this.ess = UNSET;
+	}
+
+	/**
+	 * @return <code>true</code> if the eoi has been stored before
+	 */
+	public boolean hasEoi() {
+		return this.eoi != UNSET;
+	}
+
+	/**
+	 * @return the eoi or -1 if no eoi has been stored
+	 */
+	public int getEoi() {
+		return (this.eoi == UNSET) ? -1 : this.eoi; // NOCS (inline conditional)
+	}
+
+	public void setEoi(final int eoi) {
+		this.eoi = eoi;
+	}
+
+	/**
+	 * @return the incremented eoi or -1 if no eoi has been stored
+	 */
+	public int incrementAndGetEoi() {
+		if (this.eoi == UNSET) {
+			return -1;
+		}
+		return ++this.eoi;
+	}
+
+	/**
+	 * @return <code>true</code> if the ess has been stored before
+	 */
+	public boolean hasEss() {
+		return this.ess != UNSET;
+	}
+
+	/**
+	 * @return the ess or -1 if no ess has been stored
+	 */
+	public int getEss() {
+		return (this.ess == UNSET) ? -1 : this.ess; // NOCS (inline conditional)
+	}
+
+	public void setEss(final int ess) {
+		this.ess = ess;
+	}
+
+	/**
+	 * @return the ess before the incrementation or -1 if no ess has been stored
+	 */
+	public int getAndIncrementEss() {
+		if (this.ess == UNSET) {
+			return -1;
+		}
+		return this.ess++;
+	}
+
+	void unsetEoi() {
+		this.eoi = UNSET;
+	}
+
+	void unsetEss() {
+		this.ess = UNSET;
+	}
+}
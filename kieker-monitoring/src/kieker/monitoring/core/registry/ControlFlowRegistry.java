@@ -41,9 +41,9 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	// far. Of course, negative values may occur (as a result of an overflow) -- this does not hurt!
 	private final AtomicLong lastThreadId = new AtomicLong(MonitoringController.getInstance().isDebug() ? 0 // NOCS
 			: (long) new Random().nextInt(65536) << (Long.SIZE - 16 - 1));
-	private final transient ThreadLocal<Long> threadLocalTraceId = new ThreadLocal<>();
-	private final transient ThreadLocal<Integer> threadLocalEoi = new ThreadLocal<>();
-	private final transient ThreadLocal<Integer> threadLocalEss = new ThreadLocal<>();
+	// A single mutable context with primitive fields per thread: one ThreadLocal lookup per access and no boxing.
+	// There is deliberately no initialValue(): read-only accessors must not attach a context to uninstrumented threads.
+	private final transient ThreadLocal<ControlFlowContext> threadLocalContext = new ThreadLocal<>();
 
 	static {
 		LOGGER.info("First threadId will be {}", INSTANCE.lastThreadId.get());
@@ -72,6 +72,44 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 		}
 	}
 
+	/**
+	 * Returns the control flow context of the current thread and attaches a new one if the thread has none. Probes should
+	 * look up the context once per execution and then use its methods instead of the thread-local methods of this registry,
+	 * each of which performs its own lookup. The entry point of a trace must call {@link #removeThreadLocalContext()} when
+	 * it exits.
+	 *
+	 * @return the control flow context of the current thread
+	 *
+	 * @since 1.15
+	 */
+	public final ControlFlowContext getThreadLocalContext() {
+		ControlFlowContext context = this.threadLocalContext.get();
+		if (context == null) {
+			context = new ControlFlowContext();
+			this.threadLocalContext.set(context);
+		}
+		return context;
+	}
+
+	/**
+	 * Removes the control flow context from the current thread. To be called by the entry point of a trace when it exits,
+	 * so that no context (and, thus, no reference to the monitoring class loader) is left on pooled threads.
+	 *
+	 * @since 1.15
+	 */
+	public final void removeThreadLocalContext() {
+		this.threadLocalContext.remove();
+	}
+
+	/**
+	 * Removes the control flow context from the current thread if it no longer holds any value.
+	 */
+	private void removeThreadLocalContextIfUnset(final ControlFlowContext context) {
+		if (!context.hasTraceId() && !context.hasEoi() && !context.hasEss()) {
+			this.threadLocalContext.remove();
+		}
+	}
+
 	/**
 	 * This method returns a thread-local traceid which is globally unique and stored it local for the thread. The thread is responsible for invalidating the stored
 	 * curTraceId using the method unsetThreadLocalTraceId()!
@@ -80,7 +118,7 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 */
 	public final long getAndStoreUniqueThreadLocalTraceId() {
 		final long id = this.getUniqueTraceId();
-		this.threadLocalTraceId.set(id);
+		this.getThreadLocalContext().setTraceId(id);
 		return id;
 	}
 
@@ -91,7 +129,7 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 *            The trace ID to store in a thread-local way.
 	 */
 	public final void storeThreadLocalTraceId(final long traceId) {
-		this.threadLocalTraceId.set(traceId);
+		this.getThreadLocalContext().setTraceId(traceId);
 	}
 
 	/**
@@ -100,18 +138,19 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 * @return the traceid. -1 if no curTraceId has been registered for this thread.
 	 */
 	public final long recallThreadLocalTraceId() {
-		final Long traceIdObj = this.threadLocalTraceId.get();
-		if (traceIdObj == null) {
-			return -1;
-		}
-		return traceIdObj;
+		final ControlFlowContext context = this.threadLocalContext.get();
+		return (context == null) ? ControlFlowContext.NO_TRACE_ID : context.getTraceId(); // NOCS (inline conditional)
 	}
 
 	/**
 	 * This method unsets a previously registered traceid.
 	 */
 	public final void unsetThreadLocalTraceId() {
-		this.threadLocalTraceId.remove();
+		final ControlFlowContext context = this.threadLocalContext.get();
+		if (context != null) {
+			context.setTraceId(ControlFlowContext.NO_TRACE_ID);
+			this.removeThreadLocalContextIfUnset(context);
+		}
 	}
 
 	/**
@@ -121,7 +160,7 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 *            The execution order index to register.
 	 */
 	public final void storeThreadLocalEOI(final int eoi) {
-		this.threadLocalEoi.set(eoi);
+		this.getThreadLocalContext().setEoi(eoi);
 	}
 
 	/**
@@ -130,14 +169,12 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 * @return Increments the thread local execution order index and returns it.
 	 */
 	public final int incrementAndRecallThreadLocalEOI() {
-		final Integer curEoi = this.threadLocalEoi.get();
-		if (curEoi == null) {
+		final ControlFlowContext context = this.threadLocalContext.get();
+		if ((context == null) || !context.hasEoi()) {
 			LOGGER.error("eoi has not been registered before");
 			return -1;
 		}
-		final int newEoi = curEoi + 1;
-		this.threadLocalEoi.set(newEoi);
-		return newEoi;
+		return context.incrementAndGetEoi();
 	}
 
 	/**
@@ -146,19 +183,23 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 * @return the sessionid. -1 if no curEoi registered.
 	 */
 	public final int recallThreadLocalEOI() {
-		final Integer curEoi = this.threadLocalEoi.get();
-		if (curEoi == null) {
+		final ControlFlowContext context = this.threadLocalContext.get();
+		if ((context == null) || !context.hasEoi()) {
 			LOGGER.error("eoi has not been registered before");
 			return -1;
 		}
-		return curEoi;
+		return context.getEoi();
 	}
 
 	/**
 	 * This method unsets a previously registered traceid.
 	 */
 	public final void unsetThreadLocalEOI() {
-		this.threadLocalEoi.remove();
+		final ControlFlowContext context = this.threadLocalContext.get();
+		if (context != null) {
+			context.unsetEoi();
+			this.removeThreadLocalContextIfUnset(context);
+		}
 	}
 
 	/**
@@ -169,7 +210,7 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 *            The execution stack size to store.
 	 */
 	public final void storeThreadLocalESS(final int ess) {
-		this.threadLocalEss.set(ess);
+		this.getThreadLocalContext().setEss(ess);
 	}
 
 	/**
@@ -178,13 +219,12 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 * @return The current execution stack size, before the incrementation.
 	 */
 	public final int recallAndIncrementThreadLocalESS() {
-		final Integer curEss = this.threadLocalEss.get();
-		if (curEss == null) {
+		final ControlFlowContext context = this.threadLocalContext.get();
+		if ((context == null) || !context.hasEss()) {
 			LOGGER.error("ess has not been registered before");
 			return -1;
 		}
-		this.threadLocalEss.set(curEss + 1);
-		return curEss;
+		return context.getAndIncrementEss();
 	}
 
 	/**
@@ -193,18 +233,22 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 * @return the sessionid. -1 if no curEss registered.
 	 */
 	public final int recallThreadLocalESS() {
-		final Integer ess = this.threadLocalEss.get();
-		if (ess == null) {
+		final ControlFlowContext context = this.threadLocalContext.get();
+		if ((context == null) || !context.hasEss()) {
 			LOGGER.error("ess has not been registered before");
 			return -1;
 		}
-		return ess;
+		return context.getEss();
 	}
 
 	/**
 	 * This method unsets a previously registered curEss.
 	 */
 	public final void unsetThreadLocalESS() {
-		this.threadLocalEss.remove();
+		final ControlFlowContext context = this.threadLocalContext.get();
+		if (context != null) {
+			context.unsetEss();
+			this.removeThreadLocalContextIfUnset(context);
+		}
 	}
 }
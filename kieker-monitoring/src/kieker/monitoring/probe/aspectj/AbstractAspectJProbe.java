@@ -26,6 +26,7 @@ import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.ConstructorSignature;
 import org.aspectj.lang.reflect.MethodSignature;
 
+import kieker.monitoring.core.controller.IProbeController;
 import kieker.monitoring.probe.IMonitoringProbe;
 
 /**
@@ -36,7 +37,7 @@ import kieker.monitoring.probe.IMonitoringProbe;
 @Aspect
 public abstract class AbstractAspectJProbe implements IMonitoringProbe { // NOPMD
 
-	private final ConcurrentMap<Signature, String> signatureCache = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Signature, CachedSignature> signatureCache = new ConcurrentHashMap<>();
 
 	// Pointcuts should not be final!
 
@@ -73,58 +74,78 @@ public abstract class AbstractAspectJProbe implements IMonitoringProbe { // NOPM
 	 * @return LongString representation of the signature
 	 */
 	protected String signatureToLongString(final Signature sig) {
-		String signatureString = this.signatureCache.get(sig);
-		if (null != signatureString) {
-			return signatureString;
-		} else {
-			if (sig instanceof MethodSignature) {
-				final MethodSignature signature = (MethodSignature) sig;
-				final StringBuilder sb = new StringBuilder(256);
-				// modifiers
-				final String modString = Modifier.toString(signature.getModifiers());
-				sb.append(modString);
-				if (modString.length() > 0) {
-					sb.append(' ');
-				}
-				// return
-				this.addType(sb, signature.getReturnType());
-				sb.append(' ')
-						.append(signature.getDeclaringTypeName()) // component
-						.append('.')
-						.append(signature.getName()) // name
-						.append('(');
-				// parameters
-
-				this.addTypeList(sb, signature.getParameterTypes());
-				sb.append(')');
-				// throws
-				// this.addTypeList(sb, signature.getExceptionTypes());
-				signatureString = sb.toString();
-			} else if (sig instanceof ConstructorSignature) {
-				final ConstructorSignature signature = (ConstructorSignature) sig;
-				final StringBuilder sb = new StringBuilder(256);
-				// modifiers
-				final String modString = Modifier.toString(signature.getModifiers());
-				sb.append(modString);
-				if (modString.length() > 0) {
-					sb.append(' ');
-				}
-				// component
-				sb.append(signature.getDeclaringTypeName())
-						.append('.')
-						.append(signature.getName())// name
-						.append('(');
-				// parameters
-				this.addTypeList(sb, signature.getParameterTypes());
-				sb.append(')');
-				// throws
-				// this.addTypeList(sb, signature.getExceptionTypes());
-				signatureString = sb.toString();
-			} else {
-				signatureString = sig.toLongString();
+		return this.getCachedSignature(sig).getLongString();
+	}
+
+	/**
+	 * Returns the cached long string representation and probe id of the given signature. Probes should use this method
+	 * to test whether they are activated, since {@link CachedSignature#isProbeActivated(IProbeController)} does not hash
+	 * the long string on each call.
+	 *
+	 * @param sig
+	 *            an AspectJ Signature
+	 * @return the cached representation of the signature
+	 *
+	 * @since 1.15
+	 */
+	protected CachedSignature getCachedSignature(final Signature sig) {
+		final CachedSignature cachedSignature = this.signatureCache.get(sig);
+		if (null != cachedSignature) {
+			return cachedSignature;
+		}
+		final CachedSignature newCachedSignature = new CachedSignature(this.createLongString(sig));
+		final CachedSignature previousCachedSignature = this.signatureCache.putIfAbsent(sig, newCachedSignature);
+		return (null == previousCachedSignature) ? newCachedSignature : previousCachedSignature; // NOCS (inline conditional)
+	}
+
+	private String createLongString(final Signature sig) {
+		final String signatureString;
+		if (sig instanceof MethodSignature) {
+			final MethodSignature signature = (MethodSignature) sig;
+			final StringBuilder sb = new StringBuilder(256);
+			// modifiers
+			final String modString = Modifier.toString(signature.getModifiers());
+			sb.append(modString);
+			if (modString.length() > 0) {
+				sb.append(' ');
+			}
+			// return
+			this.addType(sb, signature.getReturnType());
+			sb.append(' ')
+					.append(signature.getDeclaringTypeName()) // component
+					.append('.')
+					.append(signature.getName()) // name
+					.append('(');
+			// parameters
+
+			this.addTypeList(sb, signature.getParameterTypes());
+			sb.append(')');
+			// throws
+			// this.addTypeList(sb, signature.getExceptionTypes());
+			signatureString = sb.toString();
+		} else if (sig instanceof ConstructorSignature) {
+			final ConstructorSignature signature = (ConstructorSignature) sig;
+			final StringBuilder sb = new StringBuilder(256);
+			// modifiers
+			final String modString = Modifier.toString(signature.getModifiers());
+			sb.append(modString);
+			if (modString.length() > 0) {
+				sb.append(' ');
 			}
+			// component
+			sb.append(signature.getDeclaringTypeName())
+					.append('.')
+					.append(signature.getName())// name
+					.append('(');
+			// parameters
+			this.addTypeList(sb, signature.getParameterTypes());
+			sb.append(')');
+			// throws
+			// this.addTypeList(sb, signature.getExceptionTypes());
+			signatureString = sb.toString();
+		} else {
+			signatureString = sig.toLongString();
 		}
-		this.signatureCache.putIfAbsent(sig, signatureString);
 		return signatureString;
 	}
 
@@ -155,4 +176,45 @@ public abstract class AbstractAspectJProbe implements IMonitoringProbe { // NOPM
 		}
 		return sb;
 	}
+
+	/**
+	 * The long string representation of an AspectJ signature together with the id the probe controller has assigned to
+	 * it. The id is fetched on the first activation test.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 1.15
+	 */
+	protected static final class CachedSignature {
+
+		private static final int UNASSIGNED = -1;
+
+		private final String longString;
+		private volatile int probeId = UNASSIGNED; // NOPMD (volatile; the id is assigned lazily by any thread)
+
+		CachedSignature(final String longString) {
+			this.longString = longString;
+		}
+
+		public String getLongString() {
+			return this.longString;
+		}
+
+		/**
+		 * Tests if the probe of this signature is active using its probe id.
+		 *
+		 * @param controller
+		 *            the probe controller; always the same instance must be passed for a signature
+		 * @return true if the probe is active
+		 */
+		public boolean isProbeActivated(final IProbeController controller) {
+			int id = this.probeId;
+			if (UNASSIGNED == id) {
+				// a concurrent assignment is harmless since the controller returns the same id for the same signature
+				id = controller.getProbeId(this.longString);
+				this.probeId = id;
+			}
+			return controller.isProbeActivated(id);
+		}
+	}
 }
@@ -81,8 +81,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 		if (!CTRLINST.isMonitoringEnabled()) {
 			return;
 		}
-		final String operationSignature = this.signatureToLongString(jpStaticPart.getSignature());
-		if (!CTRLINST.isProbeActivated(operationSignature)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(jpStaticPart.getSignature());
+		final String operationSignature = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(CTRLINST)) {
 			return;
 		}
 
@@ -111,8 +112,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 			return;
 		}
 
-		final String operationSignature = this.signatureToLongString(jpStaticPart.getSignature());
-		if (!CTRLINST.isProbeActivated(operationSignature)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(jpStaticPart.getSignature());
+		final String operationSignature = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(CTRLINST)) {
 			return;
 		}
 
@@ -128,8 +130,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 			return;
 		}
 
-		final String operationSignature = this.signatureToLongString(jpStaticPart.getSignature());
-		if (!CTRLINST.isProbeActivated(operationSignature)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(jpStaticPart.getSignature());
+		final String operationSignature = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(CTRLINST)) {
 			return;
 		}
 
@@ -146,8 +149,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 			return;
 		}
 
-		final String operationSignature = this.signatureToLongString(jpStaticPart.getSignature());
-		if (!CTRLINST.isProbeActivated(operationSignature)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(jpStaticPart.getSignature());
+		final String operationSignature = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(CTRLINST)) {
 			return;
 		}
 
@@ -78,8 +78,9 @@ public abstract class AbstractAspectWithoutTraceRegistry extends AbstractAspectJ
 		if (!CTRLINST.isMonitoringEnabled()) {
 			return;
 		}
-		final String operationSignature = this.signatureToLongString(jpStaticPart.getSignature());
-		if (!CTRLINST.isProbeActivated(operationSignature)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(jpStaticPart.getSignature());
+		final String operationSignature = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(CTRLINST)) {
 			return;
 		}
 
@@ -104,8 +105,9 @@ public abstract class AbstractAspectWithoutTraceRegistry extends AbstractAspectJ
 		if (!CTRLINST.isMonitoringEnabled()) {
 			return;
 		}
-		final String operationSignature = this.signatureToLongString(jpStaticPart.getSignature());
-		if (!CTRLINST.isProbeActivated(operationSignature)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(jpStaticPart.getSignature());
+		final String operationSignature = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(CTRLINST)) {
 			return;
 		}
 
@@ -122,8 +124,9 @@ public abstract class AbstractAspectWithoutTraceRegistry extends AbstractAspectJ
 		if (!CTRLINST.isMonitoringEnabled()) {
 			return;
 		}
-		final String operationSignature = this.signatureToLongString(jpStaticPart.getSignature());
-		if (!CTRLINST.isProbeActivated(operationSignature)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(jpStaticPart.getSignature());
+		final String operationSignature = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(CTRLINST)) {
 			return;
 		}
 
@@ -62,7 +62,7 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 			return;
 		}
 		final Signature signature = jp.getSignature();
-		if (!CTRLINST.isProbeActivated(this.signatureToLongString(signature))) {
+		if (!this.getCachedSignature(signature).isProbeActivated(CTRLINST)) {
 			return;
 		}
 		// common fields
@@ -70,8 +70,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 			return thisJoinPoint.proceed();
 		}
 		final Signature calleeSig = thisJoinPoint.getSignature();
-		final String callee = this.signatureToLongString(calleeSig);
-		if (!CTRLINST.isProbeActivated(callee)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(calleeSig);
+		final String callee = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(CTRLINST)) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -123,8 +124,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 			return thisJoinPoint.proceed();
 		}
 		final Signature calleeSig = thisJoinPoint.getSignature();
-		final String callee = this.signatureToLongString(calleeSig);
-		if (!CTRLINST.isProbeActivated(callee)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(calleeSig);
+		final String callee = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(CTRLINST)) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
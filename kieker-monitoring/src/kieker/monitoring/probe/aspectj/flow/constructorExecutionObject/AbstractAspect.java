@@ -64,8 +64,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 		if (!CTRLINST.isMonitoringEnabled()) {
 			return thisJoinPoint.proceed();
 		}
-		final String operationSignature = this.signatureToLongString(thisJoinPoint.getSignature());
-		if (!CTRLINST.isProbeActivated(operationSignature)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(thisJoinPoint.getSignature());
+		final String operationSignature = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(CTRLINST)) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -55,8 +55,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 		if (!CTRLINST.isMonitoringEnabled()) {
 			return thisJoinPoint.proceed();
 		}
-		final String callee = this.signatureToLongString(thisJoinPoint.getSignature());
-		if (!CTRLINST.isProbeActivated(callee)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(thisJoinPoint.getSignature());
+		final String callee = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(CTRLINST)) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -92,8 +93,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 		if (!CTRLINST.isMonitoringEnabled()) {
 			return thisJoinPoint.proceed();
 		}
-		final String callee = this.signatureToLongString(thisJoinPoint.getSignature());
-		if (!CTRLINST.isProbeActivated(callee)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(thisJoinPoint.getSignature());
+		final String callee = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(CTRLINST)) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -132,8 +134,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 			return thisJoinPoint.proceed();
 		}
 		final Signature calleeSig = thisJoinPoint.getSignature();
-		final String callee = this.signatureToLongString(calleeSig);
-		if (!CTRLINST.isProbeActivated(callee)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(calleeSig);
+		final String callee = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(CTRLINST)) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -170,8 +173,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 			return thisJoinPoint.proceed();
 		}
 		final Signature calleeSig = thisJoinPoint.getSignature();
-		final String callee = this.signatureToLongString(calleeSig);
-		if (!CTRLINST.isProbeActivated(callee)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(calleeSig);
+		final String callee = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(CTRLINST)) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -16,18 +16,25 @@
 
 package kieker.monitoring.probe.aspectj.flow.operationExecution;
 
+import java.util.Queue;
+
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.Signature;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 
+import kieker.common.record.IMonitoringRecord;
 import kieker.common.record.flow.trace.TraceMetadata;
 import kieker.common.record.flow.trace.operation.AfterOperationEvent;
 import kieker.common.record.flow.trace.operation.AfterOperationFailedEvent;
 import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.common.record.flow.trace.operation.PooledAfterOperationEvent;
+import kieker.common.record.flow.trace.operation.PooledAfterOperationFailedEvent;
+import kieker.common.record.flow.trace.operation.PooledBeforeOperationEvent;
 import kieker.monitoring.core.controller.IMonitoringController;
 import kieker.monitoring.core.controller.MonitoringController;
+import kieker.monitoring.core.pool.ThreadLocalRecordPool;
 import kieker.monitoring.core.registry.TraceRegistry;
 import kieker.monitoring.probe.aspectj.AbstractAspectJProbe;
 import kieker.monitoring.timer.ITimeSource;
@@ -43,6 +50,39 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 	private static final ITimeSource TIME = CTRLINST.getTimeSource();
 	private static final TraceRegistry TRACEREGISTRY = TraceRegistry.INSTANCE;
 
+	/** the capacity of the per-thread record pools; 0 disables record pooling. */
+	private static final int RECORD_POOL_CAPACITY = CTRLINST.getRecordPoolCapacity();
+	private static final ThreadLocalRecordPool<PooledBeforeOperationEvent> BEFORE_EVENTS;
+	private static final ThreadLocalRecordPool<PooledAfterOperationEvent> AFTER_EVENTS;
+	private static final ThreadLocalRecordPool<PooledAfterOperationFailedEvent> AFTER_FAILED_EVENTS;
+
+	static {
+		if (RECORD_POOL_CAPACITY > 0) {
+			BEFORE_EVENTS = new ThreadLocalRecordPool<PooledBeforeOperationEvent>(RECORD_POOL_CAPACITY) {
+				@Override
+				protected PooledBeforeOperationEvent createRecord(final Queue<? super PooledBeforeOperationEvent> pool) {
+					return new PooledBeforeOperationEvent(pool);
+				}
+			};
+			AFTER_EVENTS = new ThreadLocalRecordPool<PooledAfterOperationEvent>(RECORD_POOL_CAPACITY) {
+				@Override
+				protected PooledAfterOperationEvent createRecord(final Queue<? super PooledAfterOperationEvent> pool) {
+					return new PooledAfterOperationEvent(pool);
+				}
+			};
+			AFTER_FAILED_EVENTS = new ThreadLocalRecordPool<PooledAfterOperationFailedEvent>(RECORD_POOL_CAPACITY) {
+				@Override
+				protected PooledAfterOperationFailedEvent createRecord(final Queue<? super PooledAfterOperationFailedEvent> pool) {
+					return new PooledAfterOperationFailedEvent(pool);
+				}
+			};
+		} else {
+			BEFORE_EVENTS = null;
+			AFTER_EVENTS = null;
+			AFTER_FAILED_EVENTS = null;
+		}
+	}
+
 	/**
 	 * The pointcut for the monitored operations. Inheriting classes should extend the pointcut in order to find the correct executions of the methods (e.g. all
 	 * methods or only methods with specific annotations).
@@ -55,8 +95,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 		if (!CTRLINST.isMonitoringEnabled()) {
 			return thisJoinPoint.proceed();
 		}
-		final String operationSignature = this.signatureToLongString(thisJoinPoint.getSignature());
-		if (!CTRLINST.isProbeActivated(operationSignature)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(thisJoinPoint.getSignature());
+		final String operationSignature = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(CTRLINST)) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -69,14 +110,14 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 		final long traceId = trace.getTraceId();
 		final String clazz = thisObject.getClass().getName();
 		// measure before execution
-		CTRLINST.newMonitoringRecord(new BeforeOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
+		CTRLINST.newMonitoringRecord(AbstractAspect.newBeforeOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
 		// execution of the called method
 		final Object retval;
 		try {
 			retval = thisJoinPoint.proceed();
 		} catch (final Throwable th) { // NOPMD NOCS (catch throw might ok here)
 			// measure after failed execution
-			CTRLINST.newMonitoringRecord(new AfterOperationFailedEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz, th.toString()));
+			CTRLINST.newMonitoringRecord(AbstractAspect.newAfterOperationFailedEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz, th.toString()));
 			throw th;
 		} finally {
 			if (newTrace) { // close the trace
@@ -84,7 +125,7 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 			}
 		}
 		// measure after successful execution
-		CTRLINST.newMonitoringRecord(new AfterOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
+		CTRLINST.newMonitoringRecord(AbstractAspect.newAfterOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
 		return retval;
 	}
 
@@ -94,8 +135,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 			return thisJoinPoint.proceed();
 		}
 		final Signature sig = thisJoinPoint.getSignature();
-		final String operationSignature = this.signatureToLongString(sig);
-		if (!CTRLINST.isProbeActivated(operationSignature)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(sig);
+		final String operationSignature = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(CTRLINST)) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -108,14 +150,14 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 		final long traceId = trace.getTraceId();
 		final String clazz = sig.getDeclaringTypeName();
 		// measure before execution
-		CTRLINST.newMonitoringRecord(new BeforeOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
+		CTRLINST.newMonitoringRecord(AbstractAspect.newBeforeOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
 		// execution of the called method
 		final Object retval;
 		try {
 			retval = thisJoinPoint.proceed();
 		} catch (final Throwable th) { // NOPMD NOCS (catch throw might ok here)
 			// measure after failed execution
-			CTRLINST.newMonitoringRecord(new AfterOperationFailedEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz, th.toString()));
+			CTRLINST.newMonitoringRecord(AbstractAspect.newAfterOperationFailedEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz, th.toString()));
 			throw th;
 		} finally {
 			if (newTrace) { // close the trace
@@ -123,7 +165,31 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 			}
 		}
 		// measure after successful execution
-		CTRLINST.newMonitoringRecord(new AfterOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
+		CTRLINST.newMonitoringRecord(AbstractAspect.newAfterOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
 		return retval;
 	}
+
+	private static IMonitoringRecord newBeforeOperationEvent(final long timestamp, final long traceId, final int orderIndex,
+			final String operationSignature, final String classSignature) {
+		if (BEFORE_EVENTS != null) {
+			return BEFORE_EVENTS.acquire().set(timestamp, traceId, orderIndex, operationSignature, classSignature);
+		}
+		return new BeforeOperationEvent(timestamp, traceId, orderIndex, operationSignature, classSignature);
+	}
+
+	private static IMonitoringRecord newAfterOperationEvent(final long timestamp, final long traceId, final int orderIndex,
+			final String operationSignature, final String classSignature) {
+		if (AFTER_EVENTS != null) {
+			return AFTER_EVENTS.acquire().set(timestamp, traceId, orderIndex, operationSignature, classSignature);
+		}
+		return new AfterOperationEvent(timestamp, traceId, orderIndex, operationSignature, classSignature);
+	}
+
+	private static IMonitoringRecord newAfterOperationFailedEvent(final long timestamp, final long traceId, final int orderIndex,
+			final String operationSignature, final String classSignature, final String cause) {
+		if (AFTER_FAILED_EVENTS != null) {
+			return AFTER_FAILED_EVENTS.acquire().set(timestamp, traceId, orderIndex, operationSignature, classSignature, cause);
+		}
+		return new AfterOperationFailedEvent(timestamp, traceId, orderIndex, operationSignature, classSignature, cause);
+	}
 }
@@ -75,8 +75,9 @@ public class OperationExecutionJerseyClientInterceptor extends AbstractAspectJPr
 		if (!OperationExecutionJerseyClientInterceptor.CTRLINST.isMonitoringEnabled()) {
 			return thisJoinPoint.proceed();
 		}
-		final String signature = this.signatureToLongString(thisJoinPoint.getSignature());
-		if (!OperationExecutionJerseyClientInterceptor.CTRLINST.isProbeActivated(signature)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(thisJoinPoint.getSignature());
+		final String signature = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(OperationExecutionJerseyClientInterceptor.CTRLINST)) {
 			return thisJoinPoint.proceed();
 		}
 
@@ -73,8 +73,9 @@ public class OperationExecutionJerseyServerInterceptor extends AbstractAspectJPr
 		if (!OperationExecutionJerseyServerInterceptor.CTRLINST.isMonitoringEnabled()) {
 			return thisJoinPoint.proceed();
 		}
-		final String signature = this.signatureToLongString(thisJoinPoint.getSignature());
-		if (!OperationExecutionJerseyServerInterceptor.CTRLINST.isProbeActivated(signature)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(thisJoinPoint.getSignature());
+		final String signature = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(OperationExecutionJerseyServerInterceptor.CTRLINST)) {
 			return thisJoinPoint.proceed();
 		}
 
@@ -188,8 +189,9 @@ public class OperationExecutionJerseyServerInterceptor extends AbstractAspectJPr
 		if (!OperationExecutionJerseyServerInterceptor.CTRLINST.isMonitoringEnabled()) {
 			return thisJoinPoint.proceed();
 		}
-		final String signature = this.signatureToLongString(thisJoinPoint.getSignature());
-		if (!OperationExecutionJerseyServerInterceptor.CTRLINST.isProbeActivated(signature)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(thisJoinPoint.getSignature());
+		final String signature = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(OperationExecutionJerseyServerInterceptor.CTRLINST)) {
 			return thisJoinPoint.proceed();
 		}
 
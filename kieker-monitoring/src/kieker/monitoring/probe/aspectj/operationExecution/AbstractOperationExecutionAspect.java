@@ -26,6 +26,7 @@ import org.slf4j.LoggerFactory;
 import kieker.common.record.controlflow.OperationExecutionRecord;
 import kieker.monitoring.core.controller.IMonitoringController;
 import kieker.monitoring.core.controller.MonitoringController;
+import kieker.monitoring.core.registry.ControlFlowContext;
 import kieker.monitoring.core.registry.ControlFlowRegistry;
 import kieker.monitoring.core.registry.SessionRegistry;
 import kieker.monitoring.probe.aspectj.AbstractAspectJProbe;
@@ -58,8 +59,9 @@ public abstract class AbstractOperationExecutionAspect extends AbstractAspectJPr
 		if (!CTRLINST.isMonitoringEnabled()) {
 			return thisJoinPoint.proceed();
 		}
-		final String signature = this.signatureToLongString(thisJoinPoint.getSignature());
-		if (!CTRLINST.isProbeActivated(signature)) {
+		final CachedSignature cachedSignature = this.getCachedSignature(thisJoinPoint.getSignature());
+		final String signature = cachedSignature.getLongString();
+		if (!cachedSignature.isProbeActivated(CTRLINST)) {
 			return thisJoinPoint.proceed();
 		}
 		// collect data
@@ -68,18 +70,19 @@ public abstract class AbstractOperationExecutionAspect extends AbstractAspectJPr
 		final String sessionId = SESSIONREGISTRY.recallThreadLocalSessionId();
 		final int eoi; // this is executionOrderIndex-th execution in this trace
 		final int ess; // this is the height in the dynamic call tree of this execution
-		long traceId = CFREGISTRY.recallThreadLocalTraceId(); // traceId, -1 if entry point
-		if (traceId == -1) {
+		final ControlFlowContext context = CFREGISTRY.getThreadLocalContext(); // the only ThreadLocal lookup of this execution
+		final long traceId;
+		if (!context.hasTraceId()) {
 			entrypoint = true;
-			traceId = CFREGISTRY.getAndStoreUniqueThreadLocalTraceId();
-			CFREGISTRY.storeThreadLocalEOI(0);
-			CFREGISTRY.storeThreadLocalESS(1); // next operation is ess + 1
+			traceId = CFREGISTRY.getUniqueTraceId();
+			context.startTrace(traceId); // next operation is eoi + 1 and ess + 1
 			eoi = 0;
 			ess = 0;
 		} else {
 			entrypoint = false;
-			eoi = CFREGISTRY.incrementAndRecallThreadLocalEOI(); // ess > 1
-			ess = CFREGISTRY.recallAndIncrementThreadLocalESS(); // ess >= 0
+			traceId = context.getTraceId();
+			eoi = context.incrementAndGetEoi(); // ess > 1
+			ess = context.getAndIncrementEss(); // ess >= 0
 			if ((eoi == -1) || (ess == -1)) {
 				LOGGER.error("eoi and/or ess have invalid values: eoi == {} ess == {}", eoi, ess);
 				CTRLINST.terminateMonitoring();
@@ -97,11 +100,9 @@ public abstract class AbstractOperationExecutionAspect extends AbstractAspectJPr
 			CTRLINST.newMonitoringRecord(new OperationExecutionRecord(signature, sessionId, traceId, tin, tout, hostname, eoi, ess));
 			// cleanup
 			if (entrypoint) {
-				CFREGISTRY.unsetThreadLocalTraceId();
-				CFREGISTRY.unsetThreadLocalEOI();
-				CFREGISTRY.unsetThreadLocalESS();
+				CFREGISTRY.removeThreadLocalContext(); // do not leave the context on pooled threads
 			} else {
-				CFREGISTRY.storeThreadLocalESS(ess); // next operation is ess
+				context.setEss(ess); // next operation is ess
 			}
 		}
 		return retval;
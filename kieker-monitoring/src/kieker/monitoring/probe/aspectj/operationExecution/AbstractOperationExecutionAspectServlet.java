@@ -47,8 +47,8 @@ public abstract class AbstractOperationExecutionAspectServlet extends AbstractOp
 		if (!AbstractOperationExecutionAspectServlet.CTRLINST.isMonitoringEnabled()) {
 			return thisJoinPoint.proceed();
 		}
-		if (!AbstractOperationExecutionAspectServlet.CTRLINST
-				.isProbeActivated(this.signatureToLongString(thisJoinPoint.getSignature()))) {
+		if (!this.getCachedSignature(thisJoinPoint.getSignature())
+				.isProbeActivated(AbstractOperationExecutionAspectServlet.CTRLINST)) {
 			return thisJoinPoint.proceed();
 		}
 		final HttpServletRequest req = (HttpServletRequest) thisJoinPoint.getArgs()[0];
@@ -170,9 +170,9 @@ public class SessionAndTraceRegistrationFilter implements Filter, IMonitoringPro
 
 		// If this filter execution shall be part of the traced control flow, we need to register some control flow information.
 		if (this.logFilterExecution) {
-			traceId = CF_REGISTRY.getAndStoreUniqueThreadLocalTraceId();
-			CF_REGISTRY.storeThreadLocalEOI(0); // current execution's eoi is 0
-			CF_REGISTRY.storeThreadLocalESS(1); // *current* execution's ess is 0; next execution is at stack depth 1
+			traceId = CF_REGISTRY.getUniqueTraceId();
+			// current execution's eoi and ess are 0; next execution is at stack depth 1
+			CF_REGISTRY.getThreadLocalContext().startTrace(traceId);
 		}
 
 		final long tin = TIMESOURCE.getTime(); // the entry timestamp
@@ -193,9 +193,7 @@ public class SessionAndTraceRegistrationFilter implements Filter, IMonitoringPro
 								VM_NAME, 0, 0)); // 0,0 state that this method is the application entry point
 
 				// Reset the thread-local trace information
-				CF_REGISTRY.unsetThreadLocalTraceId();
-				CF_REGISTRY.unsetThreadLocalEOI();
-				CF_REGISTRY.unsetThreadLocalESS();
+				CF_REGISTRY.removeThreadLocalContext();
 			}
 		}
 	}
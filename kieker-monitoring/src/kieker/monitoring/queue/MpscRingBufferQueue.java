@@ -0,0 +1,331 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.queue;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded, pre-allocated, lock-free multi-producer single-consumer ring buffer.
+ * Each slot carries a sequence number which tells producers and the consumer whether the slot is free or
+ * holds a published element (cf. Vyukov's bounded queue). Producers claim slots by a CAS on the shared
+ * producer index; the single consumer never writes to a cache line producers contend on, except for the slots
+ * it releases.
+ *
+ * <p>
+ * The queue implements {@link BlockingQueue} and can therefore be used directly as <code>RecordQueueFQN</code> of the
+ * {@link kieker.monitoring.core.controller.WriterController} together with every <code>RecordQueueInsertBehavior</code>.
+ * A blocked consumer is parked and only unparked by producers when it has announced itself as waiting. Hence,
+ * producers do not pay for park/unpark as long as the consumer keeps up. Blocked producers (queue full) back off
+ * by yielding and then by timed parking.
+ * </p>
+ *
+ * <p>
+ * Only a single thread may call the consuming methods ({@link #poll()}, {@link #take()}, {@link #drainTo(Collection)}
+ * etc.), as it is the case for the <code>MonitoringWriterThread</code>.
+ * </p>
+ *
+ * @param <E>
+ *            the type of the elements
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class MpscRingBufferQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+	/** Number of spins of the consumer before it parks itself. */
+	private static final int CONSUMER_SPINS = 256;
+	/** Number of yields of a producer before it parks itself on a full queue. */
+	private static final int PRODUCER_YIELDS = 64;
+	/** Park time of a producer on a full queue. */
+	private static final long PRODUCER_PARK_NANOS = 10_000L;
+
+	private final int capacity;
+	private final int mask;
+	private final AtomicReferenceArray<E> buffer;
+	/** the sequence of each slot; the slot is free for position p if seq == p and full if seq == p + 1. */
+	private final AtomicLongArray sequences;
+
+	private final PaddedAtomicLong producerIndex = new PaddedAtomicLong();
+	private final PaddedAtomicLong consumerIndex = new PaddedAtomicLong();
+
+	private volatile Thread waitingConsumer; // NOPMD (volatile is necessary for the wake-up protocol)
+
+	/**
+	 * Creates a new ring buffer.
+	 *
+	 * @param requestedCapacity
+	 *            the minimum capacity of the queue; it is rounded up to the next power of two.
+	 */
+	public MpscRingBufferQueue(final int requestedCapacity) {
+		super();
+		if (requestedCapacity < 1) {
+			throw new IllegalArgumentException("The capacity must be positive, but was " + requestedCapacity);
+		}
+		this.capacity = MpscRingBufferQueue.roundToPowerOfTwo(requestedCapacity);
+		this.mask = this.capacity - 1;
+		this.buffer = new AtomicReferenceArray<>(this.capacity);
+		this.sequences = new AtomicLongArray(this.capacity);
+		for (int i = 0; i < this.capacity; i++) {
+			this.sequences.lazySet(i, i);
+		}
+	}
+
+	private static int roundToPowerOfTwo(final int value) {
+		if (value > (1 << 30)) {
+			throw new IllegalArgumentException("The capacity must not exceed 2^30, but was " + value);
+		}
+		return 1 << (32 - Integer.numberOfLeadingZeros(value - 1));
+	}
+
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	@Override
+	public boolean offer(final E e) {
+		if (e == null) {
+			throw new NullPointerException("The element may not be null.");
+		}
+
+		long position = this.producerIndex.get();
+		while (true) {
+			final int index = (int) position & this.mask;
+			final long difference = this.sequences.get(index) - position;
+			if (difference == 0) {
+				if (this.producerIndex.compareAndSet(position, position + 1)) {
+					this.buffer.lazySet(index, e);
+					// volatile write: publishes the element and orders it before the read of waitingConsumer
+					this.sequences.set(index, position + 1);
+					break;
+				}
+				position = this.producerIndex.get();
+			} else if (difference < 0) {
+				return false; // full
+			} else {
+				position = this.producerIndex.get(); // another producer has claimed this slot
+			}
+		}
+
+		final Thread consumer = this.waitingConsumer;
+		if (consumer != null) {
+			LockSupport.unpark(consumer);
+		}
+		return true;
+	}
+
+	@Override
+	public E poll() {
+		final long position = this.consumerIndex.get();
+		final int index = (int) position & this.mask;
+		if (this.sequences.get(index) != (position + 1)) {
+			return null; // empty or not yet published
+		}
+		final E e = this.buffer.get(index);
+		this.buffer.lazySet(index, null);
+		this.sequences.lazySet(index, position + this.capacity);
+		this.consumerIndex.lazySet(position + 1);
+		return e;
+	}
+
+	@Override
+	public E peek() {
+		final long position = this.consumerIndex.get();
+		final int index = (int) position & this.mask;
+		if (this.sequences.get(index) != (position + 1)) {
+			return null;
+		}
+		return this.buffer.get(index);
+	}
+
+	@Override
+	public void put(final E e) throws InterruptedException {
+		int yields = 0;
+		while (!this.offer(e)) {
+			if (Thread.interrupted()) {
+				throw new InterruptedException("Interrupted while waiting for the queue to become non-full.");
+			}
+			if (yields < PRODUCER_YIELDS) {
+				yields++;
+				Thread.yield();
+			} else {
+				LockSupport.parkNanos(this, PRODUCER_PARK_NANOS);
+			}
+		}
+	}
+
+	@Override
+	public boolean offer(final E e, final long timeout, final TimeUnit unit) throws InterruptedException {
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (!this.offer(e)) {
+			if (Thread.interrupted()) {
+				throw new InterruptedException("Interrupted while waiting for the queue to become non-full.");
+			}
+			final long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				return false;
+			}
+			LockSupport.parkNanos(this, Math.min(remaining, PRODUCER_PARK_NANOS));
+		}
+		return true;
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		E e = this.spinPoll();
+		if (e != null) {
+			return e;
+		}
+
+		this.waitingConsumer = Thread.currentThread();
+		try {
+			// re-check after announcing ourselves; otherwise we could miss the wake-up of a concurrent offer
+			e = this.poll();
+			while (e == null) {
+				LockSupport.park(this);
+				if (Thread.interrupted()) {
+					throw new InterruptedException("Interrupted while waiting for the queue to become non-empty.");
+				}
+				e = this.poll();
+			}
+		} finally {
+			this.waitingConsumer = null;
+		}
+		return e;
+	}
+
+	@Override
+	public E poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+		E e = this.spinPoll();
+		if (e != null) {
+			return e;
+		}
+
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		this.waitingConsumer = Thread.currentThread();
+		try {
+			e = this.poll();
+			while (e == null) {
+				final long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return null;
+				}
+				LockSupport.parkNanos(this, remaining);
+				if (Thread.interrupted()) {
+					throw new InterruptedException("Interrupted while waiting for the queue to become non-empty.");
+				}
+				e = this.poll();
+			}
+		} finally {
+			this.waitingConsumer = null;
+		}
+		return e;
+	}
+
+	private E spinPoll() {
+		E e = this.poll();
+		for (int i = 0; (e == null) && (i < CONSUMER_SPINS); i++) {
+			e = this.poll();
+		}
+		return e;
+	}
+
+	@Override
+	public int drainTo(final Collection<? super E> c) {
+		return this.drainTo(c, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public int drainTo(final Collection<? super E> c, final int maxElements) {
+		if (c == this) { // NOPMD (compare references)
+			throw new IllegalArgumentException("Cannot drain a queue into itself.");
+		}
+
+		long position = this.consumerIndex.get();
+		int count = 0;
+		while (count < maxElements) {
+			final int index = (int) position & this.mask;
+			if (this.sequences.get(index) != (position + 1)) {
+				break;
+			}
+			c.add(this.buffer.get(index));
+			this.buffer.lazySet(index, null);
+			this.sequences.lazySet(index, position + this.capacity);
+			position++;
+			count++;
+		}
+		if (count > 0) {
+			this.consumerIndex.lazySet(position);
+		}
+		return count;
+	}
+
+	@Override
+	public int remainingCapacity() {
+		return this.capacity - this.size();
+	}
+
+	@Override
+	public int size() {
+		// read the consumer index first so that the result is never negative
+		final long consumer = this.consumerIndex.get();
+		final long producer = this.producerIndex.get();
+		return (int) Math.min(producer - consumer, this.capacity);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.consumerIndex.get() == this.producerIndex.get();
+	}
+
+	/**
+	 * Returns a weakly consistent iterator over a snapshot of the published elements, from head to tail.
+	 * Elements which are consumed or added after the creation of the iterator are not reflected.
+	 * The iterator does not support {@link Iterator#remove()}.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		final List<E> snapshot = new ArrayList<>();
+		final long producer = this.producerIndex.get();
+		for (long position = this.consumerIndex.get(); position < producer; position++) {
+			final int index = (int) position & this.mask;
+			if (this.sequences.get(index) == (position + 1)) {
+				final E e = this.buffer.get(index);
+				// skip the slot if the consumer has released it in the meantime
+				if ((e != null) && (this.sequences.get(index) == (position + 1))) {
+					snapshot.add(e);
+				}
+			}
+		}
+		return Collections.unmodifiableList(snapshot).iterator();
+	}
+
+	@Override
+	public String toString() {
+		return this.getClass().getName() + "[capacity=" + this.capacity + ", size=" + this.size() + "]";
+	}
+}
@@ -0,0 +1,39 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.queue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link AtomicLong} which occupies its own cache line so that producers and the consumer do not
+ * invalidate each other's index.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+@SuppressWarnings("unused")
+final class PaddedAtomicLong extends AtomicLong {
+
+	private static final long serialVersionUID = 1L;
+
+	private long p1, p2, p3, p4, p5, p6, p7; // NOPMD NOCS (padding only)
+
+	public PaddedAtomicLong() {
+		super();
+	}
+}
@@ -0,0 +1,497 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.queue;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A multi-producer single-consumer queue which consists of one bounded single-producer single-consumer ring buffer
+ * (a <i>stripe</i>) per producer thread. A producer only writes to its own stripe; hence, producers on different cores
+ * never contend on a shared index or cache line. The single consumer harvests the stripes round-robin.
+ *
+ * <p>
+ * The queue implements {@link BlockingQueue} and can therefore be used directly as <code>RecordQueueFQN</code> of the
+ * {@link kieker.monitoring.core.controller.WriterController}. The <code>RecordQueueSize</code> then denotes the capacity
+ * <i>per stripe</i>, i.e., per thread which produces records. An insert fails (and is counted as failed by
+ * {@link kieker.monitoring.queue.behavior.CountOnFailedInsertBehavior}) only if the stripe of the inserting thread is
+ * full; other threads are not affected.
+ * </p>
+ *
+ * <p>
+ * Ordering: the elements inserted by the same thread are taken in their insertion order. There is no order between the
+ * elements of different threads. For Kieker records this means that the records of a trace are kept in order as long as
+ * the trace is executed by a single thread; records of different traces or of different threads of the same trace may
+ * interleave arbitrarily. Readers must therefore not rely on a global order (e.g., by timestamp) of the records.
+ * </p>
+ *
+ * <p>
+ * Stripes are created on the first insert of a thread. The stripe of a terminated thread is removed by the consumer as
+ * soon as it is empty. Only a single thread may call the consuming methods ({@link #poll()}, {@link #take()},
+ * {@link #drainTo(Collection)} etc.), as it is the case for the <code>MonitoringWriterThread</code>.
+ * </p>
+ *
+ * @param <E>
+ *            the type of the elements
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class StripedQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+	/** Number of spins of the consumer before it parks itself. */
+	private static final int CONSUMER_SPINS = 256;
+	/** Number of yields of a producer before it parks itself on a full stripe. */
+	private static final int PRODUCER_YIELDS = 64;
+	/** Park time of a producer on a full stripe. */
+	private static final long PRODUCER_PARK_NANOS = 10_000L;
+
+	private final int stripeCapacity;
+
+	private final ThreadLocal<Stripe<E>> threadLocalStripe = new ThreadLocal<>();
+	/** copy-on-write array of all stripes; written only while holding the lock of this queue. */
+	@SuppressWarnings("unchecked")
+	private volatile Stripe<E>[] stripes = new Stripe[0]; // NOPMD (volatile array is replaced, not modified)
+	/** the index of the stripe the consumer starts with next (read and written only by the consumer). */
+	private int nextStripeIndex;
+
+	private volatile Thread waitingConsumer; // NOPMD (volatile is necessary for the wake-up protocol)
+
+	/**
+	 * Creates a new striped queue.
+	 *
+	 * @param stripeCapacity
+	 *            the minimum capacity of each stripe; it is rounded up to the next power of two.
+	 */
+	public StripedQueue(final int stripeCapacity) {
+		super();
+		if (stripeCapacity < 1) {
+			throw new IllegalArgumentException("The capacity must be positive, but was " + stripeCapacity);
+		}
+		if (stripeCapacity > (1 << 30)) {
+			throw new IllegalArgumentException("The capacity must not exceed 2^30, but was " + stripeCapacity);
+		}
+		this.stripeCapacity = 1 << (32 - Integer.numberOfLeadingZeros(stripeCapacity - 1));
+	}
+
+	public int getStripeCapacity() {
+		return this.stripeCapacity;
+	}
+
+	public int getNumStripes() {
+		return this.stripes.length;
+	}
+
+	/**
+	 * @return the number of failed inserts (i.e., inserts into a full stripe) summed over all current stripes
+	 */
+	public long getNumFailedOffers() {
+		long sum = 0;
+		for (final Stripe<E> stripe : this.stripes) {
+			sum += stripe.numFailedOffers;
+		}
+		return sum;
+	}
+
+	private Stripe<E> getOrCreateStripe() {
+		Stripe<E> stripe = this.threadLocalStripe.get();
+		if (stripe == null) {
+			stripe = new Stripe<>(Thread.currentThread(), this.stripeCapacity);
+			this.addStripe(stripe);
+			this.threadLocalStripe.set(stripe);
+		}
+		return stripe;
+	}
+
+	private synchronized void addStripe(final Stripe<E> stripe) {
+		final Stripe<E>[] oldStripes = this.stripes;
+		final Stripe<E>[] newStripes = Arrays.copyOf(oldStripes, oldStripes.length + 1);
+		newStripes[oldStripes.length] = stripe;
+		this.stripes = newStripes;
+	}
+
+	private void removeTerminatedStripes() {
+		for (final Stripe<E> stripe : this.stripes) {
+			if (!stripe.owner.isAlive() && stripe.isEmpty()) {
+				this.removeTerminatedStripesSynchronized();
+				return;
+			}
+		}
+	}
+
+	private synchronized void removeTerminatedStripesSynchronized() {
+		final Stripe<E>[] oldStripes = this.stripes;
+		final Stripe<E>[] newStripes = Arrays.copyOf(oldStripes, oldStripes.length);
+		int length = 0;
+		for (final Stripe<E> stripe : oldStripes) {
+			if (stripe.owner.isAlive() || !stripe.isEmpty()) {
+				newStripes[length++] = stripe;
+			}
+		}
+		this.stripes = Arrays.copyOf(newStripes, length);
+	}
+
+	@Override
+	public boolean offer(final E e) {
+		final Stripe<E> stripe = this.getOrCreateStripe();
+		if (!this.offer(stripe, e)) {
+			stripe.numFailedOffers++; // NOPMD (only written by the owner of the stripe)
+			return false;
+		}
+		return true;
+	}
+
+	private boolean offer(final Stripe<E> stripe, final E e) {
+		if (e == null) {
+			throw new NullPointerException("The element may not be null.");
+		}
+		if (!stripe.offer(e)) {
+			return false;
+		}
+
+		final Thread consumer = this.waitingConsumer;
+		if (consumer != null) {
+			LockSupport.unpark(consumer);
+		}
+		return true;
+	}
+
+	@Override
+	public void put(final E e) throws InterruptedException {
+		final Stripe<E> stripe = this.getOrCreateStripe();
+		int yields = 0;
+		while (!this.offer(stripe, e)) {
+			if (Thread.interrupted()) {
+				throw new InterruptedException("Interrupted while waiting for the stripe to become non-full.");
+			}
+			if (yields < PRODUCER_YIELDS) {
+				yields++;
+				Thread.yield();
+			} else {
+				LockSupport.parkNanos(this, PRODUCER_PARK_NANOS);
+			}
+		}
+	}
+
+	@Override
+	public boolean offer(final E e, final long timeout, final TimeUnit unit) throws InterruptedException {
+		final Stripe<E> stripe = this.getOrCreateStripe();
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (!this.offer(stripe, e)) {
+			if (Thread.interrupted()) {
+				throw new InterruptedException("Interrupted while waiting for the stripe to become non-full.");
+			}
+			final long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				return false;
+			}
+			LockSupport.parkNanos(this, Math.min(remaining, PRODUCER_PARK_NANOS));
+		}
+		return true;
+	}
+
+	@Override
+	public E poll() {
+		final Stripe<E>[] currentStripes = this.stripes;
+		final int numStripes = currentStripes.length;
+		for (int i = 0; i < numStripes; i++) {
+			final int index = (this.nextStripeIndex + i) % numStripes;
+			final E e = currentStripes[index].poll();
+			if (e != null) {
+				this.nextStripeIndex = index + 1;
+				return e;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public E peek() {
+		final Stripe<E>[] currentStripes = this.stripes;
+		final int numStripes = currentStripes.length;
+		for (int i = 0; i < numStripes; i++) {
+			final E e = currentStripes[(this.nextStripeIndex + i) % numStripes].peek();
+			if (e != null) {
+				return e;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		E e = this.spinPoll();
+		if (e != null) {
+			return e;
+		}
+
+		this.removeTerminatedStripes();
+		this.waitingConsumer = Thread.currentThread();
+		try {
+			// re-check after announcing ourselves; otherwise we could miss the wake-up of a concurrent offer
+			e = this.poll();
+			while (e == null) {
+				LockSupport.park(this);
+				if (Thread.interrupted()) {
+					throw new InterruptedException("Interrupted while waiting for the queue to become non-empty.");
+				}
+				e = this.poll();
+			}
+		} finally {
+			this.waitingConsumer = null;
+		}
+		return e;
+	}
+
+	@Override
+	public E poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+		E e = this.spinPoll();
+		if (e != null) {
+			return e;
+		}
+
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		this.removeTerminatedStripes();
+		this.waitingConsumer = Thread.currentThread();
+		try {
+			e = this.poll();
+			while (e == null) {
+				final long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return null;
+				}
+				LockSupport.parkNanos(this, remaining);
+				if (Thread.interrupted()) {
+					throw new InterruptedException("Interrupted while waiting for the queue to become non-empty.");
+				}
+				e = this.poll();
+			}
+		} finally {
+			this.waitingConsumer = null;
+		}
+		return e;
+	}
+
+	private E spinPoll() {
+		E e = this.poll();
+		for (int i = 0; (e == null) && (i < CONSUMER_SPINS); i++) {
+			e = this.poll();
+		}
+		return e;
+	}
+
+	@Override
+	public int drainTo(final Collection<? super E> c) {
+		return this.drainTo(c, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Harvests the stripes round-robin, beginning with the stripe after the one harvested last.
+	 * Each stripe contributes at most an equal share of <code>maxElements</code> per round so that a single busy
+	 * thread cannot starve the others.
+	 */
+	@Override
+	public int drainTo(final Collection<? super E> c, final int maxElements) {
+		if (c == this) { // NOPMD (compare references)
+			throw new IllegalArgumentException("Cannot drain a queue into itself.");
+		}
+
+		final Stripe<E>[] currentStripes = this.stripes;
+		final int numStripes = currentStripes.length;
+		if (numStripes == 0) {
+			return 0;
+		}
+
+		final int share = Math.max(1, maxElements / numStripes);
+		int count = 0;
+		boolean drained = true;
+		while ((count < maxElements) && drained) {
+			drained = false;
+			for (int i = 0; (i < numStripes) && (count < maxElements); i++) {
+				final int index = (this.nextStripeIndex + i) % numStripes;
+				final int numDrained = currentStripes[index].drainTo(c, Math.min(share, maxElements - count));
+				if (numDrained > 0) {
+					count += numDrained;
+					drained = true;
+				}
+			}
+			this.nextStripeIndex = (this.nextStripeIndex + 1) % numStripes;
+		}
+		return count;
+	}
+
+	/**
+	 * @return the remaining capacity of the stripe of the calling thread
+	 */
+	@Override
+	public int remainingCapacity() {
+		final Stripe<E> stripe = this.threadLocalStripe.get();
+		return (stripe == null) ? this.stripeCapacity : this.stripeCapacity - stripe.size(); // NOCS (inline conditional)
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (final Stripe<E> stripe : this.stripes) {
+			size += stripe.size();
+		}
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		for (final Stripe<E> stripe : this.stripes) {
+			if (!stripe.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns a weakly consistent iterator over a snapshot of the elements, stripe by stripe. Since the queue has no
+	 * global order, the elements of different stripes are not ordered. Elements which are consumed or added after the
+	 * creation of the iterator are not reflected. The iterator does not support {@link Iterator#remove()}.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		final List<E> snapshot = new ArrayList<>();
+		for (final Stripe<E> stripe : this.stripes) {
+			stripe.copyTo(snapshot);
+		}
+		return Collections.unmodifiableList(snapshot).iterator();
+	}
+
+	@Override
+	public String toString() {
+		return this.getClass().getName() + "[stripeCapacity=" + this.stripeCapacity + ", stripes=" + this.getNumStripes() + ", size="
+				+ this.size() + ", failedOffers=" + this.getNumFailedOffers() + "]";
+	}
+
+	/**
+	 * A bounded single-producer single-consumer ring buffer owned by one producer thread.
+	 *
+	 * @param <E>
+	 *            the type of the elements
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 1.15
+	 */
+	private static final class Stripe<E> {
+
+		private final Thread owner;
+		private final int capacity;
+		private final int mask;
+		private final AtomicReferenceArray<E> buffer;
+
+		/** the next position to write; written only by the owner. */
+		private final PaddedAtomicLong tail = new PaddedAtomicLong();
+		/** the next position to read; written only by the consumer. */
+		private final PaddedAtomicLong head = new PaddedAtomicLong();
+		/** the last head seen by the owner; avoids reading the consumer's cache line on every insert. */
+		private long cachedHead;
+
+		private volatile long numFailedOffers; // NOPMD (only written by the owner, read by any thread)
+
+		public Stripe(final Thread owner, final int capacity) {
+			this.owner = owner;
+			this.capacity = capacity;
+			this.mask = capacity - 1;
+			this.buffer = new AtomicReferenceArray<>(capacity);
+		}
+
+		public boolean offer(final E e) {
+			final long position = this.tail.get();
+			if ((position - this.cachedHead) >= this.capacity) {
+				this.cachedHead = this.head.get();
+				if ((position - this.cachedHead) >= this.capacity) {
+					return false;
+				}
+			}
+			this.buffer.lazySet((int) position & this.mask, e);
+			// volatile write: publishes the element and orders it before the read of waitingConsumer
+			this.tail.set(position + 1);
+			return true;
+		}
+
+		public E poll() {
+			final long position = this.head.get();
+			if (position >= this.tail.get()) {
+				return null;
+			}
+			final int index = (int) position & this.mask;
+			final E e = this.buffer.get(index);
+			this.buffer.lazySet(index, null);
+			this.head.lazySet(position + 1);
+			return e;
+		}
+
+		public E peek() {
+			final long position = this.head.get();
+			if (position >= this.tail.get()) {
+				return null;
+			}
+			return this.buffer.get((int) position & this.mask);
+		}
+
+		public int drainTo(final Collection<? super E> c, final int maxElements) {
+			final long start = this.head.get();
+			final long end = Math.min(this.tail.get(), start + maxElements);
+			for (long position = start; position < end; position++) {
+				final int index = (int) position & this.mask;
+				c.add(this.buffer.get(index));
+				this.buffer.lazySet(index, null);
+			}
+			if (end > start) {
+				this.head.lazySet(end);
+			}
+			return (int) Math.max(0, end - start);
+		}
+
+		public void copyTo(final Collection<? super E> c) {
+			final long end = this.tail.get();
+			for (long position = this.head.get(); position < end; position++) {
+				final E e = this.buffer.get((int) position & this.mask);
+				// the owner may reuse the slot as soon as the consumer has passed it
+				if ((e != null) && (this.head.get() <= position)) {
+					c.add(e);
+				}
+			}
+		}
+
+		public int size() {
+			// read the head first so that the result is never negative
+			final long position = this.head.get();
+			return (int) (this.tail.get() - position);
+		}
+
+		public boolean isEmpty() {
+			return this.head.get() >= this.tail.get();
+		}
+	}
+}
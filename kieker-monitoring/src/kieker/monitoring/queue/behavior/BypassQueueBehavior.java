@@ -16,6 +16,7 @@
 package kieker.monitoring.queue.behavior;
 
 import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.IPooledRecord;
 import kieker.monitoring.writer.AbstractMonitoringWriter;
 
 /**
@@ -29,14 +30,19 @@ import kieker.monitoring.writer.AbstractMonitoringWriter;
 public class BypassQueueBehavior implements InsertBehavior<IMonitoringRecord> {
 
 	private final AbstractMonitoringWriter writer;
+	private final boolean releasePooledRecords;
 
 	public BypassQueueBehavior(final AbstractMonitoringWriter writer) {
 		this.writer = writer;
+		this.releasePooledRecords = writer.supportsPooledRecords() && !writer.isReleasingPooledRecords();
 	}
 
 	@Override
 	public boolean insert(final IMonitoringRecord element) {
 		this.writer.writeMonitoringRecord(element);
+		if (this.releasePooledRecords && (element instanceof IPooledRecord)) {
+			((IPooledRecord) element).release();
+		}
 		return true;
 	}
 
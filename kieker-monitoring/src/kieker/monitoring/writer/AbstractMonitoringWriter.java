@@ -16,6 +16,7 @@
 
 package kieker.monitoring.writer;
 
+import java.util.List;
 import java.util.Set;
 
 import kieker.common.configuration.Configuration;
@@ -47,6 +48,50 @@ public abstract class AbstractMonitoringWriter {
 	 */
 	public abstract void writeMonitoringRecord(IMonitoringRecord record);
 
+	/**
+	 * This event fires when the {@link MonitoringWriterThread} has drained a batch of records from the writer queue.
+	 * Writers which can amortize their I/O over several records should override this method, e.g., to write the
+	 * whole batch with a single channel write. The default implementation calls {@link #writeMonitoringRecord(IMonitoringRecord)}
+	 * for each record.
+	 *
+	 * @param records
+	 *            the records in the order of their insertion into the writer queue; the list is reused after this call
+	 *
+	 * @since 1.15
+	 */
+	public void writeMonitoringRecords(final List<IMonitoringRecord> records) {
+		for (final IMonitoringRecord record : records) {
+			this.writeMonitoringRecord(record);
+		}
+	}
+
+	/**
+	 * Indicates whether this writer can handle {@link kieker.common.record.IPooledRecord}s. A pooled record is reused
+	 * by the probes after it has been written. Hence, a writer may only support them if it serializes each record under
+	 * {@link kieker.common.record.AbstractMonitoringRecord#getTypeName(IMonitoringRecord)} and does not pass the record
+	 * object itself on, e.g., to another thread or via Java serialization. The default is <code>false</code>.
+	 *
+	 * @return <code>true</code> if the probes may pass pooled records to this writer
+	 *
+	 * @since 1.15
+	 */
+	public boolean supportsPooledRecords() {
+		return false;
+	}
+
+	/**
+	 * Indicates whether this writer releases {@link kieker.common.record.IPooledRecord}s itself, e.g., because it keeps
+	 * the records after a write call. Otherwise, the {@link MonitoringWriterThread} releases them right after the write
+	 * call. The default is <code>false</code>.
+	 *
+	 * @return <code>true</code> if the writer calls {@link kieker.common.record.IPooledRecord#release()} itself
+	 *
+	 * @since 1.15
+	 */
+	public boolean isReleasingPooledRecords() {
+		return false;
+	}
+
 	/**
 	 * This event fires when Kieker has been notified to terminate.
 	 * It is executed by the {@link MonitoringWriterThread} just after finishing the writer queue.
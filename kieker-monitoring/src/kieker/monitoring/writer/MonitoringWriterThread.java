@@ -16,15 +16,26 @@
 
 package kieker.monitoring.writer;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.IPooledRecord;
 import kieker.common.record.misc.EmptyRecord;
 
 /**
+ * Takes the records from the writer queue and passes them to the writer.
+ * If a batch size greater than one is configured, the thread drains up to that many records at once from the queue
+ * and passes them as a batch to {@link AbstractMonitoringWriter#writeMonitoringRecords(List)}. Optionally, it waits up to
+ * a maximal time for a batch to fill up. After each write call, it releases the {@link IPooledRecord}s of the written
+ * records unless the writer releases them itself.
+ *
  * @author Christian Wulf
  *
  * @since 1.13
@@ -35,12 +46,35 @@ public class MonitoringWriterThread extends Thread {
 
 	private static final IMonitoringRecord END_OF_MONITORING_RECORD = new EmptyRecord();
 
+	/** The time to park while waiting for a batch to fill up. */
+	private static final long BATCH_POLL_INTERVAL_IN_NS = TimeUnit.MICROSECONDS.toNanos(50);
+
 	private final BlockingQueue<IMonitoringRecord> writerQueue;
 	private final AbstractMonitoringWriter writer;
-
-	// private int numWrittenRecords;
+	private final int batchSize;
+	private final long batchMaxWaitInNs;
+	private final boolean releasePooledRecords;
 
 	public MonitoringWriterThread(final AbstractMonitoringWriter writer, final BlockingQueue<IMonitoringRecord> writerQueue) {
+		this(writer, writerQueue, 1, 0);
+	}
+
+	/**
+	 * Create a writer thread which passes records in batches to the writer.
+	 *
+	 * @param writer
+	 *            the writer
+	 * @param writerQueue
+	 *            the queue to take the records from
+	 * @param batchSize
+	 *            the maximal number of records per batch; a value of 1 disables batching
+	 * @param batchMaxWaitInNs
+	 *            the maximal time to wait for a batch to fill up; 0 writes whatever is available without waiting
+	 *
+	 * @since 1.15
+	 */
+	public MonitoringWriterThread(final AbstractMonitoringWriter writer, final BlockingQueue<IMonitoringRecord> writerQueue, final int batchSize,
+			final long batchMaxWaitInNs) {
 		if (writer == null) {
 			throw new NullPointerException("The given writer may not be null.");
 		}
@@ -49,6 +83,9 @@ public class MonitoringWriterThread extends Thread {
 		}
 		this.writer = writer;
 		this.writerQueue = writerQueue;
+		this.batchSize = Math.max(1, batchSize);
+		this.batchMaxWaitInNs = Math.max(0, batchMaxWaitInNs);
+		this.releasePooledRecords = writer.supportsPooledRecords() && !writer.isReleasingPooledRecords();
 		// All Kieker threads must be daemon threads. Otherwise the monitored application can never terminate.
 		this.setDaemon(true);
 	}
@@ -60,11 +97,19 @@ public class MonitoringWriterThread extends Thread {
 		this.writer.onStarting();
 
 		try {
-			IMonitoringRecord record = this.writerQueue.take();
-			while (record != END_OF_MONITORING_RECORD) { // NOPMD (compare references by == not by equals())
-				this.writer.writeMonitoringRecord(record);
-				record = this.writerQueue.take();
+			if (this.batchSize > 1) {
+				this.writeBatches();
+			} else {
+				IMonitoringRecord record = this.writerQueue.take();
+				while (record != END_OF_MONITORING_RECORD) { // NOPMD (compare references by == not by equals())
+					this.writer.writeMonitoringRecord(record);
+					if (this.releasePooledRecords && (record instanceof IPooledRecord)) {
+						((IPooledRecord) record).release();
+					}
+					record = this.writerQueue.take();
+				}
 			}
+			this.writeRemainingRecords();
 		} catch (final InterruptedException e) {
 			LOGGER.debug("{} was interrupted.", this.getClass().getName(), e);
 			// do nothing; the thread terminates itself
@@ -75,6 +120,79 @@ public class MonitoringWriterThread extends Thread {
 		LOGGER.debug("{} has finished.", this.getClass().getName());
 	}
 
+	private void writeBatches() throws InterruptedException {
+		final List<IMonitoringRecord> batch = new ArrayList<>(this.batchSize);
+
+		boolean running = true;
+		while (running) {
+			// block until at least one record is available
+			batch.add(this.writerQueue.take());
+			this.writerQueue.drainTo(batch, this.batchSize - 1);
+			if (this.batchMaxWaitInNs > 0) {
+				this.fillBatch(batch);
+			}
+
+			final int endIndex = MonitoringWriterThread.indexOfEndOfMonitoringRecord(batch);
+			if (endIndex >= 0) {
+				batch.remove(endIndex);
+				running = false;
+			}
+
+			if (!batch.isEmpty()) {
+				this.writer.writeMonitoringRecords(batch);
+				this.releasePooledRecords(batch);
+				batch.clear();
+			}
+		}
+	}
+
+	/**
+	 * Writes the records which are still in the queue after the end token has been taken. A queue without a global
+	 * order, such as the {@link kieker.monitoring.queue.StripedQueue}, may return the end token before records which
+	 * other threads have inserted earlier.
+	 */
+	private void writeRemainingRecords() {
+		final List<IMonitoringRecord> remainingRecords = new ArrayList<>();
+		this.writerQueue.drainTo(remainingRecords);
+		if (!remainingRecords.isEmpty()) {
+			this.writer.writeMonitoringRecords(remainingRecords);
+			this.releasePooledRecords(remainingRecords);
+		}
+	}
+
+	private void releasePooledRecords(final List<IMonitoringRecord> records) {
+		if (this.releasePooledRecords) {
+			for (final IMonitoringRecord record : records) {
+				if (record instanceof IPooledRecord) {
+					((IPooledRecord) record).release();
+				}
+			}
+		}
+	}
+
+	private static int indexOfEndOfMonitoringRecord(final List<IMonitoringRecord> batch) {
+		// do not use indexOf() since records compare by value, but the token must be compared by reference
+		for (int i = batch.size() - 1; i >= 0; i--) {
+			if (batch.get(i) == END_OF_MONITORING_RECORD) { // NOPMD (compare references by == not by equals())
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void fillBatch(final List<IMonitoringRecord> batch) {
+		final long deadline = System.nanoTime() + this.batchMaxWaitInNs;
+		while ((batch.size() < this.batchSize) && (batch.get(batch.size() - 1) != END_OF_MONITORING_RECORD)) { // NOPMD (compare references)
+			if (this.writerQueue.drainTo(batch, this.batchSize - batch.size()) == 0) {
+				final long remainingInNs = deadline - System.nanoTime();
+				if (remainingInNs <= 0) {
+					break;
+				}
+				LockSupport.parkNanos(this, Math.min(remainingInNs, BATCH_POLL_INTERVAL_IN_NS));
+			}
+		}
+	}
+
 	/**
 	 * Initiates the termination of this thread.
 	 */
@@ -19,6 +19,7 @@ package kieker.monitoring.writer;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.WritableByteChannel;
 
 import org.slf4j.Logger;
@@ -54,6 +55,43 @@ public final class WriterUtil {
 		return bytesWritten;
 	}
 
+	/**
+	 * Writes the given buffers in their order with as few (gathering) writes as possible and clears them afterwards.
+	 *
+	 * @return the number of bytes written from the buffers to the channel
+	 *
+	 * @since 1.15
+	 */
+	public static long flushBuffers(final ByteBuffer[] buffers, final GatheringByteChannel writableChannel, final Logger logger) {
+		long bytesWritten = 0;
+
+		for (final ByteBuffer buffer : buffers) {
+			buffer.flip();
+		}
+		try {
+			while (WriterUtil.hasRemaining(buffers)) {
+				bytesWritten += writableChannel.write(buffers);
+			}
+			for (final ByteBuffer buffer : buffers) {
+				buffer.clear();
+			}
+		} catch (final IOException e) {
+			logger.error("Caught exception while writing to the channel.", e);
+			WriterUtil.close(writableChannel, logger);
+		}
+
+		return bytesWritten;
+	}
+
+	private static boolean hasRemaining(final ByteBuffer[] buffers) {
+		for (final ByteBuffer buffer : buffers) {
+			if (buffer.hasRemaining()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	public static void close(final Closeable closeable, final Logger logger) {
 		try {
 			closeable.close();
@@ -36,6 +36,7 @@ import kieker.common.record.IMonitoringRecord;
 import kieker.common.record.io.BinaryValueSerializer;
 import kieker.common.record.misc.RegistryRecord;
 import kieker.common.registry.IRegistryListener;
+import kieker.common.registry.writer.RecordTypeIdCache;
 import kieker.common.registry.writer.WriterRegistry;
 import kieker.common.util.thread.DaemonThreadFactory;
 import kieker.monitoring.writer.AbstractMonitoringWriter;
@@ -86,6 +87,7 @@ public class AmqpWriter extends AbstractMonitoringWriter implements IRegistryLis
 	private final Channel channel;
 
 	private final WriterRegistry writerRegistry;
+	private final RecordTypeIdCache recordTypeIds;
 
 	public AmqpWriter(final Configuration configuration) throws KeyManagementException, NoSuchAlgorithmException, URISyntaxException, IOException, TimeoutException {
 		super(configuration);
@@ -109,6 +111,7 @@ public class AmqpWriter extends AbstractMonitoringWriter implements IRegistryLis
 		this.channel = this.connection.createChannel();
 
 		this.writerRegistry = new WriterRegistry(this);
+		this.recordTypeIds = new RecordTypeIdCache(this.writerRegistry);
 	}
 
 	private Connection createConnection() throws KeyManagementException, NoSuchAlgorithmException, URISyntaxException, IOException, TimeoutException {
@@ -139,15 +142,14 @@ public class AmqpWriter extends AbstractMonitoringWriter implements IRegistryLis
 		}
 
 		// register monitoringRecord class name
-		final String recordClassName = monitoringRecord.getClass().getName();
-		this.writerRegistry.register(recordClassName);
+		final int recordTypeId = this.recordTypeIds.getTypeId(monitoringRecord);
 
 		// Prepend envelope data
 		recordBuffer.put(REGULAR_RECORD_ID);
 		recordBuffer.putLong(this.writerRegistry.getId());
 
 		// serialized monitoringRecord
-		recordBuffer.putInt(this.writerRegistry.getId(recordClassName));
+		recordBuffer.putInt(recordTypeId);
 		recordBuffer.putLong(monitoringRecord.getLoggingTimestamp());
 		monitoringRecord.serialize(BinaryValueSerializer.create(recordBuffer, this.writerRegistry));
 
@@ -191,6 +193,11 @@ public class AmqpWriter extends AbstractMonitoringWriter implements IRegistryLis
 		}
 	}
 
+	@Override
+	public boolean supportsPooledRecords() {
+		return true;
+	}
+
 	@Override
 	public void onTerminating() {
 		try {
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Queue;
 
 import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.IPooledRecord;
 import kieker.monitoring.writer.raw.IRawDataWriter;
 import kieker.monitoring.writer.serializer.IMonitoringRecordSerializer;
 
@@ -154,6 +155,12 @@ class ChunkWriterTask implements Runnable {
 		outputBuffer.rewind();
 		final int bytesWritten = this.serializer.serializeRecords(chunk, outputBuffer);
 		this.writer.writeData(outputBuffer, 0, bytesWritten);
+
+		for (final IMonitoringRecord record : chunk) {
+			if (record instanceof IPooledRecord) {
+				((IPooledRecord) record).release();
+			}
+		}
 	}
 
 	private void updateNextWriteTime() {
@@ -17,11 +17,14 @@ package kieker.monitoring.writer.collector;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +48,10 @@ import kieker.monitoring.writer.serializer.IMonitoringRecordSerializer;
  * on one another. In particular, the queue size should be chosen large enough so that the queue
  * does not fill up in a single task run interval. In addition, the output buffer needs to be
  * large enough to hold a completely serialized chunk, and therefore depends on the chunk size.
+ * <p/>
+ * The chunks are not compressed. The {@link IRawDataWriter}s send each chunk as a message, e.g., via AMQP or Kafka, and
+ * the receiving readers decode the serialized records directly. Moreover, a chunk holds only a few records, so compressing
+ * each chunk on its own would gain little, unlike the block compression of the log files of the file writers.
  *
  * @author Holger Knoche
  *
@@ -107,7 +114,11 @@ public class ChunkingCollector extends AbstractMonitoringWriter {
 
 	private final ScheduledExecutorService scheduledExecutor;
 	private final int taskRunInterval;
+	private final int chunkSize;
 	private final ChunkWriterTask writerTask;
+	/** Runs the writer task out of its schedule as soon as a drained batch fills at least one chunk. */
+	private final Runnable immediateWriterTask;
+	private final AtomicBoolean immediateWriteScheduled = new AtomicBoolean();
 
 	/**
 	 * Create a chunking collector.
@@ -135,10 +146,17 @@ public class ChunkingCollector extends AbstractMonitoringWriter {
 
 		// Instantiate the writer task
 		final int deferredWriteDelayMs = configuration.getIntProperty(CONFIG_DEFERRED_WRITE_DELAY, DEFAULT_DEFERRED_WRITE_DELAY);
-		final int chunkSize = configuration.getIntProperty(CONFIG_CHUNK_SIZE, DEFAULT_CHUNK_SIZE);
+		this.chunkSize = configuration.getIntProperty(CONFIG_CHUNK_SIZE, DEFAULT_CHUNK_SIZE);
 		final int outputBufferSize = configuration.getIntProperty(CONFIG_OUTPUT_BUFFER_SIZE, DEFAULT_OUTPUT_BUFFER_SIZE);
 
-		this.writerTask = new ChunkWriterTask(this, chunkSize, deferredWriteDelayMs, outputBufferSize, serializer, writer);
+		this.writerTask = new ChunkWriterTask(this, this.chunkSize, deferredWriteDelayMs, outputBufferSize, serializer, writer);
+		this.immediateWriterTask = new Runnable() {
+			@Override
+			public void run() {
+				ChunkingCollector.this.immediateWriteScheduled.set(false);
+				ChunkingCollector.this.writerTask.run();
+			}
+		};
 	}
 
 	@SuppressWarnings("unchecked")
@@ -170,6 +188,20 @@ public class ChunkingCollector extends AbstractMonitoringWriter {
 		this.writerTask.initialize();
 	}
 
+	@Override
+	public boolean supportsPooledRecords() {
+		return true;
+	}
+
+	/**
+	 * The records are kept in the record queue until their chunk has been serialized; hence, the
+	 * {@link ChunkWriterTask} releases pooled records itself.
+	 */
+	@Override
+	public boolean isReleasingPooledRecords() {
+		return true;
+	}
+
 	@Override
 	public void onTerminating() {
 		// Terminate scheduled execution and write remaining chunks, if any
@@ -203,6 +235,26 @@ public class ChunkingCollector extends AbstractMonitoringWriter {
 		this.enqueueRecord(record);
 	}
 
+	/**
+	 * Enqueues the whole batch and, if it fills at least one chunk, runs the writer task immediately instead of
+	 * waiting for its next scheduled run. Since the executor has a single worker, the writer task never runs concurrently.
+	 */
+	@Override
+	public void writeMonitoringRecords(final List<IMonitoringRecord> records) {
+		for (final IMonitoringRecord record : records) {
+			this.enqueueRecord(record);
+		}
+
+		if ((this.recordQueue.size() >= this.chunkSize) && this.immediateWriteScheduled.compareAndSet(false, true)) {
+			try {
+				this.scheduledExecutor.execute(this.immediateWriterTask);
+			} catch (final RejectedExecutionException e) {
+				// the executor is shutting down; the remaining records are written on termination
+				this.immediateWriteScheduled.set(false);
+			}
+		}
+	}
+
 	public Queue<IMonitoringRecord> getRecordQueue() {
 		return this.recordQueue;
 	}
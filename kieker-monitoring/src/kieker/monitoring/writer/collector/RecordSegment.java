@@ -0,0 +1,184 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.collector;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import kieker.common.record.AbstractMonitoringRecord;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.io.BinaryValueSerializer;
+import kieker.common.record.io.IValueSerializer;
+import kieker.common.registry.writer.IWriterRegistry;
+import kieker.common.util.dataformat.VariableLengthEncoding;
+import kieker.monitoring.writer.serializer.AbstractContainerFormatSerializer;
+import kieker.monitoring.writer.serializer.BinarySerializer;
+
+/**
+ * A direct buffer into which a single thread serializes records. A finished segment is a complete chunk of the
+ * binary container format, i.e., it has the same layout as a chunk written by the {@link BinarySerializer}:
+ * the container header, the record data, the string table, and the size of the record data. Hence, a segment
+ * carries its own string ids and can be read without any shared string registry.
+ * The segment is not thread-safe.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+final class RecordSegment implements IWriterRegistry<String> {
+
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	/** container identifier and format identifier. */
+	private static final int HEADER_SIZE = 8;
+	/** maximal size of the number of strings (variable-length encoded) and the size of the record data. */
+	private static final int TRAILER_SIZE = 5 + 4;
+
+	private final ByteBuffer buffer;
+	private final IValueSerializer serializer;
+
+	private final Map<String, Integer> stringIds = new HashMap<>(); // NOPMD (not accessed concurrently)
+	private final List<String> strings = new ArrayList<>();
+	private final List<byte[]> encodedStrings = new ArrayList<>();
+	private int stringDataSize;
+
+	private long firstRecordTimeInNs;
+
+	/**
+	 * Creates a new empty segment.
+	 *
+	 * @param capacity
+	 *            the size of the segment in bytes
+	 */
+	RecordSegment(final int capacity) {
+		this.buffer = ByteBuffer.allocateDirect(capacity);
+		this.serializer = BinaryValueSerializer.create(this.buffer, this);
+		this.reset();
+	}
+
+	/**
+	 * Serializes the given record into this segment. If the record does not fit, the segment is left unchanged.
+	 *
+	 * @param record
+	 *            the record to append
+	 * @return <code>true</code> if the record has been appended, <code>false</code> if the segment is full
+	 */
+	boolean append(final IMonitoringRecord record) {
+		final int startPosition = this.buffer.position();
+		final int numStrings = this.strings.size();
+		final int stringDataSizeBefore = this.stringDataSize;
+
+		try {
+			this.buffer.putInt(this.getId(AbstractMonitoringRecord.getTypeName(record)));
+			this.buffer.putLong(record.getLoggingTimestamp());
+			record.serialize(this.serializer);
+			if ((this.buffer.position() + this.stringDataSize + TRAILER_SIZE) <= this.buffer.capacity()) {
+				if (startPosition == HEADER_SIZE) {
+					this.firstRecordTimeInNs = System.nanoTime();
+				}
+				return true;
+			}
+		} catch (final BufferOverflowException e) { // NOPMD (the segment is full; roll back below)
+			// roll back below
+		}
+
+		// roll back the partially written record and its new strings
+		this.buffer.position(startPosition);
+		for (int i = this.strings.size() - 1; i >= numStrings; i--) {
+			this.stringIds.remove(this.strings.remove(i));
+			this.encodedStrings.remove(i);
+		}
+		this.stringDataSize = stringDataSizeBefore;
+		return false;
+	}
+
+	boolean isEmpty() {
+		return this.buffer.position() == HEADER_SIZE;
+	}
+
+	/**
+	 * @return the time (see {@link System#nanoTime()}) at which the first record of this segment has been appended
+	 */
+	long getFirstRecordTimeInNs() {
+		return this.firstRecordTimeInNs;
+	}
+
+	/**
+	 * Appends the string table and the trailer and prepares the buffer for reading. After the chunk has been written,
+	 * the segment must be {@link #reset()}.
+	 *
+	 * @return the buffer containing the complete chunk from position 0 to its limit
+	 */
+	ByteBuffer finish() {
+		final int recordDataSize = this.buffer.position() - HEADER_SIZE;
+
+		VariableLengthEncoding.encodeInt(this.encodedStrings.size(), this.buffer);
+		for (final byte[] encodedString : this.encodedStrings) {
+			VariableLengthEncoding.encodeInt(encodedString.length, this.buffer);
+			this.buffer.put(encodedString);
+		}
+		this.buffer.putInt(recordDataSize);
+
+		this.buffer.flip();
+		return this.buffer;
+	}
+
+	/**
+	 * Empties the segment for the next chunk.
+	 */
+	void reset() {
+		this.buffer.clear();
+		this.buffer.putInt(AbstractContainerFormatSerializer.CONTAINER_IDENTIFIER);
+		this.buffer.putInt(BinarySerializer.FORMAT_IDENTIFIER);
+
+		this.stringIds.clear();
+		this.strings.clear();
+		this.encodedStrings.clear();
+		this.stringDataSize = 0;
+	}
+
+	@Override
+	public int getId(final String value) {
+		final Integer id = this.stringIds.get(value);
+		if (id != null) {
+			return id;
+		}
+
+		final int newId = this.strings.size();
+		final byte[] encodedString = value.getBytes(CHARSET);
+		this.stringIds.put(value, newId);
+		this.strings.add(value);
+		this.encodedStrings.add(encodedString);
+		// at most five bytes for the variable-length encoded string length
+		this.stringDataSize += encodedString.length + 5;
+		return newId;
+	}
+
+	@Override
+	public void register(final String value) {
+		this.getId(value);
+	}
+
+	@Override
+	public long getId() {
+		return 0;
+	}
+}
@@ -0,0 +1,282 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.collector;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.util.classpath.InstantiationFactory;
+import kieker.common.util.thread.DaemonThreadFactory;
+import kieker.monitoring.core.controller.ReceiveUnfilteredConfiguration;
+import kieker.monitoring.queue.MpscRingBufferQueue;
+import kieker.monitoring.writer.AbstractMonitoringWriter;
+import kieker.monitoring.writer.raw.IRawDataWriter;
+
+/**
+ * Collector which serializes each record on the calling thread into a thread-local segment of a direct buffer.
+ * A segment has the layout of a chunk of the {@link kieker.monitoring.writer.serializer.BinarySerializer}, including
+ * its own string table. Full segments are handed over to a writer task, which passes them as opaque chunks to the
+ * configured {@link IRawDataWriter} and recycles them. Segments which have not been filled within the deferred write
+ * delay are written by the writer task as well.
+ * <p/>
+ * <b>Configuration hints:</b> The collector is meant to be used with <code>RecordQueueInsertBehavior=5</code>, which
+ * bypasses the writer queue. Then, the probes serialize their records directly into the segments of their threads
+ * and, together with the <code>RecordPoolCapacity</code>, no record object and no queue hop is left on the probe path.
+ * With a queue, the collector works as well, but all records are serialized by the single writer thread. If the writer
+ * task falls behind, the threads block as soon as <code>maxPendingSegments</code> full segments are waiting.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+@ReceiveUnfilteredConfiguration
+public class ThreadLocalChunkingCollector extends AbstractMonitoringWriter {
+
+	// Default segment size (in bytes)
+	private static final int DEFAULT_SEGMENT_SIZE = 65536;
+
+	// Default maximal number of full segments waiting for the writer task
+	private static final int DEFAULT_MAX_PENDING_SEGMENTS = 64;
+
+	// Default deferred write delay (in milliseconds)
+	private static final int DEFAULT_DEFERRED_WRITE_DELAY = 500;
+
+	// Default run task run interval (in milliseconds)
+	private static final int DEFAULT_TASK_RUN_INTERVAL = 20;
+
+	private static final String PREFIX = ThreadLocalChunkingCollector.class.getName() + ".";
+
+	/** The name of the configuration property for the writer class name. */
+	public static final String CONFIG_WRITER_CLASSNAME = PREFIX + "writer"; // NOCS (afterPREFIX)
+
+	/** The name of the configuration property for the segment size in bytes. */
+	public static final String CONFIG_SEGMENT_SIZE = PREFIX + "segmentSize"; // NOCS (afterPREFIX)
+
+	/** The name of the configuration property for the maximal number of full segments waiting to be written. */
+	public static final String CONFIG_MAX_PENDING_SEGMENTS = PREFIX + "maxPendingSegments"; // NOCS (afterPREFIX)
+
+	/** The name of the configuration property for the deferred write delay. */
+	public static final String CONFIG_DEFERRED_WRITE_DELAY = PREFIX + "deferredWriteDelay"; // NOCS (afterPREFIX)
+
+	/** The name of the configuration property for the writer task interval. */
+	public static final String CONFIG_TASK_RUN_INTERVAL = PREFIX + "taskRunInterval"; // NOCS (afterPREFIX)
+
+	/** The time unit for the writer task interval. */
+	private static final TimeUnit TASK_RUN_INTERVAL_TIME_UNIT = TimeUnit.MILLISECONDS;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ThreadLocalChunkingCollector.class);
+
+	private final IRawDataWriter writer;
+	private final int segmentSize;
+	private final long deferredWriteDelayNs;
+	private final int taskRunInterval;
+
+	/** full segments in the order of their hand-over; the writer task is the single consumer. */
+	private final BlockingQueue<RecordSegment> fullSegments;
+	/** written segments for reuse. */
+	private final BlockingQueue<RecordSegment> freeSegments;
+	private final List<ThreadSegment> threadSegments = new CopyOnWriteArrayList<>();
+	private final ThreadLocal<ThreadSegment> threadLocalSegment;
+
+	private final ScheduledExecutorService scheduledExecutor;
+
+	/**
+	 * Create a thread-local chunking collector.
+	 *
+	 * @param configuration
+	 *            kieker configuration with all parameters
+	 */
+	public ThreadLocalChunkingCollector(final Configuration configuration) {
+		super(configuration);
+
+		this.segmentSize = configuration.getIntProperty(CONFIG_SEGMENT_SIZE, DEFAULT_SEGMENT_SIZE);
+		final int maxPendingSegments = configuration.getIntProperty(CONFIG_MAX_PENDING_SEGMENTS, DEFAULT_MAX_PENDING_SEGMENTS);
+		this.deferredWriteDelayNs = TimeUnit.MILLISECONDS.toNanos(configuration.getIntProperty(CONFIG_DEFERRED_WRITE_DELAY, DEFAULT_DEFERRED_WRITE_DELAY));
+		this.taskRunInterval = configuration.getIntProperty(CONFIG_TASK_RUN_INTERVAL, DEFAULT_TASK_RUN_INTERVAL);
+
+		this.fullSegments = new MpscRingBufferQueue<>(maxPendingSegments);
+		this.freeSegments = new ArrayBlockingQueue<>(maxPendingSegments);
+		this.threadLocalSegment = new ThreadLocal<ThreadSegment>() {
+			@Override
+			protected ThreadSegment initialValue() {
+				final ThreadSegment threadSegment = new ThreadSegment(Thread.currentThread(), ThreadLocalChunkingCollector.this.newSegment());
+				ThreadLocalChunkingCollector.this.threadSegments.add(threadSegment);
+				return threadSegment;
+			}
+		};
+
+		final InstantiationFactory controllerFactory = InstantiationFactory.getInstance(configuration);
+		final String writerName = configuration.getStringProperty(CONFIG_WRITER_CLASSNAME);
+		this.writer = controllerFactory.createAndInitialize(IRawDataWriter.class, writerName, configuration);
+
+		this.scheduledExecutor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory());
+	}
+
+	@Override
+	public void onStarting() {
+		this.writer.onInitialization();
+		this.scheduledExecutor.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				ThreadLocalChunkingCollector.this.writeSegments(System.nanoTime());
+			}
+		}, 0, this.taskRunInterval, TASK_RUN_INTERVAL_TIME_UNIT);
+	}
+
+	@Override
+	public void writeMonitoringRecord(final IMonitoringRecord record) {
+		final ThreadSegment threadSegment = this.threadLocalSegment.get();
+		threadSegment.lock.lock();
+		try {
+			if (threadSegment.segment.append(record)) {
+				return;
+			}
+			if (threadSegment.segment.isEmpty()) {
+				LOGGER.error("The record {} does not fit into a segment of {} bytes.", record.getClass().getName(), this.segmentSize);
+				return;
+			}
+
+			// hand over the full segment while holding the lock so that the writer task cannot write the next segment before
+			this.fullSegments.put(threadSegment.segment);
+			threadSegment.segment = this.newSegment();
+			if (!threadSegment.segment.append(record)) {
+				LOGGER.error("The record {} does not fit into a segment of {} bytes.", record.getClass().getName(), this.segmentSize);
+			}
+		} catch (final InterruptedException e) {
+			LOGGER.warn("Interrupted while waiting for the writer task; the record has been dropped.", e);
+		} finally {
+			threadSegment.lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean supportsPooledRecords() {
+		return true;
+	}
+
+	@Override
+	public void onTerminating() {
+		this.scheduledExecutor.shutdown();
+		try {
+			this.scheduledExecutor.awaitTermination(Long.MAX_VALUE, TASK_RUN_INTERVAL_TIME_UNIT);
+		} catch (final InterruptedException e) {
+			LOGGER.warn("Awaiting termination of the scheduled executor was interrupted.", e);
+		}
+
+		// write all remaining segments, regardless of their age
+		this.writeFullSegments();
+		for (final ThreadSegment threadSegment : this.threadSegments) {
+			// a thread may be blocked on a full queue while holding its lock
+			while (!threadSegment.lock.tryLock()) {
+				this.writeFullSegments();
+				Thread.yield();
+			}
+			try {
+				this.writePartialSegment(threadSegment);
+			} finally {
+				threadSegment.lock.unlock();
+			}
+		}
+
+		this.writer.onTermination();
+	}
+
+	private RecordSegment newSegment() {
+		final RecordSegment segment = this.freeSegments.poll();
+		if (segment != null) {
+			return segment;
+		}
+		return new RecordSegment(this.segmentSize);
+	}
+
+	/**
+	 * Writes the full segments and all partial segments older than the deferred write delay. Executed by the writer task.
+	 */
+	private void writeSegments(final long currentTimeInNs) {
+		this.writeFullSegments();
+
+		for (final ThreadSegment threadSegment : this.threadSegments) {
+			// do not wait for a thread which is blocked on a full queue; its segment is full anyway
+			if (threadSegment.lock.tryLock()) {
+				try {
+					if (threadSegment.segment.isEmpty()) {
+						if (!threadSegment.owner.isAlive()) {
+							this.threadSegments.remove(threadSegment);
+						}
+					} else if ((currentTimeInNs - threadSegment.segment.getFirstRecordTimeInNs()) >= this.deferredWriteDelayNs) {
+						this.writePartialSegment(threadSegment);
+					}
+				} finally {
+					threadSegment.lock.unlock();
+				}
+			}
+		}
+	}
+
+	private void writeFullSegments() {
+		RecordSegment segment = this.fullSegments.poll();
+		while (segment != null) {
+			this.writeSegment(segment);
+			this.freeSegments.offer(segment); // a full pool of free segments drops the segment
+			segment = this.fullSegments.poll();
+		}
+	}
+
+	/**
+	 * Must be called with the lock of the given thread segment.
+	 */
+	private void writePartialSegment(final ThreadSegment threadSegment) {
+		if (!threadSegment.segment.isEmpty()) {
+			// the full segments of the thread must be written before its current segment
+			this.writeFullSegments();
+			this.writeSegment(threadSegment.segment);
+		}
+	}
+
+	private void writeSegment(final RecordSegment segment) {
+		final ByteBuffer chunk = segment.finish();
+		this.writer.writeData(chunk, 0, chunk.limit());
+		segment.reset();
+	}
+
+	/**
+	 * The current segment of a thread. The lock is held by the owner while appending and by the writer task while writing
+	 * a partial segment.
+	 */
+	private static final class ThreadSegment {
+
+		private final Thread owner;
+		private final ReentrantLock lock = new ReentrantLock();
+		private RecordSegment segment;
+
+		ThreadSegment(final Thread owner, final RecordSegment segment) {
+			this.owner = owner;
+			this.segment = segment;
+		}
+	}
+}
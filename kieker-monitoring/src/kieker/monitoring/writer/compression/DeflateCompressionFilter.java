@@ -15,10 +15,14 @@
  ***************************************************************************/
 package kieker.monitoring.writer.compression;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 
 import kieker.common.configuration.Configuration;
@@ -32,19 +36,89 @@ import kieker.common.util.filesystem.FSUtil;
  */
 public class DeflateCompressionFilter implements ICompressionFilter {
 
+	/** The prefix of the configuration keys. */
+	public static final String PREFIX = DeflateCompressionFilter.class.getName() + ".";
+	/**
+	 * The name of the configuration key for the number of compressor threads. With 0 (default), the data is compressed on
+	 * the writer thread.
+	 */
+	public static final String CONFIG_THREADS = DeflateCompressionFilter.PREFIX + "threads";
+	/** The name of the configuration key for the size of an uncompressed block (in bytes) which is compressed by one thread. */
+	public static final String CONFIG_BLOCK_SIZE = DeflateCompressionFilter.PREFIX + "blockSize";
+
+	/** zlib header: deflate with a 32 KiB window and the default compression level. */
+	private static final byte[] ZLIB_HEADER = { 0x78, (byte) 0x9C };
+	/** an empty, fixed Huffman block with the final bit set. */
+	private static final byte[] FINAL_EMPTY_BLOCK = { 0x03, 0x00 };
+
+	private final int threads;
+	private final int blockSize;
+	private final ExecutorService compressorPool;
+
 	/**
 	 * Initialize DeflateCompression with parameter to adhere Kieker configuration system.
 	 *
 	 * @param configuration
 	 *            Kieker configuration object
 	 */
-	public DeflateCompressionFilter(final Configuration configuration) { // NOPMD block warning of unused configuration parameter
-		// Empty constructor. No initialization necessary.
+	public DeflateCompressionFilter(final Configuration configuration) {
+		this.threads = configuration.getIntProperty(DeflateCompressionFilter.CONFIG_THREADS, 0);
+		this.blockSize = configuration.getIntProperty(DeflateCompressionFilter.CONFIG_BLOCK_SIZE, ParallelCompressionOutputStream.DEFAULT_BLOCK_SIZE);
+		this.compressorPool = (this.threads > 0) ? ParallelCompressionOutputStream.createCompressorPool(this.threads) : null; // NOCS (inline conditional)
 	}
 
 	@Override
 	public OutputStream chainOutputStream(final OutputStream outputStream, final Path fileName) throws IOException {
-		return new DataOutputStream(new DeflaterOutputStream(outputStream));
+		if (this.compressorPool == null) {
+			return new DataOutputStream(new DeflaterOutputStream(outputStream));
+		}
+		// a single zlib stream, as InflaterInputStream does not read concatenated streams: the blocks are raw deflate data
+		// ending on a byte boundary (sync flush), framed by the zlib header and the final block and checksum.
+		return new ParallelCompressionOutputStream(outputStream, this.compressorPool, this.blockSize, 2 * this.threads) {
+			private final Adler32 checksum = new Adler32();
+
+			@Override
+			protected void writeHeader(final OutputStream stream) throws IOException {
+				stream.write(ZLIB_HEADER);
+			}
+
+			@Override
+			protected void onBlock(final byte[] data, final int length) {
+				this.checksum.update(data, 0, length);
+			}
+
+			@Override
+			protected byte[] compressBlock(final byte[] data, final int length) {
+				return DeflateCompressionFilter.deflateBlock(data, length);
+			}
+
+			@Override
+			protected void writeTrailer(final OutputStream stream) throws IOException {
+				stream.write(FINAL_EMPTY_BLOCK);
+				final int value = (int) this.checksum.getValue();
+				stream.write(value >>> 24);
+				stream.write(value >>> 16);
+				stream.write(value >>> 8);
+				stream.write(value);
+			}
+		};
+	}
+
+	private static byte[] deflateBlock(final byte[] data, final int length) {
+		final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			deflater.setInput(data, 0, length);
+			final ByteArrayOutputStream compressedData = new ByteArrayOutputStream((length / 2) + 64);
+			final byte[] chunk = new byte[64 * 1024];
+			int chunkLength;
+			do {
+				chunkLength = deflater.deflate(chunk, 0, chunk.length, Deflater.SYNC_FLUSH);
+				compressedData.write(chunk, 0, chunkLength);
+			} while (chunkLength == chunk.length);
+			return compressedData.toByteArray();
+		} finally {
+			deflater.end();
+		}
 	}
 
 	@Override
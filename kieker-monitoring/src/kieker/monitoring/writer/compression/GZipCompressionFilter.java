@@ -15,9 +15,11 @@
  ***************************************************************************/
 package kieker.monitoring.writer.compression;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
 import java.util.zip.GZIPOutputStream;
 
 import kieker.common.configuration.Configuration;
@@ -32,19 +34,48 @@ import kieker.common.util.filesystem.FSUtil;
  */
 public class GZipCompressionFilter implements ICompressionFilter {
 
+	/** The prefix of the configuration keys. */
+	public static final String PREFIX = GZipCompressionFilter.class.getName() + ".";
+	/**
+	 * The name of the configuration key for the number of compressor threads. With 0 (default), the data is compressed on
+	 * the writer thread.
+	 */
+	public static final String CONFIG_THREADS = GZipCompressionFilter.PREFIX + "threads";
+	/** The name of the configuration key for the size of an uncompressed block (in bytes) which is compressed by one thread. */
+	public static final String CONFIG_BLOCK_SIZE = GZipCompressionFilter.PREFIX + "blockSize";
+
+	private final int threads;
+	private final int blockSize;
+	private final ExecutorService compressorPool;
+
 	/**
 	 * Initialize GZipCompression with parameter to adhere Kieker configuration system.
 	 *
 	 * @param configuration
 	 *            Kieker configuration object
 	 */
-	public GZipCompressionFilter(final Configuration configuration) { // NOPMD block warning of unused configuration parameter
-		// Empty constructor. No initialization necessary.
+	public GZipCompressionFilter(final Configuration configuration) {
+		this.threads = configuration.getIntProperty(GZipCompressionFilter.CONFIG_THREADS, 0);
+		this.blockSize = configuration.getIntProperty(GZipCompressionFilter.CONFIG_BLOCK_SIZE, ParallelCompressionOutputStream.DEFAULT_BLOCK_SIZE);
+		this.compressorPool = (this.threads > 0) ? ParallelCompressionOutputStream.createCompressorPool(this.threads) : null; // NOCS (inline conditional)
 	}
 
 	@Override
 	public OutputStream chainOutputStream(final OutputStream outputStream, final Path fileName) throws IOException {
-		return new GZIPOutputStream(outputStream);
+		if (this.compressorPool == null) {
+			return new GZIPOutputStream(outputStream);
+		}
+		// each block is a gzip member; GZIPInputStream reads concatenated members as one stream
+		return new ParallelCompressionOutputStream(outputStream, this.compressorPool, this.blockSize, 2 * this.threads) {
+			@Override
+			protected byte[] compressBlock(final byte[] data, final int length) throws IOException {
+				final ByteArrayOutputStream compressedData = new ByteArrayOutputStream((length / 2) + 64);
+				try (GZIPOutputStream member = new GZIPOutputStream(compressedData)) {
+					member.write(data, 0, length);
+				}
+				return compressedData.toByteArray();
+			}
+		};
 	}
 
 	@Override
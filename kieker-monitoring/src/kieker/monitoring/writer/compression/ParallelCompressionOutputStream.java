@@ -0,0 +1,264 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.compression;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import kieker.common.util.thread.DaemonThreadFactory;
+
+/**
+ * Output stream which splits the written data into blocks and compresses them in parallel on a pool of compressor
+ * threads. The compressed blocks are written to the underlying stream in their original order. Each block is compressed
+ * independently of the others; subclasses define how a block is compressed and how the compressed blocks are framed,
+ * such that the concatenation is a valid stream of the respective compression format.
+ *
+ * <p>
+ * The stream itself is not thread-safe; it is used by the single writer thread. At most <code>maxPendingBlocks</code>
+ * blocks are compressed concurrently; when this limit is reached, the writer waits for the oldest block.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+abstract class ParallelCompressionOutputStream extends OutputStream {
+
+	/** The default size of an uncompressed block. */
+	static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+	private final OutputStream outputStream;
+	private final ExecutorService compressorPool;
+	private final int blockSize;
+	private final int maxPendingBlocks;
+
+	private final ArrayDeque<Block> pendingBlocks = new ArrayDeque<>();
+	private final ArrayDeque<byte[]> freeBuffers = new ArrayDeque<>();
+
+	private byte[] buffer;
+	private int bufferLength;
+	private boolean headerWritten;
+	private boolean closed;
+
+	/**
+	 * Create a new parallel compression stream.
+	 *
+	 * @param outputStream
+	 *            the stream receiving the compressed data
+	 * @param compressorPool
+	 *            the compressor threads
+	 * @param blockSize
+	 *            the size of an uncompressed block
+	 * @param maxPendingBlocks
+	 *            the maximal number of blocks being compressed at the same time
+	 */
+	protected ParallelCompressionOutputStream(final OutputStream outputStream, final ExecutorService compressorPool, final int blockSize,
+			final int maxPendingBlocks) {
+		super();
+		this.outputStream = outputStream;
+		this.compressorPool = compressorPool;
+		this.blockSize = blockSize;
+		this.maxPendingBlocks = Math.max(1, maxPendingBlocks);
+		this.buffer = new byte[blockSize];
+	}
+
+	/**
+	 * Create a pool of daemon compressor threads, which terminate when they are idle.
+	 *
+	 * @param threads
+	 *            number of compressor threads
+	 * @return the compressor pool
+	 */
+	static ExecutorService createCompressorPool(final int threads) {
+		final ThreadPoolExecutor compressorPool = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory());
+		compressorPool.allowCoreThreadTimeOut(true);
+		return compressorPool;
+	}
+
+	/**
+	 * Compress a single block independently of all other blocks. This method is called concurrently by the compressor
+	 * threads.
+	 *
+	 * @param data
+	 *            the uncompressed data
+	 * @param length
+	 *            the number of bytes in data
+	 * @return the compressed block
+	 * @throws IOException
+	 *             when the compression fails
+	 */
+	protected abstract byte[] compressBlock(byte[] data, int length) throws IOException;
+
+	/**
+	 * Called by the writer thread for each block in order, before the block is compressed, e.g., to compute a checksum
+	 * over the whole stream. The default implementation does nothing.
+	 *
+	 * @param data
+	 *            the uncompressed data
+	 * @param length
+	 *            the number of bytes in data
+	 */
+	protected void onBlock(final byte[] data, final int length) {
+		// nothing to do
+	}
+
+	/**
+	 * Write the header of the stream before the first block. The default implementation writes nothing.
+	 *
+	 * @param stream
+	 *            the underlying stream
+	 * @throws IOException
+	 *             on write errors
+	 */
+	protected void writeHeader(final OutputStream stream) throws IOException {
+		// nothing to do
+	}
+
+	/**
+	 * Write the trailer of the stream after the last block. The default implementation writes nothing.
+	 *
+	 * @param stream
+	 *            the underlying stream
+	 * @throws IOException
+	 *             on write errors
+	 */
+	protected void writeTrailer(final OutputStream stream) throws IOException {
+		// nothing to do
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		if (this.bufferLength == this.blockSize) {
+			this.submitBlock();
+		}
+		this.buffer[this.bufferLength++] = (byte) b;
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len) throws IOException {
+		int offset = off;
+		int remaining = len;
+		while (remaining > 0) {
+			if (this.bufferLength == this.blockSize) {
+				this.submitBlock();
+			}
+			final int length = Math.min(remaining, this.blockSize - this.bufferLength);
+			System.arraycopy(b, offset, this.buffer, this.bufferLength, length);
+			this.bufferLength += length;
+			offset += length;
+			remaining -= length;
+		}
+	}
+
+	/**
+	 * Compresses the current partial block and waits until all blocks are written to the underlying stream.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (this.bufferLength > 0) {
+			this.submitBlock();
+		}
+		while (!this.pendingBlocks.isEmpty()) {
+			this.writeBlock(this.pendingBlocks.poll());
+		}
+		this.outputStream.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		try {
+			this.flush();
+			this.ensureHeaderWritten();
+			this.writeTrailer(this.outputStream);
+			this.outputStream.flush();
+		} finally {
+			this.outputStream.close();
+		}
+	}
+
+	private void submitBlock() throws IOException {
+		this.ensureHeaderWritten();
+		if (this.pendingBlocks.size() >= this.maxPendingBlocks) {
+			this.writeBlock(this.pendingBlocks.poll());
+		}
+
+		final byte[] data = this.buffer;
+		final int length = this.bufferLength;
+		this.onBlock(data, length);
+		final Future<byte[]> compressedData = this.compressorPool.submit(new Callable<byte[]>() {
+			@Override
+			public byte[] call() throws IOException {
+				return ParallelCompressionOutputStream.this.compressBlock(data, length);
+			}
+		});
+		this.pendingBlocks.add(new Block(data, compressedData));
+
+		final byte[] freeBuffer = this.freeBuffers.poll();
+		this.buffer = (freeBuffer != null) ? freeBuffer : new byte[this.blockSize]; // NOCS (inline conditional)
+		this.bufferLength = 0;
+
+		// write already compressed blocks early to keep the latency low
+		while (!this.pendingBlocks.isEmpty() && this.pendingBlocks.peek().compressedData.isDone()) {
+			this.writeBlock(this.pendingBlocks.poll());
+		}
+	}
+
+	private void writeBlock(final Block block) throws IOException {
+		try {
+			this.outputStream.write(block.compressedData.get());
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a compressed block.");
+		} catch (final ExecutionException e) {
+			throw new IOException("Compressing a block failed.", e.getCause());
+		}
+		this.freeBuffers.add(block.data);
+	}
+
+	private void ensureHeaderWritten() throws IOException {
+		if (!this.headerWritten) {
+			this.headerWritten = true;
+			this.writeHeader(this.outputStream);
+		}
+	}
+
+	/**
+	 * An uncompressed block and its compression result.
+	 */
+	private static final class Block {
+		private final byte[] data;
+		private final Future<byte[]> compressedData;
+
+		public Block(final byte[] data, final Future<byte[]> compressedData) {
+			this.data = data;
+			this.compressedData = compressedData;
+		}
+	}
+}
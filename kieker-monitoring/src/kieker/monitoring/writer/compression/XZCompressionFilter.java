@@ -15,11 +15,12 @@
  ***************************************************************************/
 package kieker.monitoring.writer.compression;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
 
-import org.tukaani.xz.FilterOptions;
 import org.tukaani.xz.LZMA2Options;
 import org.tukaani.xz.XZOutputStream;
 
@@ -36,20 +37,51 @@ import kieker.common.util.filesystem.FSUtil;
  */
 public class XZCompressionFilter implements ICompressionFilter {
 
+	/** The prefix of the configuration keys. */
+	public static final String PREFIX = XZCompressionFilter.class.getName() + ".";
+	/**
+	 * The name of the configuration key for the number of compressor threads. With 0 (default), the data is compressed on
+	 * the writer thread.
+	 */
+	public static final String CONFIG_THREADS = XZCompressionFilter.PREFIX + "threads";
+	/** The name of the configuration key for the size of an uncompressed block (in bytes) which is compressed by one thread. */
+	public static final String CONFIG_BLOCK_SIZE = XZCompressionFilter.PREFIX + "blockSize";
+
+	private final int threads;
+	private final int blockSize;
+	private final ExecutorService compressorPool;
+
 	/**
 	 * Initialize XZCompression with parameter to adhere Kieker configuration system.
 	 *
 	 * @param configuration
 	 *            Kieker configuration object
 	 */
-	public XZCompressionFilter(final Configuration configuration) { // NOPMD block warning of unused configuration parameter
-		// Empty constructor. No initialization necessary.
+	public XZCompressionFilter(final Configuration configuration) {
+		this.threads = configuration.getIntProperty(XZCompressionFilter.CONFIG_THREADS, 0);
+		this.blockSize = configuration.getIntProperty(XZCompressionFilter.CONFIG_BLOCK_SIZE, ParallelCompressionOutputStream.DEFAULT_BLOCK_SIZE);
+		this.compressorPool = (this.threads > 0) ? ParallelCompressionOutputStream.createCompressorPool(this.threads) : null; // NOCS (inline conditional)
 	}
 
 	@Override
 	public OutputStream chainOutputStream(final OutputStream outputStream, final Path fileName) throws IOException {
-		final FilterOptions filterOptions = new LZMA2Options(LZMA2Options.PRESET_MAX);
-		return new XZOutputStream(outputStream, filterOptions);
+		final LZMA2Options filterOptions = new LZMA2Options(LZMA2Options.PRESET_MAX);
+		if (this.compressorPool == null) {
+			return new XZOutputStream(outputStream, filterOptions);
+		}
+		// a dictionary larger than a block is useless and only costs memory in each compressor thread
+		filterOptions.setDictSize(Math.max(LZMA2Options.DICT_SIZE_MIN, Math.min(this.blockSize, filterOptions.getDictSize())));
+		// each block is an .xz stream; XZInputStream reads concatenated streams as one stream
+		return new ParallelCompressionOutputStream(outputStream, this.compressorPool, this.blockSize, 2 * this.threads) {
+			@Override
+			protected byte[] compressBlock(final byte[] data, final int length) throws IOException {
+				final ByteArrayOutputStream compressedData = new ByteArrayOutputStream((length / 4) + 64);
+				try (XZOutputStream xzStream = new XZOutputStream(compressedData, filterOptions)) {
+					xzStream.write(data, 0, length);
+				}
+				return compressedData.toByteArray();
+			}
+		};
 	}
 
 	@Override
@@ -55,6 +55,11 @@ public class DumpWriter extends AbstractMonitoringWriter {
 		// consumes the record without further processing
 	}
 
+	@Override
+	public boolean supportsPooledRecords() {
+		return true;
+	}
+
 	@Override
 	public void onTerminating() {
 		LOGGER.info("{} has shut down.", this.getClass().getName());
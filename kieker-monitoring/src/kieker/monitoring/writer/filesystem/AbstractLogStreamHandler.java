@@ -20,7 +20,9 @@ import java.io.OutputStream;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import kieker.common.record.IMonitoringRecord;
 import kieker.common.record.io.IValueSerializer;
@@ -48,7 +50,7 @@ public abstract class AbstractLogStreamHandler {
 
 	protected OutputStream serializedStream;
 	protected WritableByteChannel outputChannel;
-	protected int numOfBytes;
+	protected long numOfBytes;
 
 	protected String extension;
 
@@ -89,6 +91,25 @@ public abstract class AbstractLogStreamHandler {
 		this.serializedStream = serializedOutputStream;
 		this.outputChannel = Channels.newChannel(this.compressionFilter.chainOutputStream(serializedOutputStream, fileName));
 		this.numOfEntries = 0;
+		this.numOfBytes = 0;
+	}
+
+	/**
+	 * Create the given log file and initialize a new stream for it. The default implementation opens an output stream for
+	 * the file and calls {@link #initialize(OutputStream, Path)}. Handlers which require random access to the file, e.g.,
+	 * for memory mapping, override this method.
+	 *
+	 * @param logFile
+	 *            the log file to be created
+	 *
+	 * @throws IOException
+	 *             when the file or the channel cannot be created
+	 *
+	 * @since 1.15
+	 */
+	public void initialize(final Path logFile) throws IOException {
+		this.initialize(Files.newOutputStream(logFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
+				logFile.getFileName());
 	}
 
 	/**
@@ -109,6 +130,18 @@ public abstract class AbstractLogStreamHandler {
 		return this.numOfBytes;
 	}
 
+	/**
+	 * Indicates whether {@link #getNumOfBytes()} is the exact position of the next record in the log file, which is the
+	 * case for uncompressed binary log files. Only such log files can be indexed. The default is <code>false</code>.
+	 *
+	 * @return <code>true</code> if the handler supports a {@link kieker.common.util.filesystem.LogFileIndex}
+	 *
+	 * @since 1.15
+	 */
+	public boolean supportsIndex() {
+		return false;
+	}
+
 	/**
 	 * Close the log file.
 	 *
@@ -146,4 +179,36 @@ public abstract class AbstractLogStreamHandler {
 	 */
 	public abstract void serialize(IMonitoringRecord record, int id) throws IOException;
 
+	/**
+	 * Serialize a record which is part of a batch. In contrast to {@link #serialize(IMonitoringRecord, int)}, the handler
+	 * may defer writing the serialized record to the channel until {@link #endBatch()} is called. The default implementation
+	 * calls {@link #serialize(IMonitoringRecord, int)}.
+	 *
+	 * @param record
+	 *            the record itself
+	 * @param id
+	 *            the type id from the string registry
+	 *
+	 * @throws IOException
+	 *             on io errors, e.g., write errors
+	 *
+	 * @since 1.15
+	 */
+	public void serializeInBatch(final IMonitoringRecord record, final int id) throws IOException {
+		this.serialize(record, id);
+	}
+
+	/**
+	 * Complete a batch of records serialized with {@link #serializeInBatch(IMonitoringRecord, int)}. The default
+	 * implementation does nothing.
+	 *
+	 * @throws IOException
+	 *             on io errors, e.g., write errors
+	 *
+	 * @since 1.15
+	 */
+	public void endBatch() throws IOException {
+		// nothing to do
+	}
+
 }
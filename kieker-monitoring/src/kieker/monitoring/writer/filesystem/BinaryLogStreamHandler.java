@@ -76,8 +76,40 @@ public class BinaryLogStreamHandler extends AbstractLogStreamHandler {
 		this.numOfEntries++;
 	}
 
+	/**
+	 * Includes the bytes which are still buffered.
+	 */
+	@Override
+	public long getNumOfBytes() {
+		return this.numOfBytes + this.buffer.position();
+	}
+
+	@Override
+	public boolean supportsIndex() {
+		return this.compressionFilter.getExtension() == null;
+	}
+
+	/**
+	 * Writes the whole batch with a single channel write if the log file should be flushed. Otherwise, the buffer is only
+	 * written when it is full.
+	 */
+	@Override
+	public void endBatch() throws IOException {
+		if (this.flushLogFile && (this.buffer.position() > 0)) {
+			this.writeBuffer();
+			this.serializedStream.flush();
+		}
+	}
+
 	@Override
 	public void close() throws IOException {
+		this.writeBuffer();
+
+		this.serializedStream.flush();
+		super.close();
+	}
+
+	private void writeBuffer() {
 		this.buffer.flip();
 		try {
 			while (this.buffer.hasRemaining()) {
@@ -88,9 +120,6 @@ public class BinaryLogStreamHandler extends AbstractLogStreamHandler {
 			LOGGER.error("Caught exception while writing to the channel.", e);
 			WriterUtil.close(this.outputChannel, LOGGER);
 		}
-
-		this.serializedStream.flush();
-		super.close();
 	}
 
 	/**
@@ -103,17 +132,7 @@ public class BinaryLogStreamHandler extends AbstractLogStreamHandler {
 	 */
 	private void requestBufferSpace(final int bufferSpace) throws IOException {
 		if (bufferSpace > this.buffer.remaining()) {
-			this.buffer.flip();
-
-			try {
-				while (this.buffer.hasRemaining()) {
-					this.numOfBytes += this.outputChannel.write(this.buffer);
-				}
-				this.buffer.clear();
-			} catch (final IOException e) {
-				LOGGER.error("Caught exception while writing to the channel.", e);
-				WriterUtil.close(this.outputChannel, LOGGER);
-			}
+			this.writeBuffer();
 
 			if (this.flushLogFile) {
 				this.serializedStream.flush();
@@ -0,0 +1,110 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.writer.filesystem;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.io.columnar.ColumnarSegmentWriter;
+import kieker.common.registry.writer.WriterRegistry;
+import kieker.common.util.filesystem.FSUtil;
+import kieker.monitoring.writer.compression.ICompressionFilter;
+
+/**
+ * Columnar log stream handler. The records are grouped by their type and each field is written as a column (see
+ * {@link ColumnarSegmentWriter}). The records are buffered in a segment of about buffer size bytes before they are
+ * written. Readers can restrict reading to the columns they need.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ColumnarLogStreamHandler extends AbstractLogStreamHandler {
+
+	private final ColumnarSegmentWriter segmentWriter;
+
+	/**
+	 * Create a columnar log stream handler.
+	 *
+	 * @param flushLogFile
+	 *            flush log file after each batch
+	 * @param bufferSize
+	 *            encoded size of a segment
+	 * @param charset
+	 *            charset, not used as strings are always UTF-8 encoded
+	 * @param compressionFilter
+	 *            compression filter
+	 * @param writerRegistry
+	 *            writer registry, not used as the type names are part of the segments
+	 */
+	public ColumnarLogStreamHandler(final Boolean flushLogFile, final Integer bufferSize, final Charset charset, // NOPMD charset not used
+			final ICompressionFilter compressionFilter, final WriterRegistry writerRegistry) {
+		super(flushLogFile, bufferSize, charset, compressionFilter, writerRegistry);
+		this.segmentWriter = new ColumnarSegmentWriter(bufferSize);
+		this.extension = FSUtil.COLUMNAR_FILE_EXTENSION;
+	}
+
+	@Override
+	public void initialize(final OutputStream serializedOutputStream, final Path fileName) throws IOException {
+		super.initialize(serializedOutputStream, fileName);
+		this.numOfBytes = this.segmentWriter.writeFileHeader(this.outputChannel);
+	}
+
+	@Override
+	public void serialize(final IMonitoringRecord record, final int id) throws IOException {
+		if (this.segmentWriter.add(record)) {
+			this.writeSegment();
+		}
+		this.numOfEntries++;
+	}
+
+	/**
+	 * Includes the bytes which are still buffered in the current segment.
+	 */
+	@Override
+	public long getNumOfBytes() {
+		return this.numOfBytes + this.segmentWriter.getEncodedSize();
+	}
+
+	/**
+	 * Writes the current segment if the log file should be flushed. Otherwise, the segment is only written when it is full.
+	 */
+	@Override
+	public void endBatch() throws IOException {
+		if (this.flushLogFile && (this.segmentWriter.getNumRecords() > 0)) {
+			this.writeSegment();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.numOfBytes += this.segmentWriter.writeSegment(this.outputChannel);
+
+		this.serializedStream.flush();
+		super.close();
+	}
+
+	private void writeSegment() throws IOException {
+		this.numOfBytes += this.segmentWriter.writeSegment(this.outputChannel);
+		if (this.flushLogFile) {
+			this.serializedStream.flush();
+		}
+	}
+}
@@ -20,7 +20,7 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,9 +28,12 @@ import org.slf4j.LoggerFactory;
 import kieker.common.configuration.Configuration;
 import kieker.common.record.IMonitoringRecord;
 import kieker.common.registry.IRegistryListener;
+import kieker.common.registry.writer.RecordTypeIdCache;
 import kieker.common.registry.writer.WriterRegistry;
 import kieker.common.util.classpath.InstantiationFactory;
 import kieker.common.util.filesystem.FSUtil;
+import kieker.common.util.filesystem.LogFileIndex;
+import kieker.common.util.filesystem.LogFileIndexWriter;
 import kieker.monitoring.writer.AbstractMonitoringWriter;
 import kieker.monitoring.writer.compression.ICompressionFilter;
 import kieker.monitoring.writer.compression.NoneCompressionFilter;
@@ -92,6 +95,13 @@ public class FileWriter extends AbstractMonitoringWriter implements IRegistryLis
 	public static final String CONFIG_COMPRESSION_FILTER = FileWriter.PREFIX + "compression";
 	/** The name of the configuration key for the buffer size. */
 	public static final String CONFIG_BUFFERSIZE = FileWriter.PREFIX + "bufferSize";
+	/**
+	 * The name of the configuration key to write a {@link LogFileIndex} alongside each log file. Only uncompressed binary
+	 * log files can be indexed.
+	 */
+	public static final String CONFIG_INDEX = FileWriter.PREFIX + "index";
+	/** The name of the configuration key for the number of records per block of the {@link LogFileIndex}. */
+	public static final String CONFIG_INDEX_BLOCK_SIZE = FileWriter.PREFIX + "indexBlockSize";
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(FileWriter.class);
 
@@ -102,7 +112,10 @@ public class FileWriter extends AbstractMonitoringWriter implements IRegistryLis
 	private final AbstractLogStreamHandler logStreamHandler;
 	private final long maxBytesInFile;
 	private final WriterRegistry writerRegistry;
+	private final RecordTypeIdCache recordTypeIds;
 	private final String logFolderName; // this is only here to convey the log file name to the toString method.
+	private final int indexBlockSize;
+	private LogFileIndexWriter indexWriter;
 
 	/**
 	 * Create a generic file writer.
@@ -134,6 +147,7 @@ public class FileWriter extends AbstractMonitoringWriter implements IRegistryLis
 		}
 
 		this.writerRegistry = new WriterRegistry(this);
+		this.recordTypeIds = new RecordTypeIdCache(this.writerRegistry);
 
 		final boolean flushLogFile = configuration.getBooleanProperty(FileWriter.CONFIG_FLUSH, false);
 		final int bufferSize = configuration.getIntProperty(FileWriter.CONFIG_BUFFERSIZE, 65536);
@@ -183,11 +197,35 @@ public class FileWriter extends AbstractMonitoringWriter implements IRegistryLis
 				logFilePoolHandlerClassName, logFilePoolHandlerSignature, logFolder,
 				this.logStreamHandler.getFileExtension(), maxAmountOfFiles);
 
+		/** get index configuration. */
+		if (configuration.getBooleanProperty(FileWriter.CONFIG_INDEX, false)) {
+			if (this.logStreamHandler.supportsIndex()) {
+				this.indexBlockSize = configuration.getIntProperty(FileWriter.CONFIG_INDEX_BLOCK_SIZE, LogFileIndex.DEFAULT_BLOCK_SIZE);
+			} else {
+				FileWriter.LOGGER.warn("The log stream handler {} does not support log file indices.", logHandlerClassName);
+				this.indexBlockSize = 0;
+			}
+		} else {
+			this.indexBlockSize = 0;
+		}
+
 		final Path outputFile = this.logFilePoolHandler.requestFile();
 
-		this.logStreamHandler.initialize(
-				Files.newOutputStream(outputFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
-				outputFile.getFileName());
+		this.logStreamHandler.initialize(outputFile);
+		this.createIndex(outputFile);
+	}
+
+	private void createIndex(final Path logFile) throws IOException {
+		if (this.indexBlockSize > 0) {
+			this.indexWriter = new LogFileIndexWriter(logFile.resolveSibling(logFile.getFileName() + FSUtil.INDEX_FILE_EXTENSION), this.indexBlockSize);
+		}
+	}
+
+	private void closeIndex() throws IOException {
+		if (this.indexWriter != null) {
+			this.indexWriter.close();
+			this.indexWriter = null;
+		}
 	}
 
 	@Override
@@ -202,40 +240,73 @@ public class FileWriter extends AbstractMonitoringWriter implements IRegistryLis
 
 	@Override
 	public void writeMonitoringRecord(final IMonitoringRecord record) {
-		if (this.logStreamHandler.getNumOfEntries() >= this.maxEntriesInFile) {
-			this.createNewLogFile();
-		} else if (this.logStreamHandler.getNumOfBytes() >= this.maxBytesInFile) {
-			this.createNewLogFile();
-		}
-
-		final String recordClassName = record.getClass().getName();
-		this.writerRegistry.register(recordClassName);
+		this.rotateLogFileIfNecessary();
 
 		try {
-			this.logStreamHandler.serialize(record, this.writerRegistry.getId(recordClassName));
+			if (this.indexWriter == null) {
+				this.logStreamHandler.serialize(record, this.recordTypeIds.getTypeId(record));
+			} else {
+				final long offset = this.logStreamHandler.getNumOfBytes();
+				this.logStreamHandler.serialize(record, this.recordTypeIds.getTypeId(record));
+				this.indexWriter.add(record, offset, this.logStreamHandler.getNumOfBytes());
+			}
 		} catch (final IOException e) {
 			FileWriter.LOGGER.error("Serializing of a record failed.", e);
 		}
 	}
 
+	@Override
+	public void writeMonitoringRecords(final List<IMonitoringRecord> records) {
+		try {
+			for (final IMonitoringRecord record : records) {
+				this.rotateLogFileIfNecessary();
+
+				if (this.indexWriter == null) {
+					this.logStreamHandler.serializeInBatch(record, this.recordTypeIds.getTypeId(record));
+				} else {
+					final long offset = this.logStreamHandler.getNumOfBytes();
+					this.logStreamHandler.serializeInBatch(record, this.recordTypeIds.getTypeId(record));
+					this.indexWriter.add(record, offset, this.logStreamHandler.getNumOfBytes());
+				}
+			}
+			this.logStreamHandler.endBatch();
+		} catch (final IOException e) {
+			FileWriter.LOGGER.error("Serializing of a record batch failed.", e);
+		}
+	}
+
+	private void rotateLogFileIfNecessary() {
+		if (this.logStreamHandler.getNumOfEntries() >= this.maxEntriesInFile) {
+			this.createNewLogFile();
+		} else if (this.logStreamHandler.getNumOfBytes() >= this.maxBytesInFile) {
+			this.createNewLogFile();
+		}
+	}
+
 	private void createNewLogFile() {
 		try {
 			// request new file.
 			this.logStreamHandler.close();
+			this.closeIndex();
 			final Path outputFile = this.logFilePoolHandler.requestFile();
 
-			this.logStreamHandler.initialize(
-					Files.newOutputStream(outputFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
-					outputFile.getFileName());
+			this.logStreamHandler.initialize(outputFile);
+			this.createIndex(outputFile);
 		} catch (final IOException ex) {
 			FileWriter.LOGGER.error("Switching files in logger failed.", ex);
 		}
 	}
 
+	@Override
+	public boolean supportsPooledRecords() {
+		return true;
+	}
+
 	@Override
 	public void onTerminating() {
 		try {
 			this.logStreamHandler.close();
+			this.closeIndex();
 			this.mapFileHandler.close();
 		} catch (final IOException ex) {
 			FileWriter.LOGGER.error("Closing logger failed.", ex);
@@ -0,0 +1,351 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.filesystem;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.io.BinaryValueSerializer;
+import kieker.common.registry.writer.WriterRegistry;
+import kieker.common.util.filesystem.FSUtil;
+import kieker.common.util.thread.DaemonThreadFactory;
+import kieker.monitoring.writer.compression.ICompressionFilter;
+import kieker.monitoring.writer.compression.NoneCompressionFilter;
+
+/**
+ * Binary log stream handler which serializes the records directly into memory-mapped regions of the log file. In
+ * contrast to the {@link BinaryLogStreamHandler}, records are neither copied into an intermediate buffer nor written
+ * with a system call per buffer.
+ *
+ * <p>
+ * The records have the same format as those of the {@link BinaryLogStreamHandler}, but the log file starts with a header
+ * of {@value FSUtil#MAPPED_BINARY_FILE_HEADER_SIZE} bytes: the int {@link FSUtil#MAPPED_BINARY_FILE_MAGIC}, a reserved
+ * int, and the file offset behind the last committed record as long. A record is committed after
+ * {@link #serialize(IMonitoringRecord, int)} and at the end of a batch; readers must not read beyond the committed end,
+ * as the rest of the mapped region is unwritten. Hence, the log file has its own extension
+ * {@value FSUtil#MAPPED_BINARY_FILE_EXTENSION}, which readers of plain binary log files do not pick up.
+ * </p>
+ *
+ * <p>
+ * The log file is mapped in regions of <code>bufferSize</code> bytes (at least {@value #MIN_REGION_SIZE} bytes). When a
+ * record does not fit into the remaining region, the next region is mapped directly behind the last record. The
+ * {@link FileWriter} rolls over to a new log file when <code>maxLogSize</code> is reached.
+ * </p>
+ *
+ * <p>
+ * Durability: a completed region is synchronized to disk (msync) asynchronously by a background thread. When
+ * <code>flush</code> is enabled, the current region and then the header are additionally synchronized on each commit.
+ * On {@link #close()}, the file is truncated to the committed end. When the application crashes, the file still
+ * contains the rest of the last mapped region; {@link #truncateToLastCompleteRecord(Path)} removes it.
+ * </p>
+ *
+ * <p>
+ * Compression filters cannot be applied to a mapped file and are ignored. When the handler is initialized with an
+ * output stream instead of a path, it falls back to a {@link BinaryLogStreamHandler} without header.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class MappedBinaryLogStreamHandler extends AbstractLogStreamHandler {
+
+	/** The minimal size of a mapped region, as mapping a region is much more expensive than a write call. */
+	public static final int MIN_REGION_SIZE = 1024 * 1024;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MappedBinaryLogStreamHandler.class);
+
+	/** Size of the type id and the logging timestamp in front of each record. */
+	private static final int RECORD_HEADER_SIZE = 4 + 8;
+
+	private final int bufferSize;
+	private final int regionSize;
+	private final ThreadPoolExecutor syncExecutor;
+
+	private FileChannel fileChannel;
+	/** the file header holding the committed end. */
+	private MappedByteBuffer header;
+	private MappedByteBuffer region;
+	/** the file offset of the current region. */
+	private long regionStart;
+	/** the last asynchronous synchronization; the executor runs them in submission order. */
+	private Future<?> lastSync;
+	/** the fallback used when the handler is initialized with an output stream. */
+	private BinaryLogStreamHandler streamHandler;
+
+	/**
+	 * Create a memory-mapped binary log stream handler.
+	 *
+	 * @param flushLogFile
+	 *            synchronize the current region after each record or batch
+	 * @param bufferSize
+	 *            size of a mapped region
+	 * @param charset
+	 *            charset, presently not used in binary serialization
+	 * @param compressionFilter
+	 *            compression filter, ignored
+	 * @param writerRegistry
+	 *            writer registry.
+	 */
+	public MappedBinaryLogStreamHandler(final Boolean flushLogFile, final Integer bufferSize, final Charset charset, // NOPMD charset not used in binary
+			final ICompressionFilter compressionFilter, final WriterRegistry writerRegistry) {
+		super(flushLogFile, bufferSize, charset, compressionFilter, writerRegistry);
+		this.bufferSize = bufferSize;
+		this.regionSize = Math.max(bufferSize, MIN_REGION_SIZE);
+		this.extension = FSUtil.MAPPED_BINARY_FILE_EXTENSION;
+		if (compressionFilter.getExtension() != null) {
+			LOGGER.warn("{} cannot compress memory-mapped log files. The compression filter {} is ignored.",
+					MappedBinaryLogStreamHandler.class.getSimpleName(), compressionFilter.getClass().getName());
+		}
+
+		this.syncExecutor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+				new DaemonThreadFactory());
+		this.syncExecutor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * A stream cannot be mapped. Hence, the records are written by a {@link BinaryLogStreamHandler} instead, i.e., the log
+	 * file has no header.
+	 */
+	@Override
+	public void initialize(final OutputStream serializedOutputStream, final Path fileName) throws IOException {
+		this.streamHandler = new BinaryLogStreamHandler(this.flushLogFile, this.bufferSize, this.charset, new NoneCompressionFilter(null),
+				this.writerRegistry);
+		this.streamHandler.initialize(serializedOutputStream, fileName);
+	}
+
+	@Override
+	public void initialize(final Path logFile) throws IOException {
+		this.streamHandler = null;
+		this.fileChannel = FileChannel.open(logFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		// write the header before the first region enlarges the file, so readers never see a file without header
+		final ByteBuffer initialHeader = ByteBuffer.allocate(FSUtil.MAPPED_BINARY_FILE_HEADER_SIZE);
+		initialHeader.putInt(FSUtil.MAPPED_BINARY_FILE_MAGIC);
+		initialHeader.putInt(0);
+		initialHeader.putLong(FSUtil.MAPPED_BINARY_FILE_HEADER_SIZE);
+		initialHeader.flip();
+		while (initialHeader.hasRemaining()) {
+			this.fileChannel.write(initialHeader, initialHeader.position());
+		}
+		this.header = this.fileChannel.map(MapMode.READ_WRITE, 0, FSUtil.MAPPED_BINARY_FILE_HEADER_SIZE);
+
+		this.region = null;
+		this.regionStart = FSUtil.MAPPED_BINARY_FILE_HEADER_SIZE;
+		this.numOfEntries = 0;
+		this.mapRegion(this.regionSize);
+	}
+
+	@Override
+	public String getFileExtension() {
+		return this.extension;
+	}
+
+	@Override
+	public int getNumOfEntries() {
+		if (this.streamHandler != null) {
+			return this.streamHandler.getNumOfEntries();
+		}
+		return this.numOfEntries;
+	}
+
+	/**
+	 * Includes the header of the log file, i.e., this is the file offset of the next record.
+	 */
+	@Override
+	public long getNumOfBytes() {
+		if (this.streamHandler != null) {
+			return this.streamHandler.getNumOfBytes();
+		}
+		if (this.region == null) {
+			return this.regionStart;
+		}
+		return this.regionStart + this.region.position();
+	}
+
+	@Override
+	public boolean supportsIndex() {
+		return true;
+	}
+
+	@Override
+	public void serialize(final IMonitoringRecord record, final int id) throws IOException {
+		if (this.streamHandler != null) {
+			this.streamHandler.serialize(record, id);
+			return;
+		}
+		this.serializeInBatch(record, id);
+		this.commit();
+	}
+
+	@Override
+	public void serializeInBatch(final IMonitoringRecord record, final int id) throws IOException {
+		if (this.streamHandler != null) {
+			this.streamHandler.serializeInBatch(record, id);
+			return;
+		}
+		final int recordSize = RECORD_HEADER_SIZE + record.getSize();
+		if (recordSize > this.region.remaining()) {
+			this.mapRegion(recordSize);
+		}
+
+		this.region.putInt(id);
+		this.region.putLong(record.getLoggingTimestamp());
+
+		record.serialize(this.serializer);
+		this.numOfEntries++;
+	}
+
+	@Override
+	public void endBatch() throws IOException {
+		if (this.streamHandler != null) {
+			this.streamHandler.endBatch();
+			return;
+		}
+		this.commit();
+	}
+
+	/**
+	 * Synchronizes the written data, truncates the log file to its end, and closes it.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (this.streamHandler != null) {
+			this.streamHandler.close();
+			return;
+		}
+		final long length = this.getNumOfBytes();
+		this.region.force();
+		this.awaitLastSync();
+		this.header.putLong(FSUtil.MAPPED_BINARY_FILE_COMMITTED_END_POSITION, length);
+		this.header.force();
+		this.header = null; // NOPMD (the header is unmapped by the garbage collector)
+		this.region = null; // NOPMD (the region is unmapped by the garbage collector)
+		this.serializer = null; // NOPMD (holds the region)
+		this.regionStart = length;
+
+		try {
+			this.fileChannel.truncate(length);
+		} catch (final IOException e) {
+			// e.g., on Windows, a file cannot be truncated as long as a region is mapped
+			LOGGER.warn("Could not truncate the log file to {} bytes. Use truncateToLastCompleteRecord to remove the unwritten tail.",
+					length, e);
+		} finally {
+			this.fileChannel.close();
+		}
+	}
+
+	/**
+	 * Publishes all records written so far by storing their end in the header. With <code>flush</code>, the records are
+	 * synchronized before the header, so the header never refers to data which is not on disk.
+	 */
+	private void commit() {
+		if (this.flushLogFile) {
+			this.region.force();
+		}
+		this.header.putLong(FSUtil.MAPPED_BINARY_FILE_COMMITTED_END_POSITION, this.getNumOfBytes());
+		if (this.flushLogFile) {
+			this.header.force();
+		}
+	}
+
+	/**
+	 * Maps the next region directly behind the last written record and synchronizes the completed region.
+	 *
+	 * @param requiredSize
+	 *            the minimal size of the new region
+	 */
+	private void mapRegion(final int requiredSize) throws IOException {
+		if (this.region != null) {
+			this.regionStart += this.region.position();
+			this.syncCompletedRegion(this.region);
+		}
+		this.region = this.fileChannel.map(MapMode.READ_WRITE, this.regionStart, Math.max(this.regionSize, requiredSize));
+		this.serializer = BinaryValueSerializer.create(this.region, this.writerRegistry);
+	}
+
+	private void syncCompletedRegion(final MappedByteBuffer completedRegion) {
+		if (this.flushLogFile) {
+			completedRegion.force();
+		} else {
+			this.lastSync = this.syncExecutor.submit(new Runnable() {
+				@Override
+				public void run() {
+					completedRegion.force();
+				}
+			});
+		}
+	}
+
+	private void awaitLastSync() throws IOException {
+		if (this.lastSync == null) {
+			return;
+		}
+		try {
+			this.lastSync.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (final ExecutionException e) {
+			throw new IOException("Synchronizing a mapped region failed.", e.getCause());
+		} finally {
+			this.lastSync = null;
+		}
+	}
+
+	/**
+	 * Truncates a binary log file written by this handler to the committed end stored in its header, e.g., after the
+	 * monitored application has crashed while writing. Log files without header are not changed.
+	 *
+	 * @param logFile
+	 *            the binary log file
+	 * @return the length of the log file after the truncation
+	 *
+	 * @throws IOException
+	 *             when the log file cannot be read or truncated
+	 */
+	public static long truncateToLastCompleteRecord(final Path logFile) throws IOException {
+		try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			final ByteBuffer fileHeader = ByteBuffer.allocate(FSUtil.MAPPED_BINARY_FILE_HEADER_SIZE);
+			while (fileHeader.hasRemaining() && (channel.read(fileHeader, fileHeader.position()) > 0)) { // NOPMD (empty while)
+				// read the complete header
+			}
+			if (fileHeader.hasRemaining() || (fileHeader.getInt(0) != FSUtil.MAPPED_BINARY_FILE_MAGIC)) {
+				return channel.size();
+			}
+			final long committedEnd = fileHeader.getLong(FSUtil.MAPPED_BINARY_FILE_COMMITTED_END_POSITION);
+			if (committedEnd < channel.size()) {
+				channel.truncate(committedEnd);
+			}
+			return channel.size();
+		}
+	}
+}
@@ -70,6 +70,7 @@ public class RotatingLogFilePoolHandler implements ILogFilePoolHandler {
 			final Path oldestFile = this.logFiles.remove(0);
 			try {
 				Files.delete(oldestFile);
+				Files.deleteIfExists(oldestFile.resolveSibling(oldestFile.getFileName() + FSUtil.INDEX_FILE_EXTENSION));
 			} catch (final IOException e) {
 				LOGGER.warn("Cannot delete oldest file.", e);
 			}
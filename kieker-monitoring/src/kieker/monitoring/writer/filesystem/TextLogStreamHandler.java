@@ -16,6 +16,7 @@
 package kieker.monitoring.writer.filesystem;
 
 import java.io.IOException;
+import java.nio.BufferOverflowException;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 
@@ -72,6 +73,38 @@ public class TextLogStreamHandler extends AbstractLogStreamHandler {
 
 	@Override
 	public void serialize(final IMonitoringRecord record, final int id) throws IOException {
+		this.serializeToBuffer(record, id);
+		this.writeBuffer();
+	}
+
+	/**
+	 * Collects the records of a batch in the buffer. The buffer is only written when it is full or when the batch ends.
+	 */
+	@Override
+	public void serializeInBatch(final IMonitoringRecord record, final int id) throws IOException {
+		final int start = this.buffer.position();
+		try {
+			this.serializeToBuffer(record, id);
+		} catch (final BufferOverflowException e) {
+			// write the preceding records of the batch and serialize the record again into the empty buffer
+			this.buffer.position(start);
+			this.writeBuffer();
+			this.serializeToBuffer(record, id);
+		}
+	}
+
+	@Override
+	public void endBatch() throws IOException {
+		this.writeBuffer();
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.writeBuffer();
+		super.close();
+	}
+
+	private void serializeToBuffer(final IMonitoringRecord record, final int id) {
 		final String header = String.format("$%d;%d", id, record.getLoggingTimestamp());
 
 		this.buffer.put(header);
@@ -79,6 +112,13 @@ public class TextLogStreamHandler extends AbstractLogStreamHandler {
 		record.serialize(this.serializer);
 
 		this.buffer.put(LINE_SEPARATOR);
+		this.numOfEntries++;
+	}
+
+	private void writeBuffer() {
+		if (this.buffer.position() == 0) {
+			return;
+		}
 
 		this.buffer.flip();
 
@@ -86,7 +126,6 @@ public class TextLogStreamHandler extends AbstractLogStreamHandler {
 			while (this.buffer.hasRemaining()) {
 				this.numOfBytes += this.outputChannel.write(this.charset.encode(this.buffer));
 			}
-			this.numOfEntries++;
 
 			this.buffer.clear();
 			if (this.flushLogFile) {
@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.List;
 
 import kieker.common.configuration.Configuration;
+import kieker.common.record.AbstractMonitoringRecord;
 import kieker.common.record.IMonitoringRecord;
 import kieker.common.record.io.BinaryValueSerializer;
 import kieker.common.registry.writer.IWriterRegistry;
@@ -85,7 +86,7 @@ public class BinarySerializer extends AbstractContainerFormatSerializer {
 		for (final IMonitoringRecord record : records) {
 			// Since writeBytes does not contain the type name and the logging timestamp,
 			// these two fields must be serialized separately
-			final String typeName = record.getClass().getName();
+			final String typeName = AbstractMonitoringRecord.getTypeName(record);
 			final int typeNameId = writerRegistry.getId(typeName);
 
 			buffer.putInt(typeNameId);
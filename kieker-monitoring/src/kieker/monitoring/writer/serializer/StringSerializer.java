@@ -21,6 +21,7 @@ import java.nio.charset.Charset;
 import java.util.Collection;
 
 import kieker.common.configuration.Configuration;
+import kieker.common.record.AbstractMonitoringRecord;
 import kieker.common.record.IMonitoringRecord;
 
 /**
@@ -62,7 +63,7 @@ public class StringSerializer extends AbstractMonitoringRecordSerializer {
 	}
 
 	private StringBuilder appendSingleRecord(final IMonitoringRecord record, final StringBuilder builder) {
-		builder.append(record.getClass().getName()).append(';').append(record.getLoggingTimestamp()).append(';')
+		builder.append(AbstractMonitoringRecord.getTypeName(record)).append(';').append(record.getLoggingTimestamp()).append(';')
 				.append(record.toString()).append('\n');
 
 		return builder;
@@ -31,6 +31,7 @@ import kieker.common.record.io.BinaryValueSerializer;
 import kieker.common.record.io.IValueSerializer;
 import kieker.common.record.misc.RegistryRecord;
 import kieker.common.registry.IRegistryListener;
+import kieker.common.registry.writer.RecordTypeIdCache;
 import kieker.common.registry.writer.WriterRegistry;
 import kieker.monitoring.writer.AbstractMonitoringWriter;
 import kieker.monitoring.writer.WriterUtil;
@@ -76,6 +77,7 @@ public class DualSocketTcpWriter extends AbstractMonitoringWriter implements IRe
 	private final ByteBuffer stringRegistryBuffer;
 	/** The serializer to use for the incoming records. */
 	private final IValueSerializer serializer;
+	private final RecordTypeIdCache recordTypeIds;
 
 	public DualSocketTcpWriter(final Configuration configuration) throws IOException {
 		super(configuration);
@@ -100,6 +102,7 @@ public class DualSocketTcpWriter extends AbstractMonitoringWriter implements IRe
 
 		final WriterRegistry writerRegistry = new WriterRegistry(this);
 		this.serializer = BinaryValueSerializer.create(this.recordBuffer, writerRegistry);
+		this.recordTypeIds = new RecordTypeIdCache(writerRegistry);
 
 		// this.encoder = StandardCharsets.UTF_8.newEncoder();
 
@@ -119,9 +122,7 @@ public class DualSocketTcpWriter extends AbstractMonitoringWriter implements IRe
 			WriterUtil.flushBuffer(buffer, this.monitoringRecordChannel, LOGGER);
 		}
 
-		final String recordClassName = monitoringRecord.getClass().getName();
-
-		this.serializer.putString(recordClassName);
+		this.serializer.putInt(this.recordTypeIds.getTypeId(monitoringRecord));
 		this.serializer.putLong(monitoringRecord.getLoggingTimestamp());
 		monitoringRecord.serialize(this.serializer);
 
@@ -153,6 +154,11 @@ public class DualSocketTcpWriter extends AbstractMonitoringWriter implements IRe
 		WriterUtil.flushBuffer(buffer, this.registryRecordChannel, LOGGER);
 	}
 
+	@Override
+	public boolean supportsPooledRecords() {
+		return true;
+	}
+
 	@Override
 	public void onTerminating() {
 		WriterUtil.flushBuffer(this.stringRegistryBuffer, this.registryRecordChannel, LOGGER);
@@ -0,0 +1,246 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.writer.tcp;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.AbstractMonitoringRecord;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.misc.RegistryRecord;
+import kieker.common.registry.IRegistryListener;
+import kieker.common.registry.writer.RecordTypeIdCache;
+import kieker.common.registry.writer.WriterRegistry;
+import kieker.monitoring.writer.AbstractMonitoringWriter;
+import kieker.monitoring.writer.tcp.SpillingTcpSender.Chunk;
+
+/**
+ * Represents a monitoring writer which serializes records via TCP to a given host:port in the same format as the
+ * {@link SingleSocketTcpWriter}, but never blocks the writer thread on the network. The records are serialized into
+ * chunks which are sent by a {@link SpillingTcpSender} on its own thread using a non-blocking channel. If the record
+ * reader cannot keep up or is not reachable, the chunks are spilled to a bounded segment file and replayed in order
+ * once the connection recovers. The writer reconnects automatically.
+ *
+ * <p>
+ * The writer provides the metrics {@link #getSpilledBytes()}, {@link #getReplayLagInBytes()},
+ * {@link #getDroppedBytes()}, and {@link #getReconnects()}.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class NonBlockingTcpWriter extends AbstractMonitoringWriter implements IRegistryListener<String> {
+
+	/**
+	 * This writer can be configured by the configuration file "kieker.properties".
+	 * For this purpose, it uses this prefix for all configuration keys.
+	 */
+	public static final String PREFIX = NonBlockingTcpWriter.class.getName() + ".";
+
+	/** configuration key for the hostname. */
+	public static final String CONFIG_HOSTNAME = PREFIX + "hostname"; // NOCS (afterPREFIX)
+	/** configuration key for the port. */
+	public static final String CONFIG_PORT = PREFIX + "port"; // NOCS (afterPREFIX)
+	/** configuration key for the size of the registry and the record buffer of a chunk. */
+	public static final String CONFIG_BUFFERSIZE = PREFIX + "bufferSize"; // NOCS (afterPREFIX)
+	/** configuration key for {@link #flush}. */
+	public static final String CONFIG_FLUSH = PREFIX + "flush"; // NOCS (afterPREFIX)
+	/** configuration key for the maximal number of chunks queued in memory before they are spilled. */
+	public static final String CONFIG_MAX_QUEUED_BUFFERS = PREFIX + "maxQueuedBuffers"; // NOCS (afterPREFIX)
+	/** configuration key for the directory of the segment file. */
+	public static final String CONFIG_SPILL_DIRECTORY = PREFIX + "spillDirectory"; // NOCS (afterPREFIX)
+	/** configuration key for the maximal size of the segment file in bytes. */
+	public static final String CONFIG_MAX_SPILL_SIZE = PREFIX + "maxSpillSize"; // NOCS (afterPREFIX)
+	/** configuration key for the time between two connection attempts. */
+	public static final String CONFIG_RECONNECT_INTERVAL_IN_MS = PREFIX + "reconnectIntervalInMs"; // NOCS (afterPREFIX)
+	/** configuration key for the time to send the remaining records on termination. */
+	public static final String CONFIG_TERMINATION_TIMEOUT_IN_MS = PREFIX + "terminationTimeoutInMs"; // NOCS (afterPREFIX)
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(NonBlockingTcpWriter.class);
+
+	/** the host name and the port of the record reader. */
+	private final InetSocketAddress socketAddress;
+	private final SpillingTcpSender sender;
+	private final Thread senderThread;
+	/**
+	 * <code>true</code> if the current chunk should be handed over to the sender upon each new incoming monitoring
+	 * record or batch.
+	 */
+	private final boolean flush;
+	private final long terminationTimeoutInMs;
+	private final RecordTypeIdCache recordTypeIds;
+	/** the chunk into which the records are serialized. */
+	private Chunk chunk;
+
+	public NonBlockingTcpWriter(final Configuration configuration) throws IOException {
+		super(configuration);
+		final String hostname = configuration.getStringProperty(CONFIG_HOSTNAME, "localhost");
+		final int port = configuration.getIntProperty(CONFIG_PORT, 10133);
+		final int bufferSize = configuration.getIntProperty(CONFIG_BUFFERSIZE, 65536);
+		final int maxQueuedBuffers = configuration.getIntProperty(CONFIG_MAX_QUEUED_BUFFERS, 16);
+		final String spillDirectory = configuration.getStringProperty(CONFIG_SPILL_DIRECTORY, System.getProperty("java.io.tmpdir"));
+		final long maxSpillSize = configuration.getLongProperty(CONFIG_MAX_SPILL_SIZE, 64L * 1024 * 1024);
+		final long reconnectIntervalInMs = configuration.getLongProperty(CONFIG_RECONNECT_INTERVAL_IN_MS, 1000);
+		this.terminationTimeoutInMs = configuration.getLongProperty(CONFIG_TERMINATION_TIMEOUT_IN_MS, 10000);
+		this.flush = configuration.getBooleanProperty(CONFIG_FLUSH, false);
+
+		final WriterRegistry writerRegistry = new WriterRegistry(this);
+		this.recordTypeIds = new RecordTypeIdCache(writerRegistry);
+		this.socketAddress = new InetSocketAddress(hostname, port);
+		this.sender = new SpillingTcpSender(this.socketAddress, writerRegistry, bufferSize, maxQueuedBuffers,
+				Paths.get(spillDirectory), maxSpillSize, reconnectIntervalInMs);
+		this.chunk = this.sender.takeFreeChunk();
+
+		this.senderThread = new Thread(this.sender, "Kieker-NonBlockingTcpWriter-Sender");
+		this.senderThread.setDaemon(true);
+	}
+
+	@Override
+	public void onStarting() {
+		this.senderThread.start();
+	}
+
+	@Override
+	public void writeMonitoringRecord(final IMonitoringRecord monitoringRecord) {
+		this.serializeRecord(monitoringRecord);
+
+		if (this.flush) {
+			this.sendChunk();
+		}
+	}
+
+	@Override
+	public void writeMonitoringRecords(final List<IMonitoringRecord> records) {
+		for (final IMonitoringRecord monitoringRecord : records) {
+			this.serializeRecord(monitoringRecord);
+		}
+
+		if (this.flush) {
+			this.sendChunk();
+		}
+	}
+
+	private void serializeRecord(final IMonitoringRecord monitoringRecord) {
+		if ((4 + 8 + monitoringRecord.getSize()) > this.chunk.recordBuffer.remaining()) {
+			this.sendChunk();
+		}
+
+		final Chunk currentChunk = this.chunk;
+		currentChunk.serializer.putInt(this.recordTypeIds.getTypeId(monitoringRecord));
+		currentChunk.serializer.putLong(monitoringRecord.getLoggingTimestamp());
+		monitoringRecord.serialize(currentChunk.serializer);
+	}
+
+	private void sendChunk() {
+		if (!this.chunk.isEmpty()) {
+			this.sender.send(this.chunk);
+			this.chunk = this.sender.takeFreeChunk();
+		}
+	}
+
+	@Override
+	public void onNewRegistryEntry(final String value, final int id) {
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		// class id + RegistryRecord.SIZE + bytes.length
+		final ByteBuffer registryRecord = ByteBuffer.allocate(AbstractMonitoringRecord.TYPE_SIZE_INT + RegistryRecord.SIZE + bytes.length);
+		registryRecord.putInt(RegistryRecord.CLASS_ID);
+		registryRecord.putInt(id);
+		registryRecord.putInt(bytes.length);
+		registryRecord.put(bytes);
+		registryRecord.flip();
+
+		if (this.chunk.registryBuffer.remaining() < registryRecord.remaining()) {
+			// the record buffer may contain a partially serialized record; hence, send the registry records on their own
+			final Chunk registryChunk = this.sender.takeFreeChunk();
+			this.chunk.registryBuffer.flip();
+			registryChunk.registryBuffer.put(this.chunk.registryBuffer);
+			this.chunk.registryBuffer.clear();
+			this.sender.send(registryChunk);
+		}
+
+		this.chunk.registryBuffer.put(registryRecord.duplicate());
+		this.sender.addRegistryRecord(registryRecord.array());
+	}
+
+	@Override
+	public boolean supportsPooledRecords() {
+		return true;
+	}
+
+	@Override
+	public void onTerminating() {
+		this.sendChunk();
+		this.sender.terminate();
+		try {
+			this.senderThread.join(this.terminationTimeoutInMs);
+			if (this.senderThread.isAlive()) {
+				LOGGER.warn("Could not send the remaining records to {} within {} ms. {} spilled bytes are lost.", this.socketAddress,
+						this.terminationTimeoutInMs, this.sender.getReplayLagInBytes());
+				this.sender.abort();
+				this.senderThread.join();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			this.sender.abort();
+		}
+		this.sender.close();
+
+		LOGGER.info("Spilled bytes: {}, dropped bytes: {}, reconnects: {}", this.sender.getSpilledBytes(), this.sender.getDroppedBytes(),
+				this.sender.getReconnects());
+	}
+
+	public boolean isConnected() {
+		return this.sender.isConnected();
+	}
+
+	/**
+	 * @return the number of bytes which have been spilled to the segment file so far
+	 */
+	public long getSpilledBytes() {
+		return this.sender.getSpilledBytes();
+	}
+
+	/**
+	 * @return the number of spilled bytes which have not been replayed yet
+	 */
+	public long getReplayLagInBytes() {
+		return this.sender.getReplayLagInBytes();
+	}
+
+	/**
+	 * @return the number of record bytes which have been dropped, because the segment file was full
+	 */
+	public long getDroppedBytes() {
+		return this.sender.getDroppedBytes();
+	}
+
+	/**
+	 * @return the number of connections after the first one
+	 */
+	public long getReconnects() {
+		return this.sender.getReconnects();
+	}
+}
@@ -24,6 +24,7 @@ import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -36,6 +37,7 @@ import kieker.common.record.io.BinaryValueSerializer;
 import kieker.common.record.io.IValueSerializer;
 import kieker.common.record.misc.RegistryRecord;
 import kieker.common.registry.IRegistryListener;
+import kieker.common.registry.writer.RecordTypeIdCache;
 import kieker.common.registry.writer.WriterRegistry;
 import kieker.monitoring.writer.AbstractMonitoringWriter;
 import kieker.monitoring.writer.WriterUtil;
@@ -87,8 +89,11 @@ public class SingleSocketTcpWriter extends AbstractMonitoringWriter implements I
 	 * incoming monitoring record.
 	 */
 	private final boolean flush;
+	/** the registry buffer and the record buffer in the order in which they must be written. */
+	private final ByteBuffer[] buffers;
 	/** the serializer to use for the incoming records. */
 	private final IValueSerializer serializer;
+	private final RecordTypeIdCache recordTypeIds;
 
 	// remove RegisterAdapter
 
@@ -110,10 +115,12 @@ public class SingleSocketTcpWriter extends AbstractMonitoringWriter implements I
 		final int bufferSize = this.configuration.getIntProperty(CONFIG_BUFFERSIZE);
 		this.buffer = ByteBuffer.allocateDirect(bufferSize);
 		this.registryBuffer = ByteBuffer.allocateDirect(bufferSize);
+		this.buffers = new ByteBuffer[] { this.registryBuffer, this.buffer, };
 		this.flush = configuration.getBooleanProperty(CONFIG_FLUSH);
 
 		final WriterRegistry writerRegistry = new WriterRegistry(this);
 		this.serializer = BinaryValueSerializer.create(this.buffer, writerRegistry);
+		this.recordTypeIds = new RecordTypeIdCache(writerRegistry);
 	}
 
 	@Override
@@ -173,26 +180,42 @@ public class SingleSocketTcpWriter extends AbstractMonitoringWriter implements I
 
 	@Override
 	public void writeMonitoringRecord(final IMonitoringRecord monitoringRecord) {
-		final ByteBuffer recordBuffer = this.buffer;
-		if ((4 + 8 + monitoringRecord.getSize()) > recordBuffer.remaining()) {
-			// Always flush the registryBuffer before flushing the recordBuffer. Otherwise
-			// the monitoring records could arrive before their string records
-			WriterUtil.flushBuffer(this.registryBuffer, this.socketChannel, LOGGER);
-			WriterUtil.flushBuffer(recordBuffer, this.socketChannel, LOGGER);
+		this.serializeRecord(monitoringRecord);
+
+		if (this.flush) {
+			this.flushBuffers();
+		}
+	}
+
+	/**
+	 * Serializes the whole batch into the buffer. If flushing is enabled, the batch is written with a single
+	 * (gathering) write instead of one write per record.
+	 */
+	@Override
+	public void writeMonitoringRecords(final List<IMonitoringRecord> records) {
+		for (final IMonitoringRecord monitoringRecord : records) {
+			this.serializeRecord(monitoringRecord);
 		}
 
-		final String recordClassName = monitoringRecord.getClass().getName();
+		if (this.flush) {
+			this.flushBuffers();
+		}
+	}
 
-		this.serializer.putString(recordClassName);
+	private void serializeRecord(final IMonitoringRecord monitoringRecord) {
+		if ((4 + 8 + monitoringRecord.getSize()) > this.buffer.remaining()) {
+			this.flushBuffers();
+		}
+
+		this.serializer.putInt(this.recordTypeIds.getTypeId(monitoringRecord));
 		this.serializer.putLong(monitoringRecord.getLoggingTimestamp());
 		monitoringRecord.serialize(this.serializer);
+	}
 
-		if (this.flush) {
-			// Always flush the registryBuffer before flushing the recordBuffer. Otherwise
-			// the monitoring records could arrive before their string records
-			WriterUtil.flushBuffer(this.registryBuffer, this.socketChannel, LOGGER);
-			WriterUtil.flushBuffer(recordBuffer, this.socketChannel, LOGGER);
-		}
+	private void flushBuffers() {
+		// Always flush the registryBuffer before flushing the recordBuffer. Otherwise
+		// the monitoring records could arrive before their string records
+		WriterUtil.flushBuffers(this.buffers, this.socketChannel, LOGGER);
 	}
 
 	@Override
@@ -214,12 +237,14 @@ public class SingleSocketTcpWriter extends AbstractMonitoringWriter implements I
 		localRegistryBuffer.put(bytes);
 	}
 
+	@Override
+	public boolean supportsPooledRecords() {
+		return true;
+	}
+
 	@Override
 	public void onTerminating() {
-		// Always flush the registryBuffer before flushing the recordBuffer. Otherwise
-		// the monitoring records could arrive before their string records
-		WriterUtil.flushBuffer(this.registryBuffer, this.socketChannel, LOGGER);
-		WriterUtil.flushBuffer(this.buffer, this.socketChannel, LOGGER);
+		this.flushBuffers();
 		WriterUtil.close(this.socketChannel, LOGGER);
 	}
 }
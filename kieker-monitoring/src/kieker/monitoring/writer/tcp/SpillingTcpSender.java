@@ -0,0 +1,521 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.writer.tcp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.common.record.io.BinaryValueSerializer;
+import kieker.common.record.io.IValueSerializer;
+import kieker.common.registry.writer.WriterRegistry;
+import kieker.monitoring.writer.WriterUtil;
+
+/**
+ * Sends the chunks of the {@link NonBlockingTcpWriter} on its own thread via a non-blocking socket channel. The writer
+ * thread never waits for the network: if the in-memory queue of chunks is full or the connection is lost, the chunks
+ * are spilled to a bounded local segment file and replayed in their order once the connection is (re-)established.
+ *
+ * <p>
+ * The order of the data is: the queued chunks, then the spilled chunks. As long as the segment file contains chunks,
+ * new chunks are spilled as well. A chunk is only removed after it has been written completely; after a reconnect, it
+ * is sent again from its beginning. Since the reader has a string registry per connection, each connection starts
+ * with all registry records written so far.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+final class SpillingTcpSender implements Runnable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SpillingTcpSender.class);
+
+	private static final long IDLE_TIMEOUT_IN_MS = 100;
+	private static final int SPILL_HEADER_SIZE = 4;
+
+	private final InetSocketAddress socketAddress;
+	private final long reconnectIntervalInMs;
+	private final Selector selector;
+	private final WriterRegistry writerRegistry;
+	private final int bufferSize;
+
+	/** guards the queued chunks, the spill positions, and the registry records. */
+	private final Object lock = new Object();
+	private final ArrayDeque<Chunk> queuedChunks = new ArrayDeque<>();
+	private final int maxQueuedChunks;
+	private final ByteArrayOutputStream registryRecords = new ByteArrayOutputStream();
+	private final Queue<Chunk> freeChunks = new ConcurrentLinkedQueue<>();
+
+	private final Path spillFile;
+	private final FileChannel spillChannel;
+	private final long maxSpillSize;
+	private final ByteBuffer spillHeader = ByteBuffer.allocate(SPILL_HEADER_SIZE);
+	private long spillWritePosition;
+	private long spillReadPosition;
+	private boolean droppingRecords;
+
+	// only accessed by the sender thread
+	private final ByteBuffer replayHeader = ByteBuffer.allocate(SPILL_HEADER_SIZE);
+	private final ByteBuffer replayBuffer;
+	private final ByteBuffer[] replayBuffers;
+	private long replayEntryLength;
+	private Chunk sendingChunk;
+	private SocketChannel socketChannel;
+	private SelectionKey selectionKey;
+	private boolean connectedBefore;
+
+	private volatile boolean terminated; // NOPMD (volatile is necessary for the termination protocol)
+	private volatile boolean aborted; // NOPMD (volatile is necessary for the termination protocol)
+	private volatile boolean connected; // NOPMD (volatile is necessary for the metrics)
+
+	private final AtomicLong spilledBytes = new AtomicLong();
+	private final AtomicLong droppedBytes = new AtomicLong();
+	private final AtomicLong reconnects = new AtomicLong();
+
+	/**
+	 * Create a new sender.
+	 *
+	 * @param socketAddress
+	 *            address of the record reader
+	 * @param writerRegistry
+	 *            the string registry of the writer
+	 * @param bufferSize
+	 *            size of the registry and the record buffer of a chunk
+	 * @param maxQueuedChunks
+	 *            maximal number of chunks queued in memory
+	 * @param spillDirectory
+	 *            directory of the segment file
+	 * @param maxSpillSize
+	 *            maximal size of the segment file in bytes
+	 * @param reconnectIntervalInMs
+	 *            time between two connection attempts
+	 * @throws IOException
+	 *             when the selector or the segment file cannot be created
+	 */
+	public SpillingTcpSender(final InetSocketAddress socketAddress, final WriterRegistry writerRegistry, final int bufferSize,
+			final int maxQueuedChunks, final Path spillDirectory, final long maxSpillSize, final long reconnectIntervalInMs) throws IOException {
+		this.socketAddress = socketAddress;
+		this.writerRegistry = writerRegistry;
+		this.bufferSize = bufferSize;
+		this.maxQueuedChunks = Math.max(1, maxQueuedChunks);
+		this.maxSpillSize = maxSpillSize;
+		this.reconnectIntervalInMs = reconnectIntervalInMs;
+		this.replayBuffer = ByteBuffer.allocateDirect(2 * bufferSize);
+		this.replayBuffers = new ByteBuffer[] { this.replayBuffer, };
+
+		Files.createDirectories(spillDirectory);
+		this.spillFile = Files.createTempFile(spillDirectory, "kieker-tcp-spill-", ".seg");
+		this.spillChannel = FileChannel.open(this.spillFile, StandardOpenOption.READ, StandardOpenOption.WRITE,
+				StandardOpenOption.DELETE_ON_CLOSE);
+		this.selector = Selector.open();
+	}
+
+	/**
+	 * Returns a free chunk for the writer thread.
+	 *
+	 * @return an empty chunk
+	 */
+	public Chunk takeFreeChunk() {
+		final Chunk chunk = this.freeChunks.poll();
+		if (chunk != null) {
+			return chunk;
+		}
+		return new Chunk(this.bufferSize, this.writerRegistry);
+	}
+
+	/**
+	 * Hands a filled chunk over to the sender thread. The chunk is queued in memory or spilled to the segment file;
+	 * this method never waits for the network. The caller must not use the chunk afterwards.
+	 *
+	 * @param chunk
+	 *            the chunk to send
+	 */
+	public void send(final Chunk chunk) {
+		chunk.flip();
+		boolean spilled = false;
+		synchronized (this.lock) {
+			if ((this.spillWritePosition == this.spillReadPosition) && (this.queuedChunks.size() < this.maxQueuedChunks)) {
+				this.queuedChunks.add(chunk);
+			} else {
+				this.spill(chunk);
+				spilled = true;
+			}
+		}
+		if (spilled) {
+			chunk.clear();
+			this.freeChunks.add(chunk);
+		}
+		this.selector.wakeup();
+	}
+
+	/**
+	 * Remembers a registry record which is sent at the beginning of every new connection.
+	 *
+	 * @param registryRecord
+	 *            the serialized registry record
+	 */
+	public void addRegistryRecord(final byte[] registryRecord) {
+		synchronized (this.lock) {
+			this.registryRecords.write(registryRecord, 0, registryRecord.length);
+		}
+	}
+
+	/** Stops the sender as soon as all chunks have been sent. */
+	public void terminate() {
+		this.terminated = true;
+		this.selector.wakeup();
+	}
+
+	/** Stops the sender immediately. */
+	public void abort() {
+		this.aborted = true;
+		this.selector.wakeup();
+	}
+
+	/**
+	 * Closes the selector and deletes the segment file. Must be called after the sender thread has stopped.
+	 */
+	public void close() {
+		WriterUtil.close(this.selector, LOGGER);
+		WriterUtil.close(this.spillChannel, LOGGER);
+	}
+
+	@Override
+	public void run() {
+		try {
+			while (!this.aborted) {
+				// read before polling the data; all chunks have been sent before the writer terminates the sender
+				final boolean lastRound = this.terminated;
+				if (this.socketChannel == null) {
+					if (lastRound && !this.hasData()) {
+						break;
+					}
+					if (!this.connect()) {
+						this.pause(this.reconnectIntervalInMs);
+						continue;
+					}
+					if (!this.sendFully(this.getRegistrySnapshot())) {
+						continue;
+					}
+				}
+
+				final ByteBuffer[] data = this.nextData();
+				if (data == null) {
+					if (lastRound) {
+						break;
+					}
+					// the writer wakes the selector up when it hands over a chunk
+					this.selector.select(IDLE_TIMEOUT_IN_MS);
+					this.selector.selectedKeys().clear();
+				} else if (this.sendFully(data)) {
+					this.completeData();
+				}
+			}
+		} catch (final IOException e) {
+			LOGGER.error("The TCP sender failed. Records are no longer sent to {}.", this.socketAddress, e);
+		} finally {
+			this.closeSocket();
+		}
+	}
+
+	private boolean hasData() {
+		synchronized (this.lock) {
+			return !this.queuedChunks.isEmpty() || (this.spillWritePosition != this.spillReadPosition);
+		}
+	}
+
+	private boolean connect() throws IOException {
+		final SocketChannel channel = SocketChannel.open();
+		try {
+			channel.configureBlocking(false);
+			final SelectionKey key = channel.register(this.selector, 0);
+			if (!channel.connect(this.socketAddress)) {
+				key.interestOps(SelectionKey.OP_CONNECT);
+				final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.reconnectIntervalInMs);
+				while (!channel.finishConnect()) {
+					final long remainingInMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+					if ((remainingInMs <= 0) || this.aborted) {
+						WriterUtil.close(channel, LOGGER);
+						return false;
+					}
+					this.selector.select(remainingInMs);
+					this.selector.selectedKeys().clear();
+				}
+				key.interestOps(0);
+			}
+			this.socketChannel = channel;
+			this.selectionKey = key;
+		} catch (final IOException e) {
+			LOGGER.debug("Could not connect to {}.", this.socketAddress, e);
+			WriterUtil.close(channel, LOGGER);
+			return false;
+		}
+
+		if (this.connectedBefore) {
+			this.reconnects.incrementAndGet();
+		}
+		this.connectedBefore = true;
+		this.connected = true;
+		LOGGER.info("Successfully connected to {}.", this.socketAddress);
+		return true;
+	}
+
+	private void closeSocket() {
+		if (this.socketChannel != null) {
+			WriterUtil.close(this.socketChannel, LOGGER);
+			this.socketChannel = null;
+			this.selectionKey = null;
+			this.connected = false;
+		}
+	}
+
+	/**
+	 * Waits for the given time before the next connection attempt, unless the sender is aborted.
+	 */
+	private void pause(final long timeInMs) throws IOException {
+		final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeInMs);
+		long remainingInMs = timeInMs;
+		while ((remainingInMs > 0) && !this.aborted) {
+			this.selector.select(remainingInMs);
+			this.selector.selectedKeys().clear();
+			remainingInMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+		}
+	}
+
+	/**
+	 * Writes the given buffers completely. If the socket cannot take more data, the sender waits until the socket is
+	 * write-ready again.
+	 *
+	 * @return <code>true</code> on success, <code>false</code> if the connection has been lost
+	 */
+	private boolean sendFully(final ByteBuffer[] buffers) throws IOException {
+		try {
+			while (SpillingTcpSender.hasRemaining(buffers)) {
+				if (this.socketChannel.write(buffers) == 0) {
+					this.selectionKey.interestOps(SelectionKey.OP_WRITE);
+					this.selector.select(IDLE_TIMEOUT_IN_MS);
+					this.selector.selectedKeys().clear();
+					this.selectionKey.interestOps(0);
+					if (this.aborted) {
+						return false;
+					}
+				}
+			}
+			return true;
+		} catch (final IOException e) {
+			LOGGER.warn("Lost the connection to {}: {}. Reconnecting.", this.socketAddress, e.getMessage());
+			this.closeSocket();
+			return false;
+		}
+	}
+
+	private ByteBuffer[] getRegistrySnapshot() {
+		synchronized (this.lock) {
+			return new ByteBuffer[] { ByteBuffer.wrap(this.registryRecords.toByteArray()), };
+		}
+	}
+
+	/**
+	 * @return the buffers of the oldest chunk, or <code>null</code> if there is nothing to send
+	 */
+	private ByteBuffer[] nextData() throws IOException {
+		final long readPosition;
+		synchronized (this.lock) {
+			final Chunk chunk = this.queuedChunks.peek();
+			if (chunk != null) {
+				chunk.rewind();
+				this.sendingChunk = chunk;
+				return chunk.buffers;
+			}
+			this.sendingChunk = null;
+			if (this.spillWritePosition == this.spillReadPosition) {
+				return null;
+			}
+			readPosition = this.spillReadPosition;
+		}
+
+		// the spilled entries in front of the write position are not modified anymore
+		this.replayHeader.clear();
+		this.readFully(this.replayHeader, readPosition);
+		final int length = this.replayHeader.getInt(0);
+		this.replayBuffer.clear();
+		this.replayBuffer.limit(length);
+		this.readFully(this.replayBuffer, readPosition + SPILL_HEADER_SIZE);
+		this.replayBuffer.flip();
+		this.replayEntryLength = SPILL_HEADER_SIZE + length;
+		return this.replayBuffers;
+	}
+
+	private void readFully(final ByteBuffer buffer, final long position) throws IOException {
+		long currentPosition = position;
+		while (buffer.hasRemaining()) {
+			final int bytesRead = this.spillChannel.read(buffer, currentPosition);
+			if (bytesRead < 0) {
+				throw new EOFException("Unexpected end of the segment file " + this.spillFile);
+			}
+			currentPosition += bytesRead;
+		}
+	}
+
+	private void completeData() throws IOException {
+		synchronized (this.lock) {
+			if (this.sendingChunk != null) {
+				this.queuedChunks.poll();
+				this.sendingChunk.clear();
+				this.freeChunks.add(this.sendingChunk);
+				this.sendingChunk = null;
+			} else {
+				this.spillReadPosition += this.replayEntryLength;
+				if (this.spillReadPosition == this.spillWritePosition) {
+					this.spillReadPosition = 0;
+					this.spillWritePosition = 0;
+					this.droppingRecords = false;
+					this.spillChannel.truncate(0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Appends the chunk to the segment file. If the file is full, only the registry records of the chunk are kept, since
+	 * later records may refer to them. Must be called while holding the lock.
+	 */
+	private void spill(final Chunk chunk) {
+		int length = chunk.remaining();
+		if ((this.spillWritePosition + SPILL_HEADER_SIZE + length) > this.maxSpillSize) {
+			this.droppedBytes.addAndGet(chunk.recordBuffer.remaining());
+			chunk.recordBuffer.position(chunk.recordBuffer.limit());
+			if (!this.droppingRecords) {
+				this.droppingRecords = true;
+				LOGGER.warn("The segment file {} is full. Records are dropped until it has been replayed.", this.spillFile);
+			}
+			length = chunk.registryBuffer.remaining();
+			if (length == 0) {
+				return;
+			}
+		}
+
+		this.spillHeader.clear();
+		this.spillHeader.putInt(length);
+		this.spillHeader.flip();
+		final ByteBuffer[] buffers = { this.spillHeader, chunk.registryBuffer, chunk.recordBuffer, };
+		try {
+			this.spillChannel.position(this.spillWritePosition);
+			while (SpillingTcpSender.hasRemaining(buffers)) {
+				this.spillChannel.write(buffers);
+			}
+			this.spillWritePosition += SPILL_HEADER_SIZE + length;
+			this.spilledBytes.addAndGet(SPILL_HEADER_SIZE + length);
+		} catch (final IOException e) {
+			LOGGER.error("Could not spill records to {}.", this.spillFile, e);
+			this.droppedBytes.addAndGet(length);
+		}
+	}
+
+	private static boolean hasRemaining(final ByteBuffer[] buffers) {
+		for (final ByteBuffer buffer : buffers) {
+			if (buffer.hasRemaining()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public boolean isConnected() {
+		return this.connected;
+	}
+
+	public long getSpilledBytes() {
+		return this.spilledBytes.get();
+	}
+
+	public long getDroppedBytes() {
+		return this.droppedBytes.get();
+	}
+
+	public long getReconnects() {
+		return this.reconnects.get();
+	}
+
+	/**
+	 * @return the number of spilled bytes which have not been replayed yet
+	 */
+	public long getReplayLagInBytes() {
+		synchronized (this.lock) {
+			return this.spillWritePosition - this.spillReadPosition;
+		}
+	}
+
+	/**
+	 * A registry buffer and a record buffer which are sent in this order. Registry records which are created while
+	 * serializing the records of the chunk are thus sent in front of them.
+	 */
+	static final class Chunk {
+		final ByteBuffer registryBuffer; // NOCS (package-private for the writer)
+		final ByteBuffer recordBuffer; // NOCS (package-private for the writer)
+		final IValueSerializer serializer; // NOCS (package-private for the writer)
+		final ByteBuffer[] buffers; // NOCS (package-private for the writer)
+
+		Chunk(final int bufferSize, final WriterRegistry writerRegistry) {
+			this.registryBuffer = ByteBuffer.allocateDirect(bufferSize);
+			this.recordBuffer = ByteBuffer.allocateDirect(bufferSize);
+			this.serializer = BinaryValueSerializer.create(this.recordBuffer, writerRegistry);
+			this.buffers = new ByteBuffer[] { this.registryBuffer, this.recordBuffer, };
+		}
+
+		boolean isEmpty() {
+			return (this.registryBuffer.position() == 0) && (this.recordBuffer.position() == 0);
+		}
+
+		int remaining() {
+			return this.registryBuffer.remaining() + this.recordBuffer.remaining();
+		}
+
+		void flip() {
+			this.registryBuffer.flip();
+			this.recordBuffer.flip();
+		}
+
+		void rewind() {
+			this.registryBuffer.rewind();
+			this.recordBuffer.rewind();
+		}
+
+		void clear() {
+			this.registryBuffer.clear();
+			this.recordBuffer.clear();
+		}
+	}
+}
@@ -0,0 +1,99 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.core.pool;
+
+import java.util.Queue;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.flow.trace.operation.PooledBeforeOperationEvent;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ThreadLocalRecordPoolTest {
+
+	private int numCreatedRecords;
+
+	private final ThreadLocalRecordPool<PooledBeforeOperationEvent> pool = new ThreadLocalRecordPool<PooledBeforeOperationEvent>(2) {
+		@Override
+		protected PooledBeforeOperationEvent createRecord(final Queue<? super PooledBeforeOperationEvent> threadPool) {
+			ThreadLocalRecordPoolTest.this.numCreatedRecords++;
+			return new PooledBeforeOperationEvent(threadPool);
+		}
+	};
+
+	public ThreadLocalRecordPoolTest() {
+		super();
+	}
+
+	@Test
+	public void testReleasedRecordIsReused() {
+		final PooledBeforeOperationEvent record = this.pool.acquire();
+		record.release();
+
+		Assert.assertSame(record, this.pool.acquire());
+		Assert.assertThat(this.numCreatedRecords, CoreMatchers.is(1));
+	}
+
+	@Test
+	public void testEmptyPoolCreatesRecords() {
+		final PooledBeforeOperationEvent first = this.pool.acquire();
+		final PooledBeforeOperationEvent second = this.pool.acquire();
+
+		Assert.assertNotSame(first, second);
+		Assert.assertThat(this.numCreatedRecords, CoreMatchers.is(2));
+	}
+
+	@Test
+	public void testFullPoolDropsReleasedRecords() {
+		final PooledBeforeOperationEvent[] records = new PooledBeforeOperationEvent[3];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = this.pool.acquire();
+		}
+		for (final PooledBeforeOperationEvent record : records) {
+			record.release();
+		}
+
+		Assert.assertSame(records[0], this.pool.acquire());
+		Assert.assertSame(records[1], this.pool.acquire());
+		Assert.assertNotSame(records[2], this.pool.acquire());
+		Assert.assertThat(this.numCreatedRecords, CoreMatchers.is(4));
+	}
+
+	@Test
+	public void testRecordsAreReturnedToThePoolOfTheAcquiringThread() throws Exception {
+		final PooledBeforeOperationEvent[] otherThreadsRecord = new PooledBeforeOperationEvent[1];
+		final Thread otherThread = new Thread() {
+			@Override
+			public void run() {
+				otherThreadsRecord[0] = ThreadLocalRecordPoolTest.this.pool.acquire();
+			}
+		};
+		otherThread.start();
+		otherThread.join();
+
+		// released by this thread (like by the writer thread), but returned to the other thread's pool
+		otherThreadsRecord[0].release();
+
+		Assert.assertNotSame(otherThreadsRecord[0], this.pool.acquire());
+	}
+}
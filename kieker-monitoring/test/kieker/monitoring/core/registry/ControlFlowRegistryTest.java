@@ -0,0 +1,131 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.core.registry;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ControlFlowRegistryTest {
+
+	private static final ControlFlowRegistry CF_REGISTRY = ControlFlowRegistry.INSTANCE;
+
+	public ControlFlowRegistryTest() {
+		super();
+	}
+
+	@After
+	public void tearDown() {
+		CF_REGISTRY.removeThreadLocalContext();
+	}
+
+	@Test
+	public void testUnsetValues() {
+		Assert.assertEquals(-1, CF_REGISTRY.recallThreadLocalTraceId());
+		Assert.assertEquals(-1, CF_REGISTRY.recallThreadLocalEOI());
+		Assert.assertEquals(-1, CF_REGISTRY.incrementAndRecallThreadLocalEOI());
+		Assert.assertEquals(-1, CF_REGISTRY.recallAndIncrementThreadLocalESS());
+		Assert.assertFalse(CF_REGISTRY.getThreadLocalContext().hasTraceId());
+	}
+
+	@Test
+	public void testThreadLocalMethodsAndContextShareState() {
+		CF_REGISTRY.storeThreadLocalTraceId(42L);
+		CF_REGISTRY.storeThreadLocalEOI(0);
+		CF_REGISTRY.storeThreadLocalESS(1);
+
+		final ControlFlowContext context = CF_REGISTRY.getThreadLocalContext();
+		Assert.assertEquals(42L, context.getTraceId());
+		Assert.assertEquals(1, context.incrementAndGetEoi());
+		Assert.assertEquals(1, context.getAndIncrementEss());
+
+		Assert.assertEquals(2, CF_REGISTRY.incrementAndRecallThreadLocalEOI());
+		Assert.assertEquals(2, CF_REGISTRY.recallAndIncrementThreadLocalESS());
+		Assert.assertEquals(3, CF_REGISTRY.recallThreadLocalESS());
+
+		CF_REGISTRY.unsetThreadLocalTraceId();
+		CF_REGISTRY.unsetThreadLocalEOI();
+		CF_REGISTRY.unsetThreadLocalESS();
+		Assert.assertFalse(context.hasTraceId());
+		Assert.assertFalse(context.hasEoi());
+		Assert.assertFalse(context.hasEss());
+	}
+
+	@Test
+	public void testUnsetAllValuesRemovesContext() {
+		CF_REGISTRY.storeThreadLocalTraceId(42L);
+		CF_REGISTRY.storeThreadLocalEOI(0);
+		CF_REGISTRY.storeThreadLocalESS(1);
+		final ControlFlowContext context = CF_REGISTRY.getThreadLocalContext();
+
+		CF_REGISTRY.unsetThreadLocalTraceId();
+		CF_REGISTRY.unsetThreadLocalEOI();
+		Assert.assertSame(context, CF_REGISTRY.getThreadLocalContext()); // the ess is still set
+		CF_REGISTRY.unsetThreadLocalESS();
+		Assert.assertNotSame(context, CF_REGISTRY.getThreadLocalContext());
+	}
+
+	@Test
+	public void testRemoveContext() {
+		final ControlFlowContext context = CF_REGISTRY.getThreadLocalContext();
+		context.startTrace(7L);
+
+		CF_REGISTRY.removeThreadLocalContext();
+		Assert.assertEquals(-1L, CF_REGISTRY.recallThreadLocalTraceId());
+		Assert.assertEquals(-1, CF_REGISTRY.recallThreadLocalEOI());
+		Assert.assertEquals(-1, CF_REGISTRY.recallThreadLocalESS());
+		Assert.assertNotSame(context, CF_REGISTRY.getThreadLocalContext());
+	}
+
+	@Test
+	public void testStartTraceAndReset() {
+		final ControlFlowContext context = CF_REGISTRY.getThreadLocalContext();
+		context.startTrace(7L);
+
+		Assert.assertEquals(7L, CF_REGISTRY.recallThreadLocalTraceId());
+		Assert.assertEquals(0, context.getEoi());
+		Assert.assertEquals(1, context.getEss());
+
+		context.reset();
+		Assert.assertEquals(ControlFlowContext.NO_TRACE_ID, context.getTraceId());
+		Assert.assertEquals(-1, context.getEoi());
+		Assert.assertEquals(-1, context.getEss());
+	}
+
+	@Test
+	public void testContextIsThreadLocal() throws InterruptedException {
+		CF_REGISTRY.getThreadLocalContext().startTrace(1L);
+
+		final long[] otherTraceId = new long[1];
+		final Thread thread = new Thread() {
+			@Override
+			public void run() {
+				otherTraceId[0] = CF_REGISTRY.recallThreadLocalTraceId();
+			}
+		};
+		thread.start();
+		thread.join();
+
+		Assert.assertEquals(-1L, otherTraceId[0]);
+		Assert.assertEquals(1L, CF_REGISTRY.recallThreadLocalTraceId());
+	}
+}
@@ -0,0 +1,168 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.queue;
+
+import java.lang.Thread.State;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.Await;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class MpscRingBufferQueueTest {
+
+	private static final int THREAD_STATE_CHANGE_TIMEOUT_IN_MS = 1000;
+
+	public MpscRingBufferQueueTest() {
+		super();
+	}
+
+	@Test
+	public void testCapacityIsRoundedToPowerOfTwo() {
+		Assert.assertThat(new MpscRingBufferQueue<Integer>(1).getCapacity(), CoreMatchers.is(1));
+		Assert.assertThat(new MpscRingBufferQueue<Integer>(10000).getCapacity(), CoreMatchers.is(16384));
+		Assert.assertThat(new MpscRingBufferQueue<Integer>(16384).getCapacity(), CoreMatchers.is(16384));
+	}
+
+	@Test
+	public void testIteratorReturnsSnapshotFromHeadToTail() {
+		final MpscRingBufferQueue<Integer> queue = new MpscRingBufferQueue<>(4);
+		for (int i = 0; i < 4; i++) {
+			queue.offer(i);
+		}
+		queue.poll();
+		queue.offer(4); // wraps around
+
+		final List<Integer> elements = new ArrayList<>(queue);
+		Assert.assertThat(elements, CoreMatchers.is(Arrays.asList(1, 2, 3, 4)));
+		Assert.assertTrue(queue.containsAll(Arrays.asList(2, 4)));
+		Assert.assertFalse(queue.contains(0));
+		Assert.assertThat(queue.size(), CoreMatchers.is(4));
+	}
+
+	@Test
+	public void testFifoAndFull() {
+		final MpscRingBufferQueue<Integer> queue = new MpscRingBufferQueue<>(4);
+
+		for (int i = 0; i < 4; i++) {
+			Assert.assertTrue(queue.offer(i));
+		}
+		Assert.assertFalse(queue.offer(4));
+		Assert.assertThat(queue.size(), CoreMatchers.is(4));
+		Assert.assertThat(queue.remainingCapacity(), CoreMatchers.is(0));
+
+		Assert.assertThat(queue.peek(), CoreMatchers.is(0));
+		Assert.assertThat(queue.poll(), CoreMatchers.is(0));
+		Assert.assertTrue(queue.offer(4)); // wraps around
+
+		for (int i = 1; i <= 4; i++) {
+			Assert.assertThat(queue.poll(), CoreMatchers.is(i));
+		}
+		Assert.assertNull(queue.poll());
+		Assert.assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void testDrainTo() {
+		final MpscRingBufferQueue<Integer> queue = new MpscRingBufferQueue<>(8);
+		for (int i = 0; i < 6; i++) {
+			queue.offer(i);
+		}
+
+		final List<Integer> batch = new ArrayList<>();
+		Assert.assertThat(queue.drainTo(batch, 4), CoreMatchers.is(4));
+		Assert.assertThat(batch.get(3), CoreMatchers.is(3));
+		Assert.assertThat(queue.drainTo(batch), CoreMatchers.is(2));
+		Assert.assertThat(batch.size(), CoreMatchers.is(6));
+		Assert.assertThat(queue.drainTo(batch), CoreMatchers.is(0));
+	}
+
+	@Test
+	public void testMultipleProducersPreserveOrderPerProducer() throws Exception {
+		final int numProducers = 4;
+		final int numElementsPerProducer = 100_000;
+		final MpscRingBufferQueue<long[]> queue = new MpscRingBufferQueue<>(64);
+
+		final List<Thread> producers = new ArrayList<>();
+		for (int p = 0; p < numProducers; p++) {
+			final int producerId = p;
+			final Thread producer = new Thread() {
+				@Override
+				public void run() {
+					for (int i = 0; i < numElementsPerProducer; i++) {
+						try {
+							queue.put(new long[] { producerId, i });
+						} catch (final InterruptedException e) {
+							return;
+						}
+					}
+				}
+			};
+			producers.add(producer);
+			producer.start();
+		}
+
+		final long[] lastSeen = new long[numProducers];
+		Arrays.fill(lastSeen, -1);
+		for (int n = 0; n < (numProducers * numElementsPerProducer); n++) {
+			final long[] element = queue.take();
+			final int producerId = (int) element[0];
+			Assert.assertThat(element[1], CoreMatchers.is(lastSeen[producerId] + 1));
+			lastSeen[producerId] = element[1];
+		}
+
+		for (final Thread producer : producers) {
+			producer.join();
+		}
+		Assert.assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void testTakeBlocksUntilOffer() throws Exception {
+		final MpscRingBufferQueue<Integer> queue = new MpscRingBufferQueue<>(4);
+		final List<Integer> taken = new ArrayList<>();
+
+		final Thread consumer = new Thread() {
+			@Override
+			public void run() {
+				try {
+					taken.add(queue.take());
+				} catch (final InterruptedException e) {
+					// terminate
+				}
+			}
+		};
+		consumer.start();
+
+		Await.awaitThreadState(consumer, State.WAITING, THREAD_STATE_CHANGE_TIMEOUT_IN_MS);
+
+		queue.offer(42);
+		consumer.join(THREAD_STATE_CHANGE_TIMEOUT_IN_MS);
+
+		Assert.assertThat(consumer.getState(), CoreMatchers.is(State.TERMINATED));
+		Assert.assertThat(taken.get(0), CoreMatchers.is(42));
+	}
+}
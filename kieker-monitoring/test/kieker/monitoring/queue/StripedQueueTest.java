@@ -0,0 +1,234 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.queue;
+
+import java.lang.Thread.State;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.Await;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class StripedQueueTest {
+
+	private static final int THREAD_STATE_CHANGE_TIMEOUT_IN_MS = 1000;
+
+	public StripedQueueTest() {
+		super();
+	}
+
+	@Test
+	public void testFifoAndFullStripe() {
+		final StripedQueue<Integer> queue = new StripedQueue<>(4);
+
+		for (int i = 0; i < 4; i++) {
+			Assert.assertTrue(queue.offer(i));
+		}
+		Assert.assertFalse(queue.offer(4));
+		Assert.assertThat(queue.getNumFailedOffers(), CoreMatchers.is(1L));
+		Assert.assertThat(queue.size(), CoreMatchers.is(4));
+		Assert.assertThat(queue.remainingCapacity(), CoreMatchers.is(0));
+
+		Assert.assertThat(queue.poll(), CoreMatchers.is(0));
+		Assert.assertTrue(queue.offer(4)); // wraps around
+
+		for (int i = 1; i <= 4; i++) {
+			Assert.assertThat(queue.poll(), CoreMatchers.is(i));
+		}
+		Assert.assertNull(queue.poll());
+		Assert.assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void testIteratorReturnsSnapshotOfAllStripes() throws Exception {
+		final StripedQueue<Integer> queue = new StripedQueue<>(4);
+		queue.offer(1);
+		queue.offer(2);
+		final Thread producer = new Thread() {
+			@Override
+			public void run() {
+				queue.offer(3);
+			}
+		};
+		producer.start();
+		producer.join();
+		final Integer polled = queue.poll();
+
+		final List<Integer> elements = new ArrayList<>(queue);
+		Assert.assertThat(elements.size(), CoreMatchers.is(2));
+		Assert.assertFalse(elements.contains(polled));
+		elements.add(polled);
+		Assert.assertTrue(elements.containsAll(Arrays.asList(1, 2, 3)));
+		Assert.assertTrue(queue.contains(2));
+	}
+
+	@Test
+	public void testFullStripeDoesNotAffectOtherThreads() throws Exception {
+		final StripedQueue<Integer> queue = new StripedQueue<>(2);
+		queue.offer(1);
+		queue.offer(2);
+		Assert.assertFalse(queue.offer(3));
+
+		final boolean[] offered = new boolean[1];
+		final Thread producer = new Thread() {
+			@Override
+			public void run() {
+				offered[0] = queue.offer(4);
+			}
+		};
+		producer.start();
+		producer.join();
+
+		Assert.assertTrue(offered[0]);
+		Assert.assertThat(queue.size(), CoreMatchers.is(3));
+		Assert.assertThat(queue.getNumStripes(), CoreMatchers.is(2));
+	}
+
+	@Test
+	public void testDrainToHarvestsStripesRoundRobin() throws Exception {
+		final StripedQueue<Integer> queue = new StripedQueue<>(16);
+		for (int i = 0; i < 8; i++) {
+			queue.offer(i);
+		}
+		final Thread producer = new Thread() {
+			@Override
+			public void run() {
+				for (int i = 100; i < 108; i++) {
+					queue.offer(i);
+				}
+			}
+		};
+		producer.start();
+		producer.join();
+
+		final List<Integer> batch = new ArrayList<>();
+		Assert.assertThat(queue.drainTo(batch, 8), CoreMatchers.is(8));
+		int fromFirstStripe = 0;
+		for (final Integer element : batch) {
+			if (element < 100) {
+				fromFirstStripe++;
+			}
+		}
+		Assert.assertThat(fromFirstStripe, CoreMatchers.is(4));
+
+		Assert.assertThat(queue.drainTo(batch), CoreMatchers.is(8));
+		Assert.assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void testStripeOfTerminatedThreadIsRemovedWhenEmpty() throws Exception {
+		final StripedQueue<Integer> queue = new StripedQueue<>(4);
+		final Thread producer = new Thread() {
+			@Override
+			public void run() {
+				queue.offer(1);
+			}
+		};
+		producer.start();
+		producer.join();
+
+		Assert.assertThat(queue.poll(100, TimeUnit.MILLISECONDS), CoreMatchers.is(1));
+		Assert.assertThat(queue.getNumStripes(), CoreMatchers.is(1));
+		// the consumer removes the empty stripe of the terminated producer before it waits
+		Assert.assertNull(queue.poll(1, TimeUnit.MILLISECONDS));
+		Assert.assertThat(queue.getNumStripes(), CoreMatchers.is(0));
+	}
+
+	@Test
+	public void testMultipleProducersPreserveOrderPerProducer() throws Exception {
+		final int numProducers = 4;
+		final int numElementsPerProducer = 100_000;
+		final StripedQueue<long[]> queue = new StripedQueue<>(64);
+
+		final List<Thread> producers = new ArrayList<>();
+		for (int p = 0; p < numProducers; p++) {
+			final int producerId = p;
+			final Thread producer = new Thread() {
+				@Override
+				public void run() {
+					for (int i = 0; i < numElementsPerProducer; i++) {
+						try {
+							queue.put(new long[] { producerId, i });
+						} catch (final InterruptedException e) {
+							return;
+						}
+					}
+				}
+			};
+			producers.add(producer);
+			producer.start();
+		}
+
+		final long[] lastSeen = new long[numProducers];
+		Arrays.fill(lastSeen, -1);
+		final List<long[]> batch = new ArrayList<>();
+		int n = 0;
+		while (n < (numProducers * numElementsPerProducer)) {
+			batch.add(queue.take());
+			queue.drainTo(batch, 32);
+			for (final long[] element : batch) {
+				final int producerId = (int) element[0];
+				Assert.assertThat(element[1], CoreMatchers.is(lastSeen[producerId] + 1));
+				lastSeen[producerId] = element[1];
+			}
+			n += batch.size();
+			batch.clear();
+		}
+
+		for (final Thread producer : producers) {
+			producer.join();
+		}
+		Assert.assertTrue(queue.isEmpty());
+		Assert.assertThat(queue.getNumFailedOffers(), CoreMatchers.is(0L));
+	}
+
+	@Test
+	public void testTakeBlocksUntilOffer() throws Exception {
+		final StripedQueue<Integer> queue = new StripedQueue<>(4);
+		final List<Integer> taken = new ArrayList<>();
+
+		final Thread consumer = new Thread() {
+			@Override
+			public void run() {
+				try {
+					taken.add(queue.take());
+				} catch (final InterruptedException e) {
+					// terminate
+				}
+			}
+		};
+		consumer.start();
+
+		Await.awaitThreadState(consumer, State.WAITING, THREAD_STATE_CHANGE_TIMEOUT_IN_MS);
+
+		queue.offer(42);
+		consumer.join(THREAD_STATE_CHANGE_TIMEOUT_IN_MS);
+
+		Assert.assertThat(consumer.getState(), CoreMatchers.is(State.TERMINATED));
+		Assert.assertThat(taken.get(0), CoreMatchers.is(42));
+	}
+}
@@ -17,17 +17,25 @@
 package kieker.monitoring.writer;
 
 import java.lang.Thread.State;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import org.hamcrest.CoreMatchers;
+import org.jctools.queues.MpscArrayQueue;
 import org.junit.Assert;
 import org.junit.Test;
 
 import kieker.Await;
 import kieker.common.configuration.Configuration;
 import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.flow.trace.operation.PooledBeforeOperationEvent;
 import kieker.common.record.misc.EmptyRecord;
+import kieker.monitoring.queue.BlockingQueueDecorator;
+import kieker.monitoring.queue.StripedQueue;
+import kieker.monitoring.queue.putstrategy.SPBlockingPutStrategy;
+import kieker.monitoring.queue.takestrategy.SCBlockingTakeStrategy;
 import kieker.monitoring.writer.dump.DumpWriter;
 
 /**
@@ -79,6 +87,70 @@ public class MonitoringWriterThreadTest {
 		Assert.assertThat(thread.getState(), CoreMatchers.is(State.TERMINATED));
 	}
 
+	@Test
+	public void testBatching() throws Exception {
+		final BatchCollectingWriter writer = new BatchCollectingWriter();
+		// the default writer queue: a non-blocking queue decorated by the WriterController
+		final BlockingQueue<IMonitoringRecord> writerQueue = new BlockingQueueDecorator<IMonitoringRecord>(new MpscArrayQueue<IMonitoringRecord>(16),
+				new SPBlockingPutStrategy(), new SCBlockingTakeStrategy());
+		for (int i = 0; i < 10; i++) {
+			writerQueue.add(new EmptyRecord());
+		}
+
+		final MonitoringWriterThread thread = new MonitoringWriterThread(writer, writerQueue, 4, 0);
+		thread.start();
+		thread.terminate();
+		thread.join(THREAD_STATE_CHANGE_TIMEOUT_IN_MS);
+
+		Assert.assertThat(thread.getState(), CoreMatchers.is(State.TERMINATED));
+		Assert.assertThat(writer.numRecords, CoreMatchers.is(10));
+		Assert.assertThat(writer.maxBatchSize, CoreMatchers.is(4));
+	}
+
+	@Test
+	public void testRecordsAfterEndOfMonitoringAreWritten() throws Exception {
+		final BatchCollectingWriter writer = new BatchCollectingWriter();
+		final BlockingQueue<IMonitoringRecord> writerQueue = new StripedQueue<IMonitoringRecord>(16);
+
+		final MonitoringWriterThread thread = new MonitoringWriterThread(writer, writerQueue);
+		// the end token is inserted into the first stripe and is thus harvested before the records of the producer
+		thread.terminate();
+		final Thread producer = new Thread() {
+			@Override
+			public void run() {
+				for (int i = 0; i < 10; i++) {
+					writerQueue.add(new EmptyRecord());
+				}
+			}
+		};
+		producer.start();
+		producer.join();
+
+		thread.start();
+		thread.join(THREAD_STATE_CHANGE_TIMEOUT_IN_MS);
+
+		Assert.assertThat(thread.getState(), CoreMatchers.is(State.TERMINATED));
+		Assert.assertThat(writer.numRecords, CoreMatchers.is(10));
+	}
+
+	@Test
+	public void testPooledRecordsAreReleasedAfterWrite() throws Exception {
+		final AbstractMonitoringWriter writer = new DumpWriter(new Configuration());
+		final BlockingQueue<IMonitoringRecord> writerQueue = new LinkedBlockingQueue<IMonitoringRecord>();
+		final ConcurrentLinkedQueue<PooledBeforeOperationEvent> pool = new ConcurrentLinkedQueue<>();
+		for (int i = 0; i < 10; i++) {
+			writerQueue.add(new PooledBeforeOperationEvent(pool).set(i, 1L, i, "op", "class"));
+		}
+
+		final MonitoringWriterThread thread = new MonitoringWriterThread(writer, writerQueue, 4, 0);
+		thread.start();
+		thread.terminate();
+		thread.join(THREAD_STATE_CHANGE_TIMEOUT_IN_MS);
+
+		Assert.assertThat(thread.getState(), CoreMatchers.is(State.TERMINATED));
+		Assert.assertThat(pool.size(), CoreMatchers.is(10));
+	}
+
 	@Test
 	public void testBlocking() throws Exception {
 		final Configuration configuration = new Configuration();
@@ -95,4 +167,38 @@ public class MonitoringWriterThreadTest {
 
 		Assert.assertThat(thread.getState(), CoreMatchers.is(State.TERMINATED));
 	}
+
+	/**
+	 * Records the sizes of the batches passed by the writer thread.
+	 */
+	private static final class BatchCollectingWriter extends AbstractMonitoringWriter {
+
+		private int numRecords;
+		private int maxBatchSize;
+
+		public BatchCollectingWriter() {
+			super(new Configuration());
+		}
+
+		@Override
+		public void onStarting() {
+			// nothing to do
+		}
+
+		@Override
+		public void writeMonitoringRecord(final IMonitoringRecord record) {
+			Assert.fail("Records must be passed in batches.");
+		}
+
+		@Override
+		public void writeMonitoringRecords(final List<IMonitoringRecord> records) {
+			this.numRecords += records.size();
+			this.maxBatchSize = Math.max(this.maxBatchSize, records.size());
+		}
+
+		@Override
+		public void onTerminating() {
+			// nothing to do
+		}
+	}
 }
@@ -0,0 +1,94 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.writer.collector;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.monitoring.writer.serializer.BinarySerializer;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class RecordSegmentTest {
+
+	public RecordSegmentTest() {
+		super();
+	}
+
+	@Test
+	public void testSegmentEqualsChunkOfBinarySerializer() {
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			records.add(new BeforeOperationEvent(i, 1L, i, "op" + (i % 3) + "()", "Class"));
+			records.add(new OperationExecutionRecord("op()", "SESS-ID", 1L, i, i + 1, "host", i, 1));
+		}
+
+		final RecordSegment segment = new RecordSegment(4096);
+		for (final IMonitoringRecord record : records) {
+			Assert.assertTrue(segment.append(record));
+		}
+
+		final ByteBuffer expected = ByteBuffer.allocate(4096);
+		final int expectedSize = new BinarySerializer(new Configuration()).serializeRecords(records, expected);
+		expected.flip();
+
+		final ByteBuffer actual = segment.finish();
+		Assert.assertThat(actual.limit(), CoreMatchers.is(expectedSize));
+		Assert.assertEquals(expected, actual);
+	}
+
+	@Test
+	public void testFullSegmentIsRolledBack() {
+		final RecordSegment segment = new RecordSegment(512);
+		final IMonitoringRecord first = new BeforeOperationEvent(1L, 1L, 0, "op()", "Class");
+		Assert.assertTrue(segment.append(first));
+
+		// does not fit due to its long string; neither its data nor its strings may remain in the segment
+		Assert.assertFalse(segment.append(new BeforeOperationEvent(2L, 1L, 1, new String(new char[500]).replace('\0', 'x'), "Other")));
+
+		final ByteBuffer expected = ByteBuffer.allocate(512);
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		records.add(first);
+		new BinarySerializer(new Configuration()).serializeRecords(records, expected);
+		expected.flip();
+		Assert.assertEquals(expected, segment.finish());
+	}
+
+	@Test
+	public void testReset() {
+		final RecordSegment segment = new RecordSegment(512);
+		Assert.assertTrue(segment.isEmpty());
+		segment.append(new BeforeOperationEvent(1L, 1L, 0, "op()", "Class"));
+		Assert.assertFalse(segment.isEmpty());
+
+		segment.finish();
+		segment.reset();
+		Assert.assertTrue(segment.isEmpty());
+	}
+}
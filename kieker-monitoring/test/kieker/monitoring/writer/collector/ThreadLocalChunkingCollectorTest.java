@@ -0,0 +1,148 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.writer.collector;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.misc.EmptyRecord;
+import kieker.monitoring.writer.raw.IRawDataWriter;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ThreadLocalChunkingCollectorTest {
+
+	/** type id, logging timestamp, and no payload. */
+	private static final int EMPTY_RECORD_SIZE = 4 + 8;
+
+	public ThreadLocalChunkingCollectorTest() {
+		super();
+	}
+
+	@Test
+	public void testAllRecordsOfAllThreadsAreWritten() throws Exception {
+		final int numThreads = 4;
+		final int numRecordsPerThread = 10_000;
+
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(ThreadLocalChunkingCollector.CONFIG_WRITER_CLASSNAME, ChunkCollectingWriter.class.getName());
+		configuration.setProperty(ThreadLocalChunkingCollector.CONFIG_SEGMENT_SIZE, "1024");
+		configuration.setProperty(ThreadLocalChunkingCollector.CONFIG_MAX_PENDING_SEGMENTS, "4");
+		configuration.setProperty(ThreadLocalChunkingCollector.CONFIG_TASK_RUN_INTERVAL, "1");
+		final ThreadLocalChunkingCollector collector = new ThreadLocalChunkingCollector(configuration);
+		collector.onStarting();
+
+		final List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < numThreads; t++) {
+			final Thread thread = new Thread() {
+				@Override
+				public void run() {
+					for (int i = 0; i < numRecordsPerThread; i++) {
+						collector.writeMonitoringRecord(new EmptyRecord());
+					}
+				}
+			};
+			threads.add(thread);
+			thread.start();
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		collector.onTerminating();
+
+		final ChunkCollectingWriter writer = ChunkCollectingWriter.instance;
+		Assert.assertTrue(writer.terminated);
+		int numRecords = 0;
+		for (final ByteBuffer chunk : writer.chunks) {
+			Assert.assertThat(chunk.remaining(), CoreMatchers.not(CoreMatchers.is(0)));
+			Assert.assertTrue(chunk.limit() <= 1024);
+			// the last four bytes contain the size of the record data
+			numRecords += chunk.getInt(chunk.limit() - 4) / EMPTY_RECORD_SIZE;
+		}
+		Assert.assertThat(numRecords, CoreMatchers.is(numThreads * numRecordsPerThread));
+	}
+
+	@Test
+	public void testPartialSegmentIsWrittenAfterDeferredWriteDelay() throws Exception {
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(ThreadLocalChunkingCollector.CONFIG_WRITER_CLASSNAME, ChunkCollectingWriter.class.getName());
+		configuration.setProperty(ThreadLocalChunkingCollector.CONFIG_DEFERRED_WRITE_DELAY, "10");
+		configuration.setProperty(ThreadLocalChunkingCollector.CONFIG_TASK_RUN_INTERVAL, "1");
+		final ThreadLocalChunkingCollector collector = new ThreadLocalChunkingCollector(configuration);
+		collector.onStarting();
+
+		collector.writeMonitoringRecord(new EmptyRecord());
+		final ChunkCollectingWriter writer = ChunkCollectingWriter.instance;
+		final long deadline = System.currentTimeMillis() + 5000;
+		while (writer.getNumChunks() == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		Assert.assertThat(writer.getNumChunks(), CoreMatchers.is(1));
+		Assert.assertFalse(writer.terminated);
+
+		collector.onTerminating();
+		Assert.assertThat(writer.getNumChunks(), CoreMatchers.is(1));
+	}
+
+	/**
+	 * Keeps copies of the written chunks.
+	 */
+	public static final class ChunkCollectingWriter implements IRawDataWriter {
+
+		static volatile ChunkCollectingWriter instance; // NOPMD (set by the collector via reflection)
+
+		final List<ByteBuffer> chunks = new ArrayList<>();
+		volatile boolean terminated;
+
+		public ChunkCollectingWriter(final Configuration configuration) { // NOPMD (unused parameter required by the factory)
+			instance = this; // NOPMD (assign to static field)
+		}
+
+		@Override
+		public synchronized void writeData(final ByteBuffer data, final int offset, final int length) {
+			final ByteBuffer copy = ByteBuffer.allocate(length);
+			data.position(offset);
+			data.limit(offset + length);
+			copy.put(data);
+			copy.flip();
+			this.chunks.add(copy);
+		}
+
+		synchronized int getNumChunks() {
+			return this.chunks.size();
+		}
+
+		@Override
+		public void onInitialization() {
+			// nothing to do
+		}
+
+		@Override
+		public void onTermination() {
+			this.terminated = true;
+		}
+	}
+}
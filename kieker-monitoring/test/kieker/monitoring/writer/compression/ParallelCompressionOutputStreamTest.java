@@ -0,0 +1,130 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.compression;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tukaani.xz.XZInputStream;
+
+import kieker.common.configuration.Configuration;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+
+/**
+ * Tests whether the parallel compression of the filters produces streams which are readable by the decompressors of the
+ * respective format.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ParallelCompressionOutputStreamTest {
+
+	private static final int BLOCK_SIZE = 4096;
+
+	public ParallelCompressionOutputStreamTest() {
+		// nothing to do
+	}
+
+	@Test
+	public void testGZip() throws IOException {
+		final Configuration configuration = ParallelCompressionOutputStreamTest.createConfiguration(GZipCompressionFilter.CONFIG_THREADS,
+				GZipCompressionFilter.CONFIG_BLOCK_SIZE);
+		final byte[] compressedData = ParallelCompressionOutputStreamTest.compress(new GZipCompressionFilter(configuration));
+
+		ParallelCompressionOutputStreamTest.assertDecompressedData(new GZIPInputStream(new ByteArrayInputStream(compressedData)));
+	}
+
+	@Test
+	public void testXZ() throws IOException {
+		final Configuration configuration = ParallelCompressionOutputStreamTest.createConfiguration(XZCompressionFilter.CONFIG_THREADS,
+				XZCompressionFilter.CONFIG_BLOCK_SIZE);
+		final byte[] compressedData = ParallelCompressionOutputStreamTest.compress(new XZCompressionFilter(configuration));
+
+		ParallelCompressionOutputStreamTest.assertDecompressedData(new XZInputStream(new ByteArrayInputStream(compressedData)));
+	}
+
+	@Test
+	public void testDeflate() throws IOException {
+		final Configuration configuration = ParallelCompressionOutputStreamTest.createConfiguration(DeflateCompressionFilter.CONFIG_THREADS,
+				DeflateCompressionFilter.CONFIG_BLOCK_SIZE);
+		final byte[] compressedData = ParallelCompressionOutputStreamTest.compress(new DeflateCompressionFilter(configuration));
+
+		ParallelCompressionOutputStreamTest.assertDecompressedData(new InflaterInputStream(new ByteArrayInputStream(compressedData)));
+	}
+
+	@Test
+	public void testEmptyDeflateStream() throws IOException {
+		final Configuration configuration = ParallelCompressionOutputStreamTest.createConfiguration(DeflateCompressionFilter.CONFIG_THREADS,
+				DeflateCompressionFilter.CONFIG_BLOCK_SIZE);
+		final ByteArrayOutputStream compressedData = new ByteArrayOutputStream();
+		new DeflateCompressionFilter(configuration).chainOutputStream(compressedData, Paths.get("")).close();
+
+		final InputStream inputStream = new InflaterInputStream(new ByteArrayInputStream(compressedData.toByteArray()));
+		Assert.assertEquals(-1, inputStream.read());
+	}
+
+	private static Configuration createConfiguration(final String threadsKey, final String blockSizeKey) {
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(threadsKey, "2");
+		configuration.setProperty(blockSizeKey, String.valueOf(BLOCK_SIZE));
+		return configuration;
+	}
+
+	/** Data of more than 20 blocks, with single bytes, partial blocks, and a flush in between. */
+	private static byte[] createData() {
+		final StringBuilder builder = new StringBuilder();
+		for (int i = 0; builder.length() < (20 * BLOCK_SIZE) + 123; i++) {
+			builder.append("kieker.common.record.flow.trace.operation.BeforeOperationEvent;").append(i * 7919).append('\n');
+		}
+		return builder.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] compress(final ICompressionFilter filter) throws IOException {
+		final byte[] data = ParallelCompressionOutputStreamTest.createData();
+		final ByteArrayOutputStream compressedData = new ByteArrayOutputStream();
+		final OutputStream outputStream = filter.chainOutputStream(compressedData, Paths.get("test"));
+		Assert.assertTrue(outputStream instanceof ParallelCompressionOutputStream);
+
+		outputStream.write(data[0]);
+		outputStream.write(data, 1, 1000);
+		outputStream.flush();
+		outputStream.write(data, 1001, data.length - 1001);
+		outputStream.close();
+		return compressedData.toByteArray();
+	}
+
+	private static void assertDecompressedData(final InputStream inputStream) throws IOException {
+		final ByteArrayOutputStream decompressedData = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[1024];
+		int length;
+		while ((length = inputStream.read(buffer)) != -1) { // NOPMD (assignment in operand)
+			decompressedData.write(buffer, 0, length);
+		}
+		inputStream.close();
+
+		Assert.assertArrayEquals(ParallelCompressionOutputStreamTest.createData(), decompressedData.toByteArray());
+	}
+}
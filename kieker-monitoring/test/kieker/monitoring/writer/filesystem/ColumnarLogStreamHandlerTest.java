@@ -0,0 +1,106 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.writer.filesystem;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.io.columnar.ColumnarSegmentReader;
+import kieker.common.registry.IRegistryListener;
+import kieker.common.registry.writer.WriterRegistry;
+import kieker.monitoring.writer.compression.NoneCompressionFilter;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class ColumnarLogStreamHandlerTest implements IRegistryListener<String> {
+
+	private final WriterRegistry reg = new WriterRegistry(this);
+
+	public ColumnarLogStreamHandlerTest() {
+		// nothing to be done here.
+	}
+
+	@Test
+	public void testSerializeAndRead() throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final ColumnarLogStreamHandler handler = new ColumnarLogStreamHandler(false, 256, Charset.defaultCharset(),
+				new NoneCompressionFilter(null), this.reg);
+		handler.initialize(output, Paths.get("test-filename"));
+
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			final IMonitoringRecord record = new OperationExecutionRecord("op" + (i % 4), "session", i / 10, i, i + 1, "localhost", i % 10, 0);
+			records.add(record);
+			handler.serialize(record, 0);
+		}
+		final long numOfBytes = handler.getNumOfBytes();
+		handler.close();
+
+		Assert.assertEquals("Wrong number of entries", 100, handler.getNumOfEntries());
+		Assert.assertEquals("Wrong number of bytes", output.size(), handler.getNumOfBytes());
+		Assert.assertTrue("Buffered bytes must be included", numOfBytes > (output.size() / 2));
+		Assert.assertEquals("Wrong records", records, ColumnarLogStreamHandlerTest.read(output.toByteArray()));
+	}
+
+	@Test
+	public void testEndBatchWritesSegmentOnFlush() throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final ColumnarLogStreamHandler handler = new ColumnarLogStreamHandler(true, 65536, Charset.defaultCharset(),
+				new NoneCompressionFilter(null), this.reg);
+		handler.initialize(output, Paths.get("test-filename"));
+
+		final IMonitoringRecord record = new OperationExecutionRecord("op", "session", 1, 0, 1, "localhost", 0, 0);
+		handler.serializeInBatch(record, 0);
+		handler.endBatch();
+
+		final List<IMonitoringRecord> readRecords = ColumnarLogStreamHandlerTest.read(output.toByteArray());
+		Assert.assertEquals("Segment must have been written", 1, readRecords.size());
+		Assert.assertEquals("Wrong record", record, readRecords.get(0));
+		handler.close();
+	}
+
+	private static List<IMonitoringRecord> read(final byte[] log) throws IOException {
+		final InputStream input = new ByteArrayInputStream(log);
+		final ColumnarSegmentReader reader = new ColumnarSegmentReader();
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		reader.readFileHeader(input);
+		while (reader.readSegment(input, records)) { // NOPMD (empty while)
+			// read all segments
+		}
+		return records;
+	}
+
+	@Override
+	public void onNewRegistryEntry(final String value, final int id) {
+		// ignore, as we only want to mock the serialization
+	}
+
+}
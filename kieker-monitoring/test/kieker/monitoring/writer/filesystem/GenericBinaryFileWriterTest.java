@@ -21,6 +21,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
 
 import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
@@ -31,7 +33,9 @@ import org.junit.rules.TemporaryFolder;
 
 import kieker.common.configuration.Configuration;
 import kieker.common.record.misc.EmptyRecord;
+import kieker.common.util.filesystem.FSUtil;
 import kieker.common.util.filesystem.FileExtensionFilter;
+import kieker.common.util.filesystem.LogFileIndex;
 import kieker.monitoring.core.configuration.ConfigurationConstants;
 import kieker.monitoring.writer.compression.NoneCompressionFilter;
 import kieker.monitoring.writer.compression.ZipCompressionFilter;
@@ -157,6 +161,47 @@ public class GenericBinaryFileWriterTest {
 		Assert.assertThat(recordFiles.length, CoreMatchers.is(2));
 	}
 
+	/**
+	 * Test whether an index with the positions of the records in the log file is written for each log file.
+	 */
+	@Test
+	public void shouldCreateIndexForEachRecordFile() throws IOException {
+		// test preparation
+		this.configuration.setProperty(FileWriter.CONFIG_MAXENTRIESINFILE, "3");
+		this.configuration.setProperty(FileWriter.CONFIG_INDEX, "true");
+		this.configuration.setProperty(FileWriter.CONFIG_INDEX_BLOCK_SIZE, "2");
+
+		final EmptyRecord record = new EmptyRecord();
+		final int recordSizeInBytes = 4 + 8 + EmptyRecord.SIZE;
+
+		// test execution
+		final FileWriter writer = new FileWriter(this.configuration);
+		writer.onStarting();
+		FilesystemTestUtil.writeMonitoringRecords(writer, 5, record);
+		writer.onTerminating();
+
+		// test assertion
+		final File storePath = Files.list(this.writerPath).findFirst().get().toFile();
+		final File[] recordFiles = storePath.listFiles(FileExtensionFilter.BIN);
+		Arrays.sort(recordFiles);
+		Assert.assertThat(recordFiles.length, CoreMatchers.is(2));
+
+		final int[][] expectedBlockRecords = { { 2, 1 }, { 2 } };
+		for (int i = 0; i < recordFiles.length; i++) {
+			final Path indexFile = Paths.get(recordFiles[i].getPath() + FSUtil.INDEX_FILE_EXTENSION);
+			final List<LogFileIndex.Block> blocks = LogFileIndex.read(indexFile).getBlocks();
+			Assert.assertThat(blocks.size(), CoreMatchers.is(expectedBlockRecords[i].length));
+			long offset = 0;
+			for (int j = 0; j < blocks.size(); j++) {
+				Assert.assertThat(blocks.get(j).getOffset(), CoreMatchers.is(offset));
+				Assert.assertThat(blocks.get(j).getRecords(), CoreMatchers.is(expectedBlockRecords[i][j]));
+				Assert.assertThat(blocks.get(j).getLength(), CoreMatchers.is((long) expectedBlockRecords[i][j] * recordSizeInBytes));
+				offset += blocks.get(j).getLength();
+			}
+			Assert.assertThat(offset, CoreMatchers.is(recordFiles[i].length()));
+		}
+	}
+
 	/**
 	 * Test whether compression setting works.
 	 */
@@ -0,0 +1,209 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.filesystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.registry.IRegistryListener;
+import kieker.common.registry.writer.WriterRegistry;
+import kieker.common.util.filesystem.FSUtil;
+import kieker.common.util.filesystem.FileExtensionFilter;
+import kieker.monitoring.core.configuration.ConfigurationConstants;
+import kieker.monitoring.writer.compression.ICompressionFilter;
+import kieker.monitoring.writer.compression.NoneCompressionFilter;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class MappedBinaryLogStreamHandlerTest implements IRegistryListener<String> {
+
+	private static final long HEADER_SIZE = FSUtil.MAPPED_BINARY_FILE_HEADER_SIZE;
+
+	@Rule
+	public final TemporaryFolder tmpFolder = new TemporaryFolder(); // NOCS recommends that this is private. JUnit test wants this public.
+
+	private final Charset charset = Charset.defaultCharset();
+	private final ICompressionFilter compressionFilter = new NoneCompressionFilter(null);
+
+	public MappedBinaryLogStreamHandlerTest() {
+		// nothing to be done here.
+	}
+
+	@Test
+	public void testSameRecordFormatAsBinaryLogStreamHandler() throws IOException {
+		// more than one region of 1 MiB
+		final int numRecords = 40_000;
+		final Path mappedFile = this.writeRecords(new MappedBinaryLogStreamHandler(false, 8192, this.charset, this.compressionFilter,
+				new WriterRegistry(this)), "mapped.mbin", numRecords);
+		final Path streamedFile = this.writeRecords(new BinaryLogStreamHandler(false, 8192, this.charset, this.compressionFilter,
+				new WriterRegistry(this)), "streamed.bin", numRecords);
+
+		final byte[] mappedBytes = Files.readAllBytes(mappedFile);
+		Assert.assertThat((long) mappedBytes.length, CoreMatchers.is(HEADER_SIZE + Files.size(streamedFile)));
+		final ByteBuffer header = ByteBuffer.wrap(mappedBytes);
+		Assert.assertThat(header.getInt(0), CoreMatchers.is(FSUtil.MAPPED_BINARY_FILE_MAGIC));
+		Assert.assertThat(header.getLong(FSUtil.MAPPED_BINARY_FILE_COMMITTED_END_POSITION), CoreMatchers.is((long) mappedBytes.length));
+		Assert.assertTrue(Arrays.equals(Files.readAllBytes(streamedFile),
+				Arrays.copyOfRange(mappedBytes, FSUtil.MAPPED_BINARY_FILE_HEADER_SIZE, mappedBytes.length)));
+	}
+
+	@Test
+	public void testInitializeWithStreamFallsBackToBinaryLogStreamHandler() throws IOException {
+		final int numRecords = 1000;
+		final MappedBinaryLogStreamHandler handler = new MappedBinaryLogStreamHandler(false, 8192, this.charset, this.compressionFilter,
+				new WriterRegistry(this));
+		Assert.assertThat(handler.getFileExtension(), CoreMatchers.is(FSUtil.MAPPED_BINARY_FILE_EXTENSION));
+		final Path fallbackFile = this.tmpFolder.getRoot().toPath().resolve("fallback.mbin");
+		handler.initialize(Files.newOutputStream(fallbackFile), fallbackFile.getFileName());
+		for (int i = 0; i < numRecords; i++) {
+			handler.serializeInBatch(MappedBinaryLogStreamHandlerTest.createRecord(i), 0);
+		}
+		handler.endBatch();
+		Assert.assertThat(handler.getNumOfEntries(), CoreMatchers.is(numRecords));
+		handler.close();
+
+		final Path streamedFile = this.writeRecords(new BinaryLogStreamHandler(false, 8192, this.charset, this.compressionFilter,
+				new WriterRegistry(this)), "streamed.bin", numRecords);
+		Assert.assertTrue(Arrays.equals(Files.readAllBytes(streamedFile), Files.readAllBytes(fallbackFile)));
+	}
+
+	@Test
+	public void testNumOfBytes() throws IOException {
+		final MappedBinaryLogStreamHandler handler = new MappedBinaryLogStreamHandler(true, 8192, this.charset, this.compressionFilter,
+				new WriterRegistry(this));
+		handler.initialize(this.tmpFolder.getRoot().toPath().resolve("test.mbin"));
+		final IMonitoringRecord record = MappedBinaryLogStreamHandlerTest.createRecord(1);
+		handler.serialize(record, 0);
+		handler.serialize(record, 0);
+
+		Assert.assertThat(handler.getNumOfEntries(), CoreMatchers.is(2));
+		Assert.assertThat(handler.getNumOfBytes(), CoreMatchers.is(HEADER_SIZE + (2L * (4 + 8 + record.getSize()))));
+		handler.close();
+	}
+
+	@Test
+	public void testTruncateToLastCompleteRecord() throws IOException {
+		final Path logFile = this.tmpFolder.getRoot().toPath().resolve("crashed.mbin");
+		final MappedBinaryLogStreamHandler handler = new MappedBinaryLogStreamHandler(false, 8192, this.charset, this.compressionFilter,
+				new WriterRegistry(this));
+		handler.initialize(logFile);
+		// type id 0 and logging timestamp 0 are legitimate values
+		final IMonitoringRecord record = MappedBinaryLogStreamHandlerTest.createRecord(0);
+		record.setLoggingTimestamp(0);
+		handler.serializeInBatch(record, 0);
+		handler.serializeInBatch(MappedBinaryLogStreamHandlerTest.createRecord(1), 0);
+		handler.endBatch();
+		final long committedEnd = handler.getNumOfBytes();
+		// a batch which is not committed when the application crashes
+		handler.serializeInBatch(MappedBinaryLogStreamHandlerTest.createRecord(2), 0);
+
+		Assert.assertThat(Files.size(logFile), CoreMatchers.is(HEADER_SIZE + MappedBinaryLogStreamHandler.MIN_REGION_SIZE));
+		Assert.assertThat(MappedBinaryLogStreamHandler.truncateToLastCompleteRecord(logFile), CoreMatchers.is(committedEnd));
+		Assert.assertThat(Files.size(logFile), CoreMatchers.is(committedEnd));
+		// the handler of the crashed application is not closed, its regions extend beyond the truncated file
+	}
+
+	@Test
+	public void testTruncateIgnoresFilesWithoutHeader() throws IOException {
+		final Path logFile = this.writeRecords(new BinaryLogStreamHandler(false, 8192, this.charset, this.compressionFilter,
+				new WriterRegistry(this)), "streamed.bin", 10);
+		final long length = Files.size(logFile);
+
+		Assert.assertThat(MappedBinaryLogStreamHandler.truncateToLastCompleteRecord(logFile), CoreMatchers.is(length));
+		Assert.assertThat(Files.size(logFile), CoreMatchers.is(length));
+	}
+
+	@Test
+	public void testFileWriterRollsOverAtMaxLogSize() throws IOException {
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(ConfigurationConstants.HOST_NAME, "testHostName");
+		configuration.setProperty(ConfigurationConstants.CONTROLLER_NAME, "testControllerName");
+		configuration.setProperty(FileWriter.CONFIG_BUFFERSIZE, "8192");
+		configuration.setProperty(FileWriter.CONFIG_CHARSET_NAME, "UTF-8");
+		configuration.setProperty(FileWriter.CONFIG_MAXENTRIESINFILE, "-1");
+		configuration.setProperty(FileWriter.CONFIG_MAXLOGFILES, String.valueOf(Integer.MAX_VALUE));
+		configuration.setProperty(FileWriter.CONFIG_MAXLOGSIZE, "1");
+		configuration.setProperty(FileWriter.CONFIG_PATH, this.tmpFolder.getRoot().getAbsolutePath());
+		configuration.setProperty(FileWriter.CONFIG_COMPRESSION_FILTER, NoneCompressionFilter.class.getName());
+		configuration.setProperty(FileWriter.CONFIG_MAP_FILE_HANDLER, TextMapFileHandler.class.getName());
+		configuration.setProperty(FileWriter.CONFIG_LOG_STREAM_HANDLER, MappedBinaryLogStreamHandler.class.getName());
+
+		final FileWriter writer = new FileWriter(configuration);
+		final IMonitoringRecord record = MappedBinaryLogStreamHandlerTest.createRecord(1);
+		final int recordSize = 4 + 8 + record.getSize();
+		// the writer rolls over before the first record which exceeds 1 MiB including the header
+		final int recordsPerFile = (((1024 * 1024) - FSUtil.MAPPED_BINARY_FILE_HEADER_SIZE) + recordSize - 1) / recordSize;
+		final int numRecords = (3 * recordsPerFile) + 1;
+		writer.onStarting();
+		for (int i = 0; i < numRecords; i++) {
+			writer.writeMonitoringRecord(record);
+		}
+		writer.onTerminating();
+
+		final File storePath = Files.list(this.tmpFolder.getRoot().toPath()).findFirst().get().toFile();
+		final File[] recordFiles = storePath.listFiles(FileExtensionFilter.MAPPED_BIN);
+		Assert.assertThat(recordFiles.length, CoreMatchers.is(4));
+		long totalSize = 0;
+		for (final File recordFile : recordFiles) {
+			Assert.assertTrue(recordFile.length() <= (HEADER_SIZE + ((long) recordsPerFile * recordSize)));
+			totalSize += recordFile.length();
+		}
+		Assert.assertThat(totalSize, CoreMatchers.is((recordFiles.length * HEADER_SIZE) + ((long) numRecords * recordSize)));
+	}
+
+	private Path writeRecords(final AbstractLogStreamHandler handler, final String fileName, final int numRecords) throws IOException {
+		final Path logFile = this.tmpFolder.getRoot().toPath().resolve(fileName);
+		handler.initialize(logFile);
+		for (int i = 0; i < numRecords; i++) {
+			handler.serializeInBatch(MappedBinaryLogStreamHandlerTest.createRecord(i), 0);
+			if ((i % 100) == 0) {
+				handler.endBatch();
+			}
+		}
+		handler.close();
+		return logFile;
+	}
+
+	private static IMonitoringRecord createRecord(final int index) {
+		final OperationExecutionRecord record = new OperationExecutionRecord("op" + (index % 7), "session", index, index, index + 1L,
+				"localhost", index, index % 3);
+		record.setLoggingTimestamp(1_000_000L + index);
+		return record;
+	}
+
+	@Override
+	public void onNewRegistryEntry(final String value, final int id) {
+		// ignore, as we only want to mock the serialization
+	}
+
+}
@@ -100,6 +100,52 @@ public class TextLogStreamHandlerTest {
 		}
 	}
 
+	/**
+	 * Test method for
+	 * {@link kieker.monitoring.writer.filesystem.TextLogStreamHandler#serializeInBatch(kieker.common.record.IMonitoringRecord, int)}.
+	 */
+	@Test
+	public void testSerializeInBatch() throws IOException {
+		final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		final TextLogStreamHandler handler = new TextLogStreamHandler(true, 102400, this.charset,
+				this.compressionFilter, this.reg);
+
+		handler.initialize(byteArrayOutputStream, Paths.get("test-filename"));
+		handler.serializeInBatch(this.record, 2);
+		handler.serializeInBatch(this.record, 2);
+		Assert.assertEquals("Batch must not be written before its end", 0, byteArrayOutputStream.size());
+
+		handler.endBatch();
+		final String[] lines = byteArrayOutputStream.toString(this.charset.name()).trim().split(System.lineSeparator());
+		Assert.assertEquals(2, lines.length);
+		Assert.assertEquals("$2;-1;testing;abc;1;0;1;localhost;123;456", lines[1]);
+		Assert.assertEquals(2, handler.getNumOfEntries());
+	}
+
+	/**
+	 * Test method for
+	 * {@link kieker.monitoring.writer.filesystem.TextLogStreamHandler#serializeInBatch(kieker.common.record.IMonitoringRecord, int)}
+	 * with a buffer which cannot hold the whole batch.
+	 */
+	@Test
+	public void testSerializeInBatchBufferFull() throws IOException {
+		final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		final TextLogStreamHandler handler = new TextLogStreamHandler(true, 64, this.charset,
+				this.compressionFilter, this.reg);
+
+		handler.initialize(byteArrayOutputStream, Paths.get("test-filename"));
+		for (int i = 0; i < 3; i++) {
+			handler.serializeInBatch(this.record, 2);
+		}
+		handler.endBatch();
+
+		final String[] lines = byteArrayOutputStream.toString(this.charset.name()).trim().split(System.lineSeparator());
+		Assert.assertEquals(3, lines.length);
+		for (final String line : lines) {
+			Assert.assertEquals("$2;-1;testing;abc;1;0;1;localhost;123;456", line);
+		}
+	}
+
 	/**
 	 * Test method for
 	 * {@link kieker.monitoring.writer.filesystem.TextLogStreamHandler#TextLogStreamHandler(java.lang.Boolean, java.lang.Integer, java.nio.charset.Charset, kieker.monitoring.writer.compression.ICompressionFilter, kieker.common.registry.writer.WriterRegistry)}.
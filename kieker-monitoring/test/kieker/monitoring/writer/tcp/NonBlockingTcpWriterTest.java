@@ -0,0 +1,260 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.tcp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.misc.RegistryRecord;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+public class NonBlockingTcpWriterTest {
+
+	private static final String HOSTNAME = "localhost";
+	private static final int PORT = 10445;
+
+	@Rule
+	public final TemporaryFolder tmpFolder = new TemporaryFolder(); // NOCS recommends that this is private. JUnit test wants this public.
+
+	private Configuration configuration;
+
+	public NonBlockingTcpWriterTest() {
+		super();
+	}
+
+	@Before
+	public void before() throws IOException {
+		this.configuration = new Configuration();
+		this.configuration.setProperty(NonBlockingTcpWriter.CONFIG_HOSTNAME, HOSTNAME);
+		this.configuration.setProperty(NonBlockingTcpWriter.CONFIG_PORT, PORT);
+		this.configuration.setProperty(NonBlockingTcpWriter.CONFIG_BUFFERSIZE, 1024);
+		this.configuration.setProperty(NonBlockingTcpWriter.CONFIG_MAX_QUEUED_BUFFERS, 1);
+		this.configuration.setProperty(NonBlockingTcpWriter.CONFIG_RECONNECT_INTERVAL_IN_MS, 20);
+		this.configuration.setProperty(NonBlockingTcpWriter.CONFIG_SPILL_DIRECTORY, this.tmpFolder.getRoot().getAbsolutePath());
+	}
+
+	@Test
+	public void shouldSpillAndReplayInOrder() throws Exception {
+		final NonBlockingTcpWriter writer = new NonBlockingTcpWriter(this.configuration);
+		writer.onStarting();
+		// no reader is available: the writer must neither block nor lose records
+		for (int i = 0; i < 2000; i++) {
+			writer.writeMonitoringRecord(NonBlockingTcpWriterTest.createRecord(i));
+		}
+		Assert.assertFalse(writer.isConnected());
+		Assert.assertThat(writer.getSpilledBytes(), Matchers.greaterThan(0L));
+		Assert.assertThat(writer.getReplayLagInBytes(), Matchers.greaterThan(0L));
+
+		try (ServerSocketChannel serverSocketChannel = ServerSocketChannel.open()) {
+			serverSocketChannel.bind(new InetSocketAddress(HOSTNAME, PORT));
+			final SocketChannel connection = serverSocketChannel.accept();
+			final ConnectionReader reader = new ConnectionReader(connection);
+			reader.start();
+
+			writer.onTerminating();
+			reader.join(10000);
+
+			Assert.assertThat(NonBlockingTcpWriterTest.parseTraceIds(reader.getData()), CoreMatchers.is(NonBlockingTcpWriterTest.range(0, 2000)));
+			Assert.assertThat(writer.getReplayLagInBytes(), CoreMatchers.is(0L));
+			Assert.assertThat(writer.getDroppedBytes(), CoreMatchers.is(0L));
+		}
+	}
+
+	@Test
+	public void shouldDropRecordsButKeepRegistryRecordsWhenTheSegmentFileIsFull() throws Exception {
+		this.configuration.setProperty(NonBlockingTcpWriter.CONFIG_MAX_SPILL_SIZE, 4096);
+		final NonBlockingTcpWriter writer = new NonBlockingTcpWriter(this.configuration);
+		writer.onStarting();
+		for (int i = 0; i < 2000; i++) {
+			writer.writeMonitoringRecord(NonBlockingTcpWriterTest.createRecord(i));
+		}
+		Assert.assertThat(writer.getDroppedBytes(), Matchers.greaterThan(0L));
+
+		try (ServerSocketChannel serverSocketChannel = ServerSocketChannel.open()) {
+			serverSocketChannel.bind(new InetSocketAddress(HOSTNAME, PORT));
+			final ConnectionReader reader = new ConnectionReader(serverSocketChannel.accept());
+			reader.start();
+
+			// records are accepted again as soon as the segment file has been replayed
+			final long deadline = System.currentTimeMillis() + 10000;
+			while ((writer.getReplayLagInBytes() > 0) && (System.currentTimeMillis() < deadline)) {
+				Thread.sleep(1);
+			}
+			writer.writeMonitoringRecord(NonBlockingTcpWriterTest.createRecord(2000));
+			writer.onTerminating();
+			reader.join(10000);
+
+			// all string ids are resolvable, and the last record has not been dropped
+			final List<Long> traceIds = NonBlockingTcpWriterTest.parseTraceIds(reader.getData());
+			Assert.assertThat(traceIds.get(traceIds.size() - 1), CoreMatchers.is(2000L));
+		}
+	}
+
+	@Test
+	public void shouldResendRegistryRecordsAfterReconnect() throws Exception {
+		this.configuration.setProperty(NonBlockingTcpWriter.CONFIG_FLUSH, true);
+		try (ServerSocketChannel serverSocketChannel = ServerSocketChannel.open()) {
+			serverSocketChannel.bind(new InetSocketAddress(HOSTNAME, PORT));
+			final NonBlockingTcpWriter writer = new NonBlockingTcpWriter(this.configuration);
+			writer.onStarting();
+
+			final SocketChannel firstConnection = serverSocketChannel.accept();
+			for (int i = 0; i < 100; i++) {
+				writer.writeMonitoringRecord(NonBlockingTcpWriterTest.createRecord(i));
+			}
+			final ByteBuffer buffer = ByteBuffer.allocate(64);
+			firstConnection.read(buffer);
+			firstConnection.close();
+
+			// the writer detects the lost connection when writing
+			final SecondConnectionAcceptor acceptor = new SecondConnectionAcceptor(serverSocketChannel);
+			acceptor.start();
+			for (int i = 100; i < 200; i++) {
+				writer.writeMonitoringRecord(NonBlockingTcpWriterTest.createRecord(i));
+				Thread.sleep(1);
+			}
+			acceptor.join(10000);
+			writer.onTerminating();
+			acceptor.reader.join(10000);
+
+			// the second connection is self-contained, i.e., starts with the registry records
+			final List<Long> traceIds = NonBlockingTcpWriterTest.parseTraceIds(acceptor.reader.getData());
+			Assert.assertThat(traceIds.get(traceIds.size() - 1), CoreMatchers.is(199L));
+			Assert.assertThat(writer.getReconnects(), CoreMatchers.is(1L));
+		}
+	}
+
+	private static OperationExecutionRecord createRecord(final int traceId) {
+		return new OperationExecutionRecord("public void op" + (traceId % 50) + "()", "session", traceId, 1, 2, "host", 0, 0);
+	}
+
+	private static List<Long> range(final long from, final long to) {
+		final List<Long> values = new ArrayList<>();
+		for (long i = from; i < to; i++) {
+			values.add(i);
+		}
+		return values;
+	}
+
+	/**
+	 * Parses the records of a connection and checks that each string id has been registered before.
+	 */
+	private static List<Long> parseTraceIds(final byte[] data) {
+		final ByteBuffer buffer = ByteBuffer.wrap(data);
+		final Map<Integer, String> registry = new HashMap<>();
+		final List<Long> traceIds = new ArrayList<>();
+		while (buffer.hasRemaining()) {
+			final int classId = buffer.getInt();
+			if (classId == RegistryRecord.CLASS_ID) {
+				final int id = buffer.getInt();
+				final byte[] bytes = new byte[buffer.getInt()];
+				buffer.get(bytes);
+				registry.put(id, new String(bytes, StandardCharsets.UTF_8));
+			} else {
+				Assert.assertThat(registry.get(classId), CoreMatchers.is(OperationExecutionRecord.class.getName()));
+				buffer.getLong(); // logging timestamp
+				Assert.assertTrue(registry.containsKey(buffer.getInt())); // operation signature
+				Assert.assertTrue(registry.containsKey(buffer.getInt())); // session id
+				traceIds.add(buffer.getLong());
+				buffer.getLong(); // tin
+				buffer.getLong(); // tout
+				Assert.assertTrue(registry.containsKey(buffer.getInt())); // hostname
+				buffer.getInt(); // eoi
+				buffer.getInt(); // ess
+			}
+		}
+		return traceIds;
+	}
+
+	/**
+	 * Reads a connection until the end of the stream.
+	 */
+	private static final class ConnectionReader extends Thread {
+
+		private final SocketChannel connection;
+		private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+		public ConnectionReader(final SocketChannel connection) {
+			super();
+			this.connection = connection;
+		}
+
+		@Override
+		public void run() {
+			final ByteBuffer buffer = ByteBuffer.allocate(4096);
+			try {
+				while (this.connection.read(buffer) != -1) {
+					this.data.write(buffer.array(), 0, buffer.position());
+					buffer.clear();
+				}
+				this.connection.close();
+			} catch (final IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		public byte[] getData() {
+			return this.data.toByteArray();
+		}
+	}
+
+	/**
+	 * Accepts the next connection and reads it.
+	 */
+	private static final class SecondConnectionAcceptor extends Thread {
+
+		private final ServerSocketChannel serverSocketChannel;
+		private volatile ConnectionReader reader; // NOPMD (volatile is read by the test thread)
+
+		public SecondConnectionAcceptor(final ServerSocketChannel serverSocketChannel) {
+			super();
+			this.serverSocketChannel = serverSocketChannel;
+		}
+
+		@Override
+		public void run() {
+			try {
+				this.reader = new ConnectionReader(this.serverSocketChannel.accept());
+				this.reader.start();
+			} catch (final IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+}
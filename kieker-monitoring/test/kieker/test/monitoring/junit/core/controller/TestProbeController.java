@@ -195,6 +195,44 @@ public class TestProbeController extends AbstractKiekerTest {
 
 	}
 
+	/**
+	 * Test if the activation via probe ids follows the patterns and is invalidated by pattern changes.
+	 */
+	@Test
+	public void testMatchingWithProbeIds() {
+		final Configuration configuration = ConfigurationFactory.createSingletonConfiguration();
+		configuration.setProperty(ConfigurationConstants.WRITER_CLASSNAME, DumpWriter.class.getName());
+		configuration.setProperty(ConfigurationConstants.ADAPTIVE_MONITORING_ENABLED, "true");
+		configuration.setProperty(ConfigurationConstants.ADAPTIVE_MONITORING_CONFIG_FILE, this.configFile.getAbsolutePath());
+		final IMonitoringController ctrl = MonitoringController.createInstance(configuration);
+
+		final int probeId = ctrl.getProbeId("void test.Test()");
+		final int otherProbeId = ctrl.getProbeId("void test.Other()");
+		Assert.assertEquals(probeId, ctrl.getProbeId("void test.Test()"));
+		Assert.assertNotEquals(probeId, otherProbeId);
+
+		Assert.assertTrue(ctrl.isProbeActivated(probeId));
+		ctrl.deactivateProbe("void test.Test()");
+		Assert.assertFalse(ctrl.isProbeActivated(probeId));
+		Assert.assertTrue(ctrl.isProbeActivated(otherProbeId));
+
+		final List<String> patterns = new ArrayList<>();
+		patterns.add("- *");
+		ctrl.setProbePatternList(patterns);
+		Assert.assertFalse(ctrl.isProbeActivated(otherProbeId));
+		ctrl.activateProbe("void test.Test()");
+		Assert.assertTrue(ctrl.isProbeActivated(probeId));
+		Assert.assertFalse(ctrl.isProbeActivated(otherProbeId));
+
+		// many probes grow the activation table
+		int lastProbeId = 0;
+		for (int i = 0; i < 1000; i++) {
+			lastProbeId = ctrl.getProbeId("void test.Test" + i + "()");
+		}
+		Assert.assertFalse(ctrl.isProbeActivated(lastProbeId));
+		ctrl.terminateMonitoring();
+	}
+
 	/**
 	 * Test if automated reading from test file works.
 	 *
@@ -19,10 +19,13 @@ package kieker.tools.bridge;
 import java.lang.reflect.Constructor;
 
 import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+import kieker.common.record.factory.IRecordFactory;
 
 /**
  * Lookup entity for a record id to a monitoring record. To avoid too many lookups and queries,
- * this map record contains a constructor reference and an array containing the field descriptions.
+ * this map record contains the record factory, a constructor reference, and an array containing the field descriptions.
+ * The connectors create the records with the factory, which reads the fields directly from a value deserializer.
  *
  * @author Reiner Jung
  * @since 1.8
@@ -42,7 +45,12 @@ public final class LookupEntity {
 	private final Constructor<? extends IMonitoringRecord> constructor;
 
 	/**
-	 * Construct one new LookupEntry.
+	 * Factory for the IMonitoringRecord class.
+	 */
+	private final IRecordFactory<? extends IMonitoringRecord> recordFactory;
+
+	/**
+	 * Construct one new LookupEntry. The record factory is taken from the {@link CachedRecordFactoryCatalog}.
 	 *
 	 * @param constructor
 	 *            constructor for a IMonitoringRecord class
@@ -50,6 +58,24 @@ public final class LookupEntity {
 	 *            monitoring record property type list
 	 */
 	public LookupEntity(final Constructor<? extends IMonitoringRecord> constructor, final Class<?>[] parameterTypes) { // NOPMD
+		this(CachedRecordFactoryCatalog.getInstance().get(constructor.getDeclaringClass().getName()), constructor, parameterTypes);
+	}
+
+	/**
+	 * Construct one new LookupEntry.
+	 *
+	 * @param recordFactory
+	 *            factory for the IMonitoringRecord class
+	 * @param constructor
+	 *            constructor for a IMonitoringRecord class
+	 * @param parameterTypes
+	 *            monitoring record property type list
+	 *
+	 * @since 1.15
+	 */
+	public LookupEntity(final IRecordFactory<? extends IMonitoringRecord> recordFactory, final Constructor<? extends IMonitoringRecord> constructor,
+			final Class<?>[] parameterTypes) { // NOPMD
+		this.recordFactory = recordFactory;
 		this.parameterTypes = parameterTypes;
 		this.constructor = constructor;
 	}
@@ -62,4 +88,13 @@ public final class LookupEntity {
 		return this.constructor;
 	}
 
+	/**
+	 * @return the factory of the record type
+	 *
+	 * @since 1.15
+	 */
+	public IRecordFactory<? extends IMonitoringRecord> getRecordFactory() {
+		return this.recordFactory;
+	}
+
 }
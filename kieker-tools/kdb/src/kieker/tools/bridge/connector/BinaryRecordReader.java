@@ -0,0 +1,140 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.tools.bridge.connector;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.ConcurrentMap;
+
+import kieker.common.exception.RecordInstantiationException;
+import kieker.common.record.IMonitoringRecord;
+import kieker.tools.bridge.LookupEntity;
+
+/**
+ * Reads records in the binary format of the data bridge, i.e., the record id followed by the values of the record (see
+ * {@link BridgeValueDeserializer}), from a buffer. The records are created by the record factories of the lookup entities.
+ * The buffer is filled from a channel; a record which is not yet completely received stays in the buffer until the next
+ * {@link #fill(ReadableByteChannel)}.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ *
+ * @deprecated since 1.15 removed in 1.16 replaced by collector
+ */
+@Deprecated
+public class BinaryRecordReader {
+
+	/** Upper bound of the buffer size, which limits the size of a single record. */
+	private static final int MAX_BUFFER_SIZE = 16 * 1024 * 1024;
+
+	private final ConcurrentMap<Integer, LookupEntity> lookupEntityMap;
+
+	private ByteBuffer buffer;
+	private BridgeValueDeserializer deserializer;
+
+	/**
+	 * Create a reader with an empty buffer.
+	 *
+	 * @param lookupEntityMap
+	 *            map of record ids to record types
+	 * @param bufferSize
+	 *            initial size of the buffer; the buffer grows if a record does not fit into it
+	 */
+	public BinaryRecordReader(final ConcurrentMap<Integer, LookupEntity> lookupEntityMap, final int bufferSize) {
+		this(lookupEntityMap, (ByteBuffer) ByteBuffer.allocate(bufferSize).flip());
+	}
+
+	/**
+	 * Create a reader for the given data.
+	 *
+	 * @param lookupEntityMap
+	 *            map of record ids to record types
+	 * @param data
+	 *            heap buffer ready for reading
+	 */
+	public BinaryRecordReader(final ConcurrentMap<Integer, LookupEntity> lookupEntityMap, final ByteBuffer data) {
+		this.lookupEntityMap = lookupEntityMap;
+		this.buffer = data;
+		this.deserializer = BridgeValueDeserializer.create(data);
+	}
+
+	/**
+	 * Read the next record from the buffer.
+	 *
+	 * @return the record or <code>null</code> if the buffer does not contain a complete record
+	 * @throws ConnectorDataTransmissionException
+	 *             if the record id is unknown or the record cannot be created
+	 */
+	public IMonitoringRecord read() throws ConnectorDataTransmissionException {
+		if (this.buffer.remaining() < 4) {
+			return null;
+		}
+		this.buffer.mark();
+		final int id = this.buffer.getInt();
+		final LookupEntity recordProperty = this.lookupEntityMap.get(id);
+		if (recordProperty == null) {
+			throw new ConnectorDataTransmissionException("Record type " + id + " is not registered.");
+		}
+		try {
+			return recordProperty.getRecordFactory().create(this.deserializer);
+		} catch (final BufferUnderflowException e) {
+			// incomplete record, move back
+			this.buffer.reset();
+			return null;
+		} catch (final RecordInstantiationException e) {
+			throw new ConnectorDataTransmissionException("Instantiation error", e);
+		} catch (final IllegalArgumentException e) {
+			throw new ConnectorDataTransmissionException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the buffer contains bytes which have not been read
+	 */
+	public boolean hasRemaining() {
+		return this.buffer.hasRemaining();
+	}
+
+	/**
+	 * Append data from the channel to the buffer. Grows the buffer if it is full with an incomplete record.
+	 *
+	 * @param channel
+	 *            the channel to read from
+	 * @return the number of bytes read, possibly zero for non-blocking channels, or -1 at the end of the stream
+	 * @throws IOException
+	 *             on read errors or if a record exceeds the maximal buffer size
+	 */
+	public int fill(final ReadableByteChannel channel) throws IOException {
+		this.buffer.compact();
+		if (!this.buffer.hasRemaining()) {
+			if (this.buffer.capacity() >= MAX_BUFFER_SIZE) {
+				throw new IOException("Record exceeds the maximal size of " + MAX_BUFFER_SIZE + " bytes.");
+			}
+			final ByteBuffer largerBuffer = ByteBuffer.allocate(Math.min(this.buffer.capacity() * 2, MAX_BUFFER_SIZE));
+			this.buffer.flip();
+			largerBuffer.put(this.buffer);
+			this.buffer = largerBuffer;
+			this.deserializer = BridgeValueDeserializer.create(largerBuffer);
+		}
+		final int bytesRead = channel.read(this.buffer);
+		this.buffer.flip();
+		return bytesRead;
+	}
+}
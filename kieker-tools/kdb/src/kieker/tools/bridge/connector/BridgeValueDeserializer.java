@@ -0,0 +1,85 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.tools.bridge.connector;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import kieker.common.record.io.BinaryValueDeserializer;
+
+/**
+ * Value deserializer for the binary format of the data bridge. In contrast to the {@link BinaryValueDeserializer},
+ * strings are not registry ids, but are sent inline as their length followed by their UTF-8 encoded bytes, and every
+ * non-zero byte is a <code>true</code> boolean.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ *
+ * @deprecated since 1.15 removed in 1.16 replaced by collector
+ */
+@Deprecated
+public class BridgeValueDeserializer extends BinaryValueDeserializer {
+
+	private final ByteBuffer buffer;
+
+	/**
+	 * Create a bridge value deserializer.
+	 *
+	 * @param buffer
+	 *            buffer for the deserializer
+	 */
+	protected BridgeValueDeserializer(final ByteBuffer buffer) {
+		super(buffer, null);
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Factory method to create a bridge value deserializer.
+	 *
+	 * @param buffer
+	 *            serialization buffer
+	 * @return the value deserializer
+	 */
+	public static BridgeValueDeserializer create(final ByteBuffer buffer) {
+		return new BridgeValueDeserializer(buffer);
+	}
+
+	@Override
+	public boolean getBoolean() { // NOPMD
+		return this.buffer.get() != 0;
+	}
+
+	/**
+	 * @throws BufferUnderflowException
+	 *             if the buffer does not contain the whole string
+	 */
+	@Override
+	public String getString() {
+		final int length = this.buffer.getInt();
+		if (length < 0) {
+			throw new IllegalArgumentException("Negative string length " + length);
+		}
+		if (length > this.buffer.remaining()) {
+			throw new BufferUnderflowException();
+		}
+		final String value = new String(this.buffer.array(), this.buffer.arrayOffset() + this.buffer.position(), length, StandardCharsets.UTF_8);
+		this.buffer.position(this.buffer.position() + length);
+		return value;
+	}
+}
@@ -16,8 +16,7 @@
 
 package kieker.tools.bridge.connector.jms;
 
-import java.io.UnsupportedEncodingException;
-import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.util.Hashtable;
 import java.util.concurrent.ConcurrentMap;
@@ -36,11 +35,13 @@ import javax.naming.InitialContext;
 import javax.naming.NamingException;
 
 import kieker.common.configuration.Configuration;
+import kieker.common.exception.RecordInstantiationException;
 import kieker.common.record.IMonitoringRecord;
 import kieker.common.record.io.IValueDeserializer;
 import kieker.common.record.io.TextValueDeserializer;
 import kieker.tools.bridge.LookupEntity;
 import kieker.tools.bridge.connector.AbstractConnector;
+import kieker.tools.bridge.connector.BinaryRecordReader;
 import kieker.tools.bridge.connector.ConnectorDataTransmissionException;
 import kieker.tools.bridge.connector.ConnectorEndOfDataException;
 import kieker.tools.bridge.connector.ConnectorProperty;
@@ -70,8 +71,6 @@ public class JMSClientConnector extends AbstractConnector {
 	/** Default KDB queue name. */
 	public static final String KIEKER_DATA_BRIDGE_READ_QUEUE = "kieker.tools.bridge";
 
-	private static final int BUF_LEN = 65536;
-
 	/** username used to connect to the JMS service. */
 	protected final String username;
 	/** password used to connect to the JMS service. */
@@ -79,7 +78,6 @@ public class JMSClientConnector extends AbstractConnector {
 	private final String uri;
 
 	private MessageConsumer consumer;
-	private final byte[] buffer = new byte[JMSClientConnector.BUF_LEN];
 	private Connection connection;
 	private final String jmsFactoryLookupName;
 
@@ -198,74 +196,17 @@ public class JMSClientConnector extends AbstractConnector {
 	 */
 	private IMonitoringRecord deserialize(final BytesMessage message)
 			throws ConnectorDataTransmissionException, ConnectorEndOfDataException {
-		final Integer id;
 		try {
-			id = message.readInt();
-			final LookupEntity recordProperty = this.lookupEntityMap.get(id);
-			if (recordProperty != null) {
-				final Object[] values = new Object[recordProperty.getParameterTypes().length];
-
-				for (int i = 0; i < recordProperty.getParameterTypes().length; i++) {
-					final Class<?> parameterType = recordProperty.getParameterTypes()[i];
-					if (boolean.class.equals(parameterType)) {
-						values[i] = message.readBoolean();
-					} else if (Boolean.class.equals(parameterType)) {
-						values[i] = Boolean.valueOf(message.readBoolean());
-					} else if (byte.class.equals(parameterType)) {
-						values[i] = message.readByte();
-					} else if (Byte.class.equals(parameterType)) {
-						values[i] = Byte.valueOf(message.readByte());
-					} else if (short.class.equals(parameterType)) { // NOPMD
-						values[i] = message.readShort();
-					} else if (Short.class.equals(parameterType)) {
-						values[i] = Short.valueOf(message.readShort());
-					} else if (int.class.equals(parameterType)) {
-						values[i] = message.readInt();
-					} else if (Integer.class.equals(parameterType)) {
-						values[i] = Integer.valueOf(message.readInt());
-					} else if (long.class.equals(parameterType)) {
-						values[i] = message.readLong();
-					} else if (Long.class.equals(parameterType)) {
-						values[i] = Long.valueOf(message.readLong());
-					} else if (float.class.equals(parameterType)) {
-						values[i] = message.readFloat();
-					} else if (Float.class.equals(parameterType)) {
-						values[i] = Float.valueOf(message.readFloat());
-					} else if (double.class.equals(parameterType)) {
-						values[i] = message.readDouble();
-					} else if (Double.class.equals(parameterType)) {
-						values[i] = Double.valueOf(message.readDouble());
-					} else if (String.class.equals(parameterType)) {
-						final int bufLen = message.readInt();
-						final int resultLen = message.readBytes(this.buffer, bufLen);
-						if (resultLen == bufLen) {
-							values[i] = new String(this.buffer, 0, bufLen, "UTF-8");
-						} else {
-							throw new ConnectorDataTransmissionException(
-									bufLen + " bytes expected, but only " + resultLen + " bytes received.");
-						}
-					} else { // reference types
-						throw new ConnectorDataTransmissionException("References are not yet supported.");
-					}
-				}
-				return recordProperty.getConstructor().newInstance(values);
-			} else {
-				throw new ConnectorDataTransmissionException("Record type " + id + " is not registered.");
+			final byte[] data = new byte[(int) message.getBodyLength()];
+			message.readBytes(data);
+			final IMonitoringRecord record = new BinaryRecordReader(this.lookupEntityMap, ByteBuffer.wrap(data)).read();
+			if (record == null) {
+				throw new ConnectorDataTransmissionException("Message of " + data.length + " bytes does not contain a complete record.");
 			}
+			return record;
 		} catch (final JMSException e) {
 			throw new ConnectorDataTransmissionException(e.getMessage(), e);
-		} catch (final UnsupportedEncodingException e) {
-			throw new ConnectorDataTransmissionException("Expected a string value in UTF-8", e);
-		} catch (final InstantiationException e) {
-			throw new ConnectorDataTransmissionException(e.getMessage(), e);
-		} catch (final IllegalAccessException e) {
-			throw new ConnectorDataTransmissionException(e.getMessage(), e);
-		} catch (final IllegalArgumentException e) {
-			throw new ConnectorDataTransmissionException(e.getMessage(), e);
-		} catch (final InvocationTargetException e) {
-			throw new ConnectorDataTransmissionException(e.getMessage(), e);
 		}
-
 	}
 
 	/**
@@ -284,54 +225,12 @@ public class JMSClientConnector extends AbstractConnector {
 		final Integer id = deserializer.getInt();
 		final LookupEntity recordProperty = this.lookupEntityMap.get(id);
 		if (recordProperty != null) {
-			final Object[] values = new Object[recordProperty.getParameterTypes().length];
-
-			for (int i = 0; i < recordProperty.getParameterTypes().length; i++) {
-				final Class<?> parameterType = recordProperty.getParameterTypes()[i];
-				if (boolean.class.equals(parameterType)) {
-					values[i] = deserializer.getBoolean();
-				} else if (parameterType.equals(Boolean.class)) {
-					values[i] = deserializer.getBoolean();
-				} else if (byte.class.equals(parameterType)) {
-					values[i] = deserializer.getByte();
-				} else if (Byte.class.equals(parameterType)) {
-					values[i] = deserializer.getByte();
-				} else if (short.class.equals(parameterType)) { // NOPMD
-					values[i] = deserializer.getShort();
-				} else if (Short.class.equals(parameterType)) {
-					values[i] = deserializer.getShort();
-				} else if (int.class.equals(parameterType)) {
-					values[i] = deserializer.getInt();
-				} else if (Integer.class.equals(parameterType)) {
-					values[i] = deserializer.getInt();
-				} else if (long.class.equals(parameterType)) {
-					values[i] = deserializer.getLong();
-				} else if (Long.class.equals(parameterType)) {
-					values[i] = deserializer.getLong();
-				} else if (float.class.equals(parameterType)) {
-					values[i] = deserializer.getFloat();
-				} else if (Float.class.equals(parameterType)) {
-					values[i] = deserializer.getFloat();
-				} else if (double.class.equals(parameterType)) {
-					values[i] = deserializer.getDouble();
-				} else if (Double.class.equals(parameterType)) {
-					values[i] = deserializer.getDouble();
-				} else if (String.class.equals(parameterType)) {
-					values[i] = deserializer.getString();
-				} else { // reference types
-					throw new ConnectorDataTransmissionException("References are not yet supported.");
-				}
-			}
 			try {
-				return recordProperty.getConstructor().newInstance(values);
-			} catch (final InstantiationException e) {
-				throw new ConnectorDataTransmissionException(e.getMessage(), e);
-			} catch (final IllegalAccessException e) {
+				return recordProperty.getRecordFactory().create(deserializer);
+			} catch (final RecordInstantiationException e) {
 				throw new ConnectorDataTransmissionException(e.getMessage(), e);
 			} catch (final IllegalArgumentException e) {
 				throw new ConnectorDataTransmissionException(e.getMessage(), e);
-			} catch (final InvocationTargetException e) {
-				throw new ConnectorDataTransmissionException(e.getMessage(), e);
 			}
 		} else {
 			throw new ConnectorDataTransmissionException("Record type " + id + " is not registered.");
@@ -16,17 +16,16 @@
 
 package kieker.tools.bridge.connector.tcp;
 
-import java.io.DataInputStream;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.net.Socket;
-import java.net.UnknownHostException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.ConcurrentMap;
 
 import kieker.common.configuration.Configuration;
 import kieker.common.record.IMonitoringRecord;
 import kieker.tools.bridge.LookupEntity;
 import kieker.tools.bridge.connector.AbstractConnector;
+import kieker.tools.bridge.connector.BinaryRecordReader;
 import kieker.tools.bridge.connector.ConnectorDataTransmissionException;
 import kieker.tools.bridge.connector.ConnectorEndOfDataException;
 import kieker.tools.bridge.connector.ConnectorProperty;
@@ -50,16 +49,14 @@ public class TCPClientConnector extends AbstractConnector {
 	/** Property name for the port of the record source. */
 	public static final String PORT = TCPClientConnector.class.getCanonicalName() + ".port";
 
-	// string buffer size (#1052)
+	// initial size of the receive buffer, it grows for larger records (#1052)
 	private static final int BUF_LEN = 65536;
 
 	private final int port;
 	private final String hostname;
-	private Socket socket;
+	private SocketChannel channel;
 
-	private final byte[] buffer = new byte[BUF_LEN];
-
-	private DataInputStream in;
+	private final BinaryRecordReader reader;
 
 	/**
 	 * Create a TCPClientConnector.
@@ -74,6 +71,7 @@ public class TCPClientConnector extends AbstractConnector {
 		super(configuration, lookupEntityMap);
 		this.hostname = this.configuration.getStringProperty(TCPClientConnector.HOSTNAME);
 		this.port = this.configuration.getIntProperty(TCPClientConnector.PORT);
+		this.reader = new BinaryRecordReader(lookupEntityMap, BUF_LEN);
 	}
 
 	/**
@@ -85,10 +83,11 @@ public class TCPClientConnector extends AbstractConnector {
 	@Override
 	public void initialize() throws ConnectorDataTransmissionException {
 		try {
-			this.socket = new Socket(this.hostname, this.port);
-			this.in = new DataInputStream(this.socket.getInputStream());
-		} catch (final UnknownHostException e) {
-			throw new ConnectorDataTransmissionException("The given host " + this.hostname + " could not be found.", e);
+			final InetSocketAddress address = new InetSocketAddress(this.hostname, this.port);
+			if (address.isUnresolved()) {
+				throw new ConnectorDataTransmissionException("The given host " + this.hostname + " could not be found.");
+			}
+			this.channel = SocketChannel.open(address);
 		} catch (final IOException e) {
 			throw new ConnectorDataTransmissionException(e.getMessage(), e);
 		}
@@ -104,8 +103,7 @@ public class TCPClientConnector extends AbstractConnector {
 	@Override
 	public void close() throws ConnectorDataTransmissionException {
 		try {
-			this.in.close();
-			this.socket.close();
+			this.channel.close();
 		} catch (final IOException e) {
 			throw new ConnectorDataTransmissionException("Error occured during socket close.", e);
 		}
@@ -123,70 +121,19 @@ public class TCPClientConnector extends AbstractConnector {
 	 */
 	@Override
 	public IMonitoringRecord deserializeNextRecord() throws ConnectorDataTransmissionException, ConnectorEndOfDataException {
-		// read structure ID
 		try {
-			final Integer id = this.in.readInt();
-			final LookupEntity recordProperty = this.lookupEntityMap.get(id);
-			if (recordProperty != null) {
-				final Object[] values = new Object[recordProperty.getParameterTypes().length];
-
-				for (int i = 0; i < recordProperty.getParameterTypes().length; i++) {
-					final Class<?> parameterType = recordProperty.getParameterTypes()[i];
-					if (boolean.class.equals(parameterType)) {
-						values[i] = this.in.readBoolean();
-					} else if (Boolean.class.equals(parameterType)) {
-						values[i] = Boolean.valueOf(this.in.readBoolean());
-					} else if (byte.class.equals(parameterType)) {
-						values[i] = this.in.readByte();
-					} else if (Byte.class.equals(parameterType)) {
-						values[i] = Byte.valueOf(this.in.readByte());
-					} else if (short.class.equals(parameterType)) { // NOPMD
-						values[i] = this.in.readShort();
-					} else if (Short.class.equals(parameterType)) {
-						values[i] = Short.valueOf(this.in.readShort());
-					} else if (int.class.equals(parameterType)) {
-						values[i] = this.in.readInt();
-					} else if (Integer.class.equals(parameterType)) {
-						values[i] = Integer.valueOf(this.in.readInt());
-					} else if (long.class.equals(parameterType)) {
-						values[i] = this.in.readLong();
-					} else if (Long.class.equals(parameterType)) {
-						values[i] = Long.valueOf(this.in.readLong());
-					} else if (float.class.equals(parameterType)) {
-						values[i] = this.in.readFloat();
-					} else if (Float.class.equals(parameterType)) {
-						values[i] = Float.valueOf(this.in.readFloat());
-					} else if (double.class.equals(parameterType)) {
-						values[i] = this.in.readDouble();
-					} else if (Double.class.equals(parameterType)) {
-						values[i] = Double.valueOf(this.in.readDouble());
-					} else if (String.class.equals(parameterType)) {
-						final int bufLen = this.in.readInt();
-						this.in.readFully(this.buffer, 0, bufLen);
-						values[i] = new String(this.buffer, 0, bufLen, "UTF-8");
-					} else { // reference types
-						throw new ConnectorDataTransmissionException("References are not yet supported.");
-					}
+			IMonitoringRecord record = this.reader.read();
+			while (record == null) {
+				if (this.reader.fill(this.channel) < 0) {
+					throw new ConnectorEndOfDataException("End of stream during an read operation");
 				}
-
-				return recordProperty.getConstructor().newInstance(values);
-			} else {
-				throw new ConnectorDataTransmissionException("Record type " + id + " is not registered.");
+				record = this.reader.read();
 			}
+			return record;
 		} catch (final java.net.SocketException e) {
 			throw new ConnectorEndOfDataException("End of stream", e);
-		} catch (final java.io.EOFException e) {
-			throw new ConnectorEndOfDataException("End of stream during an read operation", e);
 		} catch (final IOException e) {
 			throw new ConnectorDataTransmissionException("Read error", e);
-		} catch (final InstantiationException e) {
-			throw new ConnectorDataTransmissionException("Instantiation error", e);
-		} catch (final IllegalAccessException e) {
-			throw new ConnectorDataTransmissionException("Access to fields are restricted", e);
-		} catch (final IllegalArgumentException e) {
-			throw new ConnectorDataTransmissionException(e.getMessage(), e);
-		} catch (final InvocationTargetException e) {
-			throw new ConnectorDataTransmissionException(e.getMessage(), e);
 		}
 	}
 }
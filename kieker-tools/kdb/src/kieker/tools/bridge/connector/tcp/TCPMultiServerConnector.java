@@ -48,9 +48,7 @@ public class TCPMultiServerConnector extends AbstractConnector {
 	/** Constant holds name for the port property . */
 	public static final String PORT = TCPMultiServerConnector.class.getCanonicalName() + ".port";
 
-	private static final int QUEUE_CAPACITY = 10;
-
-	private static final int NUMBER_OF_THREADS = 10;
+	private static final int QUEUE_CAPACITY = 4096;
 
 	private static final long SHUTDOWN_TIMEOUT = 5L;
 
@@ -58,9 +56,11 @@ public class TCPMultiServerConnector extends AbstractConnector {
 
 	private volatile BlockingQueue<IMonitoringRecord> recordQueue;
 
-	/** executor pool for connection handling threads. Is only accessed in this thread. */
+	/** executor for the port listener, which handles all connections. Is only accessed in this thread. */
 	private ExecutorService executor;
 
+	private TCPMultiServerPortListenerRunnable portListener;
+
 	/**
 	 * Create a TCPMultiServerConnector.
 	 *
@@ -76,7 +76,7 @@ public class TCPMultiServerConnector extends AbstractConnector {
 	}
 
 	/**
-	 * Initializes internal queues and an executor pool for communication.
+	 * Initializes internal queues and the port listener thread, which handles all connections with a selector.
 	 *
 	 * @see kieker.tools.bridge.connector.AbstractConnector#initialize()
 	 *
@@ -87,12 +87,12 @@ public class TCPMultiServerConnector extends AbstractConnector {
 	public void initialize() throws ConnectorDataTransmissionException {
 		// do not move, in future these properties will be handled by the kieker configuration
 		this.recordQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
-		this.executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+		this.executor = Executors.newSingleThreadExecutor();
 
-		// The port listener must run in its own thread to accept new connections
+		// The port listener must run in its own thread to accept new connections and to read from them
 		try {
-			this.executor.execute(new TCPMultiServerPortListenerRunnable(this.port, this.recordQueue,
-					this.lookupEntityMap, this.executor));
+			this.portListener = new TCPMultiServerPortListenerRunnable(this.port, this.recordQueue, this.lookupEntityMap);
+			this.executor.execute(this.portListener);
 		} catch (final IOException e) {
 			throw new ConnectorDataTransmissionException("Failed to open server socket", e);
 		}
@@ -107,13 +107,8 @@ public class TCPMultiServerConnector extends AbstractConnector {
 	 */
 	@Override
 	public void close() throws ConnectorDataTransmissionException {
-		for (final Runnable runnable : this.executor.shutdownNow()) {
-			if (runnable instanceof TCPMultiServerPortListenerRunnable) {
-				((TCPMultiServerPortListenerRunnable) runnable).setActive(false);
-			} else if (runnable instanceof TCPMultiServerConnectionRunnable) {
-				((TCPMultiServerConnectionRunnable) runnable).setActive(false);
-			}
-		}
+		this.portListener.setActive(false);
+		this.executor.shutdownNow();
 		try {
 			this.executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
 		} catch (final InterruptedException e) {
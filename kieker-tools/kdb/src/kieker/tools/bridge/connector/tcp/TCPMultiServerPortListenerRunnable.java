@@ -13,20 +13,32 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  ***************************************************************************/
+
 package kieker.tools.bridge.connector.tcp;
 
 import java.io.IOException;
-import java.net.ServerSocket;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import kieker.common.record.IMonitoringRecord;
 import kieker.tools.bridge.LookupEntity;
+import kieker.tools.bridge.connector.BinaryRecordReader;
+import kieker.tools.bridge.connector.ConnectorDataTransmissionException;
 
 /**
- * Runnable class implementing a thread listening for an incoming connection for monitoring data.
- * It then starts a connection thread handling the actual data transmissions.
+ * Runnable class implementing a thread listening for incoming connections and monitoring data. All connections are
+ * handled by this thread with a non-blocking selector; each connection has its own {@link BinaryRecordReader}, which
+ * keeps incomplete records until the rest arrives.
  *
  * @author Reiner Jung
  *
@@ -37,12 +49,17 @@ import kieker.tools.bridge.LookupEntity;
 @Deprecated
 public class TCPMultiServerPortListenerRunnable implements Runnable {
 
-	private final ServerSocket serverSocket;
+	private static final Logger LOGGER = LoggerFactory.getLogger(TCPMultiServerPortListenerRunnable.class);
+
+	// initial size of the receive buffer of each connection, it grows for larger records (#1052)
+	private static final int BUF_LEN = 65536;
+
+	private final Selector selector;
+	private final ServerSocketChannel serverChannel;
 	private final BlockingQueue<IMonitoringRecord> recordQueue;
 
 	private volatile boolean active = true;
 	private final ConcurrentMap<Integer, LookupEntity> lookupEntityMap;
-	private final ExecutorService executor;
 
 	/**
 	 * Create a listener for the incoming port of the multi server.
@@ -53,17 +70,18 @@ public class TCPMultiServerPortListenerRunnable implements Runnable {
 	 *            the central queue for incoming data records
 	 * @param lookupEntityMap
 	 *            lookup map for IMonitoringRecord types
-	 * @param executor
-	 *            the thread pool
 	 * @throws IOException
 	 *             when no server socket can be created
 	 */
 	public TCPMultiServerPortListenerRunnable(final int port, final BlockingQueue<IMonitoringRecord> recordQueue,
-			final ConcurrentMap<Integer, LookupEntity> lookupEntityMap, final ExecutorService executor) throws IOException {
+			final ConcurrentMap<Integer, LookupEntity> lookupEntityMap) throws IOException {
 		this.recordQueue = recordQueue;
 		this.lookupEntityMap = lookupEntityMap;
-		this.serverSocket = new ServerSocket(port);
-		this.executor = executor;
+		this.selector = Selector.open();
+		this.serverChannel = ServerSocketChannel.open();
+		this.serverChannel.bind(new InetSocketAddress(port));
+		this.serverChannel.configureBlocking(false);
+		this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
 	}
 
 	/**
@@ -73,19 +91,101 @@ public class TCPMultiServerPortListenerRunnable implements Runnable {
 	public void run() {
 		try {
 			while (this.active) {
-				// await client connections and start a connection handler
-				this.executor.execute(new TCPMultiServerConnectionRunnable(this.serverSocket.accept(),
-						this.lookupEntityMap,
-						this.recordQueue));
+				this.selector.select();
+				final Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					final SelectionKey key = keys.next();
+					keys.remove();
+					if (key.isValid() && key.isAcceptable()) {
+						this.accept();
+					} else if (key.isValid() && key.isReadable()) {
+						this.read(key);
+					}
+				}
 			}
-			this.serverSocket.close();
-		} catch (final IOException e) {
+		} catch (final IOException | ClosedSelectorException e) {
+			LOGGER.warn("Port listener terminated. Cause {}", e.getMessage());
+		} catch (final InterruptedException e) {
+			LOGGER.info("Port listener interrupted.");
+		} finally {
 			this.active = false;
+			this.closeChannels();
+		}
+	}
+
+	private void accept() throws IOException {
+		final SocketChannel channel = this.serverChannel.accept();
+		if (channel != null) {
+			channel.configureBlocking(false);
+			channel.register(this.selector, SelectionKey.OP_READ, new BinaryRecordReader(this.lookupEntityMap, BUF_LEN));
+		}
+	}
+
+	/**
+	 * Reads the available data of a connection and puts all complete records into the record queue. Blocks when the
+	 * queue is full, which in turn throttles all clients.
+	 */
+	private void read(final SelectionKey key) throws InterruptedException {
+		final SocketChannel channel = (SocketChannel) key.channel();
+		final BinaryRecordReader reader = (BinaryRecordReader) key.attachment();
+		try {
+			final int bytesRead = reader.fill(channel);
+			IMonitoringRecord record = reader.read();
+			while (record != null) {
+				this.recordQueue.put(record);
+				record = reader.read();
+			}
+			if (bytesRead < 0) {
+				if (reader.hasRemaining()) {
+					LOGGER.warn("Connection closed with an incomplete record.");
+				}
+				TCPMultiServerPortListenerRunnable.close(key);
+			}
+		} catch (final IOException e) {
+			LOGGER.warn("IO exception occurred. Cause {}", e.getMessage());
+			TCPMultiServerPortListenerRunnable.close(key);
+		} catch (final ConnectorDataTransmissionException e) {
+			LOGGER.warn("Connection closed due to invalid data.", e);
+			TCPMultiServerPortListenerRunnable.close(key);
 		}
 	}
 
+	private static void close(final SelectionKey key) {
+		key.cancel();
+		try {
+			key.channel().close();
+		} catch (final IOException e) {
+			LOGGER.warn("Failed to close connection. Cause {}", e.getMessage());
+		}
+	}
+
+	private void closeChannels() {
+		try {
+			for (final SelectionKey key : this.selector.keys()) {
+				TCPMultiServerPortListenerRunnable.close(key);
+			}
+			this.selector.close();
+		} catch (final ClosedSelectorException e) { // NOPMD (already closed)
+			// nothing left to close
+		} catch (final IOException e) {
+			LOGGER.warn("Failed to close the selector. Cause {}", e.getMessage());
+		}
+		try {
+			this.serverChannel.close();
+		} catch (final IOException e) {
+			LOGGER.warn("Failed to close the server socket. Cause {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Stops the port listener. All connections are closed.
+	 *
+	 * @param active
+	 *            <code>false</code> to stop the listener
+	 */
 	public void setActive(final boolean active) {
 		this.active = active;
+		this.selector.wakeup();
 	}
 
 }
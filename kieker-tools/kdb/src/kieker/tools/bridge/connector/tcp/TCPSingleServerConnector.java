@@ -16,16 +16,17 @@
 
 package kieker.tools.bridge.connector.tcp;
 
-import java.io.DataInputStream;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.net.ServerSocket;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.ConcurrentMap;
 
 import kieker.common.configuration.Configuration;
 import kieker.common.record.IMonitoringRecord;
 import kieker.tools.bridge.LookupEntity;
 import kieker.tools.bridge.connector.AbstractConnector;
+import kieker.tools.bridge.connector.BinaryRecordReader;
 import kieker.tools.bridge.connector.ConnectorDataTransmissionException;
 import kieker.tools.bridge.connector.ConnectorEndOfDataException;
 import kieker.tools.bridge.connector.ConnectorProperty;
@@ -49,22 +50,22 @@ public class TCPSingleServerConnector extends AbstractConnector {
 	/** Constant holding the name of the port configuration property. */
 	public static final String PORT = TCPSingleServerConnector.class.getCanonicalName() + ".port";
 
-	// string buffer size (#1052)
+	// initial size of the receive buffer, it grows for larger records (#1052)
 	private static final int BUF_LEN = 65536;
 
 	private final int port;
 
 	/**
-	 * Internal server socket variable.
+	 * Internal server socket channel.
 	 */
-	private ServerSocket serverSocket;
+	private ServerSocketChannel serverChannel;
 
 	/**
-	 * Internal data input stream.
+	 * Channel of the connection.
 	 */
-	private DataInputStream in;
+	private SocketChannel channel;
 
-	private final byte[] buffer = new byte[BUF_LEN];
+	private final BinaryRecordReader reader;
 
 	/**
 	 * Create a TCPSingleServerConnector.
@@ -78,6 +79,7 @@ public class TCPSingleServerConnector extends AbstractConnector {
 	public TCPSingleServerConnector(final Configuration configuration, final ConcurrentMap<Integer, LookupEntity> lookupEntityMap) {
 		super(configuration, lookupEntityMap);
 		this.port = this.configuration.getIntProperty(TCPSingleServerConnector.PORT);
+		this.reader = new BinaryRecordReader(lookupEntityMap, BUF_LEN);
 	}
 
 	/**
@@ -89,8 +91,9 @@ public class TCPSingleServerConnector extends AbstractConnector {
 	@Override
 	public void initialize() throws ConnectorDataTransmissionException {
 		try {
-			this.serverSocket = new ServerSocket(this.port);
-			this.in = new DataInputStream(this.serverSocket.accept().getInputStream());
+			this.serverChannel = ServerSocketChannel.open();
+			this.serverChannel.bind(new InetSocketAddress(this.port));
+			this.channel = this.serverChannel.accept();
 		} catch (final IOException e) {
 			throw new ConnectorDataTransmissionException(e.getMessage(), e);
 		}
@@ -106,8 +109,8 @@ public class TCPSingleServerConnector extends AbstractConnector {
 	@Override
 	public void close() throws ConnectorDataTransmissionException {
 		try {
-			this.in.close();
-			this.serverSocket.close();
+			this.channel.close();
+			this.serverChannel.close();
 		} catch (final IOException e) {
 			throw new ConnectorDataTransmissionException(e.getMessage(), e);
 		}
@@ -126,70 +129,19 @@ public class TCPSingleServerConnector extends AbstractConnector {
 	 */
 	@Override
 	public IMonitoringRecord deserializeNextRecord() throws ConnectorDataTransmissionException, ConnectorEndOfDataException {
-		// read structure ID
 		try {
-			final Integer id = this.in.readInt();
-			final LookupEntity recordProperty = this.lookupEntityMap.get(id);
-			if (recordProperty != null) {
-				final Object[] values = new Object[recordProperty.getParameterTypes().length];
-
-				for (int i = 0; i < recordProperty.getParameterTypes().length; i++) {
-					final Class<?> parameterType = recordProperty.getParameterTypes()[i];
-					if (boolean.class.equals(parameterType)) {
-						values[i] = this.in.readBoolean();
-					} else if (Boolean.class.equals(parameterType)) {
-						values[i] = Boolean.valueOf(this.in.readBoolean());
-					} else if (byte.class.equals(parameterType)) {
-						values[i] = this.in.readByte();
-					} else if (Byte.class.equals(parameterType)) {
-						values[i] = Byte.valueOf(this.in.readByte());
-					} else if (short.class.equals(parameterType)) { // NOPMD
-						values[i] = this.in.readShort();
-					} else if (Short.class.equals(parameterType)) {
-						values[i] = Short.valueOf(this.in.readShort());
-					} else if (int.class.equals(parameterType)) {
-						values[i] = this.in.readInt();
-					} else if (Integer.class.equals(parameterType)) {
-						values[i] = Integer.valueOf(this.in.readInt());
-					} else if (long.class.equals(parameterType)) {
-						values[i] = this.in.readLong();
-					} else if (Long.class.equals(parameterType)) {
-						values[i] = Long.valueOf(this.in.readLong());
-					} else if (float.class.equals(parameterType)) {
-						values[i] = this.in.readFloat();
-					} else if (Float.class.equals(parameterType)) {
-						values[i] = Float.valueOf(this.in.readFloat());
-					} else if (double.class.equals(parameterType)) {
-						values[i] = this.in.readDouble();
-					} else if (Double.class.equals(parameterType)) {
-						values[i] = Double.valueOf(this.in.readDouble());
-					} else if (String.class.equals(parameterType)) {
-						final int bufLen = this.in.readInt();
-						this.in.readFully(this.buffer, 0, bufLen);
-						values[i] = new String(this.buffer, 0, bufLen, "UTF-8");
-					} else { // reference types
-						throw new ConnectorDataTransmissionException("References are not yet supported.");
-					}
+			IMonitoringRecord record = this.reader.read();
+			while (record == null) {
+				if (this.reader.fill(this.channel) < 0) {
+					throw new ConnectorEndOfDataException("End of stream during an read operation");
 				}
-
-				return recordProperty.getConstructor().newInstance(values);
-			} else {
-				throw new ConnectorDataTransmissionException("Record type " + id + " is not registered.");
+				record = this.reader.read();
 			}
+			return record;
 		} catch (final java.net.SocketException e) {
 			throw new ConnectorEndOfDataException("End of stream", e);
-		} catch (final java.io.EOFException e) {
-			throw new ConnectorEndOfDataException("End of stream during an read operation", e);
 		} catch (final IOException e) {
 			throw new ConnectorDataTransmissionException("Read error", e);
-		} catch (final InstantiationException e) {
-			throw new ConnectorDataTransmissionException("Instantiation error", e);
-		} catch (final IllegalAccessException e) {
-			throw new ConnectorDataTransmissionException("Access to fields are restricted", e);
-		} catch (final IllegalArgumentException e) {
-			throw new ConnectorDataTransmissionException(e.getMessage(), e);
-		} catch (final InvocationTargetException e) {
-			throw new ConnectorDataTransmissionException(e.getMessage(), e);
 		}
 	}
 }
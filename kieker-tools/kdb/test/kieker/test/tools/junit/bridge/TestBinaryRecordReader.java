@@ -0,0 +1,142 @@
+/***************************************************************************
+ * Copyright 2020 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.tools.junit.bridge;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.tools.bridge.connector.BinaryRecordReader;
+import kieker.tools.bridge.connector.ConnectorDataTransmissionException;
+
+/**
+ * Test the binary record reader of the bridge with records which arrive in small pieces.
+ *
+ * @author Kieker Project
+ *
+ * @since 1.15
+ */
+@Deprecated
+public class TestBinaryRecordReader extends AbstractConnectorTest {
+
+	private static final String OPERATION_SIGNATURE = "public void Café.bär()";
+
+	public TestBinaryRecordReader() {
+		// empty constructor
+	}
+
+	@Test
+	public void testReadRecordsInPieces() throws IOException, ConnectorDataTransmissionException {
+		final int numberOfRecords = 100;
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream output = new DataOutputStream(bytes);
+		for (int i = 0; i < numberOfRecords; i++) {
+			TestBinaryRecordReader.writeRecord(output, i);
+		}
+
+		// a small initial buffer forces the reader to grow the buffer
+		final BinaryRecordReader reader = new BinaryRecordReader(this.createLookupEntityMap(), 16);
+		final ChunkedChannel channel = new ChunkedChannel(bytes.toByteArray(), 7);
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		while (reader.fill(channel) >= 0) {
+			IMonitoringRecord record = reader.read();
+			while (record != null) {
+				records.add(record);
+				record = reader.read();
+			}
+		}
+
+		Assert.assertFalse("No data must remain", reader.hasRemaining());
+		Assert.assertEquals("Wrong number of records", numberOfRecords, records.size());
+		for (int i = 0; i < numberOfRecords; i++) {
+			Assert.assertEquals("Wrong record", new OperationExecutionRecord(OPERATION_SIGNATURE, ConfigurationParameters.TEST_SESSION_ID,
+					ConfigurationParameters.TEST_TRACE_ID, ConfigurationParameters.TEST_TIN, ConfigurationParameters.TEST_TOUT,
+					ConfigurationParameters.TEST_HOSTNAME, i, ConfigurationParameters.TEST_ESS), records.get(i));
+		}
+	}
+
+	@Test(expected = ConnectorDataTransmissionException.class)
+	public void testUnknownRecordType() throws ConnectorDataTransmissionException {
+		final ByteBuffer data = ByteBuffer.allocate(8);
+		data.putInt(ConfigurationParameters.TEST_RECORD_ID + 1).putInt(0).flip();
+		new BinaryRecordReader(this.createLookupEntityMap(), data).read();
+	}
+
+	private static void writeRecord(final DataOutputStream output, final int eoi) throws IOException {
+		output.writeInt(ConfigurationParameters.TEST_RECORD_ID);
+		TestBinaryRecordReader.writeString(output, OPERATION_SIGNATURE);
+		TestBinaryRecordReader.writeString(output, ConfigurationParameters.TEST_SESSION_ID);
+		output.writeLong(ConfigurationParameters.TEST_TRACE_ID);
+		output.writeLong(ConfigurationParameters.TEST_TIN);
+		output.writeLong(ConfigurationParameters.TEST_TOUT);
+		TestBinaryRecordReader.writeString(output, ConfigurationParameters.TEST_HOSTNAME);
+		output.writeInt(eoi);
+		output.writeInt(ConfigurationParameters.TEST_ESS);
+	}
+
+	private static void writeString(final DataOutputStream output, final String value) throws IOException {
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	/**
+	 * Channel which returns at most a given number of bytes per read.
+	 */
+	private static class ChunkedChannel implements ReadableByteChannel {
+
+		private final ByteBuffer data;
+		private final int chunkSize;
+
+		public ChunkedChannel(final byte[] data, final int chunkSize) {
+			this.data = ByteBuffer.wrap(data);
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		public int read(final ByteBuffer target) {
+			if (!this.data.hasRemaining()) {
+				return -1;
+			}
+			final int length = Math.min(Math.min(this.chunkSize, this.data.remaining()), target.remaining());
+			for (int i = 0; i < length; i++) {
+				target.put(this.data.get());
+			}
+			return length;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+			// nothing to close
+		}
+	}
+}
@@ -37,6 +37,8 @@ import teetime.framework.OutputPort;
  * <dd>port where the service is listening on</dd>
  * <dt>capacity</dt>
  * <dd>capacity of the receiving buffer</dd>
+ * <dt>readerThreads</dt>
+ * <dd>number of threads reading from the connections</dd>
  * <dt>recordRewriter</dt>
  * <dd>the record rewriter used to rewrite trace ids</dd>
  * </dl>
@@ -54,6 +56,8 @@ public class MultipleConnectionTcpSourceCompositeStage extends CompositeStage im
 	private static final String CAPACITY = MultipleConnectionTcpSourceCompositeStage.PREFIX + ".capacity";
 	private static final int DEFAULT_CAPACITY = 1024 * 1024;
 
+	private static final String READER_THREADS = MultipleConnectionTcpSourceCompositeStage.PREFIX + ".readerThreads";
+
 	private static final String REWRITER = MultipleConnectionTcpSourceCompositeStage.PREFIX + ".recordRewriter";
 
 	private final MultipleConnectionTcpSourceStage reader;
@@ -71,12 +75,14 @@ public class MultipleConnectionTcpSourceCompositeStage extends CompositeStage im
 				MultipleConnectionTcpSourceCompositeStage.DEFAULT_SOURCE_PORT);
 		final int capacity = configuration.getIntProperty(MultipleConnectionTcpSourceCompositeStage.CAPACITY,
 				MultipleConnectionTcpSourceCompositeStage.DEFAULT_CAPACITY);
+		final int readerThreads = configuration.getIntProperty(MultipleConnectionTcpSourceCompositeStage.READER_THREADS,
+				MultipleConnectionTcpSourceStage.DEFAULT_NUMBER_OF_READERS);
 		final String rewriterClassName = configuration.getStringProperty(MultipleConnectionTcpSourceCompositeStage.REWRITER,
 				NoneTraceMetadataRewriter.class.getName());
 		final Class<?>[] classes = null;
 		final ITraceMetadataRewriter rewriter = InstantiationFactory.getInstance(configuration).create(ITraceMetadataRewriter.class,
 				rewriterClassName, classes);
-		this.reader = new MultipleConnectionTcpSourceStage(inputPort, capacity, rewriter);
+		this.reader = new MultipleConnectionTcpSourceStage(inputPort, capacity, rewriter, readerThreads);
 	}
 
 	@Override